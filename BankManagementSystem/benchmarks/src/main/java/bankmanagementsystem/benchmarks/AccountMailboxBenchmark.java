@@ -0,0 +1,81 @@
+package bankmanagementsystem.benchmarks;
+
+import bankmanagementsystem.model.Account;
+import bankmanagementsystem.model.AccountMailboxes;
+import bankmanagementsystem.model.AuditLogger;
+import bankmanagementsystem.model.Customer;
+import bankmanagementsystem.model.OperationsMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Locking versus single-writer mailboxes for concurrent deposits. Eight threads deposit into
+ * Zipf-distributed accounts (a few hot accounts take most of the traffic), either through
+ * {@link Account#deposit(double)}, which takes the account's monitor, or by sending a message to the
+ * account's lane, which takes none. Both arms then record the posting and queue its audit record, as a
+ * lane does for its messages. Database writes are switched off, so only the
+ * execution models are compared.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dbank.repository=memory")
+public class AccountMailboxBenchmark {
+    @Param({"16", "10000"})
+    public int accounts;
+
+    private Account[] byPopularity;
+    private ZipfianGenerator popularity;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Account> all = new ArrayList<>();
+        for (Customer customer : BenchmarkData.customers(accounts, 1)) {
+            all.addAll(customer.getAccounts());
+        }
+        byPopularity = all.toArray(new Account[0]);
+        popularity = new ZipfianGenerator(byPopularity.length, 0.99);
+        AccountMailboxes.setPersistence(false);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean lockedDeposit() {
+        long start = System.nanoTime();
+        Account account = byPopularity[(int) popularity.next()];
+        account.deposit(1.0);
+        OperationsMetrics.recordPosting(account, 1.0, System.nanoTime() - start);
+        AuditLogger.log("transaction", "benchmark", account.getAccountNumber(), "deposit", "amount=1.0", true);
+        return true;
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean mailboxDeposit() {
+        Account account = byPopularity[(int) popularity.next()];
+        return AccountMailboxes.deposit(account, 1.0, "benchmark").join();
+    }
+
+    @TearDown(Level.Iteration)
+    public void drain() {
+        AuditLogger.flush();
+    }
+}
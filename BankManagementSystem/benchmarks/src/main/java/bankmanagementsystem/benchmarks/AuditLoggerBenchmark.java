@@ -0,0 +1,48 @@
+package bankmanagementsystem.benchmarks;
+
+import bankmanagementsystem.model.AuditLogger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caller-side cost of {@link AuditLogger#log}, alone and with eight threads logging at once.
+ * Entries are written to data/audit.log under the working directory; the writer is allowed to
+ * catch up after every iteration so the backlog of one iteration does not slow the next.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuditLoggerBenchmark {
+
+    @Benchmark
+    @Threads(1)
+    public void logSingleThreaded() {
+        AuditLogger.log("transaction", "benchmark", "ACC0000000100", "deposit", "amount=100.0", true);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void logContended() {
+        AuditLogger.log("transaction", "benchmark", "ACC0000000100", "deposit", "amount=100.0", true);
+    }
+
+    @TearDown(Level.Iteration)
+    public void drain() {
+        AuditLogger.flush();
+    }
+}
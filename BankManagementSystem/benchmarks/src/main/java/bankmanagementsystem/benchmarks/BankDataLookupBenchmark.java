@@ -0,0 +1,76 @@
+package bankmanagementsystem.benchmarks;
+
+import bankmanagementsystem.model.BankData;
+import bankmanagementsystem.model.Customer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Customer and login lookups on a fully loaded book. The book is put into the in-memory repositories
+ * before BankData is first touched, so BankData loads it exactly as it would from the database.
+ * The 10^7 book needs a large heap (add e.g. -jvmArgsAppend -Xmx24g, or pick sizes with -p customers=...).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dbank.repository=memory")
+public class BankDataLookupBenchmark {
+    private static final int SAMPLE = 4096;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int customers;
+
+    private String[] customerIds;
+    private String[] usernames;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Customer> book = BenchmarkData.customers(customers, 1);
+        BenchmarkData.store(book, BenchmarkData.credentials(book));
+        BankData.loadDataFromDatabase();
+
+        int[] sample = BenchmarkData.sample(customers, SAMPLE);
+        customerIds = new String[SAMPLE];
+        usernames = new String[SAMPLE];
+        for (int i = 0; i < SAMPLE; i++) {
+            customerIds[i] = BenchmarkData.customerId(sample[i]);
+            usernames[i] = BenchmarkData.username(sample[i]);
+        }
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (SAMPLE - 1);
+        return next;
+    }
+
+    @Benchmark
+    public Customer findCustomerById() {
+        return BankData.findCustomerById(customerIds[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean isCustomer() {
+        return BankData.isCustomer(usernames[nextIndex()], BenchmarkData.PASSWORD);
+    }
+
+    @Benchmark
+    public Customer getCustomerByUsername() {
+        return BankData.getCustomerByUsername(usernames[nextIndex()]);
+    }
+}
@@ -0,0 +1,140 @@
+package bankmanagementsystem.benchmarks;
+
+import bankmanagementsystem.model.Account;
+import bankmanagementsystem.model.ChequeAccount;
+import bankmanagementsystem.model.CompanyCustomer;
+import bankmanagementsystem.model.Customer;
+import bankmanagementsystem.model.CustomerCredentials;
+import bankmanagementsystem.model.InvestmentAccount;
+import bankmanagementsystem.model.PersonalCustomer;
+import bankmanagementsystem.model.Repositories;
+import bankmanagementsystem.model.SavingsAccount;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic books of customers for the benchmarks: the same size always produces the same
+ * customers, accounts and credentials, so results are comparable between runs.
+ */
+final class BenchmarkData {
+    static final String PASSWORD = "benchmark";
+    private static final String[] FIRST_NAMES = {"Kagiso", "Naledi", "Thabo", "Lesedi", "Mpho", "Boitumelo", "Tumelo", "Onalenna"};
+    private static final String[] LAST_NAMES = {"Molefe", "Kgosi", "Sebego", "Modise", "Tau", "Phiri", "Seretse", "Masire"};
+    private static final String[] BRANCHES = {"Gaborone", "Francistown", "Maun", "Kasane", "Palapye"};
+
+    private BenchmarkData() {
+    }
+
+    static String customerId(int index) {
+        return String.format("C%08d", index);
+    }
+
+    static String username(int index) {
+        return "user" + index;
+    }
+
+    /**
+     * @param count Number of customers
+     * @param accountsPerCustomer Accounts opened for each customer (savings, cheque and investment in turn)
+     */
+    static List<Customer> customers(int count, int accountsPerCustomer) {
+        Random random = new Random(42);
+        List<Customer> customers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String address = (1 + random.nextInt(999)) + " Main Mall";
+            Customer customer = i % 10 == 9
+                    ? new CompanyCustomer(customerId(i), first, last, address, last + " Holdings", address)
+                    : new PersonalCustomer(customerId(i), first, last, address, String.format("%09d", i));
+            for (int a = 0; a < accountsPerCustomer; a++) {
+                String number = String.format("ACC%08d%02d", i, a);
+                String branch = BRANCHES[random.nextInt(BRANCHES.length)];
+                double balance = 100 + random.nextInt(100_000);
+                Account account;
+                switch (a % 3) {
+                    case 0:
+                        account = new SavingsAccount(number, customer, branch, balance);
+                        break;
+                    case 1:
+                        account = new ChequeAccount(number, customer, branch, balance, last + " Holdings", address);
+                        break;
+                    default:
+                        account = new InvestmentAccount(number, customer, branch, balance);
+                        break;
+                }
+                customer.addAccount(account);
+            }
+            customers.add(customer);
+        }
+        return customers;
+    }
+
+    /**
+     * Book with the product mix of a retail branch: one to three accounts per customer, about 55%
+     * savings, 30% cheque and 15% investment accounts, balances skewed towards small amounts
+     */
+    static List<Customer> mixedBook(int count) {
+        Random random = new Random(2024);
+        List<Customer> customers = customers(count, 0);
+        for (int i = 0; i < count; i++) {
+            Customer customer = customers.get(i);
+            int roll = random.nextInt(100);
+            int accounts = roll < 60 ? 1 : roll < 88 ? 2 : 3;
+            for (int a = 0; a < accounts; a++) {
+                String number = String.format("ACC%08d%02d", i, a);
+                String branch = BRANCHES[random.nextInt(BRANCHES.length)];
+                // Log-uniform between 50 and 500 000
+                double balance = Math.round(50 * Math.pow(10_000, random.nextDouble()));
+                int product = random.nextInt(100);
+                Account account;
+                if (product < 55) {
+                    account = new SavingsAccount(number, customer, branch, balance);
+                } else if (product < 85) {
+                    account = new ChequeAccount(number, customer, branch, balance,
+                            customer.getLastName() + " Holdings", customer.getAddress());
+                } else {
+                    account = new InvestmentAccount(number, customer, branch, balance);
+                }
+                customer.addAccount(account);
+            }
+        }
+        return customers;
+    }
+
+    static List<CustomerCredentials> credentials(List<Customer> customers) {
+        List<CustomerCredentials> credentials = new ArrayList<>(customers.size());
+        for (int i = 0; i < customers.size(); i++) {
+            credentials.add(new CustomerCredentials(customers.get(i).getCustomerId(), username(i), PASSWORD, username(i) + "@example.com"));
+        }
+        return credentials;
+    }
+
+    /**
+     * Put a book into the configured repositories, so that BankData finds it when it loads
+     */
+    static void store(List<Customer> customers, List<CustomerCredentials> credentials) {
+        List<Account> accounts = new ArrayList<>();
+        for (Customer customer : customers) {
+            accounts.addAll(customer.getAccounts());
+        }
+        Repositories.customers().saveAll(customers);
+        Repositories.accounts().saveAll(accounts);
+        Repositories.credentials().saveAll(credentials);
+    }
+
+    /**
+     * Random sample of customer indexes, so lookups do not walk the book in insertion order
+     * @param size Sample size (a power of two, so callers can cycle through it with a mask)
+     */
+    static int[] sample(int customers, int size) {
+        Random random = new Random(7);
+        int[] sample = new int[size];
+        for (int i = 0; i < size; i++) {
+            sample[i] = random.nextInt(customers);
+        }
+        return sample;
+    }
+}
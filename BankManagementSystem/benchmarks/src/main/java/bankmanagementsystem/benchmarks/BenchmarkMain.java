@@ -0,0 +1,43 @@
+package bankmanagementsystem.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Entry point of benchmarks.jar. Takes the usual JMH command line, but unless -rf/-rff are given the
+ * results are written as JSON to jmh-results/&lt;timestamp&gt;.json, so every run leaves a file that
+ * can be compared with earlier runs (e.g. in the JMH visualizer).
+ */
+public class BenchmarkMain {
+    private static final String RESULTS_DIR = "jmh-results";
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        if (cmd.shouldHelp()) {
+            cmd.showHelp();
+            return;
+        }
+        if (cmd.shouldList()) {
+            new Runner(cmd).list();
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cmd);
+        if (!cmd.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cmd.getResult().hasValue()) {
+            new File(RESULTS_DIR).mkdirs();
+            String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+            options.result(RESULTS_DIR + File.separator + stamp + ".json");
+        }
+        new Runner(options.build()).run();
+    }
+}
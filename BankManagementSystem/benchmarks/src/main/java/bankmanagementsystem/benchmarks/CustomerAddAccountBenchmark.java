@@ -0,0 +1,50 @@
+package bankmanagementsystem.benchmarks;
+
+import bankmanagementsystem.model.Account;
+import bankmanagementsystem.model.Customer;
+import bankmanagementsystem.model.PersonalCustomer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of opening N accounts on a new customer ({@link Customer#addAccount} checks every existing
+ * account for a duplicate number, so the total grows with N squared).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerAddAccountBenchmark {
+    @Param({"1", "10", "100", "1000"})
+    public int accounts;
+
+    private List<Account> prepared;
+
+    @Setup
+    public void setUp() {
+        prepared = BenchmarkData.customers(1, accounts).get(0).getAccounts();
+    }
+
+    @Benchmark
+    public Customer addAccounts() {
+        Customer customer = new PersonalCustomer("C00000000", "Kagiso", "Molefe", "1 Main Mall", "000000000");
+        for (Account account : prepared) {
+            customer.addAccount(account);
+        }
+        return customer;
+    }
+}
@@ -0,0 +1,56 @@
+package bankmanagementsystem.benchmarks;
+
+import bankmanagementsystem.model.AuditLogger;
+import bankmanagementsystem.model.BankData;
+import bankmanagementsystem.model.Customer;
+import bankmanagementsystem.model.PersistenceExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One interest run over a loaded book with three accounts per customer, measured until every
+ * credited balance is written. The balance writes and audit entries still queued when a run
+ * completes are drained between iterations, so they do not pile up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dbank.repository=memory")
+public class InterestBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int customers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Customer> book = BenchmarkData.customers(customers, 3);
+        BenchmarkData.store(book, BenchmarkData.credentials(book));
+        BankData.loadDataFromDatabase();
+    }
+
+    @Benchmark
+    public boolean applyAutomaticInterest() {
+        return BankData.applyAutomaticInterest().join();
+    }
+
+    @TearDown(Level.Iteration)
+    public void drain() {
+        PersistenceExecutor.flush(60_000);
+        AuditLogger.flush();
+    }
+}
@@ -0,0 +1,64 @@
+package bankmanagementsystem.benchmarks;
+
+import bankmanagementsystem.model.Customer;
+import bankmanagementsystem.model.CustomerCredentials;
+import bankmanagementsystem.model.DatabaseStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full saves and loads through {@link DatabaseStorage} against an in-memory H2 database. The book is
+ * written once during setup, so every measured save updates existing rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Dbank.repository=h2", "-Dbank.h2.url=" + PersistenceBenchmark.H2_URL})
+public class PersistenceBenchmark {
+    static final String H2_URL = "jdbc:h2:mem:benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    @Param({"1000", "10000", "100000"})
+    public int customers;
+
+    private List<Customer> book;
+    private List<CustomerCredentials> credentials;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        book = BenchmarkData.customers(customers, 2);
+        credentials = BenchmarkData.credentials(book);
+        if (!DatabaseStorage.saveAllData(book, credentials)) {
+            throw new IllegalStateException("Could not write the benchmark book to H2");
+        }
+    }
+
+    @Benchmark
+    public boolean saveAllData() {
+        return DatabaseStorage.saveAllData(book, credentials);
+    }
+
+    @Benchmark
+    public List<Customer> loadAllData() {
+        return DatabaseStorage.loadAllData();
+    }
+
+    @Benchmark
+    public List<CustomerCredentials> loadCredentials() {
+        return DatabaseStorage.loadCredentials();
+    }
+}
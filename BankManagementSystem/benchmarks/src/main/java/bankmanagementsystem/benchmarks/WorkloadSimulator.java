@@ -0,0 +1,327 @@
+package bankmanagementsystem.benchmarks;
+
+import bankmanagementsystem.model.Account;
+import bankmanagementsystem.model.AccountMailboxes;
+import bankmanagementsystem.model.AuditLogger;
+import bankmanagementsystem.model.BankData;
+import bankmanagementsystem.model.ChequeAccount;
+import bankmanagementsystem.model.Customer;
+import bankmanagementsystem.model.CustomerCredentials;
+import bankmanagementsystem.model.IdAllocator;
+import bankmanagementsystem.model.InvestmentAccount;
+import bankmanagementsystem.model.PersistenceExecutor;
+import bankmanagementsystem.model.Repositories;
+import bankmanagementsystem.model.SavingsAccount;
+import bankmanagementsystem.model.Withdraw;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Headless end-to-end load test: seeds a book, then lets a number of simulated tellers run a mix of
+ * deposits, withdrawals, account openings and logins through the same model calls the screens use,
+ * and reports throughput and latency per operation from HdrHistogram recorders.
+ * Latency is measured until the operation is committed (the future a screen would wait on). Account
+ * popularity is Zipfian, so a few accounts take most of the postings, as they do in a real branch.
+ * With a target rate, each teller schedules operations on a fixed timetable and latency is measured
+ * from the scheduled time, so a stall is charged to every operation it delayed.
+ *
+ * Configuration (system properties):
+ * bank.repository      memory (default) or h2; see Repositories
+ * bank.sim.customers   customers to seed when the store is empty (default 10000)
+ * bank.sim.tellers     concurrent tellers (default 8)
+ * bank.sim.warmup      warm-up seconds, not counted (default 5)
+ * bank.sim.seconds     measured seconds (default 30)
+ * bank.sim.mix         operation weights (default deposit=45,withdraw=35,open=5,login=15)
+ * bank.sim.skew        Zipfian skew of account popularity, 0..1 exclusive (default 0.99)
+ * bank.sim.rate        operations per second per teller, 0 for as fast as possible (default 0)
+ * bank.sim.hlog        file to write per-second HdrHistogram interval logs to (optional)
+ * bank.actors.enabled  post deposits and withdrawals through AccountMailboxes instead of BankData
+ *
+ * Run: java -cp target/benchmarks.jar -Dbank.sim.tellers=16 bankmanagementsystem.benchmarks.WorkloadSimulator
+ */
+public class WorkloadSimulator {
+    enum Operation { DEPOSIT, WITHDRAW, OPEN, LOGIN }
+
+    private static final String ACTOR = "simulator";
+
+    private final int tellers;
+    private final int warmupSeconds;
+    private final int seconds;
+    private final double ratePerTeller;
+    private final int[] cumulativeWeights = new int[Operation.values().length];
+    private final Recorder[] recorders = new Recorder[Operation.values().length];
+    private final Histogram[] totals = new Histogram[Operation.values().length];
+    private final LongAdder[] rejected = new LongAdder[Operation.values().length];
+    private final String logFile;
+
+    private List<Account> accountsByPopularity;
+    private ZipfianGenerator popularity;
+    // Withdrawals only go to account types that allow them, with their own popularity ranking
+    private List<Account> withdrawableByPopularity;
+    private ZipfianGenerator withdrawPopularity;
+    private List<Customer> customers;
+    private List<CustomerCredentials> credentials;
+    private volatile boolean measuring;
+    private volatile boolean stopped;
+
+    WorkloadSimulator() {
+        this.tellers = Integer.getInteger("bank.sim.tellers", 8);
+        this.warmupSeconds = Integer.getInteger("bank.sim.warmup", 5);
+        this.seconds = Integer.getInteger("bank.sim.seconds", 30);
+        this.ratePerTeller = Double.parseDouble(System.getProperty("bank.sim.rate", "0"));
+        this.logFile = System.getProperty("bank.sim.hlog");
+        parseMix(System.getProperty("bank.sim.mix", "deposit=45,withdraw=35,open=5,login=15"));
+        for (int i = 0; i < recorders.length; i++) {
+            recorders[i] = new Recorder(3);
+            totals[i] = new Histogram(3);
+            rejected[i] = new LongAdder();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty("bank.repository") == null) {
+            System.setProperty("bank.repository", "memory");
+        }
+        WorkloadSimulator simulator = new WorkloadSimulator();
+        simulator.seed(Integer.getInteger("bank.sim.customers", 10_000), Double.parseDouble(System.getProperty("bank.sim.skew", "0.99")));
+        simulator.run();
+        System.exit(0);
+    }
+
+    private void parseMix(String mix) {
+        int[] weights = new int[Operation.values().length];
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight in bank.sim.mix, got: " + part);
+            }
+            weights[Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)).ordinal()] = Integer.parseInt(pair[1].trim());
+        }
+        int sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cumulativeWeights[i] = sum;
+        }
+        if (sum <= 0) {
+            throw new IllegalArgumentException("bank.sim.mix has no positive weights: " + mix);
+        }
+    }
+
+    private void seed(int customerCount, double skew) {
+        if (Repositories.customers().count() == 0) {
+            long start = System.nanoTime();
+            List<Customer> book = BenchmarkData.mixedBook(customerCount);
+            BenchmarkData.store(book, BenchmarkData.credentials(book));
+            System.out.printf("🌱 Seeded %d customers in %.1f s%n", customerCount, (System.nanoTime() - start) / 1e9);
+        }
+        BankData.loadDataFromDatabase();
+
+        customers = new ArrayList<>(BankData.getCustomers());
+        credentials = new ArrayList<>(BankData.getCredentials());
+        accountsByPopularity = new ArrayList<>();
+        int[] mix = new int[3];
+        for (Customer customer : customers) {
+            for (Account account : customer.getAccounts()) {
+                accountsByPopularity.add(account);
+                mix[account instanceof SavingsAccount ? 0 : account instanceof ChequeAccount ? 1 : 2]++;
+            }
+        }
+        if (customers.size() < tellers || credentials.isEmpty()) {
+            throw new IllegalStateException("Need at least one customer per teller and some credentials; found "
+                    + customers.size() + " customers and " + credentials.size() + " credentials");
+        }
+        // Shuffle so the popular ranks are spread over the book rather than the first customers
+        Collections.shuffle(accountsByPopularity, new Random(11));
+        popularity = new ZipfianGenerator(accountsByPopularity.size(), skew);
+        withdrawableByPopularity = new ArrayList<>();
+        for (Account account : accountsByPopularity) {
+            if (account instanceof Withdraw) {
+                withdrawableByPopularity.add(account);
+            }
+        }
+        withdrawPopularity = withdrawableByPopularity.isEmpty() ? null : new ZipfianGenerator(withdrawableByPopularity.size(), skew);
+        System.out.printf("📂 Book: %d customers, %d accounts (%d savings, %d cheque, %d investment), storage %s%s%n",
+                customers.size(), accountsByPopularity.size(), mix[0], mix[1], mix[2], Repositories.getBackend(),
+                AccountMailboxes.isEnabled() ? ", account mailboxes" : "");
+    }
+
+    private void run() throws InterruptedException, FileNotFoundException {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < tellers; i++) {
+            int teller = i;
+            Thread thread = new Thread(() -> runTeller(teller), "teller-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+        }
+        System.out.printf("🏦 %d tellers, %ds warm-up + %ds measured, %s%n", tellers, warmupSeconds, seconds,
+                ratePerTeller > 0 ? ratePerTeller + " ops/s per teller" : "unthrottled");
+        HistogramLogWriter log = null;
+        if (logFile != null) {
+            log = new HistogramLogWriter(logFile);
+            log.outputLogFormatVersion();
+            log.outputStartTime(System.currentTimeMillis());
+            log.outputLegend();
+        }
+        measuring = warmupSeconds == 0;
+        for (Thread thread : threads) {
+            thread.start();
+        }
+
+        Histogram[] interval = new Histogram[recorders.length];
+        for (int second = 1; second <= warmupSeconds + seconds; second++) {
+            Thread.sleep(1000);
+            if (second == warmupSeconds) {
+                measuring = true;
+            }
+            boolean counted = second > warmupSeconds;
+            for (int i = 0; i < recorders.length; i++) {
+                interval[i] = recorders[i].getIntervalHistogram(interval[i]);
+                if (counted) {
+                    totals[i].add(interval[i]);
+                    if (log != null && interval[i].getTotalCount() > 0) {
+                        interval[i].setTag(Operation.values()[i].name().toLowerCase(Locale.ROOT));
+                        log.outputIntervalHistogram(interval[i]);
+                    }
+                }
+            }
+            printInterval(second, counted, interval);
+        }
+        stopped = true;
+        for (Thread thread : threads) {
+            thread.join(10_000);
+        }
+        if (log != null) {
+            log.close();
+        }
+        printSummary();
+        PersistenceExecutor.flush(30_000);
+        AuditLogger.flush();
+    }
+
+    private void runTeller(int teller) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long intervalNanos = ratePerTeller > 0 ? (long) (1e9 / ratePerTeller) : 0;
+        long scheduled = System.nanoTime();
+        while (!stopped) {
+            if (intervalNanos > 0) {
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            } else {
+                scheduled = System.nanoTime();
+            }
+            Operation operation = pick(random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]));
+            boolean ok;
+            try {
+                ok = execute(operation, teller, random);
+            } catch (RuntimeException e) {
+                System.err.println("❌ Simulated " + operation + " failed: " + e);
+                ok = false;
+            }
+            recorders[operation.ordinal()].recordValue(Math.max(0, System.nanoTime() - scheduled));
+            if (!ok && measuring) {
+                rejected[operation.ordinal()].increment();
+            }
+            scheduled += intervalNanos;
+        }
+    }
+
+    private Operation pick(int roll) {
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return Operation.values()[i];
+            }
+        }
+        return Operation.LOGIN;
+    }
+
+    private boolean execute(Operation operation, int teller, ThreadLocalRandom random) {
+        switch (operation) {
+            case DEPOSIT: {
+                Account account = accountsByPopularity.get((int) popularity.next());
+                double amount = 10 + random.nextInt(2000);
+                CompletableFuture<Boolean> result = AccountMailboxes.isEnabled()
+                        ? AccountMailboxes.deposit(account, amount, ACTOR)
+                        : BankData.depositAsync(account, amount, ACTOR);
+                return result.join();
+            }
+            case WITHDRAW: {
+                if (withdrawPopularity == null) {
+                    return false;
+                }
+                Account account = withdrawableByPopularity.get((int) withdrawPopularity.next());
+                double amount = 10 + random.nextInt(500);
+                CompletableFuture<Boolean> result = AccountMailboxes.isEnabled()
+                        ? AccountMailboxes.withdraw(account, amount, ACTOR)
+                        : BankData.withdrawAsync(account, amount, ACTOR);
+                return result.join();
+            }
+            case OPEN: {
+                // Each teller serves its own customers, as the screens never edit one customer from two threads
+                int slots = (customers.size() - teller + tellers - 1) / tellers;
+                Customer customer = customers.get(teller + tellers * random.nextInt(slots));
+                String number = IdAllocator.nextAccountNumber("ACC");
+                Account account = random.nextInt(100) < 65
+                        ? new SavingsAccount(number, customer, "Gaborone", 100 + random.nextInt(5000))
+                        : new InvestmentAccount(number, customer, "Gaborone", 500 + random.nextInt(50_000));
+                return BankData.openAccountAsync(customer, account, ACTOR).join();
+            }
+            default: {
+                CustomerCredentials cred = credentials.get(random.nextInt(credentials.size()));
+                return BankData.isCustomer(cred.getUsername(), cred.getPassword());
+            }
+        }
+    }
+
+    private void printInterval(int second, boolean counted, Histogram[] interval) {
+        StringBuilder line = new StringBuilder(String.format("[%4ds]%s", second, counted ? " " : "*"));
+        long operations = 0;
+        for (int i = 0; i < interval.length; i++) {
+            operations += interval[i].getTotalCount();
+        }
+        line.append(String.format("%,9d ops/s", operations));
+        for (int i = 0; i < interval.length; i++) {
+            if (interval[i].getTotalCount() > 0) {
+                line.append(String.format(" | %s p99 %.2f ms", Operation.values()[i].name().toLowerCase(Locale.ROOT),
+                        interval[i].getValueAtPercentile(99) / 1e6));
+            }
+        }
+        System.out.println(line);
+    }
+
+    private void printSummary() {
+        System.out.println();
+        System.out.printf("📊 Workload summary (%d tellers, %d s measured; latencies in ms)%n", tellers, seconds);
+        System.out.printf("%-10s %10s %9s %10s %8s %8s %8s %8s %8s %9s%n",
+                "operation", "count", "rejected", "ops/s", "mean", "p50", "p90", "p99", "p99.9", "max");
+        long total = 0;
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = totals[operation.ordinal()];
+            long count = histogram.getTotalCount();
+            total += count;
+            if (count == 0) {
+                continue;
+            }
+            System.out.printf("%-10s %,10d %,9d %,10.0f %8.3f %8.3f %8.3f %8.3f %8.3f %9.3f%n",
+                    operation.name().toLowerCase(Locale.ROOT), count, rejected[operation.ordinal()].sum(),
+                    count / (double) seconds, histogram.getMean() / 1e6,
+                    histogram.getValueAtPercentile(50) / 1e6, histogram.getValueAtPercentile(90) / 1e6,
+                    histogram.getValueAtPercentile(99) / 1e6, histogram.getValueAtPercentile(99.9) / 1e6,
+                    histogram.getMaxValue() / 1e6);
+        }
+        System.out.printf("%-10s %,10d %9s %,10.0f%n", "total", total, "", total / (double) seconds);
+    }
+}
@@ -0,0 +1,56 @@
+package bankmanagementsystem.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Zipf-distributed ranks in [0, n): rank 0 is the most popular, and popularity falls off as
+ * 1 / (rank + 1)^theta. Uses the closed-form approximation of Gray et al. ("Quickly Generating
+ * Billion-Record Synthetic Databases"), so drawing a rank is O(1); only the constructor walks all n
+ * items. Safe to share between threads.
+ */
+final class ZipfianGenerator {
+    private final long items;
+    private final double theta;
+    private final double zetaN;
+    private final double alpha;
+    private final double eta;
+
+    /**
+     * @param items Number of items
+     * @param theta Skew, 0 &lt; theta &lt; 1 (0.99 is the usual "hot keys" setting)
+     */
+    ZipfianGenerator(long items, double theta) {
+        if (items < 1) {
+            throw new IllegalArgumentException("Zipfian generator needs at least one item");
+        }
+        if (!(theta > 0 && theta < 1)) {
+            throw new IllegalArgumentException("Zipfian skew must be between 0 and 1 (exclusive): " + theta);
+        }
+        this.items = items;
+        this.theta = theta;
+        this.zetaN = zeta(items, theta);
+        this.alpha = 1.0 / (1.0 - theta);
+        this.eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta(2, theta) / zetaN);
+    }
+
+    long next() {
+        double u = ThreadLocalRandom.current().nextDouble();
+        double uz = u * zetaN;
+        if (uz < 1.0) {
+            return 0;
+        }
+        if (uz < 1.0 + Math.pow(0.5, theta)) {
+            return Math.min(1, items - 1);
+        }
+        long rank = (long) (items * Math.pow(eta * u - eta + 1, alpha));
+        return Math.min(rank, items - 1);
+    }
+
+    private static double zeta(long n, double theta) {
+        double sum = 0;
+        for (long i = 1; i <= n; i++) {
+            sum += 1 / Math.pow(i, theta);
+        }
+        return sum;
+    }
+}
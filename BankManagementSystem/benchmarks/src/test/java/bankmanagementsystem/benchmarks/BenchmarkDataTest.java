@@ -0,0 +1,84 @@
+package bankmanagementsystem.benchmarks;
+
+import bankmanagementsystem.model.Account;
+import bankmanagementsystem.model.ChequeAccount;
+import bankmanagementsystem.model.CompanyCustomer;
+import bankmanagementsystem.model.Customer;
+import bankmanagementsystem.model.CustomerCredentials;
+import bankmanagementsystem.model.SavingsAccount;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BenchmarkDataTest {
+
+    @Test
+    void sameSizeGivesTheSameBook() {
+        List<Customer> first = BenchmarkData.customers(500, 3);
+        List<Customer> second = BenchmarkData.customers(500, 3);
+
+        for (int i = 0; i < first.size(); i++) {
+            Customer a = first.get(i);
+            Customer b = second.get(i);
+            assertEquals(a.getCustomerId(), b.getCustomerId());
+            assertEquals(a.getFirstName() + " " + a.getLastName(), b.getFirstName() + " " + b.getLastName());
+            for (int k = 0; k < 3; k++) {
+                Account x = a.getAccounts().get(k);
+                Account y = b.getAccounts().get(k);
+                assertEquals(x.getAccountNumber(), y.getAccountNumber());
+                assertEquals(x.getBranch(), y.getBranch());
+                assertEquals(x.getBalance(), y.getBalance(), 0.0);
+            }
+        }
+    }
+
+    @Test
+    void accountNumbersAreUniqueAcrossTheBook() {
+        Set<String> numbers = new HashSet<>();
+        int accounts = 0;
+        for (Customer customer : BenchmarkData.mixedBook(5_000)) {
+            for (Account account : customer.getAccounts()) {
+                accounts++;
+                assertTrue(numbers.add(account.getAccountNumber()), "duplicate " + account.getAccountNumber());
+            }
+        }
+        assertEquals(accounts, numbers.size());
+    }
+
+    @Test
+    void mixedBookHasARetailProductMix() {
+        int savings = 0;
+        int cheque = 0;
+        int total = 0;
+        for (Customer customer : BenchmarkData.mixedBook(20_000)) {
+            int held = customer.getAccounts().size();
+            assertTrue(held >= 1 && held <= 3, customer.getCustomerId() + " holds " + held);
+            for (Account account : customer.getAccounts()) {
+                total++;
+                if (account instanceof SavingsAccount) savings++;
+                else if (account instanceof ChequeAccount) cheque++;
+                assertTrue(account.getBalance() >= 50 && account.getBalance() <= 500_000);
+            }
+        }
+        assertEquals(0.55, savings / (double) total, 0.02);
+        assertEquals(0.30, cheque / (double) total, 0.02);
+    }
+
+    @Test
+    void everyTenthCustomerIsACompanyWithCredentials() {
+        List<Customer> customers = BenchmarkData.customers(100, 1);
+        List<CustomerCredentials> credentials = BenchmarkData.credentials(customers);
+
+        assertInstanceOf(CompanyCustomer.class, customers.get(9));
+        assertInstanceOf(CompanyCustomer.class, customers.get(99));
+        assertEquals(10, customers.stream().filter(c -> c instanceof CompanyCustomer).count());
+        assertEquals(customers.get(42).getCustomerId(), credentials.get(42).getCustomerId());
+        assertEquals(BenchmarkData.username(42), credentials.get(42).getUsername());
+    }
+}
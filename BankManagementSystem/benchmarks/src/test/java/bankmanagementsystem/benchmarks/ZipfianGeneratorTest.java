@@ -0,0 +1,55 @@
+package bankmanagementsystem.benchmarks;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ZipfianGeneratorTest {
+    private static final int DRAWS = 1_000_000;
+
+    @Test
+    void hotRanksTakeTheirZipfShare() {
+        int items = 1000;
+        ZipfianGenerator generator = new ZipfianGenerator(items, 0.99);
+        long[] hits = new long[items];
+        for (int i = 0; i < DRAWS; i++) {
+            long rank = generator.next();
+            assertTrue(rank >= 0 && rank < items, "rank out of range: " + rank);
+            hits[(int) rank]++;
+        }
+
+        double zeta = 0;
+        for (int i = 1; i <= items; i++) {
+            zeta += 1 / Math.pow(i, 0.99);
+        }
+        // The first two ranks are exact in the Gray et al. method
+        assertEquals(1 / zeta, hits[0] / (double) DRAWS, 0.005);
+        assertEquals(1 / Math.pow(2, 0.99) / zeta, hits[1] / (double) DRAWS, 0.005);
+        long top10 = 0;
+        for (int i = 0; i < 10; i++) {
+            top10 += hits[i];
+        }
+        long bottomHalf = 0;
+        for (int i = items / 2; i < items; i++) {
+            bottomHalf += hits[i];
+        }
+        assertTrue(top10 > bottomHalf, "top 10 ranks: " + top10 + ", bottom 500: " + bottomHalf);
+    }
+
+    @Test
+    void singleItemIsAlwaysDrawn() {
+        ZipfianGenerator generator = new ZipfianGenerator(1, 0.5);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(0, generator.next());
+        }
+    }
+
+    @Test
+    void rejectsSkewOutsideTheOpenInterval() {
+        assertThrows(IllegalArgumentException.class, () -> new ZipfianGenerator(10, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new ZipfianGenerator(10, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ZipfianGenerator(0, 0.99));
+    }
+}
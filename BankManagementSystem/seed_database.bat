@@ -0,0 +1,28 @@
+@echo off
+echo 🌱 Bank Management System - Test Data Seeder
+echo ==========================================
+
+echo.
+echo Usage: seed_database.bat [customers]   (default 1000000)
+echo Existing rows with the same IDs (C00000001 upwards) are replaced.
+echo.
+
+set CUSTOMERS=%1
+if "%CUSTOMERS%"=="" set CUSTOMERS=1000000
+
+echo 🔧 Setting JAVA_HOME...
+set JAVA_HOME=C:\Program Files\Java\jdk-23
+
+echo Compiling project...
+call mvnw.cmd clean compile dependency:copy-dependencies -q
+
+if %ERRORLEVEL% NEQ 0 (
+    echo ❌ Compilation failed!
+    pause
+    exit /b 1
+)
+
+java -Dbank.seed.customers=%CUSTOMERS% -cp "target/classes;target/dependency/*" bankmanagementsystem.model.DataSeeder
+
+echo.
+pause
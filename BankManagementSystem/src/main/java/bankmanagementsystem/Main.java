@@ -1,18 +1,30 @@
 package bankmanagementsystem;
 
+import bankmanagementsystem.controller.ViewManager;
+import bankmanagementsystem.controller.ViewManager.View;
+import bankmanagementsystem.model.MetricsReporters;
+import bankmanagementsystem.model.PersistenceExecutor;
 import javafx.application.Application;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Scene;
+import javafx.application.Platform;
 import javafx.stage.Stage;
 
 public class Main extends Application {
     @Override
     public void start(Stage stage) throws Exception {
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/LoginView.fxml"));
-        Scene scene = new Scene(loader.load());
-        stage.setTitle("Bank Management System - Login");
-        stage.setScene(scene);
+        MetricsReporters.startConfigured();
+        // Write confirmations and rollbacks touch the objects the screens show
+        PersistenceExecutor.setOwnerExecutor(Platform::runLater);
+        ViewManager.init(stage);
+        ViewManager.show(View.LOGIN);
         stage.show();
+        // Parse the screens a session visits while the user is still on the login screen
+        ViewManager.preload(View.EMPLOYEE_DASHBOARD, View.CUSTOMER_DASHBOARD, View.ACCOUNT_TRANSACTION,
+                View.CREATE_CUSTOMER, View.VIEW_CUSTOMERS, View.OPEN_ACCOUNT, View.SETUP_CREDENTIALS);
+    }
+
+    @Override
+    public void stop() {
+        MetricsReporters.stopAll();
     }
 
     public static void main(String[] args) {
@@ -1,21 +1,25 @@
 package bankmanagementsystem.controller;
 
+import bankmanagementsystem.controller.ViewManager.View;
 import bankmanagementsystem.model.*;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
-public class AccountTransactionDialogController {
+public class AccountTransactionDialogController implements ReusableView {
     @FXML private Label accountInfoLabel;
     @FXML private Label accountTypeLabel;
     @FXML private Label currentBalanceLabel;
     @FXML private TextField amountField;
     @FXML private Button depositButton;
     @FXML private Button withdrawButton;
+    @FXML private Button holdButton;
+    @FXML private ListView<Hold> holdsList;
+    @FXML private Button captureButton;
+    @FXML private Button releaseButton;
     @FXML private Label messageLabel;
     @FXML private Button backButton;
     
@@ -24,10 +28,19 @@ public class AccountTransactionDialogController {
 
     @FXML
     private void initialize() {
-        // Set up button styles
-        depositButton.setStyle("-fx-background-color: #27ae60; -fx-text-fill: white; -fx-font-weight: bold;");
-        withdrawButton.setStyle("-fx-background-color: #e74c3c; -fx-text-fill: white; -fx-font-weight: bold;");
-        backButton.setStyle("-fx-background-color: #95a5a6; -fx-text-fill: white; -fx-font-weight: bold;");
+        Tracing.run("AccountTransactionDialogController.initialize", () -> {
+            // Set up button styles
+            depositButton.setStyle("-fx-background-color: #27ae60; -fx-text-fill: white; -fx-font-weight: bold;");
+            withdrawButton.setStyle("-fx-background-color: #e74c3c; -fx-text-fill: white; -fx-font-weight: bold;");
+            holdButton.setStyle("-fx-background-color: #e67e22; -fx-text-fill: white; -fx-font-weight: bold;");
+            backButton.setStyle("-fx-background-color: #95a5a6; -fx-text-fill: white; -fx-font-weight: bold;");
+        });
+    }
+
+    @Override
+    public void resetView() {
+        amountField.clear();
+        messageLabel.setText("");
     }
 
     public void setAccount(Account account) {
@@ -43,7 +56,12 @@ public class AccountTransactionDialogController {
         if (account != null) {
             accountInfoLabel.setText("Account: " + account.getAccountNumber());
             accountTypeLabel.setText("Type: " + account.getClass().getSimpleName());
-            currentBalanceLabel.setText("Current Balance: BWP " + String.format("%.2f", account.getBalance()));
+            if (account.getHeldAmount() > 0) {
+                currentBalanceLabel.setText("Available Balance: BWP " + String.format("%.2f", account.getAvailableBalance())
+                        + " (Ledger: BWP " + String.format("%.2f", account.getLedgerBalance()) + ")");
+            } else {
+                currentBalanceLabel.setText("Current Balance: BWP " + String.format("%.2f", account.getBalance()));
+            }
             
             // Enable/disable withdraw button based on account type
             if (account instanceof Withdraw) {
@@ -53,89 +71,190 @@ public class AccountTransactionDialogController {
                 withdrawButton.setDisable(true);
                 withdrawButton.setText("Withdraw (Not Available)");
             }
+            holdButton.setDisable(!(account instanceof Withdraw));
+            holdsList.getItems().setAll(HoldManager.getActiveHolds(account.getAccountNumber()));
         }
     }
 
     @FXML
     private void handleDeposit() {
-        if (account == null) {
-            showMessage("Account not loaded.", "red");
-            return;
-        }
-
-        try {
-            double amount = Double.parseDouble(amountField.getText().trim());
-            if (amount <= 0) {
-                showMessage("Amount must be greater than 0.", "red");
-                AuditLogger.log("transaction", customer != null ? customer.getCustomerId() : "?", account != null ? account.getAccountNumber() : "?", "deposit", "invalid amount", false);
+        Tracing.run("AccountTransactionDialogController.handleDeposit", () -> {
+            if (account == null) {
+                showMessage("Account not loaded.", "red");
                 return;
             }
 
-            if (account.isClosed()) {
-                showMessage("Account is closed.", "red");
-                AuditLogger.log("transaction", customer != null ? customer.getCustomerId() : "?", account.getAccountNumber(), "deposit", "account closed", false);
-                return;
-            }
+            try {
+                double amount = Double.parseDouble(amountField.getText().trim());
+                if (amount <= 0) {
+                    showMessage("Amount must be greater than 0.", "red");
+                    AuditLogger.log("transaction", customer != null ? customer.getCustomerId() : "?", account != null ? account.getAccountNumber() : "?", "deposit", "invalid amount", false);
+                    return;
+                }
 
-            account.deposit(amount);
-            DatabaseStorage.saveAllData(BankData.getCustomers(), BankData.getCredentials());
-            AuditLogger.log("transaction", customer != null ? customer.getCustomerId() : "?", account.getAccountNumber(), "deposit", "amount=" + amount, true);
+                if (account.isClosed()) {
+                    showMessage("Account is closed.", "red");
+                    AuditLogger.log("transaction", customer != null ? customer.getCustomerId() : "?", account.getAccountNumber(), "deposit", "account closed", false);
+                    return;
+                }
+
+                // Shown at once; the balance is written in the background and reversed if that fails
+                Account target = account;
+                BankData.depositAsync(account, amount, customer != null ? customer.getCustomerId() : "?")
+                        .thenAccept(ok -> Platform.runLater(() -> {
+                            if (account != target) return; // the view has moved on to another account
+                            if (!ok) {
+                                showMessage("Deposit of BWP " + String.format("%.2f", amount) + " could not be saved and was reversed.", "red");
+                            }
+                            updateAccountInfo();
+                        }));
             
-            showMessage("Deposit successful! Amount: BWP " + String.format("%.2f", amount), "green");
-            updateAccountInfo();
-            amountField.clear();
+                showMessage("Deposit successful! Amount: BWP " + String.format("%.2f", amount), "green");
+                updateAccountInfo();
+                amountField.clear();
             
-        } catch (NumberFormatException e) {
-            showMessage("Please enter a valid amount.", "red");
-            AuditLogger.log("transaction", customer != null ? customer.getCustomerId() : "?", account != null ? account.getAccountNumber() : "?", "deposit", "invalid amount format", false);
-        }
+            } catch (NumberFormatException e) {
+                showMessage("Please enter a valid amount.", "red");
+                AuditLogger.log("transaction", customer != null ? customer.getCustomerId() : "?", account != null ? account.getAccountNumber() : "?", "deposit", "invalid amount format", false);
+            }
+        });
     }
 
     @FXML
     private void handleWithdraw() {
-        if (account == null) {
-            showMessage("Account not loaded.", "red");
-            return;
-        }
+        Tracing.run("AccountTransactionDialogController.handleWithdraw", () -> {
+            if (account == null) {
+                showMessage("Account not loaded.", "red");
+                return;
+            }
 
-        if (!(account instanceof Withdraw)) {
-            showMessage("Withdrawals not allowed on this account type.", "red");
-            AuditLogger.log("transaction", customer != null ? customer.getCustomerId() : "?", account.getAccountNumber(), "withdraw", "not allowed on type", false);
-            return;
-        }
+            if (!(account instanceof Withdraw)) {
+                showMessage("Withdrawals not allowed on this account type.", "red");
+                AuditLogger.log("transaction", customer != null ? customer.getCustomerId() : "?", account.getAccountNumber(), "withdraw", "not allowed on type", false);
+                return;
+            }
+
+            try {
+                double amount = Double.parseDouble(amountField.getText().trim());
+                if (amount <= 0) {
+                    showMessage("Amount must be greater than 0.", "red");
+                    AuditLogger.log("transaction", customer != null ? customer.getCustomerId() : "?", account.getAccountNumber(), "withdraw", "invalid amount", false);
+                    return;
+                }
+
+                if (account.isClosed()) {
+                    showMessage("Account is closed.", "red");
+                    AuditLogger.log("transaction", customer != null ? customer.getCustomerId() : "?", account.getAccountNumber(), "withdraw", "account closed", false);
+                    return;
+                }
 
-        try {
-            double amount = Double.parseDouble(amountField.getText().trim());
-            if (amount <= 0) {
-                showMessage("Amount must be greater than 0.", "red");
-                AuditLogger.log("transaction", customer != null ? customer.getCustomerId() : "?", account.getAccountNumber(), "withdraw", "invalid amount", false);
+                if (amount > account.getAvailableBalance()) {
+                    showMessage("Insufficient funds. Available balance: BWP " + String.format("%.2f", account.getAvailableBalance()), "red");
+                    AuditLogger.log("transaction", customer != null ? customer.getCustomerId() : "?", account.getAccountNumber(), "withdraw", "insufficient funds: available=" + account.getAvailableBalance() + ", amount=" + amount, false);
+                    return;
+                }
+
+                Account target = account;
+                BankData.withdrawAsync(account, amount, customer != null ? customer.getCustomerId() : "?")
+                        .thenAccept(ok -> Platform.runLater(() -> {
+                            if (account != target) return; // the view has moved on to another account
+                            if (!ok) {
+                                showMessage("Withdrawal of BWP " + String.format("%.2f", amount) + " could not be completed and was reversed.", "red");
+                            }
+                            updateAccountInfo();
+                        }));
+            
+                showMessage("Withdrawal successful! Amount: BWP " + String.format("%.2f", amount), "green");
+                updateAccountInfo();
+                amountField.clear();
+            
+            } catch (NumberFormatException e) {
+                showMessage("Please enter a valid amount.", "red");
+                AuditLogger.log("transaction", customer != null ? customer.getCustomerId() : "?", account != null ? account.getAccountNumber() : "?", "withdraw", "invalid amount format", false);
+            }
+        });
+    }
+
+    @FXML
+    private void handlePlaceHold() {
+        Tracing.run("AccountTransactionDialogController.handlePlaceHold", () -> {
+            if (account == null || !(account instanceof Withdraw)) {
+                showMessage("Holds are not allowed on this account type.", "red");
                 return;
             }
 
-            if (account.isClosed()) {
-                showMessage("Account is closed.", "red");
-                AuditLogger.log("transaction", customer != null ? customer.getCustomerId() : "?", account.getAccountNumber(), "withdraw", "account closed", false);
+            double amount;
+            try {
+                amount = Double.parseDouble(amountField.getText().trim());
+            } catch (NumberFormatException e) {
+                showMessage("Please enter a valid amount.", "red");
                 return;
             }
 
-            if (amount > account.getBalance()) {
-                showMessage("Insufficient funds. Available balance: BWP " + String.format("%.2f", account.getBalance()), "red");
-                AuditLogger.log("transaction", customer != null ? customer.getCustomerId() : "?", account.getAccountNumber(), "withdraw", "insufficient funds: balance=" + account.getBalance() + ", amount=" + amount, false);
+            // Storing the hold is a database write, so it runs off the FX thread
+            Account target = account;
+            String actor = customer != null ? customer.getCustomerId() : "?";
+            CompletableFuture.supplyAsync(() -> HoldManager.placeHold(target, Hold.Type.AUTHORIZATION, amount, "counter authorization", actor))
+                    .thenCompose(placed -> placed)
+                    .whenComplete((hold, error) -> Platform.runLater(() -> {
+                        if (account != target) return; // the view has moved on to another account
+                        if (hold != null) {
+                            showMessage("BWP " + String.format("%.2f", amount) + " held as " + hold.getHoldId() + ".", "green");
+                            amountField.clear();
+                        } else {
+                            showMessage("Hold of BWP " + String.format("%.2f", amount) + " was refused (insufficient available balance or not stored).", "red");
+                        }
+                        updateAccountInfo();
+                    }));
+        });
+    }
+
+    @FXML
+    private void handleCaptureHold() {
+        Tracing.run("AccountTransactionDialogController.handleCaptureHold", () -> {
+            Hold hold = holdsList.getSelectionModel().getSelectedItem();
+            if (hold == null) {
+                showMessage("Select a hold first.", "red");
                 return;
             }
+            Account target = account;
+            String actor = customer != null ? customer.getCustomerId() : "?";
+            CompletableFuture.supplyAsync(() -> HoldManager.captureHold(hold.getHoldId(), actor))
+                    .thenCompose(captured -> captured)
+                    .whenComplete((ok, error) -> Platform.runLater(() -> {
+                        if (account != target) return;
+                        if (Boolean.TRUE.equals(ok)) {
+                            showMessage(hold.getHoldId() + " captured: BWP " + String.format("%.2f", hold.getAmount()) + " debited.", "green");
+                        } else {
+                            showMessage(hold.getHoldId() + " could not be captured; the funds stay on hold.", "red");
+                        }
+                        updateAccountInfo();
+                    }));
+        });
+    }
 
-            ((Withdraw) account).withdraw(amount);
-            DatabaseStorage.saveAllData(BankData.getCustomers(), BankData.getCredentials());
-            AuditLogger.log("transaction", customer != null ? customer.getCustomerId() : "?", account.getAccountNumber(), "withdraw", "amount=" + amount, true);
-            
-            showMessage("Withdrawal successful! Amount: BWP " + String.format("%.2f", amount), "green");
-            updateAccountInfo();
-            amountField.clear();
-            
-        } catch (NumberFormatException e) {
-            showMessage("Please enter a valid amount.", "red");
-            AuditLogger.log("transaction", customer != null ? customer.getCustomerId() : "?", account != null ? account.getAccountNumber() : "?", "withdraw", "invalid amount format", false);
-        }
+    @FXML
+    private void handleReleaseHold() {
+        Tracing.run("AccountTransactionDialogController.handleReleaseHold", () -> {
+            Hold hold = holdsList.getSelectionModel().getSelectedItem();
+            if (hold == null) {
+                showMessage("Select a hold first.", "red");
+                return;
+            }
+            Account target = account;
+            String actor = customer != null ? customer.getCustomerId() : "?";
+            CompletableFuture.supplyAsync(() -> HoldManager.releaseHold(hold.getHoldId(), actor))
+                    .thenCompose(released -> released)
+                    .whenComplete((ok, error) -> Platform.runLater(() -> {
+                        if (account != target) return;
+                        if (Boolean.TRUE.equals(ok)) {
+                            showMessage(hold.getHoldId() + " released.", "green");
+                        } else {
+                            showMessage(hold.getHoldId() + " could not be released.", "red");
+                        }
+                        updateAccountInfo();
+                    }));
+        });
     }
 
     private void showMessage(String message, String color) {
@@ -145,21 +264,12 @@ public class AccountTransactionDialogController {
 
     @FXML
     private void handleBack() throws IOException {
-        // Close current window
-        Stage currentStage = (Stage) backButton.getScene().getWindow();
-        
-        // Open customer dashboard
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/CustomerDashboard.fxml"));
-        Stage stage = new Stage();
-        stage.setScene(new Scene(loader.load()));
-        stage.setTitle("Customer Dashboard");
-        
-        // Pass customer to dashboard controller
-        CustomerDashboardController controller = loader.getController();
-        controller.setCustomer(customer);
-        stage.show();
+        Tracing.run("AccountTransactionDialogController.handleBack", () -> {
+            // Open customer dashboard
+            CustomerDashboardController controller = ViewManager.show(View.CUSTOMER_DASHBOARD);
         
-        // Close the current window
-        currentStage.close();
+            // Pass customer to dashboard controller
+            controller.setCustomer(customer);
+        });
     }
 }
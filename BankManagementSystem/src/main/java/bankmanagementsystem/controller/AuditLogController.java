@@ -1,5 +1,7 @@
 package bankmanagementsystem.controller;
 
+import bankmanagementsystem.model.AuditLogger;
+import bankmanagementsystem.model.Tracing;
 import javafx.fxml.FXML;
 import javafx.scene.control.TextArea;
 import javafx.stage.Stage;
@@ -9,26 +11,38 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 
-public class AuditLogController {
+public class AuditLogController implements ReusableView {
 	@FXML private TextArea logArea;
 
 	@FXML
 	private void initialize() {
-		loadLog();
+		Tracing.run("AuditLogController.initialize", () -> {
+			loadLog();
+		});
 	}
 
 	@FXML
 	private void handleRefresh() {
+		Tracing.run("AuditLogController.handleRefresh", () -> {
+			loadLog();
+		});
+	}
+
+	@Override
+	public void resetView() {
 		loadLog();
 	}
 
 	@FXML
 	private void handleClose() {
-		Stage stage = (Stage) logArea.getScene().getWindow();
-		stage.close();
+		Tracing.run("AuditLogController.handleClose", () -> {
+			Stage stage = (Stage) logArea.getScene().getWindow();
+			stage.close();
+		});
 	}
 
 	private void loadLog() {
+		AuditLogger.flush();
 		File file = new File("data/audit.log");
 		if (!file.exists()) {
 			logArea.setText("No audit entries yet.");
@@ -0,0 +1,68 @@
+package bankmanagementsystem.controller;
+
+import bankmanagementsystem.model.BankData;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.util.Duration;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+/**
+ * Validates a username or email field as the user types.
+ * The Bloom-filter check answers "available" immediately for almost every keystroke; only when it
+ * reports a possible match is the exact (list or database) check run, and then only once typing has
+ * paused, so holding down a key does not issue a query per character. In working-set mode the exact
+ * check is a database query, so it runs on a background thread and its answer is shown on the FX thread.
+ */
+class AvailabilityCheck {
+    private static final Duration EXACT_CHECK_DELAY = Duration.millis(300);
+
+    /**
+     * @param field Field to watch
+     * @param status Label that shows the result
+     * @param what Name of the value in messages ("Username", "Email")
+     * @param definitelyAvailable Fast check; true means available without further checks
+     * @param exactlyAvailable Exact check, run only when the fast check is inconclusive
+     */
+    static void attach(TextField field, Label status, String what,
+                       Predicate<String> definitelyAvailable, Predicate<String> exactlyAvailable) {
+        PauseTransition pause = new PauseTransition(EXACT_CHECK_DELAY);
+        field.textProperty().addListener((obs, oldValue, newValue) -> {
+            pause.stop();
+            String value = newValue == null ? "" : newValue.trim();
+            if (value.isEmpty()) {
+                status.setText("");
+                return;
+            }
+            if (definitelyAvailable.test(value)) {
+                show(status, what + " available", true);
+                return;
+            }
+            status.setText("Checking...");
+            status.setStyle("-fx-text-fill: gray;");
+            pause.setOnFinished(e -> {
+                // The field may have changed while the pause was running
+                if (!value.equals(field.getText().trim())) return;
+                if (BankData.getWorkingSet() == null) {
+                    // The in-memory credential list belongs to the FX thread
+                    boolean available = exactlyAvailable.test(value);
+                    show(status, available ? what + " available" : what + " already taken", available);
+                    return;
+                }
+                CompletableFuture.supplyAsync(() -> exactlyAvailable.test(value)).thenAcceptAsync(available -> {
+                    if (!value.equals(field.getText().trim())) return;
+                    show(status, available ? what + " available" : what + " already taken", available);
+                }, Platform::runLater);
+            });
+            pause.playFromStart();
+        });
+    }
+
+    private static void show(Label status, String text, boolean ok) {
+        status.setText(text);
+        status.setStyle(ok ? "-fx-text-fill: green;" : "-fx-text-fill: red;");
+    }
+}
@@ -1,20 +1,21 @@
 package bankmanagementsystem.controller;
 
+import bankmanagementsystem.controller.ViewManager.View;
 import bankmanagementsystem.model.*;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.stage.Stage;
 
 import java.io.IOException;
 
-public class CustomerCredentialSetupController {
+public class CustomerCredentialSetupController implements ReusableView {
     @FXML private TextField customerIdField;
     @FXML private TextField usernameField;
     @FXML private PasswordField passwordField;
     @FXML private PasswordField confirmPasswordField;
     @FXML private TextField emailField;
+    @FXML private Label usernameStatusLabel;
+    @FXML private Label emailStatusLabel;
     @FXML private Label errorLabel;
     @FXML private Label successLabel;
     @FXML private Label customerInfoLabel;
@@ -23,82 +24,91 @@ public class CustomerCredentialSetupController {
 
     @FXML
     private void initialize() {
-        // Initialize the form
-        customerInfoLabel.setText("Enter your Customer ID to begin setup");
+        Tracing.run("CustomerCredentialSetupController.initialize", () -> {
+            // Initialize the form
+            customerInfoLabel.setText("Enter your Customer ID to begin setup");
+            AvailabilityCheck.attach(usernameField, usernameStatusLabel, "Username",
+                    CredentialFilters::isUsernameDefinitelyAvailable, BankData::isUsernameAvailable);
+            AvailabilityCheck.attach(emailField, emailStatusLabel, "Email",
+                    CredentialFilters::isEmailDefinitelyAvailable, BankData::isEmailAvailable);
+        });
     }
 
     @FXML
     private void handleSetupCredentials() {
-        // Clear previous messages
-        errorLabel.setText("");
-        successLabel.setText("");
-
-        // Validate input
-        String errorMessage = validateInput();
-        if (!errorMessage.isEmpty()) {
-            errorLabel.setText(errorMessage);
-            return;
-        }
-
-        // Get input values
-        String customerId = customerIdField.getText().trim();
-        String username = usernameField.getText().trim();
-        String password = passwordField.getText();
-        String email = emailField.getText().trim();
-
-        // Check if customer exists
-        Customer customer = BankData.findCustomerById(customerId);
-        if (customer == null) {
-            errorLabel.setText("Customer ID not found. Please check your Customer ID or contact support.");
-            return;
-        }
-
-        // Check if customer already has credentials
-        CustomerCredentials existingCreds = BankData.getCustomerCredentials(username);
-        if (existingCreds != null) {
-            errorLabel.setText("Username already taken. Please choose a different username.");
-            return;
-        }
-
-        // Check if email is already used
-        if (!BankData.isEmailAvailable(email)) {
-            errorLabel.setText("Email already registered. Please use a different email.");
-            return;
-        }
-
-        // Setup credentials using BankData method
-        String result = BankData.setupCustomerCredentials(customerId, username, password, email);
-        
-        if (result.startsWith("Login credentials set up successfully")) {
+        Tracing.run("CustomerCredentialSetupController.handleSetupCredentials", () -> {
+            // Clear previous messages
+            errorLabel.setText("");
+            successLabel.setText("");
+
+            // Validate input
+            String errorMessage = validateInput();
+            if (!errorMessage.isEmpty()) {
+                errorLabel.setText(errorMessage);
+                return;
+            }
+
+            // Get input values
+            String customerId = customerIdField.getText().trim();
+            String username = usernameField.getText().trim();
+            String password = passwordField.getText();
+            String email = emailField.getText().trim();
+
+            // Check if customer exists
+            Customer customer = BankData.findCustomerById(customerId);
+            if (customer == null) {
+                errorLabel.setText("Customer ID not found. Please check your Customer ID or contact support.");
+                return;
+            }
+
+            // Check if the username is already taken
+            if (!BankData.isUsernameAvailable(username)) {
+                errorLabel.setText("Username already taken. Please choose a different username.");
+                return;
+            }
+
+            // Check if email is already used
+            if (!BankData.isEmailAvailable(email)) {
+                errorLabel.setText("Email already registered. Please use a different email.");
+                return;
+            }
+
+            // Checked above, so the credentials can be added directly; they are saved in the background
+            BankData.addCustomerCredentials(new CustomerCredentials(customerId, username, password, email))
+                    .thenAccept(ok -> Platform.runLater(() -> {
+                        if (!ok) {
+                            successLabel.setText("");
+                            errorLabel.setText("Login credentials could not be saved and were removed. Please try again.");
+                        }
+                    }));
             successLabel.setText("Login credentials set up successfully!\n" +
                                "You can now login with:\n" +
                                "Username: " + username + "\n" +
                                "Password: [your password]");
-        } else {
-            errorLabel.setText(result);
-            return;
-        }
         
-        clearFields();
+            clearFields();
+        });
     }
 
     @FXML
     private void handleVerifyCustomerId() {
-        String customerId = customerIdField.getText().trim();
-        if (customerId.isEmpty()) {
-            customerInfoLabel.setText("Enter your Customer ID to begin setup");
-            return;
-        }
-
-        Customer customer = BankData.findCustomerById(customerId);
-        if (customer == null) {
-            customerInfoLabel.setText("Customer ID not found. Please check your Customer ID.");
-            customerInfoLabel.setStyle("-fx-text-fill: red;");
-        } else {
-            customerInfoLabel.setText("Customer found: " + customer.getFirstName() + " " + customer.getLastName() + 
-                                    " (" + customerId + ")");
-            customerInfoLabel.setStyle("-fx-text-fill: green;");
-        }
+        Tracing.run("CustomerCredentialSetupController.handleVerifyCustomerId", () -> {
+            String customerId = customerIdField.getText().trim();
+            if (customerId.isEmpty()) {
+                customerInfoLabel.setText("Enter your Customer ID to begin setup");
+                return;
+            }
+
+            Customer customer = BankData.findCustomerById(customerId);
+            if (customer == null) {
+                customerInfoLabel.setText("Customer ID not found. Please check your Customer ID.");
+                customerInfoLabel.setStyle("-fx-text-fill: red;");
+            } else {
+                customerInfoLabel.setText("Customer found: " + customer.getFirstName() + " " + customer.getLastName() + 
+                                        " (" + customerId + ")");
+                customerInfoLabel.setStyle("-fx-text-fill: green;");
+            }
+        });
     }
 
     private String validateInput() {
@@ -146,11 +156,19 @@ public class CustomerCredentialSetupController {
         customerInfoLabel.setStyle("-fx-text-fill: black;");
     }
 
+    @Override
+    public void resetView() {
+        clearFields();
+        errorLabel.setText("");
+        successLabel.setText("");
+        usernameStatusLabel.setText("");
+        emailStatusLabel.setText("");
+    }
+
     @FXML
     private void handleBackToLogin() throws IOException {
-        Stage stage = (Stage) backToLoginButton.getScene().getWindow();
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/LoginView.fxml"));
-        stage.setScene(new Scene(loader.load()));
-        stage.setTitle("Bank Management System - Login");
+        Tracing.run("CustomerCredentialSetupController.handleBackToLogin", () -> {
+            ViewManager.show(View.LOGIN);
+        });
     }
 }
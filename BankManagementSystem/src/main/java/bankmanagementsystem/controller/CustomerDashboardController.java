@@ -1,17 +1,16 @@
 package bankmanagementsystem.controller;
 
+import bankmanagementsystem.controller.ViewManager.View;
 import bankmanagementsystem.model.*;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import javafx.stage.Stage;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Scene;
 
 import java.io.IOException;
+import java.util.List;
 
-public class CustomerDashboardController {
+public class CustomerDashboardController implements ReusableView {
     @FXML private Label welcomeLabel;
     @FXML private ListView<String> accountsList;
     @FXML private Label infoLabel;
@@ -20,8 +19,36 @@ public class CustomerDashboardController {
 
     @FXML
     private void initialize() {
-        // This will be called when the dashboard loads
-        // The customer will be set by the login controller
+        Tracing.run("CustomerDashboardController.initialize", () -> {
+            // The customer will be set by the login controller; balances changed elsewhere are patched in
+            new LiveUpdates(this::applyEvents);
+        });
+    }
+
+    // Patch only the rows of accounts that changed; a customer event (account opened) rebuilds the list
+    private void applyEvents(List<BankEvent> events) {
+        if (currentCustomer == null) {
+            return;
+        }
+        for (BankEvent event : events) {
+            if (!currentCustomer.getCustomerId().equals(event.getCustomerId())) {
+                continue;
+            }
+            if (event.getType() == BankEvent.Type.CUSTOMER_UPDATED) {
+                welcomeLabel.setText("Welcome, " + currentCustomer.getFirstName() + " " + currentCustomer.getLastName());
+                refreshAccountsList();
+                continue;
+            }
+            Account account = findAccountByNumber(event.getAccountNumber());
+            ObservableList<String> items = accountsList.getItems();
+            String prefix = event.getAccountNumber() + " | ";
+            for (int i = 0; account != null && i < items.size(); i++) {
+                if (items.get(i).startsWith(prefix)) {
+                    items.set(i, describe(account));
+                    break;
+                }
+            }
+        }
     }
 
     public void setCustomer(Customer customer) {
@@ -35,6 +62,12 @@ public class CustomerDashboardController {
         }
     }
 
+    @Override
+    public void resetView() {
+        infoLabel.setText("");
+        accountsList.getSelectionModel().clearSelection();
+    }
+
     // Public method to refresh accounts (can be called from other windows)
     public void refreshAccounts() {
         refreshAccountsList();
@@ -42,18 +75,20 @@ public class CustomerDashboardController {
 
     @FXML
     private void handleAccountClick() {
-        String selectedAccount = accountsList.getSelectionModel().getSelectedItem();
-        if (selectedAccount == null || selectedAccount.equals("No accounts found for this customer")) {
-            return;
-        }
+        Tracing.run("CustomerDashboardController.handleAccountClick", () -> {
+            String selectedAccount = accountsList.getSelectionModel().getSelectedItem();
+            if (selectedAccount == null || selectedAccount.equals("No accounts found for this customer")) {
+                return;
+            }
         
-        // Extract account number from the selected item
-        String accountNumber = selectedAccount.split(" \\| ")[0];
-        Account account = findAccountByNumber(accountNumber);
+            // Extract account number from the selected item
+            String accountNumber = selectedAccount.split(" \\| ")[0];
+            Account account = findAccountByNumber(accountNumber);
         
-        if (account != null) {
-            showTransactionDialog(account);
-        }
+            if (account != null) {
+                showTransactionDialog(account);
+            }
+        });
     }
 
     private Account findAccountByNumber(String accountNumber) {
@@ -67,22 +102,12 @@ public class CustomerDashboardController {
 
     private void showTransactionDialog(Account account) {
         try {
-            // Close current window
-            Stage currentStage = (Stage) welcomeLabel.getScene().getWindow();
-            
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/AccountTransactionDialog.fxml"));
-            Stage stage = new Stage();
-            stage.setScene(new Scene(loader.load()));
-            stage.setTitle("Account Transaction - " + account.getAccountNumber());
+            AccountTransactionDialogController controller =
+                    ViewManager.show(View.ACCOUNT_TRANSACTION, "Account Transaction - " + account.getAccountNumber());
             
             // Pass account to the transaction dialog controller
-            AccountTransactionDialogController controller = loader.getController();
             controller.setAccount(account);
             controller.setCustomer(currentCustomer);
-            stage.show();
-            
-            // Close the current window
-            currentStage.close();
         } catch (IOException e) {
             infoLabel.setText("Error opening transaction dialog: " + e.getMessage());
             infoLabel.setStyle("-fx-text-fill: red;");
@@ -100,9 +125,7 @@ public class CustomerDashboardController {
         
         ObservableList<String> items = FXCollections.observableArrayList();
         for (Account a : currentCustomer.getAccounts()) {
-            String accountType = a.getClass().getSimpleName();
-            String accountInfo = String.format("%s | %s | Balance: BWP %.2f | Branch: %s", 
-                a.getAccountNumber(), accountType, a.getBalance(), a.getBranch());
+            String accountInfo = describe(a);
             items.add(accountInfo);
             System.out.println("Added account: " + accountInfo);
         }
@@ -116,50 +139,35 @@ public class CustomerDashboardController {
         System.out.println("Accounts list updated with " + items.size() + " items");
     }
 
+    private static String describe(Account a) {
+        return String.format("%s | %s | Balance: BWP %.2f | Branch: %s",
+            a.getAccountNumber(), a.getClass().getSimpleName(), a.getBalance(), a.getBranch());
+    }
+
     @FXML
     private void handleAddAccount() throws IOException {
-        if (currentCustomer == null) {
-            infoLabel.setText("Customer not loaded.");
-            infoLabel.setStyle("-fx-text-fill: red;");
-            return;
-        }
-        
-        // Close current window
-        Stage currentStage = (Stage) welcomeLabel.getScene().getWindow();
-        
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/CustomerOpenAccountView.fxml"));
-        Stage stage = new Stage();
-        stage.setScene(new Scene(loader.load()));
-        stage.setTitle("Open New Account");
+        Tracing.run("CustomerDashboardController.handleAddAccount", () -> {
+            if (currentCustomer == null) {
+                infoLabel.setText("Customer not loaded.");
+                infoLabel.setStyle("-fx-text-fill: red;");
+                return;
+            }
         
-        // Pass customer to the new account controller
-        CustomerOpenAccountController controller = loader.getController();
-        controller.setCustomer(currentCustomer);
-        stage.show();
+            CustomerOpenAccountController controller = ViewManager.show(View.OPEN_ACCOUNT);
         
-        // Close the current window
-        currentStage.close();
+            // Pass customer to the new account controller
+            controller.setCustomer(currentCustomer);
+        });
     }
 
 
 
     private void showAccountCreationDialog() {
         try {
-            // Close current window
-            Stage currentStage = (Stage) welcomeLabel.getScene().getWindow();
-            
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/CustomerOpenAccountView.fxml"));
-            Stage stage = new Stage();
-            stage.setScene(new Scene(loader.load()));
-            stage.setTitle("Create New Account");
+            CustomerOpenAccountController controller = ViewManager.show(View.OPEN_ACCOUNT, "Create New Account");
             
             // Pass customer to the new account controller
-            CustomerOpenAccountController controller = loader.getController();
             controller.setCustomer(currentCustomer);
-            stage.show();
-            
-            // Close the current window
-            currentStage.close();
         } catch (IOException e) {
             infoLabel.setText("Error opening account creation window: " + e.getMessage());
             infoLabel.setStyle("-fx-text-fill: red;");
@@ -170,16 +178,9 @@ public class CustomerDashboardController {
 
     @FXML
     private void handleLogout() throws IOException {
-        // Close current window
-        Stage currentStage = (Stage) welcomeLabel.getScene().getWindow();
-        
-        Stage stage = new Stage();
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/LoginView.fxml"));
-        stage.setScene(new Scene(loader.load()));
-        stage.setTitle("Bank Management System - Login");
-        stage.show();
-        
-        // Close the current window
-        currentStage.close();
+        Tracing.run("CustomerDashboardController.handleLogout", () -> {
+            currentCustomer = null;
+            ViewManager.show(View.LOGIN);
+        });
     }
 }
@@ -1,16 +1,16 @@
 package bankmanagementsystem.controller;
 
+import bankmanagementsystem.controller.ViewManager.View;
 import bankmanagementsystem.model.*;
+import javafx.animation.PauseTransition;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
-import javafx.stage.Stage;
+import javafx.util.Duration;
 
 import java.io.IOException;
 
-public class CustomerOpenAccountController {
+public class CustomerOpenAccountController implements ReusableView {
     @FXML private ComboBox<String> accountTypeCombo;
     @FXML private ComboBox<String> branchCombo;
     @FXML private TextField initialBalanceField;
@@ -23,23 +23,42 @@ public class CustomerOpenAccountController {
     @FXML private Button backButton;
     
     private Customer customer;
+    private final PauseTransition returnToDashboard = new PauseTransition(Duration.seconds(3));
 
     @FXML
     private void initialize() {
-        // Initialize account type combo box
-        accountTypeCombo.getItems().addAll("SavingsAccount", "InvestmentAccount", "ChequeAccount");
-        accountTypeCombo.setValue("SavingsAccount");
+        Tracing.run("CustomerOpenAccountController.initialize", () -> {
+            // Initialize account type combo box
+            accountTypeCombo.getItems().addAll("SavingsAccount", "InvestmentAccount", "ChequeAccount");
+            accountTypeCombo.setValue("SavingsAccount");
         
-        // Initialize branches
-        branchCombo.getItems().addAll("main", "kopong", "Maun", "F-town", "Mogoditshane", "Molepolole");
-        branchCombo.setValue("main");
-        initialBalanceField.setText("0.0");
+            // Initialize branches
+            branchCombo.getItems().addAll("main", "kopong", "Maun", "F-town", "Mogoditshane", "Molepolole");
+            branchCombo.setValue("main");
+            initialBalanceField.setText("0.0");
         
-        // Add listener to account type combo box
-        accountTypeCombo.setOnAction(event -> { updateEmploymentDetailsVisibility(); event.consume(); });
+            // Add listener to account type combo box
+            accountTypeCombo.setOnAction(event -> { updateEmploymentDetailsVisibility(); event.consume(); });
         
-        // Set initial visibility
-        updateEmploymentDetailsVisibility();
+            // Set initial visibility
+            updateEmploymentDetailsVisibility();
+
+            returnToDashboard.setOnFinished(event -> {
+                try {
+                    handleBack();
+                } catch (IOException e) {
+                    errorLabel.setText("Error returning to dashboard: " + e.getMessage());
+                }
+            });
+        });
+    }
+
+    @Override
+    public void resetView() {
+        returnToDashboard.stop();
+        clearFields();
+        errorLabel.setText("");
+        successLabel.setText("");
     }
 
     public void setCustomer(Customer customer) {
@@ -62,74 +81,66 @@ public class CustomerOpenAccountController {
 
     @FXML
     private void handleCreateAccount() {
-        errorLabel.setText("");
-        successLabel.setText("");
+        Tracing.run("CustomerOpenAccountController.handleCreateAccount", () -> {
+            errorLabel.setText("");
+            successLabel.setText("");
 
-        if (customer == null) {
-            errorLabel.setText("Customer not loaded.");
-            return;
-        }
+            if (customer == null) {
+                errorLabel.setText("Customer not loaded.");
+                return;
+            }
 
-        String errorMessage = validateInput();
-        if (!errorMessage.isEmpty()) {
-            errorLabel.setText(errorMessage);
-            return;
-        }
+            String errorMessage = validateInput();
+            if (!errorMessage.isEmpty()) {
+                errorLabel.setText(errorMessage);
+                return;
+            }
 
-        // Get input values
-        String accountType = accountTypeCombo.getValue();
-        String branch = branchCombo.getValue();
-        double initialBalance;
+            // Get input values
+            String accountType = accountTypeCombo.getValue();
+            String branch = branchCombo.getValue();
+            double initialBalance;
         
-        try {
-            initialBalance = Double.parseDouble(initialBalanceField.getText().trim());
-            if (initialBalance < 0) {
-                errorLabel.setText("Initial balance cannot be negative.");
+            try {
+                initialBalance = Double.parseDouble(initialBalanceField.getText().trim());
+                if (initialBalance < 0) {
+                    errorLabel.setText("Initial balance cannot be negative.");
+                    return;
+                }
+            } catch (NumberFormatException e) {
+                errorLabel.setText("Please enter a valid initial balance.");
                 return;
             }
-        } catch (NumberFormatException e) {
-            errorLabel.setText("Please enter a valid initial balance.");
-            return;
-        }
 
-        // Validate business rules
-        String businessRuleError = validateBusinessRules(accountType, initialBalance);
-        if (!businessRuleError.isEmpty()) {
-            errorLabel.setText(businessRuleError);
-            return;
-        }
+            // Validate business rules
+            String businessRuleError = validateBusinessRules(accountType, initialBalance);
+            if (!businessRuleError.isEmpty()) {
+                errorLabel.setText(businessRuleError);
+                return;
+            }
 
-        // Get employment details for Cheque accounts
-        String employerName = "";
-        String employerAddress = "";
-        if ("ChequeAccount".equals(accountType)) {
-            employerName = employerNameField.getText().trim();
-            employerAddress = employerAddressField.getText().trim();
-        }
+            // Get employment details for Cheque accounts
+            String employerName = "";
+            String employerAddress = "";
+            if ("ChequeAccount".equals(accountType)) {
+                employerName = employerNameField.getText().trim();
+                employerAddress = employerAddressField.getText().trim();
+            }
 
-        // Create account for the customer
-        String result = createAccountForCustomer(accountType, branch, initialBalance, employerName, employerAddress);
+            // Create account for the customer
+            String result = createAccountForCustomer(accountType, branch, initialBalance, employerName, employerAddress);
 
-        if (result.startsWith("Account created successfully")) {
-            successLabel.setText(result);
-            clearFields();
+            if (result.startsWith("Account created successfully")) {
+                successLabel.setText(result);
+                clearFields();
             
-            // Show success message and close window after a delay
-            successLabel.setText(result + "\n\nWindow will close in 3 seconds...");
-            new Thread(() -> {
-                try {
-                    Thread.sleep(3000);
-                    javafx.application.Platform.runLater(() -> {
-                        Stage stage = (Stage) createButton.getScene().getWindow();
-                        stage.close();
-                    });
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-            }).start();
-        } else {
-            errorLabel.setText(result);
-        }
+                // Show success message and return to the dashboard after a delay
+                successLabel.setText(result + "\n\nReturning to your dashboard in 3 seconds...");
+                returnToDashboard.playFromStart();
+            } else {
+                errorLabel.setText(result);
+            }
+        });
     }
 
     private String validateBusinessRules(String accountType, double initialBalance) {
@@ -156,7 +167,12 @@ public class CustomerOpenAccountController {
             return "Customer not found.";
         }
 
-        String accountNumber = generateAccountNumber();
+        String accountNumber;
+        try {
+            accountNumber = generateAccountNumber();
+        } catch (IllegalStateException e) {
+            return "Account could not be created: " + e.getMessage() + ". Please try again.";
+        }
         Account account;
         
         switch (accountType) {
@@ -173,11 +189,17 @@ public class CustomerOpenAccountController {
                 return "Invalid account type.";
         }
 
-        // Add account to customer
-        customer.addAccount(account);
-        
-        // Save data
-        DatabaseStorage.saveAllData(BankData.getCustomers(), BankData.getCredentials());
+        // Add account to customer; it is saved in the background and removed again if that fails
+        BankData.openAccountAsync(customer, account, customer.getCustomerId())
+                .thenAccept(ok -> {
+                    if (!ok) {
+                        javafx.application.Platform.runLater(() -> {
+                            returnToDashboard.stop();
+                            successLabel.setText("");
+                            errorLabel.setText("Account " + accountNumber + " could not be saved and was not opened. Please try again.");
+                        });
+                    }
+                });
 
         return "Account created successfully! Account Number: " + accountNumber + 
                "\nAccount Type: " + accountType + 
@@ -185,7 +207,7 @@ public class CustomerOpenAccountController {
     }
 
     private String generateAccountNumber() {
-        return "ACC" + String.format("%06d", System.currentTimeMillis() % 1000000);
+        return IdAllocator.nextAccountNumber("ACC");
     }
 
     private String validateInput() {
@@ -223,21 +245,13 @@ public class CustomerOpenAccountController {
 
     @FXML
     private void handleBack() throws IOException {
-        // Close current window
-        Stage currentStage = (Stage) backButton.getScene().getWindow();
-        
-        // Open customer dashboard
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/CustomerDashboard.fxml"));
-        Stage stage = new Stage();
-        stage.setScene(new Scene(loader.load()));
-        stage.setTitle("Customer Dashboard");
-        
-        // Pass customer to dashboard controller
-        CustomerDashboardController controller = loader.getController();
-        controller.setCustomer(customer);
-        stage.show();
+        Tracing.run("CustomerOpenAccountController.handleBack", () -> {
+            returnToDashboard.stop();
+            // Open customer dashboard
+            CustomerDashboardController controller = ViewManager.show(View.CUSTOMER_DASHBOARD);
         
-        // Close the current window
-        currentStage.close();
+            // Pass customer to dashboard controller
+            controller.setCustomer(customer);
+        });
     }
 }
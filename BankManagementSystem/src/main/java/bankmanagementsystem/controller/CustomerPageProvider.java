@@ -0,0 +1,159 @@
+package bankmanagementsystem.controller;
+
+import bankmanagementsystem.model.BankData;
+import bankmanagementsystem.model.CustomerRow;
+import bankmanagementsystem.model.Repositories;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Feeds the customer browser one keyset page at a time.
+ * Pages are queried on a background thread and appended on the FX thread; the next page is only
+ * requested when the table asks for rows near the end of what it has (see {@link #rowShown(int)}),
+ * so opening the screen costs one page no matter how large the book is. Changing the filter or sort
+ * starts a new generation; pages still in flight for an older generation are dropped.
+ * A filter goes through the customer search index once per generation (at most {@link #MAX_MATCHES}
+ * best matches), and the matching customers are then paged by ID.
+ */
+class CustomerPageProvider {
+    static final int PAGE_SIZE = 100;
+    static final int MAX_MATCHES = 1000;
+    // Start fetching the next page when a row this close to the end is shown
+    private static final int PREFETCH_ROWS = 20;
+
+    private static final ExecutorService LOADER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "customer-page-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ObservableList<CustomerRow> rows = FXCollections.observableArrayList();
+    private final Consumer<String> status;
+    private String filter = "";
+    // Customer IDs the filter matched, looked up with the generation's first page; null without a filter
+    private Collection<String> matches;
+    private CustomerRow.SortKey sort = CustomerRow.SortKey.LAST_NAME;
+    private boolean ascending = true;
+    private int generation;
+    private boolean loading;
+    private boolean exhausted;
+
+    /**
+     * @param status Receives a short status line ("100 customers loaded", errors)
+     */
+    CustomerPageProvider(Consumer<String> status) {
+        this.status = status;
+    }
+
+    ObservableList<CustomerRow> getRows() {
+        return rows;
+    }
+
+    /**
+     * @return true if the customer is among the loaded rows
+     */
+    boolean isLoaded(String customerId) {
+        return indexOf(customerId) >= 0;
+    }
+
+    /**
+     * Swap in a fresh copy of a loaded row (same customer), leaving the rest of the page alone
+     * @param row Replacement row
+     */
+    void replace(CustomerRow row) {
+        int index = indexOf(row.getCustomerId());
+        if (index >= 0) {
+            rows.set(index, row);
+        }
+    }
+
+    private int indexOf(String customerId) {
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i).getCustomerId().equals(customerId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Start over with a new filter and sort; must be called on the FX thread
+     */
+    void reset(String filter, CustomerRow.SortKey sort, boolean ascending) {
+        this.filter = filter == null ? "" : filter.trim();
+        this.sort = sort;
+        this.ascending = ascending;
+        generation++;
+        matches = null;
+        loading = false;
+        exhausted = false;
+        rows.clear();
+        loadNextPage();
+    }
+
+    /**
+     * Called by the table when it renders a row; loads the next page once the user nears the end
+     * @param index Index of the rendered row
+     */
+    void rowShown(int index) {
+        if (index >= rows.size() - PREFETCH_ROWS) {
+            loadNextPage();
+        }
+    }
+
+    private void loadNextPage() {
+        if (loading || exhausted) {
+            return;
+        }
+        loading = true;
+        int requestGeneration = generation;
+        CustomerRow after = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+        String pageFilter = filter;
+        Collection<String> pageMatches = matches;
+        CustomerRow.SortKey pageSort = sort;
+        boolean pageAscending = ascending;
+
+        Task<Page> task = new Task<>() {
+            @Override
+            protected Page call() {
+                Collection<String> ids = pageMatches;
+                if (ids == null && !pageFilter.isEmpty()) {
+                    ids = BankData.searchCustomerIds(pageFilter, MAX_MATCHES);
+                }
+                return new Page(ids, Repositories.customers().loadPage(after, PAGE_SIZE, ids, pageSort, pageAscending));
+            }
+        };
+        task.setOnSucceeded(e -> {
+            if (requestGeneration != generation) return;
+            List<CustomerRow> page = task.getValue().rows;
+            matches = task.getValue().matches;
+            loading = false;
+            exhausted = page.size() < PAGE_SIZE;
+            rows.addAll(page);
+            status.accept(rows.size() + (exhausted ? "" : "+") + " customers");
+        });
+        task.setOnFailed(e -> {
+            if (requestGeneration != generation) return;
+            loading = false;
+            status.accept("Error loading customers: " + task.getException().getMessage());
+        });
+        LOADER.execute(task);
+    }
+
+    private static class Page {
+        final Collection<String> matches;
+        final List<CustomerRow> rows;
+
+        Page(Collection<String> matches, List<CustomerRow> rows) {
+            this.matches = matches;
+            this.rows = rows;
+        }
+    }
+}
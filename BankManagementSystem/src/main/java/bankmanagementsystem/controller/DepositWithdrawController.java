@@ -1,6 +1,7 @@
 package bankmanagementsystem.controller;
 
 import bankmanagementsystem.model.*;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
@@ -18,66 +19,80 @@ public class DepositWithdrawController {
 
     @FXML
     private void handleDeposit() {
-        if (customer == null) { messageLabel.setText("No customer provided."); messageLabel.setStyle("-fx-text-fill: red;"); return; }
-        String accNo = accountNoField.getText().trim();
-        double amt;
-        try {
-            amt = Double.parseDouble(amountField.getText().trim());
-            if (amt <= 0) throw new NumberFormatException();
-        } catch (Exception e) {
-            messageLabel.setText("Invalid amount.");
-            messageLabel.setStyle("-fx-text-fill: red;");
-            AuditLogger.log("transaction", customer.getCustomerId(), accNo, "deposit", "invalid amount", false);
-            return;
-        }
+        Tracing.run("DepositWithdrawController.handleDeposit", () -> {
+            if (customer == null) { messageLabel.setText("No customer provided."); messageLabel.setStyle("-fx-text-fill: red;"); return; }
+            String accNo = accountNoField.getText().trim();
+            double amt;
+            try {
+                amt = Double.parseDouble(amountField.getText().trim());
+                if (amt <= 0) throw new NumberFormatException();
+            } catch (Exception e) {
+                messageLabel.setText("Invalid amount.");
+                messageLabel.setStyle("-fx-text-fill: red;");
+                AuditLogger.log("transaction", customer.getCustomerId(), accNo, "deposit", "invalid amount", false);
+                return;
+            }
 
-        Account found = findAccount(accNo);
-        if (found == null) { messageLabel.setText("Account not found."); messageLabel.setStyle("-fx-text-fill: red;"); AuditLogger.log("transaction", customer.getCustomerId(), accNo, "deposit", "account not found", false); return; }
-        if (found.isClosed()) { messageLabel.setText("Account is closed."); messageLabel.setStyle("-fx-text-fill: red;"); AuditLogger.log("transaction", customer.getCustomerId(), accNo, "deposit", "account closed", false); return; }
+            Account found = findAccount(accNo);
+            if (found == null) { messageLabel.setText("Account not found."); messageLabel.setStyle("-fx-text-fill: red;"); AuditLogger.log("transaction", customer.getCustomerId(), accNo, "deposit", "account not found", false); return; }
+            if (found.isClosed()) { messageLabel.setText("Account is closed."); messageLabel.setStyle("-fx-text-fill: red;"); AuditLogger.log("transaction", customer.getCustomerId(), accNo, "deposit", "account closed", false); return; }
 
-        found.deposit(amt);
-        DatabaseStorage.saveAllData(BankData.getCustomers(), BankData.getCredentials());
-        AuditLogger.log("transaction", customer.getCustomerId(), accNo, "deposit", "amount=" + amt, true);
-        messageLabel.setText("Deposited BWP " + String.format("%.2f", amt));
-        messageLabel.setStyle("-fx-text-fill: green;");
+            double amount = amt;
+            BankData.depositAsync(found, amount, customer.getCustomerId())
+                    .thenAccept(ok -> Platform.runLater(() -> {
+                        if (!ok) {
+                            messageLabel.setText("Deposit of BWP " + String.format("%.2f", amount) + " could not be saved and was reversed.");
+                            messageLabel.setStyle("-fx-text-fill: red;");
+                        }
+                    }));
+            messageLabel.setText("Deposited BWP " + String.format("%.2f", amt));
+            messageLabel.setStyle("-fx-text-fill: green;");
+        });
     }
 
     @FXML
     private void handleWithdraw() {
-        if (customer == null) { messageLabel.setText("No customer provided."); messageLabel.setStyle("-fx-text-fill: red;"); return; }
-        String accNo = accountNoField.getText().trim();
-        double amt;
-        try {
-            amt = Double.parseDouble(amountField.getText().trim());
-            if (amt <= 0) throw new NumberFormatException();
-        } catch (Exception e) {
-            messageLabel.setText("Invalid amount.");
-            messageLabel.setStyle("-fx-text-fill: red;");
-            AuditLogger.log("transaction", customer.getCustomerId(), accNo, "withdraw", "invalid amount", false);
-            return;
-        }
+        Tracing.run("DepositWithdrawController.handleWithdraw", () -> {
+            if (customer == null) { messageLabel.setText("No customer provided."); messageLabel.setStyle("-fx-text-fill: red;"); return; }
+            String accNo = accountNoField.getText().trim();
+            double amt;
+            try {
+                amt = Double.parseDouble(amountField.getText().trim());
+                if (amt <= 0) throw new NumberFormatException();
+            } catch (Exception e) {
+                messageLabel.setText("Invalid amount.");
+                messageLabel.setStyle("-fx-text-fill: red;");
+                AuditLogger.log("transaction", customer.getCustomerId(), accNo, "withdraw", "invalid amount", false);
+                return;
+            }
 
-        Account found = findAccount(accNo);
-        if (found == null) { messageLabel.setText("Account not found."); messageLabel.setStyle("-fx-text-fill: red;"); AuditLogger.log("transaction", customer.getCustomerId(), accNo, "withdraw", "account not found", false); return; }
-        if (found.isClosed()) { messageLabel.setText("Account is closed."); messageLabel.setStyle("-fx-text-fill: red;"); AuditLogger.log("transaction", customer.getCustomerId(), accNo, "withdraw", "account closed", false); return; }
+            Account found = findAccount(accNo);
+            if (found == null) { messageLabel.setText("Account not found."); messageLabel.setStyle("-fx-text-fill: red;"); AuditLogger.log("transaction", customer.getCustomerId(), accNo, "withdraw", "account not found", false); return; }
+            if (found.isClosed()) { messageLabel.setText("Account is closed."); messageLabel.setStyle("-fx-text-fill: red;"); AuditLogger.log("transaction", customer.getCustomerId(), accNo, "withdraw", "account closed", false); return; }
 
-        if (found instanceof Withdraw) {
-            if (amt > found.getBalance()) {
-                messageLabel.setText("Insufficient funds.");
+            if (found instanceof Withdraw) {
+                if (amt > found.getAvailableBalance()) {
+                    messageLabel.setText("Insufficient funds. Available balance: BWP " + String.format("%.2f", found.getAvailableBalance()));
+                    messageLabel.setStyle("-fx-text-fill: red;");
+                    AuditLogger.log("transaction", customer.getCustomerId(), accNo, "withdraw", "insufficient funds: available=" + found.getAvailableBalance() + ", amount=" + amt, false);
+                    return;
+                }
+                double amount = amt;
+                BankData.withdrawAsync(found, amount, customer.getCustomerId())
+                        .thenAccept(ok -> Platform.runLater(() -> {
+                            if (!ok) {
+                                messageLabel.setText("Withdrawal of BWP " + String.format("%.2f", amount) + " could not be completed and was reversed.");
+                                messageLabel.setStyle("-fx-text-fill: red;");
+                            }
+                        }));
+                messageLabel.setText("Withdrew BWP " + String.format("%.2f", amt));
+                messageLabel.setStyle("-fx-text-fill: green;");
+            } else {
+                messageLabel.setText("Withdrawals only allowed on Investment and Cheque accounts.");
                 messageLabel.setStyle("-fx-text-fill: red;");
-                AuditLogger.log("transaction", customer.getCustomerId(), accNo, "withdraw", "insufficient funds: balance=" + found.getBalance() + ", amount=" + amt, false);
-                return;
+                AuditLogger.log("transaction", customer.getCustomerId(), accNo, "withdraw", "not allowed on account type", false);
             }
-            ((Withdraw) found).withdraw(amt);
-            DatabaseStorage.saveAllData(BankData.getCustomers(), BankData.getCredentials());
-            AuditLogger.log("transaction", customer.getCustomerId(), accNo, "withdraw", "amount=" + amt, true);
-            messageLabel.setText("Withdrew BWP " + String.format("%.2f", amt));
-            messageLabel.setStyle("-fx-text-fill: green;");
-        } else {
-            messageLabel.setText("Withdrawals only allowed on Investment and Cheque accounts.");
-            messageLabel.setStyle("-fx-text-fill: red;");
-            AuditLogger.log("transaction", customer.getCustomerId(), accNo, "withdraw", "not allowed on account type", false);
-        }
+        });
     }
 
     private Account findAccount(String accNo) {
@@ -89,7 +104,9 @@ public class DepositWithdrawController {
 
     @FXML
     private void handleClose() {
-        Stage stage = (Stage) accountNoField.getScene().getWindow();
-        stage.close();
+        Tracing.run("DepositWithdrawController.handleClose", () -> {
+            Stage stage = (Stage) accountNoField.getScene().getWindow();
+            stage.close();
+        });
     }
 }
@@ -1,16 +1,16 @@
 package bankmanagementsystem.controller;
 
+import bankmanagementsystem.controller.ViewManager.View;
 import bankmanagementsystem.model.*;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
-import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.util.List;
 
-public class EmployeeCustomerCreationController {
+public class EmployeeCustomerCreationController implements ReusableView {
     @FXML private TextField firstNameField;
     @FXML private TextField lastNameField;
     @FXML private TextField addressField;
@@ -28,32 +28,39 @@ public class EmployeeCustomerCreationController {
     @FXML private Button createButton;
     @FXML private Button backToEmployeeButton;
 
+    // Inputs the employee was already warned about; pressing Create again with the same inputs proceeds
+    private String acknowledgedDuplicateInput;
+    // What the check found for those inputs, recorded when the customer is created
+    private List<DuplicateDetector.Candidate> acknowledgedDuplicates;
+
     @FXML
     private void initialize() {
-        // Initialize customer type combo box
-        customerTypeCombo.getItems().addAll("PERSONAL", "COMPANY");
-        customerTypeCombo.setValue("PERSONAL");
+        Tracing.run("EmployeeCustomerCreationController.initialize", () -> {
+            // Initialize customer type combo box
+            customerTypeCombo.getItems().addAll("PERSONAL", "COMPANY");
+            customerTypeCombo.setValue("PERSONAL");
         
-        // Initialize account type combo box
-        accountTypeCombo.getItems().addAll("SavingsAccount", "ChequeAccount", "InvestmentAccount");
-        accountTypeCombo.setValue("SavingsAccount");
+            // Initialize account type combo box
+            accountTypeCombo.getItems().addAll("SavingsAccount", "ChequeAccount", "InvestmentAccount");
+            accountTypeCombo.setValue("SavingsAccount");
         
-        // Set initial values
-        initialBalanceField.setText("0.0");
-        branchCombo.getItems().addAll("main", "kopong", "Maun", "F-town", "Mogoditshane", "Molepolole");
-        branchCombo.setValue("main");
+            // Set initial values
+            initialBalanceField.setText("0.0");
+            branchCombo.getItems().addAll("main", "kopong", "Maun", "F-town", "Mogoditshane", "Molepolole");
+            branchCombo.setValue("main");
         
-        // Set initial additional info label
-        updateAdditionalInfoLabel();
+            // Set initial additional info label
+            updateAdditionalInfoLabel();
         
-        // Add listener to customer type combo box
-        customerTypeCombo.setOnAction(event -> { updateAdditionalInfoLabel(); event.consume(); });
+            // Add listener to customer type combo box
+            customerTypeCombo.setOnAction(event -> { updateAdditionalInfoLabel(); event.consume(); });
         
-        // Add listener to account type combo box
-        accountTypeCombo.setOnAction(event -> { updateEmploymentDetailsVisibility(); event.consume(); });
+            // Add listener to account type combo box
+            accountTypeCombo.setOnAction(event -> { updateEmploymentDetailsVisibility(); event.consume(); });
         
-        // Set initial visibility
-        updateEmploymentDetailsVisibility();
+            // Set initial visibility
+            updateEmploymentDetailsVisibility();
+        });
     }
 
     private void updateAdditionalInfoLabel() {
@@ -80,76 +87,125 @@ public class EmployeeCustomerCreationController {
 
     @FXML
     private void handleCreateCustomer() {
-        // Clear previous messages
-        errorLabel.setText("");
-        successLabel.setText("");
+        Tracing.run("EmployeeCustomerCreationController.handleCreateCustomer", () -> {
+            // Clear previous messages
+            errorLabel.setText("");
+            successLabel.setText("");
 
-        // Validate input
-        String errorMessage = validateInput();
-        if (!errorMessage.isEmpty()) {
-            errorLabel.setText(errorMessage);
-            return;
-        }
+            // Validate input
+            String errorMessage = validateInput();
+            if (!errorMessage.isEmpty()) {
+                errorLabel.setText(errorMessage);
+                return;
+            }
 
-        // Get input values
-        String firstName = firstNameField.getText().trim();
-        String lastName = lastNameField.getText().trim();
-        String address = addressField.getText().trim();
-        String customerType = customerTypeCombo.getValue();
-        String additionalInfo = additionalInfoField.getText().trim();
-        String accountType = accountTypeCombo.getValue();
-        String branch = branchCombo.getValue();
+            // Get input values
+            String firstName = firstNameField.getText().trim();
+            String lastName = lastNameField.getText().trim();
+            String address = addressField.getText().trim();
+            String customerType = customerTypeCombo.getValue();
+            String additionalInfo = additionalInfoField.getText().trim();
+            String accountType = accountTypeCombo.getValue();
+            String branch = branchCombo.getValue();
         
-        // Parse initial balance
-        double initialBalance;
-        try {
-            initialBalance = Double.parseDouble(initialBalanceField.getText().trim());
-            if (initialBalance < 0) {
-                errorLabel.setText("Initial balance cannot be negative.");
+            // Parse initial balance
+            double initialBalance;
+            try {
+                initialBalance = Double.parseDouble(initialBalanceField.getText().trim());
+                if (initialBalance < 0) {
+                    errorLabel.setText("Initial balance cannot be negative.");
+                    return;
+                }
+            } catch (NumberFormatException e) {
+                errorLabel.setText("Please enter a valid initial balance.");
                 return;
             }
-        } catch (NumberFormatException e) {
-            errorLabel.setText("Please enter a valid initial balance.");
-            return;
-        }
 
-        // Validate business rules
-        String businessRuleError = validateBusinessRules(accountType, initialBalance);
-        if (!businessRuleError.isEmpty()) {
-            errorLabel.setText(businessRuleError);
-            return;
-        }
+            // Validate business rules
+            String businessRuleError = validateBusinessRules(accountType, initialBalance);
+            if (!businessRuleError.isEmpty()) {
+                errorLabel.setText(businessRuleError);
+                return;
+            }
 
-        // Get employment details for Cheque accounts
-        String employerName = "";
-        String employerAddress = "";
-        if ("ChequeAccount".equals(accountType)) {
-            employerName = employerNameField.getText().trim();
-            employerAddress = employerAddressField.getText().trim();
-        }
-        
-        // Create customer account and get customer ID directly
-        String customerId = BankData.createCustomerAccountAndGetId(firstName, lastName, address, customerType, additionalInfo);
+            // Get employment details for Cheque accounts
+            String employerName = "";
+            String employerAddress = "";
+            if ("ChequeAccount".equals(accountType)) {
+                employerName = employerNameField.getText().trim();
+                employerAddress = employerAddressField.getText().trim();
+            }
         
-        if (customerId == null) {
-            errorLabel.setText("Invalid customer type.");
-            return;
+            // Warn about likely existing records once per set of inputs
+            String duplicateInput = String.join("|", firstName, lastName, address, customerType, additionalInfo);
+            List<DuplicateDetector.Candidate> duplicates = acknowledgedDuplicates;
+            if (!duplicateInput.equals(acknowledgedDuplicateInput)) {
+                duplicates = BankData.findPossibleDuplicates(firstName, lastName, address, customerType, additionalInfo);
+                if (!duplicates.isEmpty()) {
+                    acknowledgedDuplicateInput = duplicateInput;
+                    acknowledgedDuplicates = duplicates;
+                    errorLabel.setText(describeDuplicates(duplicates));
+                    return;
+                }
+            }
+            acknowledgedDuplicateInput = null;
+            acknowledgedDuplicates = null;
+
+            // Create the customer and its first account
+            Customer customer;
+            Account account;
+            try {
+                // The check above already ran for these inputs
+                customer = BankData.prepareCustomer(firstName, lastName, address, customerType, additionalInfo, duplicates);
+                if (customer == null) {
+                    errorLabel.setText("Invalid customer type.");
+                    return;
+                }
+                account = createAccountForCustomer(customer, accountType, branch, initialBalance, employerName, employerAddress);
+            } catch (IllegalStateException e) {
+                errorLabel.setText("Customer could not be created: " + e.getMessage() + ". Please try again.");
+                return;
+            }
+            if (account == null) {
+                errorLabel.setText("Invalid account type.");
+                return;
+            }
+
+            // Both are saved in the background and removed again if that fails
+            String customerId = customer.getCustomerId();
+            BankData.addCustomer(customer)
+                    .thenCombine(BankData.openAccountAsync(customer, account, customerId), Boolean::logicalAnd)
+                    .thenAccept(ok -> Platform.runLater(() -> {
+                        if (!ok) {
+                            successLabel.setText("");
+                            errorLabel.setText("Customer " + customerId + " could not be saved completely. Please check the customer list.");
+                        }
+                    }));
+            successLabel.setText("Customer account created successfully! Customer ID: " + customerId
+                    + "\nAccount created successfully! Account Number: " + account.getAccountNumber());
+            clearFields();
+        });
+    }
+
+
+    private String describeDuplicates(List<DuplicateDetector.Candidate> duplicates) {
+        StringBuilder sb = new StringBuilder("Possible existing customer:");
+        for (DuplicateDetector.Candidate candidate : duplicates.subList(0, Math.min(3, duplicates.size()))) {
+            Customer existing = BankData.findCustomerById(candidate.getCustomerId());
+            sb.append("\n").append(candidate.getCustomerId());
+            if (existing != null) {
+                sb.append(" ").append(existing.getFirstName()).append(" ").append(existing.getLastName())
+                  .append(", ").append(existing.getAddress());
+            }
+            sb.append(" (").append(candidate.getReason()).append(")");
         }
-        
-        // Create account for the customer
-        String accountResult = createAccountForCustomer(customerId, accountType, branch, initialBalance, employerName, employerAddress);
-        
-        if (accountResult.startsWith("Account created successfully")) {
-            String result = "Customer account created successfully! Customer ID: " + customerId;
-            successLabel.setText(result + "\n" + accountResult);
-        } else {
-            String result = "Customer account created successfully! Customer ID: " + customerId;
-            errorLabel.setText(result + "\n" + accountResult);
+        if (duplicates.size() > 3) {
+            sb.append("\n...and ").append(duplicates.size() - 3).append(" more");
         }
-        clearFields();
+        sb.append("\nPress Create again to create a new customer anyway.");
+        return sb.toString();
     }
 
-
     private String validateBusinessRules(String accountType, double initialBalance) {
         // Investment account minimum balance rule
         if ("InvestmentAccount".equals(accountType) && initialBalance < 500) {
@@ -169,12 +225,7 @@ public class EmployeeCustomerCreationController {
         return "";
     }
 
-    private String createAccountForCustomer(String customerId, String accountType, String branch, double initialBalance, String employerName, String employerAddress) {
-        Customer customer = BankData.findCustomerById(customerId);
-        if (customer == null) {
-            return "Customer not found.";
-        }
-
+    private Account createAccountForCustomer(Customer customer, String accountType, String branch, double initialBalance, String employerName, String employerAddress) {
         // Generate account number
         String accountNumber = generateAccountNumber(accountType);
         
@@ -192,26 +243,14 @@ public class EmployeeCustomerCreationController {
                 account = new InvestmentAccount(accountNumber, customer, branch, initialBalance);
                 break;
             default:
-                return "Invalid account type.";
+                return null;
         }
-
-        // Add account to customer and save to database
-        BankData.addAccountToCustomer(customerId, account);
-        
-        // Ensure account is saved directly to database
-        AccountDAO.saveAccount(account);
-
-        return "Account created successfully! Account Number: " + accountNumber;
+        return account;
     }
 
     private String generateAccountNumber(String accountType) {
-        // Simple account number generation
         String prefix = accountType.substring(0, 2).toUpperCase(); // SA, CA, IA
-        int count = 0;
-        for (Customer customer : BankData.getCustomers()) {
-            count += customer.getAccounts().size();
-        }
-        return prefix + String.format("%04d", count + 1);
+        return IdAllocator.nextAccountNumber(prefix);
     }
 
     private String validateInput() {
@@ -263,9 +302,17 @@ public class EmployeeCustomerCreationController {
 
     @FXML
     private void handleBackToEmployee() throws IOException {
-        Stage stage = (Stage) backToEmployeeButton.getScene().getWindow();
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/EmployeeDashboard.fxml"));
-        stage.setScene(new Scene(loader.load()));
-        stage.setTitle("Employee Dashboard");
+        Tracing.run("EmployeeCustomerCreationController.handleBackToEmployee", () -> {
+            ViewManager.show(View.EMPLOYEE_DASHBOARD);
+        });
+    }
+
+    @Override
+    public void resetView() {
+        clearFields();
+        errorLabel.setText("");
+        successLabel.setText("");
+        acknowledgedDuplicateInput = null;
+        acknowledgedDuplicates = null;
     }
 }
@@ -1,80 +1,219 @@
 package bankmanagementsystem.controller;
 
+import bankmanagementsystem.controller.ViewManager.View;
 import bankmanagementsystem.model.*;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
-import javafx.stage.Stage;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.stage.FileChooser;
+import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
-public class EmployeeDashboardController {
+public class EmployeeDashboardController implements ReusableView {
     @FXML private Button registerCustomerButton;
     @FXML private Button viewCustomersButton;
     @FXML private Button viewAuditButton;
+    @FXML private Label saveStatusLabel;
+    @FXML private TextField payrollEmployerField;
+    @FXML private TextField payrollAccountField;
+
+    @Override
+    public void resetView() {
+        saveStatusLabel.setText("");
+        payrollEmployerField.clear();
+        payrollAccountField.clear();
+    }
 
     @FXML
     private void handleRegisterCustomer() throws IOException {
-        // Close current window
-        Stage currentStage = (Stage) registerCustomerButton.getScene().getWindow();
-        
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/EmployeeCustomerCreationView.fxml"));
-        Stage stage = new Stage();
-        stage.setScene(new Scene(loader.load()));
-        stage.setTitle("Create Customer Account");
-        stage.show();
-        
-        // Close the current window
-        currentStage.close();
+        Tracing.run("EmployeeDashboardController.handleRegisterCustomer", () -> {
+            ViewManager.show(View.CREATE_CUSTOMER);
+        });
     }
 
 
     @FXML
     private void handleViewCustomers() throws IOException {
-        // Close current window
-        Stage currentStage = (Stage) viewCustomersButton.getScene().getWindow();
-        
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/ViewCustomersView.fxml"));
-        Stage stage = new Stage();
-        stage.setScene(new Scene(loader.load()));
-        stage.setTitle("View All Customers");
-        stage.show();
-        
-        // Close the current window
-        currentStage.close();
+        Tracing.run("EmployeeDashboardController.handleViewCustomers", () -> {
+            ViewManager.show(View.VIEW_CUSTOMERS);
+        });
     }
 
     @FXML
     private void handleViewAuditLog() throws IOException {
-        Stage stage = new Stage();
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/AuditLogView.fxml"));
-        stage.setScene(new Scene(loader.load()));
-        stage.setTitle("Audit Log");
-        stage.show();
+        Tracing.run("EmployeeDashboardController.handleViewAuditLog", () -> {
+            // Opens next to the dashboard rather than replacing it
+            ViewManager.showInWindow(View.AUDIT_LOG);
+        });
+    }
+
+    @FXML
+    private void handleViewOperations() throws IOException {
+        Tracing.run("EmployeeDashboardController.handleViewOperations", () -> {
+            ViewManager.showInWindow(View.OPERATIONS);
+        });
     }
 
     @FXML
     private void handleApplyInterest() {
-        BankData.applyAutomaticInterest();
+        Tracing.run("EmployeeDashboardController.handleApplyInterest", () -> {
+            // The run goes to the background, so the operations dashboard can show its progress
+            saveStatusLabel.setText("Applying interest...");
+            saveStatusLabel.setStyle("-fx-text-fill: #7f8c8d;");
+            BankData.applyAutomaticInterest().thenAccept(ok -> Platform.runLater(() -> {
+                saveStatusLabel.setText(ok ? "Interest applied." : "Interest could not be saved for some accounts and was reversed.");
+                saveStatusLabel.setStyle(ok ? "-fx-text-fill: #27ae60;" : "-fx-text-fill: #e74c3c;");
+            }));
+        });
+    }
+
+    @FXML
+    private void handleScanDuplicates() {
+        Tracing.run("EmployeeDashboardController.handleScanDuplicates", () -> {
+            // Scoring every block takes a while on a large book, so it runs off the FX thread
+            saveStatusLabel.setText("Scanning for duplicate customers...");
+            saveStatusLabel.setStyle("-fx-text-fill: #7f8c8d;");
+            CompletableFuture.supplyAsync(BankData::scanForDuplicates).whenComplete((pairs, error) -> Platform.runLater(() -> {
+                if (error != null) {
+                    Throwable cause = error.getCause() != null ? error.getCause() : error;
+                    saveStatusLabel.setText("Duplicate scan failed: " + cause.getMessage());
+                    saveStatusLabel.setStyle("-fx-text-fill: #e74c3c;");
+                } else {
+                    saveStatusLabel.setText(describePairs(pairs));
+                    saveStatusLabel.setStyle(pairs.isEmpty() ? "-fx-text-fill: #27ae60;" : "-fx-text-fill: #e67e22;");
+                }
+            }));
+        });
+    }
+
+    private String describePairs(List<DuplicateDetector.Pair> pairs) {
+        if (pairs.isEmpty()) {
+            return "No likely duplicate customers found.";
+        }
+        StringBuilder sb = new StringBuilder(pairs.size() + " likely duplicate pair(s):");
+        for (DuplicateDetector.Pair pair : pairs.subList(0, Math.min(5, pairs.size()))) {
+            sb.append("\n").append(pair);
+        }
+        return sb.toString();
+    }
+
+    @FXML
+    private void handleRunPayroll() {
+        Tracing.run("EmployeeDashboardController.handleRunPayroll", () -> {
+            String employer = payrollEmployerField.getText().trim();
+            String companyAccount = payrollAccountField.getText().trim();
+            if (employer.isEmpty() || companyAccount.isEmpty()) {
+                saveStatusLabel.setText("Enter the employer name and the company account to debit.");
+                saveStatusLabel.setStyle("-fx-text-fill: #e74c3c;");
+                return;
+            }
+            FileChooser chooser = new FileChooser();
+            chooser.setTitle("Employer payment file");
+            chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Payment files", "*.csv", "*.txt"));
+            File file = chooser.showOpenDialog(saveStatusLabel.getScene().getWindow());
+            if (file == null) {
+                return;
+            }
+            // Parsing and posting a large file takes a while, so the run goes off the FX thread
+            saveStatusLabel.setText("Running payroll for " + employer + "...");
+            saveStatusLabel.setStyle("-fx-text-fill: #7f8c8d;");
+            CompletableFuture.supplyAsync(() -> {
+                try {
+                    return PayrollRun.run(employer, companyAccount, PayrollRun.parsePaymentFile(file.toPath()), "employee");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).whenComplete((report, error) -> Platform.runLater(() -> {
+                if (error != null) {
+                    Throwable cause = error.getCause() != null ? error.getCause() : error;
+                    saveStatusLabel.setText("Payroll failed: " + cause.getMessage());
+                    saveStatusLabel.setStyle("-fx-text-fill: #e74c3c;");
+                } else {
+                    saveStatusLabel.setText(describePayroll(report));
+                    saveStatusLabel.setStyle(report.getStatus() != PayrollReport.Status.POSTED ? "-fx-text-fill: #e74c3c;"
+                            : report.getExceptions().isEmpty() ? "-fx-text-fill: #27ae60;" : "-fx-text-fill: #e67e22;");
+                }
+            }));
+        });
+    }
+
+    @FXML
+    private void handlePostBatch() {
+        Tracing.run("EmployeeDashboardController.handlePostBatch", () -> {
+            FileChooser chooser = new FileChooser();
+            chooser.setTitle("Back-office posting file");
+            chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Posting files", "*.csv", "*.txt"));
+            File file = chooser.showOpenDialog(saveStatusLabel.getScene().getWindow());
+            if (file == null) {
+                return;
+            }
+            saveStatusLabel.setText("Posting " + file.getName() + "...");
+            saveStatusLabel.setStyle("-fx-text-fill: #7f8c8d;");
+            CompletableFuture.supplyAsync(() -> {
+                try {
+                    return BatchPosting.post(BatchPosting.parsePostingFile(file.toPath()), "employee");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).whenComplete((results, error) -> Platform.runLater(() -> {
+                if (error != null) {
+                    Throwable cause = error.getCause() != null ? error.getCause() : error;
+                    saveStatusLabel.setText("Posting failed: " + cause.getMessage());
+                    saveStatusLabel.setStyle("-fx-text-fill: #e74c3c;");
+                } else {
+                    long applied = results.stream().filter(PostingResult::isApplied).count();
+                    saveStatusLabel.setText(describePostings(results, applied));
+                    saveStatusLabel.setStyle(applied == results.size() ? "-fx-text-fill: #27ae60;" : "-fx-text-fill: #e67e22;");
+                }
+            }));
+        });
+    }
+
+    private String describePostings(List<PostingResult> results, long applied) {
+        StringBuilder sb = new StringBuilder(applied + "/" + results.size() + " posting(s) applied");
+        int shown = 0;
+        for (PostingResult result : results) {
+            if (!result.isApplied() && shown++ < 5) {
+                sb.append("\n").append(result);
+            }
+        }
+        return sb.toString();
+    }
+
+    private String describePayroll(PayrollReport report) {
+        if (report.getStatus() != PayrollReport.Status.POSTED) {
+            return "Payroll " + report.getStatus().name().toLowerCase() + ": " + report.getMessage();
+        }
+        StringBuilder sb = new StringBuilder(String.format("Payroll posted: %d credits, BWP %.2f, %d exception(s)",
+                report.getCreditedCount(), report.getCreditedTotal(), report.getExceptions().size()));
+        for (String exception : report.getExceptions().subList(0, Math.min(5, report.getExceptions().size()))) {
+            sb.append("\n").append(exception);
+        }
+        return sb.toString();
     }
 
     @FXML
     private void handleSaveData() {
-        DatabaseStorage.saveAllData(BankData.getCustomers(), BankData.getCredentials());
+        Tracing.run("EmployeeDashboardController.handleSaveData", () -> {
+            saveStatusLabel.setText("Saving...");
+            saveStatusLabel.setStyle("-fx-text-fill: #7f8c8d;");
+            PersistenceExecutor.saveAllData(BankData.getCustomers(), BankData.getCredentials())
+                    .thenAccept(ok -> Platform.runLater(() -> {
+                        saveStatusLabel.setText(ok ? "All data saved." : "Some data could not be saved. See the console for details.");
+                        saveStatusLabel.setStyle(ok ? "-fx-text-fill: #27ae60;" : "-fx-text-fill: #e74c3c;");
+                    }));
+        });
     }
 
     @FXML
     private void handleLogout() throws IOException {
-        // Close current window
-        Stage currentStage = (Stage) registerCustomerButton.getScene().getWindow();
-        
-        Stage stage = new Stage();
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/LoginView.fxml"));
-        stage.setScene(new Scene(loader.load()));
-        stage.setTitle("Bank Management System - Login");
-        stage.show();
-        
-        // Close the current window
-        currentStage.close();
+        Tracing.run("EmployeeDashboardController.handleLogout", () -> {
+            ViewManager.show(View.LOGIN);
+        });
     }
 }
@@ -0,0 +1,43 @@
+package bankmanagementsystem.controller;
+
+import bankmanagementsystem.model.BankEvent;
+import bankmanagementsystem.model.BankEventBus;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Delivers {@link BankEvent}s to a screen on the FX thread, at most once per frame.
+ * Events are coalesced per account/customer off the FX thread; the first pending event starts an
+ * animation timer, which drains everything pending on the next pulse, hands it to the screen and
+ * stops again. A burst of thousands of balance changes therefore becomes one patch per frame with one
+ * entry per changed row, and an idle screen costs nothing.
+ */
+class LiveUpdates {
+    private final AnimationTimer frame;
+
+    /**
+     * @param onFrame Called on the FX thread with the latest event per subject since the last frame
+     */
+    LiveUpdates(Consumer<List<BankEvent>> onFrame) {
+        BankEventBus.Coalescer coalescer = new BankEventBus.Coalescer(() -> Platform.runLater(this::start));
+        this.frame = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                stop();
+                List<BankEvent> events = coalescer.drain();
+                if (!events.isEmpty()) {
+                    onFrame.accept(events);
+                }
+            }
+        };
+        // Screens are cached for the life of the application, so the subscription is too
+        BankEventBus.subscribe(coalescer);
+    }
+
+    private void start() {
+        frame.start();
+    }
+}
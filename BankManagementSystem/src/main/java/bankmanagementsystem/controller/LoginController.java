@@ -2,14 +2,13 @@ package bankmanagementsystem.controller;
 
 import bankmanagementsystem.model.BankData;
 import bankmanagementsystem.model.Customer;
+import bankmanagementsystem.model.Tracing;
+import bankmanagementsystem.controller.ViewManager.View;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Scene;
-import javafx.stage.Stage;
 import java.io.IOException;
 
-public class LoginController {
+public class LoginController implements ReusableView {
     @FXML private TextField usernameField;
     @FXML private PasswordField passwordField;
     @FXML private Label errorLabel;
@@ -17,43 +16,44 @@ public class LoginController {
 
     @FXML
     private void handleLogin() throws IOException {
-        String user = usernameField.getText();
-        String pass = passwordField.getText();
+        Tracing.run("LoginController.handleLogin", () -> {
+            String user = usernameField.getText();
+            String pass = passwordField.getText();
 
-        Stage stage = (Stage) usernameField.getScene().getWindow();
-
-        if (BankData.isEmployee(user, pass)) {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/EmployeeDashboard.fxml"));
-            stage.setScene(new Scene(loader.load()));
-            stage.setTitle("Employee Dashboard");
-        } else if (BankData.isCustomer(user, pass)) {
-            try {
-                FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/CustomerDashboard.fxml"));
-                stage.setScene(new Scene(loader.load()));
-                stage.setTitle("Customer Dashboard");
+            if (BankData.isEmployee(user, pass)) {
+                ViewManager.show(View.EMPLOYEE_DASHBOARD);
+            } else if (BankData.isCustomer(user, pass)) {
+                try {
+                    CustomerDashboardController dashboardController = ViewManager.show(View.CUSTOMER_DASHBOARD);
                 
-                // Pass customer to dashboard controller
-                CustomerDashboardController dashboardController = loader.getController();
-                Customer customer = BankData.getCustomerByUsername(user);
-                if (customer != null) {
-                    dashboardController.setCustomer(customer);
-                } else {
-                    errorLabel.setText("Customer data not found!");
+                    // Pass customer to dashboard controller
+                    Customer customer = BankData.getCustomerByUsername(user);
+                    if (customer != null) {
+                        dashboardController.setCustomer(customer);
+                    } else {
+                        errorLabel.setText("Customer data not found!");
+                    }
+                } catch (Exception e) {
+                    errorLabel.setText("Error loading customer dashboard: " + e.getMessage());
+                    e.printStackTrace();
                 }
-            } catch (Exception e) {
-                errorLabel.setText("Error loading customer dashboard: " + e.getMessage());
-                e.printStackTrace();
+            } else {
+                errorLabel.setText("Invalid credentials!");
             }
-        } else {
-            errorLabel.setText("Invalid credentials!");
-        }
+        });
     }
 
     @FXML
     private void handleSetupCredentials() throws IOException {
-        Stage stage = (Stage) setupCredentialsButton.getScene().getWindow();
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/CustomerCredentialSetupView.fxml"));
-        stage.setScene(new Scene(loader.load()));
-        stage.setTitle("Bank Management System - Setup Credentials");
+        Tracing.run("LoginController.handleSetupCredentials", () -> {
+            ViewManager.show(View.SETUP_CREDENTIALS);
+        });
+    }
+
+    @Override
+    public void resetView() {
+        usernameField.clear();
+        passwordField.clear();
+        errorLabel.setText("");
     }
 }
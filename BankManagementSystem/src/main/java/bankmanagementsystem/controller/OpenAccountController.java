@@ -1,6 +1,7 @@
 package bankmanagementsystem.controller;
 
 import bankmanagementsystem.model.*;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
@@ -25,101 +26,118 @@ public class OpenAccountController {
 
     @FXML
     public void initialize() {
-        custTypeChoice.getItems().addAll("Personal", "Company");
-        accTypeChoice.getItems().addAll("Savings", "Investment", "Cheque");
-        // set defaults
-        custTypeChoice.setValue("Personal");
-        accTypeChoice.setValue("Savings");
-        branchChoice.getItems().addAll("main", "kopong", "Maun", "F-town", "Mogoditshane", "Molepolole");
-        branchChoice.setValue("main");
-        messageLabel.setText("");
+        Tracing.run("OpenAccountController.initialize", () -> {
+            custTypeChoice.getItems().addAll("Personal", "Company");
+            accTypeChoice.getItems().addAll("Savings", "Investment", "Cheque");
+            // set defaults
+            custTypeChoice.setValue("Personal");
+            accTypeChoice.setValue("Savings");
+            branchChoice.getItems().addAll("main", "kopong", "Maun", "F-town", "Mogoditshane", "Molepolole");
+            branchChoice.setValue("main");
+            messageLabel.setText("");
+        });
     }
 
     @FXML
     private void handleCreateAccount() {
-        String custType = custTypeChoice.getValue();
-        String accType = accTypeChoice.getValue();
+        Tracing.run("OpenAccountController.handleCreateAccount", () -> {
+            String custType = custTypeChoice.getValue();
+            String accType = accTypeChoice.getValue();
 
-        // validate opening balance
-        double openingBalance;
-        try {
-            openingBalance = Double.parseDouble(openingBalanceField.getText().trim());
-            if (openingBalance < 0) throw new NumberFormatException();
-        } catch (Exception e) {
-            messageLabel.setText("Invalid opening balance.");
-            messageLabel.setStyle("-fx-text-fill: red;");
-            return;
-        }
-
-        // Build customer
-        Customer customer;
-        String custId = IdUtil.nextId("CUST");
-        if ("Personal".equals(custType)) {
-            // minimal validation
-            if (firstNameField.getText().isBlank() || lastNameField.getText().isBlank()) {
-                messageLabel.setText("First and last names are required.");
+            // validate opening balance
+            double openingBalance;
+            try {
+                openingBalance = Double.parseDouble(openingBalanceField.getText().trim());
+                if (openingBalance < 0) throw new NumberFormatException();
+            } catch (Exception e) {
+                messageLabel.setText("Invalid opening balance.");
                 messageLabel.setStyle("-fx-text-fill: red;");
                 return;
             }
-            customer = new PersonalCustomer(custId,
-                    firstNameField.getText().trim(),
-                    lastNameField.getText().trim(),
-                    addressField.getText().trim(),
-                    nationalIdField.getText().trim());
-        } else {
-            if (companyNameField.getText().isBlank()) {
-                messageLabel.setText("Company name is required.");
+
+            // Build customer
+            Customer customer;
+            String custId;
+            String accNo;
+            try {
+                custId = IdAllocator.nextCustomerId();
+                accNo = IdAllocator.nextAccountNumber("ACC");
+            } catch (IllegalStateException e) {
+                messageLabel.setText("Account could not be created: " + e.getMessage() + ". Please try again.");
                 messageLabel.setStyle("-fx-text-fill: red;");
                 return;
             }
-            customer = new CompanyCustomer(custId,
-                    firstNameField.getText().trim(),
-                    lastNameField.getText().trim(),
-                    addressField.getText().trim(),
-                    companyNameField.getText().trim(),
-                    companyAddressField.getText().trim());
-        }
+            if ("Personal".equals(custType)) {
+                // minimal validation
+                if (firstNameField.getText().isBlank() || lastNameField.getText().isBlank()) {
+                    messageLabel.setText("First and last names are required.");
+                    messageLabel.setStyle("-fx-text-fill: red;");
+                    return;
+                }
+                customer = new PersonalCustomer(custId,
+                        firstNameField.getText().trim(),
+                        lastNameField.getText().trim(),
+                        addressField.getText().trim(),
+                        nationalIdField.getText().trim());
+            } else {
+                if (companyNameField.getText().isBlank()) {
+                    messageLabel.setText("Company name is required.");
+                    messageLabel.setStyle("-fx-text-fill: red;");
+                    return;
+                }
+                customer = new CompanyCustomer(custId,
+                        firstNameField.getText().trim(),
+                        lastNameField.getText().trim(),
+                        addressField.getText().trim(),
+                        companyNameField.getText().trim(),
+                        companyAddressField.getText().trim());
+            }
 
-        // Create account based on type and rules
-        String accNo = IdUtil.nextId("ACC");
-        Account account = null;
+            // Create account based on type and rules
+            Account account = null;
 
-        try {
-            switch (accType) {
-                case "Savings" -> {
-                    account = new SavingsAccount(accNo, customer, branchChoice.getValue(), openingBalance);
-                }
-                case "Investment" -> {
-                    if (openingBalance < 500.0) {
-                        messageLabel.setText("Investment account requires minimum opening balance of BWP 500.");
-                        messageLabel.setStyle("-fx-text-fill: red;");
-                        return;
+            try {
+                switch (accType) {
+                    case "Savings" -> {
+                        account = new SavingsAccount(accNo, customer, branchChoice.getValue(), openingBalance);
                     }
-                    account = new InvestmentAccount(accNo, customer, branchChoice.getValue(), openingBalance);
-                }
-                case "Cheque" -> {
-                    if (employerNameField.getText().isBlank() || employerAddressField.getText().isBlank()) {
-                        messageLabel.setText("Employer details required for Cheque account.");
-                        messageLabel.setStyle("-fx-text-fill: red;");
-                        return;
+                    case "Investment" -> {
+                        if (openingBalance < 500.0) {
+                            messageLabel.setText("Investment account requires minimum opening balance of BWP 500.");
+                            messageLabel.setStyle("-fx-text-fill: red;");
+                            return;
+                        }
+                        account = new InvestmentAccount(accNo, customer, branchChoice.getValue(), openingBalance);
+                    }
+                    case "Cheque" -> {
+                        if (employerNameField.getText().isBlank() || employerAddressField.getText().isBlank()) {
+                            messageLabel.setText("Employer details required for Cheque account.");
+                            messageLabel.setStyle("-fx-text-fill: red;");
+                            return;
+                        }
+                        account = new ChequeAccount(accNo, customer, branchChoice.getValue(), openingBalance,
+                                employerNameField.getText().trim(), employerAddressField.getText().trim());
                     }
-                    account = new ChequeAccount(accNo, customer, branchChoice.getValue(), openingBalance,
-                            employerNameField.getText().trim(), employerAddressField.getText().trim());
                 }
+            } catch (IllegalArgumentException ex) {
+                messageLabel.setText("Failed: " + ex.getMessage());
+                messageLabel.setStyle("-fx-text-fill: red;");
+                return;
             }
-        } catch (IllegalArgumentException ex) {
-            messageLabel.setText("Failed: " + ex.getMessage());
-            messageLabel.setStyle("-fx-text-fill: red;");
-            return;
-        }
 
-        // Add account to customer and save
-        customer.addAccount(account);
-        BankData.addCustomer(customer);
-        DatabaseStorage.saveData(BankData.getCustomers()); // persist to text file
-        messageLabel.setText("Account created: " + accNo + " for " + customer.getFirstName() + " " + customer.getLastName());
-        messageLabel.setStyle("-fx-text-fill: green;");
-        clearForm();
+            // Add account to customer and save
+            customer.addAccount(account);
+            BankData.addCustomer(customer) // saved in the background
+                    .thenAccept(ok -> Platform.runLater(() -> {
+                        if (!ok) {
+                            messageLabel.setText("Account " + accNo + " could not be saved and was removed.");
+                            messageLabel.setStyle("-fx-text-fill: red;");
+                        }
+                    }));
+            messageLabel.setText("Account created: " + accNo + " for " + customer.getFirstName() + " " + customer.getLastName());
+            messageLabel.setStyle("-fx-text-fill: green;");
+            clearForm();
+        });
     }
 
     private void clearForm() {
@@ -131,8 +149,10 @@ public class OpenAccountController {
 
     @FXML
     private void handleCancel() {
-        // close current window
-        Stage stage = (Stage) custTypeChoice.getScene().getWindow();
-        stage.close();
+        Tracing.run("OpenAccountController.handleCancel", () -> {
+            // close current window
+            Stage stage = (Stage) custTypeChoice.getScene().getWindow();
+            stage.close();
+        });
     }
 }
@@ -0,0 +1,128 @@
+package bankmanagementsystem.controller;
+
+import bankmanagementsystem.model.OperationsMetrics;
+import bankmanagementsystem.model.Tracing;
+import eu.hansolo.tilesfx.Tile;
+import eu.hansolo.tilesfx.TileBuilder;
+import eu.hansolo.tilesfx.skins.BarChartItem;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.fxml.FXML;
+import javafx.scene.layout.GridPane;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Live operations view: throughput, posting latency, connection pool, audit backlog, deposits by
+ * branch and interest-run progress. Tiles are refreshed from {@link OperationsMetrics#sample()} at a
+ * fixed rate while the window is open; sampling reads in-memory counters only, never the database.
+ */
+public class OperationsDashboardController implements ReusableView {
+    private static final Duration REFRESH = Duration.seconds(1);
+    private static final double TILE_SIZE = 250;
+
+    @FXML private GridPane tileGrid;
+
+    private final Timeline refresh = new Timeline(new KeyFrame(REFRESH, e -> update()));
+    private final Map<String, BarChartItem> branchItems = new HashMap<>();
+    private Tile throughputTile;
+    private Tile p50Tile;
+    private Tile p99Tile;
+    private Tile poolTile;
+    private Tile auditTile;
+    private Tile depositsTile;
+    private Tile interestTile;
+
+    @FXML
+    private void initialize() {
+        Tracing.run("OperationsDashboardController.initialize", () -> {
+            throughputTile = TileBuilder.create().skinType(Tile.SkinType.SPARK_LINE)
+                    .prefSize(TILE_SIZE, TILE_SIZE).title("Transactions / sec").unit("tx/s").decimals(1)
+                    .averagingPeriod(60).build();
+            p50Tile = TileBuilder.create().skinType(Tile.SkinType.SPARK_LINE)
+                    .prefSize(TILE_SIZE, TILE_SIZE).title("Posting latency p50").unit("ms").decimals(2)
+                    .averagingPeriod(60).build();
+            p99Tile = TileBuilder.create().skinType(Tile.SkinType.SPARK_LINE)
+                    .prefSize(TILE_SIZE, TILE_SIZE).title("Posting latency p99").unit("ms").decimals(2)
+                    .averagingPeriod(60).build();
+            poolTile = TileBuilder.create().skinType(Tile.SkinType.GAUGE)
+                    .prefSize(TILE_SIZE, TILE_SIZE).title("DB pool active").unit("conn").decimals(0)
+                    .minValue(0).maxValue(10).build();
+            auditTile = TileBuilder.create().skinType(Tile.SkinType.NUMBER)
+                    .prefSize(TILE_SIZE, TILE_SIZE).title("Audit queue depth").unit("records").decimals(0)
+                    .description("waiting to be written").build();
+            depositsTile = TileBuilder.create().skinType(Tile.SkinType.BAR_CHART)
+                    .prefSize(TILE_SIZE * 2, TILE_SIZE).title("Deposits by branch (BWP, since start)").decimals(2)
+                    .build();
+            interestTile = TileBuilder.create().skinType(Tile.SkinType.CIRCULAR_PROGRESS)
+                    .prefSize(TILE_SIZE, TILE_SIZE).title("Interest run").unit("%").decimals(0)
+                    .minValue(0).maxValue(100).text("idle").build();
+
+            tileGrid.add(throughputTile, 0, 0);
+            tileGrid.add(p50Tile, 1, 0);
+            tileGrid.add(p99Tile, 2, 0);
+            tileGrid.add(poolTile, 3, 0);
+            tileGrid.add(auditTile, 0, 1);
+            tileGrid.add(depositsTile, 1, 1, 2, 1);
+            tileGrid.add(interestTile, 3, 1);
+
+            refresh.setCycleCount(Animation.INDEFINITE);
+        });
+    }
+
+    @Override
+    public void resetView() {
+        // Start a fresh window so the first tick does not average over the time the view was hidden
+        OperationsMetrics.sample();
+        refresh.play();
+    }
+
+    @FXML
+    private void handleClose() {
+        Tracing.run("OperationsDashboardController.handleClose", () -> {
+            refresh.stop();
+            Stage stage = (Stage) tileGrid.getScene().getWindow();
+            stage.close();
+        });
+    }
+
+    private void update() {
+        if (tileGrid.getScene() == null || tileGrid.getScene().getWindow() == null
+                || !tileGrid.getScene().getWindow().isShowing()) {
+            // Closed with the window button; stop sampling until shown again
+            refresh.stop();
+            return;
+        }
+        OperationsMetrics.Snapshot snapshot = OperationsMetrics.sample();
+
+        throughputTile.setValue(snapshot.getTransactionsPerSecond());
+        p50Tile.setValue(snapshot.getP50Millis());
+        p99Tile.setValue(snapshot.getP99Millis());
+
+        if (snapshot.getPoolMax() > 0 && poolTile.getMaxValue() != snapshot.getPoolMax()) {
+            poolTile.setMaxValue(snapshot.getPoolMax());
+        }
+        poolTile.setValue(snapshot.getPoolActive());
+        poolTile.setDescription("idle " + snapshot.getPoolIdle() + ", waiting " + snapshot.getPoolWaiting());
+
+        auditTile.setValue(snapshot.getAuditQueueDepth());
+
+        for (Map.Entry<String, Double> entry : snapshot.getDepositsByBranch().entrySet()) {
+            BarChartItem item = branchItems.get(entry.getKey());
+            if (item == null) {
+                item = new BarChartItem(entry.getKey().isEmpty() ? "(none)" : entry.getKey(), entry.getValue());
+                branchItems.put(entry.getKey(), item);
+                depositsTile.addBarChartItem(item);
+            } else if (item.getValue() != entry.getValue()) {
+                item.setValue(entry.getValue());
+            }
+        }
+
+        interestTile.setValue(snapshot.getInterestProgress() * 100);
+        interestTile.setText(snapshot.isInterestRunning() ? "running" : "idle");
+    }
+}
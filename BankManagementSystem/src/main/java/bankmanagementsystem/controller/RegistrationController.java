@@ -1,15 +1,18 @@
 package bankmanagementsystem.controller;
 
+import bankmanagementsystem.controller.ViewManager.View;
 import bankmanagementsystem.model.BankData;
+import bankmanagementsystem.model.CredentialFilters;
+import bankmanagementsystem.model.Customer;
+import bankmanagementsystem.model.CustomerCredentials;
+import bankmanagementsystem.model.Tracing;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.stage.Stage;
 
 import java.io.IOException;
 
-public class RegistrationController {
+public class RegistrationController implements ReusableView {
     @FXML private TextField firstNameField;
     @FXML private TextField lastNameField;
     @FXML private TextField addressField;
@@ -18,6 +21,8 @@ public class RegistrationController {
     @FXML private PasswordField passwordField;
     @FXML private PasswordField confirmPasswordField;
     @FXML private TextField emailField;
+    @FXML private Label usernameStatusLabel;
+    @FXML private Label emailStatusLabel;
     @FXML private TextField additionalInfoField;
     @FXML private Label additionalInfoLabel;
     @FXML private Label errorLabel;
@@ -27,15 +32,23 @@ public class RegistrationController {
 
     @FXML
     private void initialize() {
-        // Initialize customer type combo box
-        customerTypeCombo.getItems().addAll("PERSONAL", "COMPANY");
-        customerTypeCombo.setValue("PERSONAL");
+        Tracing.run("RegistrationController.initialize", () -> {
+            // Initialize customer type combo box
+            customerTypeCombo.getItems().addAll("PERSONAL", "COMPANY");
+            customerTypeCombo.setValue("PERSONAL");
         
-        // Set initial additional info label
-        updateAdditionalInfoLabel();
+            // Set initial additional info label
+            updateAdditionalInfoLabel();
         
-        // Add listener to customer type combo box
-        customerTypeCombo.setOnAction(event -> updateAdditionalInfoLabel());
+            // Add listener to customer type combo box
+            customerTypeCombo.setOnAction(event -> updateAdditionalInfoLabel());
+
+            // Validate username and email availability as the user types
+            AvailabilityCheck.attach(usernameField, usernameStatusLabel, "Username",
+                    CredentialFilters::isUsernameDefinitelyAvailable, BankData::isUsernameAvailable);
+            AvailabilityCheck.attach(emailField, emailStatusLabel, "Email",
+                    CredentialFilters::isEmailDefinitelyAvailable, BankData::isEmailAvailable);
+        });
     }
 
     private void updateAdditionalInfoLabel() {
@@ -51,44 +64,68 @@ public class RegistrationController {
 
     @FXML
     private void handleRegister() {
-        // Clear previous messages
-        errorLabel.setText("");
-        successLabel.setText("");
-
-        // Validate input
-        String errorMessage = validateInput();
-        if (!errorMessage.isEmpty()) {
-            errorLabel.setText(errorMessage);
-            return;
-        }
-
-        // Get input values
-        String firstName = firstNameField.getText().trim();
-        String lastName = lastNameField.getText().trim();
-        String address = addressField.getText().trim();
-        String customerType = customerTypeCombo.getValue();
-        String username = usernameField.getText().trim();
-        String password = passwordField.getText();
-        String email = emailField.getText().trim();
-        String additionalInfo = additionalInfoField.getText().trim();
-
-        // For company customers, we need both company name and address
-        if ("COMPANY".equals(customerType)) {
-            // In a real system, you'd have separate fields for company name and address
-            // For now, we'll use the additionalInfo field for company name only
-            additionalInfo = additionalInfo + "|"; // Empty company address for now
-        }
-
-        // Register customer
-        String result = BankData.registerCustomer(firstName, lastName, address, customerType, 
-                                                username, password, email, additionalInfo);
-
-        if (result.startsWith("Registration successful")) {
-            successLabel.setText(result);
+        Tracing.run("RegistrationController.handleRegister", () -> {
+            // Clear previous messages
+            errorLabel.setText("");
+            successLabel.setText("");
+
+            // Validate input
+            String errorMessage = validateInput();
+            if (!errorMessage.isEmpty()) {
+                errorLabel.setText(errorMessage);
+                return;
+            }
+
+            // Get input values
+            String firstName = firstNameField.getText().trim();
+            String lastName = lastNameField.getText().trim();
+            String address = addressField.getText().trim();
+            String customerType = customerTypeCombo.getValue();
+            String username = usernameField.getText().trim();
+            String password = passwordField.getText();
+            String email = emailField.getText().trim();
+            String additionalInfo = additionalInfoField.getText().trim();
+
+            // For company customers, we need both company name and address
+            if ("COMPANY".equals(customerType)) {
+                // In a real system, you'd have separate fields for company name and address
+                // For now, we'll use the additionalInfo field for company name only
+                additionalInfo = additionalInfo + "|"; // Empty company address for now
+            }
+
+            if (!BankData.isUsernameAvailable(username)) {
+                errorLabel.setText("Username already exists. Please choose a different username.");
+                return;
+            }
+            if (!BankData.isEmailAvailable(email)) {
+                errorLabel.setText("Email already registered. Please use a different email.");
+                return;
+            }
+            Customer customer;
+            try {
+                customer = BankData.prepareCustomer(firstName, lastName, address, customerType, additionalInfo);
+            } catch (IllegalStateException e) {
+                errorLabel.setText("Registration is unavailable right now: " + e.getMessage() + ". Please try again.");
+                return;
+            }
+            if (customer == null) {
+                errorLabel.setText("Invalid customer type.");
+                return;
+            }
+
+            // Register customer; both are saved in the background and removed again if that fails
+            BankData.addCustomer(customer)
+                    .thenCombine(BankData.addCustomerCredentials(
+                            new CustomerCredentials(customer.getCustomerId(), username, password, email)), Boolean::logicalAnd)
+                    .thenAccept(ok -> Platform.runLater(() -> {
+                        if (!ok) {
+                            successLabel.setText("");
+                            errorLabel.setText("Registration of " + customer.getCustomerId() + " could not be saved completely. Please try again.");
+                        }
+                    }));
+            successLabel.setText("Registration successful! Customer ID: " + customer.getCustomerId());
             clearFields();
-        } else {
-            errorLabel.setText(result);
-        }
+        });
     }
 
     private String validateInput() {
@@ -147,11 +184,19 @@ public class RegistrationController {
         additionalInfoField.clear();
     }
 
+    @Override
+    public void resetView() {
+        clearFields();
+        errorLabel.setText("");
+        successLabel.setText("");
+        usernameStatusLabel.setText("");
+        emailStatusLabel.setText("");
+    }
+
     @FXML
     private void handleBackToLogin() throws IOException {
-        Stage stage = (Stage) backToLoginButton.getScene().getWindow();
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/LoginView.fxml"));
-        stage.setScene(new Scene(loader.load()));
-        stage.setTitle("Bank Management System - Login");
+        Tracing.run("RegistrationController.handleBackToLogin", () -> {
+            ViewManager.show(View.LOGIN);
+        });
     }
 }
@@ -0,0 +1,14 @@
+package bankmanagementsystem.controller;
+
+/**
+ * Implemented by controllers whose view is cached by {@link ViewManager}. The same controller
+ * instance is shown many times, so anything left over from the previous visit (typed input,
+ * messages, selections) has to be cleared before the view is shown again.
+ */
+interface ReusableView {
+    /**
+     * Called on the FX thread every time the view is about to be shown, before the caller passes
+     * in its data (customer, account)
+     */
+    void resetView();
+}
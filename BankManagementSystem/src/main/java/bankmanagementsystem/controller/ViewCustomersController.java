@@ -1,88 +1,196 @@
 package bankmanagementsystem.controller;
 
 import bankmanagementsystem.model.*;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import bankmanagementsystem.controller.ViewManager.View;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.stage.Stage;
+import javafx.util.Duration;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
-public class ViewCustomersController {
-    @FXML private ListView<String> customersList;
-    @FXML private ListView<String> accountsList;
+public class ViewCustomersController implements ReusableView {
+    private static final Duration SEARCH_DELAY = Duration.millis(250);
+
+    @FXML private TextField searchField;
+    @FXML private TableView<CustomerRow> customersTable;
+    @FXML private TableColumn<CustomerRow, String> customerIdColumn;
+    @FXML private TableColumn<CustomerRow, String> firstNameColumn;
+    @FXML private TableColumn<CustomerRow, String> lastNameColumn;
+    @FXML private TableColumn<CustomerRow, String> typeColumn;
+    @FXML private TableColumn<CustomerRow, String> detailColumn;
+    @FXML private TableColumn<CustomerRow, Integer> accountCountColumn;
+    @FXML private TableView<Account> accountsTable;
+    @FXML private TableColumn<Account, String> accountNumberColumn;
+    @FXML private TableColumn<Account, String> accountTypeColumn;
+    @FXML private TableColumn<Account, String> balanceColumn;
+    @FXML private TableColumn<Account, String> branchColumn;
     @FXML private Label customerInfoLabel;
+    @FXML private Label pageStatusLabel;
     @FXML private Button refreshButton;
     @FXML private Button backToEmployeeButton;
 
     private Customer selectedCustomer;
+    private CustomerPageProvider pages;
+    private CustomerRow.SortKey sort = CustomerRow.SortKey.LAST_NAME;
+    private boolean ascending = true;
+    private final PauseTransition searchPause = new PauseTransition(SEARCH_DELAY);
 
     @FXML
     private void initialize() {
-        refreshCustomersList();
+        Tracing.run("ViewCustomersController.initialize", () -> {
+            pages = new CustomerPageProvider(text -> pageStatusLabel.setText(text));
+            customersTable.setItems(pages.getRows());
+
+            customerIdColumn.setCellValueFactory(c -> new ReadOnlyStringWrapper(c.getValue().getCustomerId()));
+            firstNameColumn.setCellValueFactory(c -> new ReadOnlyStringWrapper(c.getValue().getFirstName()));
+            lastNameColumn.setCellValueFactory(c -> new ReadOnlyStringWrapper(c.getValue().getLastName()));
+            typeColumn.setCellValueFactory(c -> new ReadOnlyStringWrapper(
+                    "COMPANY".equals(c.getValue().getCustomerType()) ? "Company" : "Personal"));
+            detailColumn.setCellValueFactory(c -> new ReadOnlyStringWrapper(c.getValue().getDetail()));
+            accountCountColumn.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(c.getValue().getAccountCount()));
+            customerIdColumn.setUserData(CustomerRow.SortKey.CUSTOMER_ID);
+            firstNameColumn.setUserData(CustomerRow.SortKey.FIRST_NAME);
+            lastNameColumn.setUserData(CustomerRow.SortKey.LAST_NAME);
+            typeColumn.setUserData(CustomerRow.SortKey.TYPE);
+            detailColumn.setSortable(false);
+            accountCountColumn.setSortable(false);
+            // Set before the sort policy, so showing the default order does not trigger a reload
+            customersTable.getSortOrder().add(lastNameColumn);
+
+            // Sorting happens in the database; the table only reports which column was clicked
+            customersTable.setSortPolicy(table -> {
+                CustomerRow.SortKey newSort = CustomerRow.SortKey.LAST_NAME;
+                boolean newAscending = true;
+                if (!table.getSortOrder().isEmpty()) {
+                    TableColumn<CustomerRow, ?> column = table.getSortOrder().get(0);
+                    newSort = (CustomerRow.SortKey) column.getUserData();
+                    newAscending = column.getSortType() == TableColumn.SortType.ASCENDING;
+                }
+                if (newSort != sort || newAscending != ascending) {
+                    sort = newSort;
+                    ascending = newAscending;
+                    reloadCustomers();
+                }
+                return true;
+            });
+
+            // Rows are virtualized; rendering one near the end pulls in the next page
+            customersTable.setRowFactory(table -> new TableRow<>() {
+                @Override
+                protected void updateItem(CustomerRow row, boolean empty) {
+                    super.updateItem(row, empty);
+                    if (!empty) {
+                        pages.rowShown(getIndex());
+                    }
+                }
+            });
+            customersTable.getSelectionModel().selectedItemProperty()
+                    .addListener((obs, oldRow, newRow) -> handleCustomerSelection(newRow));
+
+            accountNumberColumn.setCellValueFactory(c -> new ReadOnlyStringWrapper(c.getValue().getAccountNumber()));
+            accountTypeColumn.setCellValueFactory(c -> new ReadOnlyStringWrapper(c.getValue().getClass().getSimpleName()));
+            balanceColumn.setCellValueFactory(c -> new ReadOnlyStringWrapper(String.format("BWP %.2f", c.getValue().getBalance())));
+            branchColumn.setCellValueFactory(c -> new ReadOnlyStringWrapper(c.getValue().getBranch()));
+
+            searchPause.setOnFinished(e -> reloadCustomers());
+            searchField.textProperty().addListener((obs, oldValue, newValue) -> searchPause.playFromStart());
+
+            new LiveUpdates(this::applyEvents);
+            // The first page is loaded by resetView when the view is shown, not when it is preloaded
+        });
     }
 
     @FXML
     private void handleRefresh() {
-        refreshCustomersList();
-        customerInfoLabel.setText("Select a customer to view their accounts");
-        accountsList.getItems().clear();
+        Tracing.run("ViewCustomersController.handleRefresh", () -> {
+            reloadCustomers();
+            customerInfoLabel.setText("Select a customer to view their accounts");
+            accountsTable.getItems().clear();
+        });
     }
 
-    @FXML
-    private void handleCustomerSelection() {
-        String selectedItem = customersList.getSelectionModel().getSelectedItem();
-        if (selectedItem != null) {
-            System.out.println("Selected item: " + selectedItem);
-            try {
-                // Extract customer ID from the selected item - more robust parsing
-                int idStart = selectedItem.indexOf("ID: ");
-                int idEnd = selectedItem.indexOf(" |", idStart);
-                
-                if (idStart == -1 || idEnd == -1) {
-                    System.out.println("Could not parse customer ID from: " + selectedItem);
-                    customerInfoLabel.setText("Error: Could not parse customer ID");
-                    customerInfoLabel.setStyle("-fx-text-fill: red;");
-                    return;
-                }
-                
-                String customerId = selectedItem.substring(idStart + 4, idEnd);
-                System.out.println("Selected Customer ID: " + customerId);
-                selectedCustomer = BankData.findCustomerById(customerId);
-                
-                if (selectedCustomer != null) {
-                    System.out.println("Customer found: " + selectedCustomer.getFirstName() + " " + selectedCustomer.getLastName());
-                    displayCustomerInfo();
-                    refreshAccountsList();
-                } else {
-                    System.out.println("Customer not found for ID: " + customerId);
-                    customerInfoLabel.setText("Customer not found for ID: " + customerId);
-                    customerInfoLabel.setStyle("-fx-text-fill: red;");
-                }
-            } catch (Exception e) {
-                System.out.println("Error parsing customer selection: " + e.getMessage());
-                customerInfoLabel.setText("Error selecting customer: " + e.getMessage());
+    private void handleCustomerSelection(CustomerRow row) {
+        if (row == null) {
+            return;
+        }
+        findCustomer(row.getCustomerId()).thenAcceptAsync(customer -> {
+            CustomerRow current = customersTable.getSelectionModel().getSelectedItem();
+            if (current == null || !current.getCustomerId().equals(row.getCustomerId())) {
+                return; // another customer was selected while this one loaded
+            }
+            selectedCustomer = customer;
+            if (selectedCustomer != null) {
+                displayCustomerInfo();
+                refreshAccountsList();
+            } else {
+                customerInfoLabel.setText("Customer not found for ID: " + row.getCustomerId());
                 customerInfoLabel.setStyle("-fx-text-fill: red;");
+                accountsTable.getItems().clear();
             }
+        }, Platform::runLater);
+    }
+
+    // In working-set mode a lookup may fault the customer in from the database, so it runs off the FX
+    // thread; otherwise it reads the FX thread's own map
+    private static CompletableFuture<Customer> findCustomer(String customerId) {
+        if (BankData.getWorkingSet() == null) {
+            return CompletableFuture.completedFuture(BankData.findCustomerById(customerId));
         }
+        return CompletableFuture.supplyAsync(() -> BankData.findCustomerById(customerId));
     }
 
-    private void refreshCustomersList() {
-        ObservableList<String> customerItems = FXCollections.observableArrayList();
-        
-        for (Customer customer : BankData.getCustomers()) {
-            String customerType = customer instanceof PersonalCustomer ? "Personal" : "Company";
-            String item = customer.getFirstName() + " " + customer.getLastName() + 
-                         " | ID: " + customer.getCustomerId() + 
-                         " | Type: " + customerType + 
-                         " | Accounts: " + customer.getAccounts().size();
-            customerItems.add(item);
+    // Patch the rows touched by changes made elsewhere; the loaded pages are not re-queried
+    private void applyEvents(List<BankEvent> events) {
+        for (BankEvent event : events) {
+            boolean selected = selectedCustomer != null && selectedCustomer.getCustomerId().equals(event.getCustomerId());
+            switch (event.getType()) {
+                case CUSTOMER_UPDATED:
+                case ACCOUNT_CLOSED:
+                    // Only rows already on screen are refreshed; nothing new is loaded for other customers
+                    if (selected) {
+                        pages.replace(CustomerRow.of(selectedCustomer));
+                    } else if (pages.isLoaded(event.getCustomerId())) {
+                        findCustomer(event.getCustomerId()).thenAcceptAsync(customer -> {
+                            if (customer != null) {
+                                pages.replace(CustomerRow.of(customer));
+                            }
+                        }, Platform::runLater);
+                    }
+                    if (selected) {
+                        displayCustomerInfo();
+                        refreshAccountsList();
+                    }
+                    break;
+                default:
+                    if (selected) {
+                        refreshAccountRow(event.getAccountNumber());
+                    }
+            }
+        }
+    }
+
+    private void refreshAccountRow(String accountNumber) {
+        ObservableList<Account> items = accountsTable.getItems();
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).getAccountNumber().equals(accountNumber)) {
+                // Setting the same item re-runs the row's cell value factories
+                items.set(i, items.get(i));
+                return;
+            }
         }
-        
-        customersList.setItems(customerItems);
+    }
+
+    private void reloadCustomers() {
+        selectedCustomer = null;
+        pages.reset(searchField.getText(), sort, ascending);
     }
 
     private void displayCustomerInfo() {
@@ -108,24 +216,21 @@ public class ViewCustomersController {
     private void refreshAccountsList() {
         if (selectedCustomer == null) return;
         
-        ObservableList<String> accountItems = FXCollections.observableArrayList();
-        
-        for (Account account : selectedCustomer.getAccounts()) {
-            String accountType = account.getClass().getSimpleName();
-            String item = account.getAccountNumber() + " | " + accountType + 
-                         " | Balance: BWP " + String.format("%.2f", account.getBalance()) + 
-                         " | Branch: " + account.getBranch();
-            accountItems.add(item);
-        }
-        
-        accountsList.setItems(accountItems);
+        ObservableList<Account> accountItems = FXCollections.observableArrayList(selectedCustomer.getAccounts());
+        accountsTable.setItems(accountItems);
     }
 
     @FXML
     private void handleBackToEmployee() throws IOException {
-        Stage stage = (Stage) backToEmployeeButton.getScene().getWindow();
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/EmployeeDashboard.fxml"));
-        stage.setScene(new Scene(loader.load()));
-        stage.setTitle("Employee Dashboard");
+        Tracing.run("ViewCustomersController.handleBackToEmployee", () -> {
+            ViewManager.show(View.EMPLOYEE_DASHBOARD);
+        });
+    }
+
+    @Override
+    public void resetView() {
+        searchField.clear();
+        searchPause.stop(); // clearing the field restarts the search delay; reload right away instead
+        handleRefresh();
     }
 }
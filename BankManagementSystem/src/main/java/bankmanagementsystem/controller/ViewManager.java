@@ -0,0 +1,192 @@
+package bankmanagementsystem.controller;
+
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Switches the application between its screens on one primary stage.
+ * Each FXML view is parsed once and its scene and controller are kept, so navigating back to a
+ * screen is a scene swap instead of a parse of the FXML and a new window. Views can be preloaded
+ * at startup: a background thread reads the FXML and loads the controller class, and the scene and
+ * controller are then built on the FX thread, one view at a time, since controllers create
+ * animations and listeners in initialize(). Controllers implementing {@link ReusableView} are
+ * reset each time their view is shown.
+ */
+public class ViewManager {
+    public enum View {
+        LOGIN("LoginView.fxml", "Bank Management System - Login"),
+        SETUP_CREDENTIALS("CustomerCredentialSetupView.fxml", "Bank Management System - Setup Credentials"),
+        REGISTRATION("RegistrationView.fxml", "Bank Management System - Registration"),
+        EMPLOYEE_DASHBOARD("EmployeeDashboard.fxml", "Employee Dashboard"),
+        CREATE_CUSTOMER("EmployeeCustomerCreationView.fxml", "Create Customer Account"),
+        VIEW_CUSTOMERS("ViewCustomersView.fxml", "View All Customers"),
+        AUDIT_LOG("AuditLogView.fxml", "Audit Log"),
+        OPERATIONS("OperationsDashboard.fxml", "Operations Dashboard"),
+        CUSTOMER_DASHBOARD("CustomerDashboard.fxml", "Customer Dashboard"),
+        OPEN_ACCOUNT("CustomerOpenAccountView.fxml", "Open New Account"),
+        ACCOUNT_TRANSACTION("AccountTransactionDialog.fxml", "Account Transaction");
+
+        private final String fxml;
+        private final String title;
+
+        View(String fxml, String title) {
+            this.fxml = fxml;
+            this.title = title;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        String getFxml() {
+            return fxml;
+        }
+    }
+
+    private static final Pattern CONTROLLER = Pattern.compile("fx:controller=\"([^\"]+)\"");
+
+    // FX thread only
+    private static final Map<View, Loaded> cache = new EnumMap<>(View.class);
+    // FXML read ahead by the preloader, taken when the view is built
+    private static final Map<View, byte[]> sources = new ConcurrentHashMap<>();
+    private static Stage primaryStage;
+
+    /**
+     * @param stage The application's one main window
+     */
+    public static void init(Stage stage) {
+        primaryStage = stage;
+    }
+
+    /**
+     * Read the given views on a background thread and build them on the FX thread, so their first
+     * visit is already a cache hit. Building a view does not load any data; that waits for its first show.
+     * @param views Views to preload
+     */
+    public static void preload(View... views) {
+        Thread thread = new Thread(() -> {
+            for (View view : views) {
+                try (InputStream in = ViewManager.class.getResourceAsStream("/view/" + view.fxml)) {
+                    if (in == null) {
+                        throw new IOException("not found");
+                    }
+                    byte[] fxml = in.readAllBytes();
+                    Matcher controller = CONTROLLER.matcher(new String(fxml, StandardCharsets.UTF_8));
+                    if (controller.find()) {
+                        Class.forName(controller.group(1));
+                    }
+                    sources.put(view, fxml);
+                } catch (IOException | ClassNotFoundException e) {
+                    System.err.println("❌ Error preloading " + view.fxml + ": " + e.getMessage());
+                    continue;
+                }
+                // One view per runLater, so the login screen keeps responding in between
+                Platform.runLater(() -> {
+                    try {
+                        loaded(view);
+                    } catch (IOException e) {
+                        System.err.println("❌ Error preloading " + view.fxml + ": " + e.getMessage());
+                    }
+                });
+            }
+        }, "view-preloader");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Show a view in the main window
+     * @param view View to show
+     * @return the view's controller, already reset, for the caller to pass data to
+     */
+    public static <T> T show(View view) throws IOException {
+        return show(view, view.getTitle());
+    }
+
+    /**
+     * Show a view in the main window with a custom title
+     * @param view View to show
+     * @param title Window title
+     * @return the view's controller, already reset, for the caller to pass data to
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T show(View view, String title) throws IOException {
+        Loaded loaded = loaded(view);
+        reset(loaded);
+        if (primaryStage.getScene() != loaded.scene) {
+            primaryStage.setScene(loaded.scene);
+            primaryStage.sizeToScene();
+        }
+        primaryStage.setTitle(title);
+        return (T) loaded.controller;
+    }
+
+    /**
+     * Show a view in its own window next to the main one (audit log, operations). The window is created once
+     * and hidden rather than destroyed when closed.
+     * @param view View to show
+     * @return the view's controller
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T showInWindow(View view) throws IOException {
+        Loaded loaded = loaded(view);
+        reset(loaded);
+        if (loaded.window == null) {
+            loaded.window = new Stage();
+            loaded.window.setScene(loaded.scene);
+            loaded.window.setTitle(view.getTitle());
+        }
+        loaded.window.show();
+        loaded.window.toFront();
+        return (T) loaded.controller;
+    }
+
+    /**
+     * @return the main window
+     */
+    public static Stage getPrimaryStage() {
+        return primaryStage;
+    }
+
+    private static Loaded loaded(View view) throws IOException {
+        Loaded loaded = cache.get(view);
+        if (loaded == null) {
+            FXMLLoader loader = new FXMLLoader(ViewManager.class.getResource("/view/" + view.fxml));
+            byte[] fxml = sources.remove(view);
+            Parent root = fxml != null ? loader.load(new ByteArrayInputStream(fxml)) : loader.load();
+            loaded = new Loaded(new Scene(root), loader.getController());
+            cache.put(view, loaded);
+        }
+        return loaded;
+    }
+
+    private static void reset(Loaded loaded) {
+        if (loaded.controller instanceof ReusableView) {
+            ((ReusableView) loaded.controller).resetView();
+        }
+    }
+
+    private static class Loaded {
+        final Scene scene;
+        final Object controller;
+        Stage window;
+
+        Loaded(Scene scene, Object controller) {
+            this.scene = scene;
+            this.controller = controller;
+        }
+    }
+}
@@ -2,10 +2,15 @@ package bankmanagementsystem.model;
 
 public abstract class Account {
     protected String accountNumber;
-    protected double balance;
+    // Volatile because with mailboxes enabled the account's lane writes it without taking the monitor
+    protected volatile double balance;
     protected String branch;
     protected Customer customer;
     protected boolean closed = false;
+    // Striped sub-balances, only set while the account is in hot-account mode (see HotAccounts)
+    volatile StripedBalance stripes;
+    // Sum of active holds (see HoldManager); reduces the available balance but not the ledger balance
+    private volatile double heldAmount;
 
     public Account(String accountNumber, Customer customer, String branch, double balance) {
         this.accountNumber = accountNumber;
@@ -16,15 +21,135 @@ public abstract class Account {
 
     public void deposit(double amount) {
         if (closed) return; // guard: no operations on closed accounts
-        if (amount > 0) balance += amount;
+        if (amount <= 0) return;
+        if (stripes != null && HotAccounts.credit(this, amount)) {
+            return;
+        }
+        // Interest runs credit accounts off the FX thread
+        synchronized (this) {
+            balance += amount;
+            changed();
+        }
+    }
+
+    /*
+     * Unlocked versions of the mutations, for an account lane (see AccountMailboxes). With mailboxes
+     * enabled the lane is the only thread that changes the account's balance and holds, so it takes
+     * no monitor; everything else uses the synchronized methods.
+     */
+
+    void depositUnlocked(double amount) {
+        if (closed || amount <= 0) return;
+        if (stripes != null && HotAccounts.credit(this, amount)) {
+            return;
+        }
+        balance += amount;
+        changed();
+    }
+
+    boolean withdrawUnlocked(double amount) {
+        if (amount > available()) {
+            return false;
+        }
+        balance -= amount;
+        changed();
+        return true;
+    }
+
+    double creditInterestUnlocked(double rate) {
+        double interest = getBalance() * rate;
+        balance += interest;
+        changed();
+        return interest;
+    }
+
+    void compensateUnlocked(double delta) {
+        balance += delta;
+        changed();
+    }
+
+    void reverseDepositUnlocked(double amount) {
+        if (stripes != null && HotAccounts.credit(this, -amount)) {
+            return;
+        }
+        compensateUnlocked(-amount);
+    }
+
+    boolean reserveUnlocked(double amount) {
+        if (closed || amount > available()) return false;
+        heldAmount += amount;
+        return true;
+    }
+
+    void forceReserveUnlocked(double amount) {
+        heldAmount += amount;
+    }
+
+    void unreserveUnlocked(double amount) {
+        heldAmount = Math.max(0, heldAmount - amount);
+    }
+
+    private double available() {
+        return getBalance() - heldAmount;
     }
 
     public abstract void displayAccountInfo();
 
     public String getAccountNumber() { return accountNumber; }
-    public double getBalance() { return balance; }
+    public double getBalance() {
+        StripedBalance s = stripes;
+        return s == null ? balance : balance + s.sum();
+    }
+    // Main balance without un-folded hot-account credits; this is what the accounts row stores
+    public double getPostedBalance() { return balance; }
+    // Ledger balance: all posted funds, including funds reserved by holds
+    public double getLedgerBalance() { return getBalance(); }
+    // Available balance: ledger balance minus active holds; withdrawals and new holds are checked against this
+    public double getAvailableBalance() { return available(); }
+    public double getHeldAmount() { return heldAmount; }
+    public boolean isHot() { return stripes != null; }
     public String getBranch() { return branch; }
     public Customer getCustomer() { return customer; }
     public boolean isClosed() { return closed; }
-    public void setClosed(boolean closed) { this.closed = closed; }
+    public void setClosed(boolean closed) {
+        this.closed = closed;
+        changed();
+    }
+
+    // Undo one operation by its amount, leaving any later operations in place
+    synchronized void compensate(double delta) {
+        compensateUnlocked(delta);
+    }
+
+    // Marks the owner dirty in the working set; called by every change to a persisted field
+    void changed() {
+        if (customer != null) customer.markChanged();
+    }
+
+    // Undo a deposit whose write failed; a hot account's credit is taken back from its slots
+    void reverseDeposit(double amount) {
+        if (stripes != null && HotAccounts.credit(this, -amount)) {
+            return;
+        }
+        compensate(-amount);
+    }
+
+    /**
+     * Reserve funds for a hold if the available balance covers it
+     * @param amount Amount to reserve
+     * @return true if reserved, false if the available balance is insufficient
+     */
+    synchronized boolean reserve(double amount) {
+        return reserveUnlocked(amount);
+    }
+
+    // Re-apply a hold loaded from the database; it was accepted before, so no balance check
+    synchronized void forceReserve(double amount) {
+        forceReserveUnlocked(amount);
+    }
+
+    // Give back funds reserved by a hold that was released, captured or expired
+    synchronized void unreserve(double amount) {
+        unreserveUnlocked(amount);
+    }
 }
@@ -0,0 +1,184 @@
+package bankmanagementsystem.model;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Access Object for the striped sub-balance rows of hot accounts (account_balance_slots).
+ * Credits are added to the slot rows by the account's balance write ({@link #addIncrements}), so
+ * concurrent credits to the same account do not all wait on the one accounts row; a fold moves the
+ * slot totals into accounts.balance in one transaction.
+ */
+public class AccountBalanceSlotDAO {
+    private static final SqlDialect.Table SLOTS = new SqlDialect.Table("account_balance_slots",
+            new String[] {"account_number", "slot", "amount"},
+            new String[] {"account_number", "slot"},
+            new String[0]);
+
+    /** Adds an amount to one slot row (see {@link #addIncrements}) */
+    static final String INCREMENT_SQL = "UPDATE account_balance_slots SET amount = amount + ? WHERE account_number = ? AND slot = ?";
+
+    /**
+     * Create the account_balance_slots table if it does not exist yet (part of the schema setup in
+     * {@link DatabaseConfig})
+     */
+    public static void ensureTable() {
+        String sql = "CREATE TABLE IF NOT EXISTS account_balance_slots (" +
+                    "account_number VARCHAR(50) NOT NULL, " +
+                    "slot INT NOT NULL, " +
+                    "amount DOUBLE NOT NULL DEFAULT 0, " +
+                    "PRIMARY KEY (account_number, slot))";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        } catch (SQLException e) {
+            System.err.println("❌ Error creating account_balance_slots table: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Create zeroed slot rows for an account (existing rows are left untouched)
+     * @param accountNumber Account number
+     * @param stripes Number of slots
+     * @return true if successful, false otherwise
+     */
+    public static boolean createSlots(String accountNumber, int stripes) {
+        String sql = SqlDialect.current().insertIfAbsent(SLOTS);
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            for (int slot = 0; slot < stripes; slot++) {
+                stmt.setString(1, accountNumber);
+                stmt.setInt(2, slot);
+                stmt.setDouble(3, 0);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error creating balance slots: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Queue the slot increments of one account on a statement prepared from {@link #INCREMENT_SQL},
+     * to run in the caller's transaction
+     * @param stmt Statement to add the batch entries to
+     * @param accountNumber Account number
+     * @param amounts Amount to add per slot (zero entries are skipped)
+     */
+    static void addIncrements(PreparedStatement stmt, String accountNumber, double[] amounts) throws SQLException {
+        for (int slot = 0; slot < amounts.length; slot++) {
+            if (amounts[slot] != 0) {
+                stmt.setDouble(1, amounts[slot]);
+                stmt.setString(2, accountNumber);
+                stmt.setInt(3, slot);
+                stmt.addBatch();
+            }
+        }
+    }
+
+    /**
+     * Fold the slots into the main balance: write the new main balance and zero every slot in one transaction
+     * @param accountNumber Account number
+     * @param newBalance Main balance including the folded slot totals
+     * @return true if committed, false if rolled back
+     */
+    public static boolean foldSlots(String accountNumber, double newBalance) {
+        String updateAccount = "UPDATE accounts SET balance = ? WHERE account_number = ?";
+        String resetSlots = "UPDATE account_balance_slots SET amount = 0 WHERE account_number = ?";
+
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement accountStmt = conn.prepareStatement(updateAccount);
+                 PreparedStatement slotStmt = conn.prepareStatement(resetSlots)) {
+
+                accountStmt.setDouble(1, newBalance);
+                accountStmt.setString(2, accountNumber);
+                accountStmt.executeUpdate();
+
+                slotStmt.setString(1, accountNumber);
+                slotStmt.executeUpdate();
+
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error folding balance slots: " + e.getMessage());
+            return false;
+        } finally {
+            DaoCaches.invalidateAccount(accountNumber, null);
+        }
+    }
+
+    /**
+     * Load the slot values of every hot account
+     * @return slot values keyed by account number, indexed by slot
+     */
+    public static Map<String, double[]> loadAllSlots() {
+        Map<String, List<double[]>> rows = new HashMap<>();
+        String sql = "SELECT account_number, slot, amount FROM account_balance_slots ORDER BY account_number, slot";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                rows.computeIfAbsent(rs.getString("account_number"), k -> new ArrayList<>())
+                        .add(new double[] { rs.getInt("slot"), rs.getDouble("amount") });
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error loading balance slots: " + e.getMessage());
+        }
+
+        Map<String, double[]> slots = new HashMap<>();
+        for (Map.Entry<String, List<double[]>> entry : rows.entrySet()) {
+            int stripes = 0;
+            for (double[] row : entry.getValue()) {
+                stripes = Math.max(stripes, (int) row[0] + 1);
+            }
+            double[] values = new double[stripes];
+            for (double[] row : entry.getValue()) {
+                values[(int) row[0]] = row[1];
+            }
+            slots.put(entry.getKey(), values);
+        }
+        return slots;
+    }
+
+    /**
+     * Delete the slot rows of an account (after a final fold, when hot-account mode is disabled)
+     * @param accountNumber Account number
+     * @return true if successful, false otherwise
+     */
+    public static boolean deleteSlots(String accountNumber) {
+        String sql = "DELETE FROM account_balance_slots WHERE account_number = ?";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, accountNumber);
+            stmt.executeUpdate();
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error deleting balance slots: " + e.getMessage());
+            return false;
+        }
+    }
+}
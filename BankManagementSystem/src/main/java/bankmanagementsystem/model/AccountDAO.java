@@ -2,12 +2,23 @@ package bankmanagementsystem.model;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Data Access Object for Account operations
  */
 public class AccountDAO {
+    static final SqlDialect.Table TABLE = new SqlDialect.Table("accounts",
+            new String[] {"account_number", "customer_id", "account_type", "balance", "branch", "is_closed", "employer_name", "employer_address"},
+            new String[] {"account_number"},
+            new String[] {"balance", "branch", "is_closed", "employer_name", "employer_address"});
     
     /**
      * Save an account to the database
@@ -15,29 +26,12 @@ public class AccountDAO {
      * @return true if successful, false otherwise
      */
     public static boolean saveAccount(Account account) {
-        String sql = "INSERT INTO accounts (account_number, customer_id, account_type, balance, branch, is_closed, employer_name, employer_address) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
-                    "ON DUPLICATE KEY UPDATE balance = VALUES(balance), branch = VALUES(branch), is_closed = VALUES(is_closed), " +
-                    "employer_name = VALUES(employer_name), employer_address = VALUES(employer_address)";
+        String sql = SqlDialect.current().upsert(TABLE);
 
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, account.getAccountNumber());
-            stmt.setString(2, account.getCustomer().getCustomerId());
-            stmt.setString(3, account.getClass().getSimpleName());
-            stmt.setDouble(4, account.getBalance());
-            stmt.setString(5, account.getBranch());
-            stmt.setBoolean(6, account.isClosed());
-            
-            if (account instanceof ChequeAccount) {
-                ChequeAccount ca = (ChequeAccount) account;
-                stmt.setString(7, ca.getEmployerName());
-                stmt.setString(8, ca.getEmployerAddress());
-            } else {
-                stmt.setNull(7, Types.VARCHAR);
-                stmt.setNull(8, Types.VARCHAR);
-            }
+            BulkLoader.bind(stmt, 1, toRow(account));
             
             int rowsAffected = stmt.executeUpdate();
             System.out.println("✅ Account saved: " + account.getAccountNumber());
@@ -46,9 +40,45 @@ public class AccountDAO {
         } catch (SQLException e) {
             System.err.println("❌ Error saving account: " + e.getMessage());
             return false;
+        } finally {
+            DaoCaches.invalidateAccount(account.getAccountNumber(), account.getCustomer().getCustomerId());
         }
     }
     
+    /**
+     * Save many accounts in one transaction with the database's bulk-load path (see {@link BulkLoader})
+     * @param accounts Accounts to insert or update
+     * @return true if all were saved, false if the transaction was rolled back
+     */
+    public static boolean saveAccounts(Collection<Account> accounts) {
+        List<Object[]> rows = new ArrayList<>(accounts.size());
+        for (Account account : accounts) {
+            rows.add(toRow(account));
+        }
+        boolean saved = BulkLoader.upsert(TABLE, rows);
+        for (Account account : accounts) {
+            DaoCaches.invalidateAccount(account.getAccountNumber(), account.getCustomer().getCustomerId());
+        }
+        if (saved) {
+            System.out.println("✅ Accounts saved: " + rows.size());
+        }
+        return saved;
+    }
+
+    private static Object[] toRow(Account account) {
+        String employerName = null;
+        String employerAddress = null;
+        if (account instanceof ChequeAccount) {
+            ChequeAccount ca = (ChequeAccount) account;
+            employerName = ca.getEmployerName();
+            employerAddress = ca.getEmployerAddress();
+        }
+        return new Object[] {
+            account.getAccountNumber(), account.getCustomer().getCustomerId(), account.getClass().getSimpleName(),
+            account.getPostedBalance(), account.getBranch(), account.isClosed(), employerName, employerAddress
+        };
+    }
+    
     /**
      * Load all accounts from the database
      * @param customers List of customers to associate accounts with
@@ -79,12 +109,17 @@ public class AccountDAO {
     }
     
     /**
-     * Find an account by account number
+     * Find an account by account number (the row is cached, see DaoCaches)
      * @param accountNumber Account number to search for
      * @param customers List of customers for association
-     * @return Account object or null if not found
+     * @return new Account object owned by one of the customers, or null if not found
      */
     public static Account findAccountByNumber(String accountNumber, List<Customer> customers) {
+        Row row = DaoCaches.ACCOUNTS_BY_NUMBER.get(accountNumber, AccountDAO::queryAccountByNumber);
+        return row != null ? row.toAccount(customers) : null;
+    }
+
+    private static Row queryAccountByNumber(String accountNumber) {
         String sql = "SELECT * FROM accounts WHERE account_number = ?";
 
         try (Connection conn = DatabaseConfig.getConnection();
@@ -94,7 +129,7 @@ public class AccountDAO {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return createAccountFromResultSet(rs, customers);
+                    return new Row(rs);
                 }
             }
             
@@ -106,13 +141,29 @@ public class AccountDAO {
     }
     
     /**
-     * Find accounts by customer ID
+     * Find accounts by customer ID (the rows are cached, see DaoCaches)
      * @param customerId Customer ID to search for
      * @param customers List of customers for association
-     * @return List of Account objects
+     * @return new Account objects, or null if the accounts could not be read
      */
     public static List<Account> findAccountsByCustomerId(String customerId, List<Customer> customers) {
-        List<Account> accounts = new ArrayList<>();
+        List<Row> rows = DaoCaches.ACCOUNTS_BY_CUSTOMER.get(customerId, AccountDAO::queryAccountsByCustomerId);
+        if (rows == null) {
+            return null;
+        }
+        List<Account> accounts = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            Account account = row.toAccount(customers);
+            if (account != null) {
+                accounts.add(account);
+            }
+        }
+        return accounts;
+    }
+
+    // Null on error, so a failed read is not cached as "no accounts"
+    private static List<Row> queryAccountsByCustomerId(String customerId) {
+        List<Row> rows = new ArrayList<>();
         String sql = "SELECT * FROM accounts WHERE customer_id = ? ORDER BY account_number";
         
         try (Connection conn = DatabaseConfig.getConnection();
@@ -120,6 +171,40 @@ public class AccountDAO {
             
             stmt.setString(1, customerId);
             
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new Row(rs));
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("❌ Error finding accounts by customer ID: " + e.getMessage());
+            return null;
+        }
+        
+        return List.copyOf(rows);
+    }
+    
+    /**
+     * Load the accounts of several customers with one query
+     * @param customers Customers whose accounts should be loaded (also used for association)
+     * @return List of Account objects
+     */
+    public static List<Account> findAccountsByCustomers(List<Customer> customers) {
+        List<Account> accounts = new ArrayList<>();
+        if (customers.isEmpty()) {
+            return accounts;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(customers.size(), "?"));
+        String sql = "SELECT * FROM accounts WHERE customer_id IN (" + placeholders + ") ORDER BY account_number";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < customers.size(); i++) {
+                stmt.setString(i + 1, customers.get(i).getCustomerId());
+            }
+
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
                     Account account = createAccountFromResultSet(rs, customers);
@@ -128,13 +213,39 @@ public class AccountDAO {
                     }
                 }
             }
-            
+
         } catch (SQLException e) {
-            System.err.println("❌ Error finding accounts by customer ID: " + e.getMessage());
+            System.err.println("❌ Error finding accounts by customers: " + e.getMessage());
         }
-        
+
         return accounts;
     }
+
+    /**
+     * Find the owner of an account without loading the account
+     * @param accountNumber Account number to search for
+     * @return customer ID, or null if the account does not exist
+     */
+    public static String findCustomerIdByAccountNumber(String accountNumber) {
+        String sql = "SELECT customer_id FROM accounts WHERE account_number = ?";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, accountNumber);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getString("customer_id");
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error finding account owner: " + e.getMessage());
+        }
+
+        return null;
+    }
     
     /**
      * Update account balance
@@ -157,9 +268,107 @@ public class AccountDAO {
         } catch (SQLException e) {
             System.err.println("❌ Error updating account balance: " + e.getMessage());
             return false;
+        } finally {
+            DaoCaches.invalidateAccount(accountNumber, null);
         }
     }
     
+    /**
+     * Update the balances of many accounts using JDBC batches.
+     * Each chunk of accounts is written in its own transaction; if a chunk fails it is rolled back
+     * and every account in it is reported as failed, while the other chunks still commit.
+     * Credits buffered in the slots of hot accounts (see {@link HotAccounts}) are added to their
+     * slot rows in the same transaction, and so is the closed flag, so a close commits with the balance.
+     * @param accounts Accounts whose current balance and closed flag should be written
+     * @param chunkSize Number of accounts per batch/transaction
+     * @return account numbers whose update was rolled back (empty if everything committed)
+     */
+    public static Set<String> updateAccountBalances(Collection<Account> accounts, int chunkSize) {
+        Set<String> failed = new HashSet<>();
+        if (accounts.isEmpty()) {
+            return failed;
+        }
+        String sql = "UPDATE accounts SET balance = ?, is_closed = ? WHERE account_number = ?";
+        List<Account> pending = new ArrayList<>(accounts);
+        int size = Math.max(1, chunkSize);
+
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            PreparedStatement slotStmt = null;
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int start = 0; start < pending.size(); start += size) {
+                    List<Account> chunk = pending.subList(start, Math.min(start + size, pending.size()));
+                    List<Account> hot = new ArrayList<>();
+                    for (Account account : chunk) {
+                        if (account.isHot()) {
+                            hot.add(account);
+                        }
+                    }
+                    hot.sort(Comparator.comparing(Account::getAccountNumber));
+                    Map<Account, double[]> drained = new HashMap<>();
+                    try {
+                        for (Account account : hot) {
+                            double[] amounts = HotAccounts.beginWrite(account);
+                            if (amounts != null) {
+                                drained.put(account, amounts);
+                            }
+                        }
+                        for (Account account : chunk) {
+                            stmt.setDouble(1, account.getPostedBalance());
+                            stmt.setBoolean(2, account.isClosed());
+                            stmt.setString(3, account.getAccountNumber());
+                            stmt.addBatch();
+                        }
+                        stmt.executeBatch();
+                        if (!drained.isEmpty()) {
+                            if (slotStmt == null) {
+                                slotStmt = conn.prepareStatement(AccountBalanceSlotDAO.INCREMENT_SQL);
+                            }
+                            for (Map.Entry<Account, double[]> entry : drained.entrySet()) {
+                                AccountBalanceSlotDAO.addIncrements(slotStmt, entry.getKey().getAccountNumber(), entry.getValue());
+                            }
+                            slotStmt.executeBatch();
+                        }
+                        conn.commit();
+                    } catch (SQLException e) {
+                        System.err.println("❌ Error in balance batch, rolling back " + chunk.size() + " accounts: " + e.getMessage());
+                        stmt.clearBatch();
+                        if (slotStmt != null) {
+                            slotStmt.clearBatch();
+                        }
+                        drained.forEach(HotAccounts::restoreUnsaved);
+                        conn.rollback();
+                        for (Account account : chunk) {
+                            failed.add(account.getAccountNumber());
+                        }
+                    } finally {
+                        for (Account account : hot) {
+                            HotAccounts.endWrite(account);
+                        }
+                        for (Account account : chunk) {
+                            DaoCaches.invalidateAccount(account.getAccountNumber(), account.getCustomer().getCustomerId());
+                        }
+                    }
+                }
+            } finally {
+                if (slotStmt != null) {
+                    slotStmt.close();
+                }
+                conn.setAutoCommit(autoCommit);
+            }
+            System.out.println("✅ Balance batch saved: " + (pending.size() - failed.size()) + "/" + pending.size() + " accounts");
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error updating account balances: " + e.getMessage());
+            for (Account account : pending) {
+                failed.add(account.getAccountNumber());
+            }
+        }
+
+        return failed;
+    }
+
     /**
      * Close an account
      * @param accountNumber Account number to close
@@ -181,6 +390,8 @@ public class AccountDAO {
             
         } catch (SQLException e) {
             System.err.println("❌ Error closing account: " + e.getMessage());
+        } finally {
+            DaoCaches.invalidateAccount(accountNumber, null);
         }
         
         return false;
@@ -207,6 +418,8 @@ public class AccountDAO {
             
         } catch (SQLException e) {
             System.err.println("❌ Error deleting account: " + e.getMessage());
+        } finally {
+            DaoCaches.invalidateAccount(accountNumber, null);
         }
         
         return false;
@@ -219,44 +432,70 @@ public class AccountDAO {
      * @return Account object or null if error
      */
     private static Account createAccountFromResultSet(ResultSet rs, List<Customer> customers) throws SQLException {
-        String accountNumber = rs.getString("account_number");
-        String customerId = rs.getString("customer_id");
-        String accountType = rs.getString("account_type");
-        double balance = rs.getDouble("balance");
-        String branch = rs.getString("branch");
-        boolean isClosed = rs.getBoolean("is_closed");
-        
-        // Find the customer
-        Customer customer = findCustomerById(customers, customerId);
-        if (customer == null) {
-            System.err.println("❌ Customer not found for account: " + accountNumber);
-            return null;
+        return new Row(rs).toAccount(customers);
+    }
+
+    /**
+     * One accounts row as read, without an owner. The lookup caches keep these rather than Account
+     * objects, so every caller gets a fresh account owned by the customer objects it passed in.
+     */
+    static final class Row {
+        final String accountNumber;
+        final String customerId;
+        final String accountType;
+        final double balance;
+        final String branch;
+        final boolean closed;
+        final String employerName;
+        final String employerAddress;
+
+        Row(ResultSet rs) throws SQLException {
+            this(rs.getString("account_number"), rs.getString("customer_id"), rs.getString("account_type"),
+                    rs.getDouble("balance"), rs.getString("branch"), rs.getBoolean("is_closed"),
+                    rs.getString("employer_name"), rs.getString("employer_address"));
         }
-        
-        Account account = null;
-        
-        switch (accountType) {
-            case "SavingsAccount":
-                account = new SavingsAccount(accountNumber, customer, branch, balance);
-                break;
-            case "ChequeAccount":
-                String employerName = rs.getString("employer_name");
-                String employerAddress = rs.getString("employer_address");
-                account = new ChequeAccount(accountNumber, customer, branch, balance, employerName, employerAddress);
-                break;
-            case "InvestmentAccount":
-                account = new InvestmentAccount(accountNumber, customer, branch, balance);
-                break;
-            default:
-                System.err.println("❌ Unknown account type: " + accountType);
-                return null;
+
+        Row(String accountNumber, String customerId, String accountType, double balance, String branch,
+            boolean closed, String employerName, String employerAddress) {
+            this.accountNumber = accountNumber;
+            this.customerId = customerId;
+            this.accountType = accountType;
+            this.balance = balance;
+            this.branch = branch;
+            this.closed = closed;
+            this.employerName = employerName;
+            this.employerAddress = employerAddress;
         }
-        
-        if (account != null) {
-            account.setClosed(isClosed);
+
+        /**
+         * @param customers Customers to find the owner among
+         * @return the account, or null if its owner is not among them or its type is unknown
+         */
+        Account toAccount(List<Customer> customers) {
+            Customer customer = findCustomerById(customers, customerId);
+            if (customer == null) {
+                System.err.println("❌ Customer not found for account: " + accountNumber);
+                return null;
+            }
+
+            Account account;
+            switch (accountType) {
+                case "SavingsAccount":
+                    account = new SavingsAccount(accountNumber, customer, branch, balance);
+                    break;
+                case "ChequeAccount":
+                    account = new ChequeAccount(accountNumber, customer, branch, balance, employerName, employerAddress);
+                    break;
+                case "InvestmentAccount":
+                    account = new InvestmentAccount(accountNumber, customer, branch, balance);
+                    break;
+                default:
+                    System.err.println("❌ Unknown account type: " + accountType);
+                    return null;
+            }
+            account.setClosed(closed);
+            return account;
         }
-        
-        return account;
     }
     
     /**
@@ -274,6 +513,25 @@ public class AccountDAO {
         return null;
     }
     
+    /**
+     * Largest number at the end of a stored account number, for seeding the account number sequence
+     * @return the number, 0 if there are no numbered accounts, or -1 on error
+     */
+    public static long findMaxAccountNumber() {
+        String sql = "SELECT MAX(" + SqlDialect.current().numericSuffix("account_number") + ") FROM accounts";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            return rs.next() ? rs.getLong(1) : 0;
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error reading the largest account number: " + e.getMessage());
+            return -1;
+        }
+    }
+
     /**
      * Get account count
      * @return number of accounts in database
@@ -0,0 +1,462 @@
+package bankmanagementsystem.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Single-writer-per-account execution model, as an alternative to locking.
+ * Every mutation of an account (deposit, withdraw, hold capture, interest, close) is sent as a message to the
+ * account's mailbox. Mailboxes are multiplexed onto a fixed set of lanes by account-number hash, and
+ * each lane is drained by exactly one thread, so all operations on one account run strictly in order
+ * on one thread while different accounts run in parallel on other lanes. The enqueue path is a
+ * lock-free queue offer. Since the lane is the account's only writer, it changes the balance and
+ * the holds through the account's unlocked methods and never takes the account's monitor; that is why
+ * hold reservations and hot-account folds are sent as messages too.
+ * A lane drains up to {@link #MAX_DRAIN} messages at a time, applies them, and then writes each
+ * touched account once with a single JDBC batch, so consecutive messages for the same account share
+ * one database write. If that write fails, the touched accounts are restored and their messages fail.
+ * Work spanning many accounts in one transaction (batch postings, payroll) runs in an
+ * {@link #exclusive} section, during which the owning lanes hand their accounts over.
+ */
+public class AccountMailboxes {
+    public enum Operation {
+        DEPOSIT, WITHDRAW, CAPTURE, INTEREST, CLOSE, RESERVE, RELEASE, FOLD;
+
+        // Operations whose result is the account row: written after the drain, published and recorded
+        boolean changesRow() {
+            return this != RESERVE && this != RELEASE && this != FOLD;
+        }
+    }
+
+    public static final int MAX_DRAIN = 256;
+    private static final boolean ENABLED = Boolean.getBoolean("bank.actors.enabled");
+    private static final int LANES = Integer.getInteger("bank.actors.lanes", Runtime.getRuntime().availableProcessors());
+
+    private static final Object EXCLUSIVE = new Object();
+
+    private static Lane[] lanes;
+    private static volatile boolean persist = true;
+
+    /**
+     * @return true when the application is configured (-Dbank.actors.enabled=true) to route account mutations through mailboxes
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Turn database writes on or off (off is useful to measure the execution model on its own)
+     * @param enabled true to write touched balances after every drain
+     */
+    public static void setPersistence(boolean enabled) {
+        persist = enabled;
+    }
+
+    public static CompletableFuture<Boolean> deposit(Account account, double amount, String actor) {
+        return submit(account, Operation.DEPOSIT, amount, actor);
+    }
+
+    public static CompletableFuture<Boolean> withdraw(Account account, double amount, String actor) {
+        return submit(account, Operation.WITHDRAW, amount, actor);
+    }
+
+    /**
+     * Capture a fund hold: give back its reservation and debit the held amount in one step.
+     * If the debit is refused or not committed the reservation is kept.
+     */
+    public static CompletableFuture<Boolean> capture(Account account, double amount, String actor) {
+        return submit(account, Operation.CAPTURE, amount, actor);
+    }
+
+    /**
+     * Reserve funds for a hold (see {@link HoldManager}); nothing is written, the hold row records it
+     */
+    public static CompletableFuture<Boolean> reserve(Account account, double amount) {
+        return submit(account, Operation.RESERVE, amount, "hold");
+    }
+
+    /**
+     * Give back a hold's reservation; this also works on a closed account
+     */
+    public static CompletableFuture<Boolean> release(Account account, double amount) {
+        return submit(account, Operation.RELEASE, amount, "hold");
+    }
+
+    /**
+     * Fold a hot account's slots into its main balance (see {@link HotAccounts#fold}); the fold writes itself
+     */
+    public static CompletableFuture<Boolean> fold(Account account) {
+        return submit(account, Operation.FOLD, 0, "system");
+    }
+
+    public static CompletableFuture<Boolean> applyInterest(Account account) {
+        return submit(account, Operation.INTEREST, 0, "interest");
+    }
+
+    public static CompletableFuture<Boolean> close(Account account, String actor) {
+        return submit(account, Operation.CLOSE, 0, actor);
+    }
+
+    /**
+     * Send a message to an account's mailbox
+     * @param account Target account
+     * @param operation Operation to run
+     * @param amount Amount for deposit/withdraw (ignored otherwise)
+     * @param actor Who requested the operation (for the audit trail)
+     * @return future completed with true if the operation was applied and committed, false if it was rejected or rolled back
+     */
+    public static CompletableFuture<Boolean> submit(Account account, Operation operation, double amount, String actor) {
+        Message message = new Message(account, operation, amount, actor);
+        laneFor(account.getAccountNumber()).offer(message);
+        return message.result;
+    }
+
+    /**
+     * Run work that mutates several accounts and commits them together (a batch posting, a payroll run).
+     * The lanes owning the accounts first finish the messages they already took, then wait until the
+     * work returns, so nothing else changes those accounts meanwhile. Sections run one at a time, so
+     * two of them never wait on each other's lanes.
+     * @param accounts Accounts the work mutates
+     * @param work Work to run on the calling thread
+     * @return the work's result
+     */
+    public static <T> T exclusive(Collection<? extends Account> accounts, Supplier<T> work) {
+        if (Thread.currentThread() instanceof Lane) {
+            throw new IllegalStateException("exclusive section started on an account lane");
+        }
+        synchronized (EXCLUSIVE) {
+            Set<Lane> owners = new HashSet<>();
+            for (Account account : accounts) {
+                owners.add(laneFor(account.getAccountNumber()));
+            }
+            Handover handover = new Handover(owners.size());
+            for (Lane lane : owners) {
+                lane.offer(new Message(handover));
+            }
+            try {
+                awaitUninterruptibly(handover.arrived);
+                return work.get();
+            } finally {
+                handover.released.countDown();
+            }
+        }
+    }
+
+    /**
+     * @return number of messages waiting across all lanes
+     */
+    public static int pendingMessages() {
+        int pending = 0;
+        for (Lane lane : lanes()) {
+            pending += lane.queue.size();
+        }
+        return pending;
+    }
+
+    private static Lane laneFor(String accountNumber) {
+        Lane[] all = lanes();
+        return all[Math.floorMod(accountNumber.hashCode(), all.length)];
+    }
+
+    private static synchronized Lane[] lanes() {
+        if (lanes == null) {
+            Lane[] created = new Lane[Math.max(1, LANES)];
+            for (int i = 0; i < created.length; i++) {
+                created[i] = new Lane(i);
+                created[i].start();
+            }
+            lanes = created;
+        }
+        return lanes;
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Lanes count down arrived when they stop, then wait for released
+    private static class Handover {
+        final CountDownLatch arrived;
+        final CountDownLatch released = new CountDownLatch(1);
+
+        Handover(int lanes) {
+            this.arrived = new CountDownLatch(lanes);
+        }
+    }
+
+    private static class Message {
+        final Account account;
+        final Operation operation;
+        final double amount;
+        final String actor;
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        final long enqueuedNanos = System.nanoTime();
+        // Span the message was sent under; the batched database write is shared and not attributed
+        final Tracing.Span trace = Tracing.capture();
+        // Set on the messages an exclusive section sends to stop the lane
+        final Handover handover;
+        String error;
+        // Interest credited by an INTEREST message
+        double credited;
+        // True once error holds the final outcome (applied and written, or undone)
+        boolean settled;
+
+        Message(Account account, Operation operation, double amount, String actor) {
+            this.account = account;
+            this.operation = operation;
+            this.amount = amount;
+            this.actor = actor;
+            this.handover = null;
+        }
+
+        Message(Handover handover) {
+            this.account = null;
+            this.operation = null;
+            this.amount = 0;
+            this.actor = null;
+            this.handover = handover;
+        }
+    }
+
+    private static class Lane extends Thread {
+        private final ConcurrentLinkedQueue<Message> queue = new ConcurrentLinkedQueue<>();
+        private volatile boolean parked;
+
+        Lane(int index) {
+            super("account-lane-" + index);
+            setDaemon(true);
+        }
+
+        void offer(Message message) {
+            queue.offer(message);
+            if (parked) {
+                LockSupport.unpark(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            List<Message> batch = new ArrayList<>(MAX_DRAIN);
+            while (true) {
+                Handover handover = null;
+                Message next;
+                while (batch.size() < MAX_DRAIN && (next = queue.poll()) != null) {
+                    if (next.handover != null) {
+                        handover = next.handover;
+                        break;
+                    }
+                    batch.add(next);
+                }
+                if (batch.isEmpty() && handover == null) {
+                    parked = true;
+                    if (queue.isEmpty()) {
+                        LockSupport.park(this);
+                    }
+                    parked = false;
+                    continue;
+                }
+                if (!batch.isEmpty()) {
+                    try {
+                        process(batch);
+                    } catch (RuntimeException e) {
+                        // The lane must survive: nothing else would ever drain its queue
+                        System.err.println("❌ " + getName() + " failed processing " + batch.size() + " messages: " + e);
+                        for (Message message : batch) {
+                            message.result.complete(message.settled && message.error == null);
+                        }
+                    }
+                    batch.clear();
+                }
+                if (handover != null) {
+                    handover.arrived.countDown();
+                    awaitUninterruptibly(handover.released);
+                }
+            }
+        }
+
+        private void process(List<Message> batch) {
+            Map<Account, Boolean> closedBefore = new HashMap<>();
+            Map<Account, List<Message>> applied = new LinkedHashMap<>();
+
+            for (Message message : batch) {
+                Account account = message.account;
+                closedBefore.putIfAbsent(account, account.isClosed());
+                Tracing.Span span = Tracing.childOf(message.trace, "AccountMailboxes." + message.operation, "mailbox");
+                try {
+                    message.error = apply(message);
+                } catch (RuntimeException e) {
+                    message.error = "failed: " + e;
+                } finally {
+                    span.end();
+                }
+                if (message.error == null && message.operation.changesRow()) {
+                    applied.computeIfAbsent(account, a -> new ArrayList<>()).add(message);
+                }
+            }
+
+            Set<String> failed = persist && !applied.isEmpty()
+                    ? persistTouched(applied.keySet())
+                    : Set.of();
+
+            for (Map.Entry<Account, List<Message>> entry : applied.entrySet()) {
+                Account account = entry.getKey();
+                if (failed.contains(account.getAccountNumber())) {
+                    // Undo by amount: a hot account's credits sit in its slots, not in the main balance
+                    for (Message message : entry.getValue()) {
+                        undo(message);
+                        message.error = "database commit failed";
+                    }
+                    account.setClosed(closedBefore.get(account));
+                }
+            }
+            for (Message message : batch) {
+                message.settled = true;
+            }
+
+            List<AuditLogger.Entry> audit = new ArrayList<>();
+            List<BankEvent> events = new ArrayList<>();
+            boolean publish = BankEventBus.hasSubscribers();
+            for (Message message : batch) {
+                boolean ok = message.error == null;
+                message.result.complete(ok);
+                if (!message.operation.changesRow()) {
+                    // HoldManager audits reservations; folds are not account activity
+                    continue;
+                }
+                if (ok && publish) {
+                    events.add(eventFor(message));
+                }
+                if (ok && message.operation != Operation.INTEREST && message.operation != Operation.CLOSE) {
+                    OperationsMetrics.recordPosting(message.account,
+                            message.operation == Operation.DEPOSIT ? message.amount : -message.amount,
+                            System.nanoTime() - message.enqueuedNanos);
+                }
+                // Interest runs audit a summary, and HoldManager audits captures with the hold ID
+                boolean auditedElsewhere = message.operation == Operation.CAPTURE || (message.operation == Operation.INTEREST && ok);
+                if (!auditedElsewhere) {
+                    audit.add(new AuditLogger.Entry(message.operation == Operation.CLOSE ? "account" : "transaction",
+                            message.actor, message.account.getAccountNumber(), message.operation.name().toLowerCase(),
+                            ok ? "amount=" + message.amount : message.error, ok));
+                }
+            }
+            AuditLogger.logAll(audit);
+            BankEventBus.publishAll(events);
+        }
+
+        private void undo(Message message) {
+            switch (message.operation) {
+                case DEPOSIT:
+                    message.account.reverseDepositUnlocked(message.amount);
+                    break;
+                case WITHDRAW:
+                    message.account.compensateUnlocked(message.amount);
+                    break;
+                case CAPTURE:
+                    message.account.compensateUnlocked(message.amount);
+                    message.account.forceReserveUnlocked(message.amount);
+                    break;
+                case INTEREST:
+                    message.account.compensateUnlocked(-message.credited);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private BankEvent eventFor(Message message) {
+            switch (message.operation) {
+                case WITHDRAW:
+                case CAPTURE:
+                    return BankEvent.accountDebited(message.account, message.amount);
+                case CLOSE:
+                    return BankEvent.accountClosed(message.account);
+                case INTEREST:
+                    return BankEvent.accountCredited(message.account, message.credited);
+                default:
+                    return BankEvent.accountCredited(message.account, message.amount);
+            }
+        }
+
+        // One transaction; each account's row carries both its balance and its closed flag
+        private Set<String> persistTouched(Set<Account> touched) {
+            try {
+                return Repositories.accounts().updateBalances(touched, touched.size());
+            } catch (RuntimeException e) {
+                System.err.println("❌ " + getName() + " failed writing " + touched.size() + " accounts: " + e);
+                Set<String> failed = new HashSet<>();
+                for (Account account : touched) {
+                    failed.add(account.getAccountNumber());
+                }
+                return failed;
+            }
+        }
+
+        private String apply(Message message) {
+            Account account = message.account;
+            if (message.operation == Operation.RELEASE) {
+                account.unreserveUnlocked(message.amount);
+                return null;
+            }
+            if (message.operation == Operation.FOLD) {
+                return HotAccounts.fold(account) ? null : "fold not committed";
+            }
+            if (account.isClosed()) {
+                return "account closed";
+            }
+            switch (message.operation) {
+                case DEPOSIT:
+                    if (!(message.amount > 0)) return "invalid amount";
+                    account.depositUnlocked(message.amount);
+                    return null;
+                case WITHDRAW:
+                    if (!(account instanceof Withdraw)) return "not allowed on account type";
+                    if (!(message.amount > 0)) return "invalid amount";
+                    if (!account.withdrawUnlocked(message.amount)) {
+                        return "insufficient funds: available=" + account.getAvailableBalance() + ", amount=" + message.amount;
+                    }
+                    return null;
+                case CAPTURE:
+                    // The hold's reservation becomes the debit; a refused debit keeps it reserved
+                    account.unreserveUnlocked(message.amount);
+                    if (!account.withdrawUnlocked(message.amount)) {
+                        account.forceReserveUnlocked(message.amount);
+                        return "insufficient funds";
+                    }
+                    return null;
+                case RESERVE:
+                    return account.reserveUnlocked(message.amount) ? null : "insufficient available balance";
+                case INTEREST:
+                    if (!(account instanceof Interest)) return "no interest on account type";
+                    message.credited = account.creditInterestUnlocked(((Interest) account).getInterestRate());
+                    return null;
+                case CLOSE:
+                    account.setClosed(true);
+                    return null;
+                default:
+                    return "unknown operation";
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package bankmanagementsystem.model;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Storage for account rows. Loaded accounts are attached to the owners passed in by the caller, so
+ * an account whose owner is not among them is skipped.
+ */
+public interface AccountRepository {
+    /**
+     * Insert or update an account
+     * @return true if successful
+     */
+    boolean save(Account account);
+
+    /**
+     * Insert or update many accounts at once
+     * @return true if all were saved
+     */
+    default boolean saveAll(Collection<Account> accounts) {
+        boolean ok = true;
+        for (Account account : accounts) {
+            ok &= save(account);
+        }
+        return ok;
+    }
+
+    /**
+     * @param customers Owners to attach the accounts to
+     * @return every account in account number order
+     */
+    List<Account> loadAll(List<Customer> customers);
+
+    /**
+     * @param customers Owners to attach the accounts to
+     * @return accounts of the given customer, or null if they could not be read
+     */
+    List<Account> findByCustomerId(String customerId, List<Customer> customers);
+
+    /**
+     * @return accounts of all given customers, loaded together
+     */
+    List<Account> findByCustomers(List<Customer> customers);
+
+    /**
+     * @return owner's customer ID, or null if the account does not exist
+     */
+    String findOwnerId(String accountNumber);
+
+    boolean updateBalance(String accountNumber, double newBalance);
+
+    /**
+     * Write the current balance and closed flag of many accounts, chunk by chunk
+     * @return account numbers whose chunk was rolled back (empty if everything committed)
+     */
+    Set<String> updateBalances(Collection<Account> accounts, int chunkSize);
+
+    boolean close(String accountNumber);
+
+    int count();
+
+    /**
+     * @return largest number at the end of a stored account number, 0 if none, or -1 if it could not be read
+     */
+    long maxAccountNumber();
+
+    /**
+     * @return sum of the balances of open accounts
+     */
+    double totalBalance();
+}
@@ -6,22 +6,127 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Append-only audit trail in data/audit.log.
+ * Records are formatted (and timestamped) on the calling thread and queued; a single background
+ * writer drains everything queued with one open of the file, so posting threads never wait on file
+ * I/O. Pending records are flushed at shutdown.
+ */
 public class AuditLogger {
 	private static final String DATA_DIR = "data";
 	private static final String AUDIT_FILE = DATA_DIR + "/audit.log";
 	private static final DateTimeFormatter TS = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
+	private static final int MAX_DRAIN = 4096;
+
+	private static final LinkedBlockingQueue<String> queue = new LinkedBlockingQueue<>();
+	private static final Object writeLock = new Object();
+	private static final AtomicLong queued = new AtomicLong();
+	private static volatile long written;
+	private static final Metrics.Counter recordsWritten = Metrics.counter("bank_audit_records_written_total", "Audit records written to the file");
 
 	static {
 		File dataDir = new File(DATA_DIR);
 		if (!dataDir.exists()) {
 			dataDir.mkdirs();
 		}
+		Thread writer = new Thread(AuditLogger::runWriter, "audit-writer");
+		writer.setDaemon(true);
+		writer.start();
+		Runtime.getRuntime().addShutdownHook(new Thread(AuditLogger::writePending, "audit-flush"));
+		Metrics.gauge("bank_audit_queue_depth", "Audit records queued but not yet written", AuditLogger::queueDepth);
+	}
+
+	public static void log(String category, String actor, String subjectId, String action, String details, boolean success) {
+		queued.incrementAndGet();
+		queue.offer(format(category, actor, subjectId, action, details, success));
+	}
+
+	// Queue many records at once (used by batch operations)
+	public static void logAll(List<Entry> entries) {
+		queued.addAndGet(entries.size());
+		for (Entry e : entries) {
+			queue.offer(format(e.category, e.actor, e.subjectId, e.action, e.details, e.success));
+		}
+	}
+
+	/**
+	 * @return number of records queued but not yet written
+	 */
+	public static int queueDepth() {
+		return queue.size();
+	}
+
+	/**
+	 * Wait (up to two seconds) until everything queued so far is in the file, e.g. before reading it back
+	 */
+	public static void flush() {
+		long target = queued.get();
+		long deadline = System.currentTimeMillis() + 2000;
+		try {
+			while (written < target && System.currentTimeMillis() < deadline) {
+				Thread.sleep(5);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void runWriter() {
+		while (true) {
+			try {
+				String first = queue.poll(1, TimeUnit.SECONDS);
+				if (first != null) {
+					synchronized (writeLock) {
+						List<String> lines = new ArrayList<>();
+						lines.add(first);
+						queue.drainTo(lines, MAX_DRAIN - 1);
+						write(lines);
+					}
+				}
+			} catch (InterruptedException e) {
+				return;
+			}
+		}
 	}
 
-	public static synchronized void log(String category, String actor, String subjectId, String action, String details, boolean success) {
+	// Shutdown hook: runs after any batch the writer thread is in the middle of
+	private static void writePending() {
+		synchronized (writeLock) {
+			List<String> lines = new ArrayList<>();
+			queue.drainTo(lines);
+			if (!lines.isEmpty()) {
+				write(lines);
+			}
+		}
+	}
+
+	// Caller holds writeLock
+	private static void write(List<String> lines) {
+		Metrics.Sample sample = Metrics.AUDIT.start("AuditLogger.write");
+		FlightEvents.AuditBatchWrite event = FlightEvents.AuditBatchWrite.start();
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(AUDIT_FILE, true))) {
+			for (String line : lines) {
+				writer.write(line);
+				writer.newLine();
+			}
+		} catch (IOException e) {
+			System.err.println("❌ Error writing audit log: " + e.getMessage());
+		}
+		written += lines.size();
+		recordsWritten.add(lines.size());
+		event.finish(lines);
+		sample.stop();
+	}
+
+	private static String format(String category, String actor, String subjectId, String action, String details, boolean success) {
 		String timestamp = LocalDateTime.now().format(TS);
-		String line = String.join("|",
+		return String.join("|",
 				timestamp,
 				"category=" + safe(category),
 				"actor=" + safe(actor),
@@ -30,16 +135,31 @@ public class AuditLogger {
 				"success=" + success,
 				"details=" + safe(details)
 		);
-		try (BufferedWriter writer = new BufferedWriter(new FileWriter(AUDIT_FILE, true))) {
-			writer.write(line);
-			writer.newLine();
-		} catch (IOException e) {
-			System.err.println("❌ Error writing audit log: " + e.getMessage());
-		}
 	}
 
 	private static String safe(String value) {
 		if (value == null) return "";
 		return value.replace('\n', ' ').replace('\r', ' ');
 	}
+
+	/**
+	 * One audit record, for writing several records at once via {@link #logAll(List)}
+	 */
+	public static class Entry {
+		private final String category;
+		private final String actor;
+		private final String subjectId;
+		private final String action;
+		private final String details;
+		private final boolean success;
+
+		public Entry(String category, String actor, String subjectId, String action, String details, boolean success) {
+			this.category = category;
+			this.actor = actor;
+			this.subjectId = subjectId;
+			this.action = action;
+			this.details = details;
+			this.success = success;
+		}
+	}
 }
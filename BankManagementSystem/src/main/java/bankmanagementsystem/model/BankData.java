@@ -1,34 +1,121 @@
 package bankmanagementsystem.model;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 public class BankData {
     private static List<Customer> customers = new ArrayList<>();
+    private static Map<String, Customer> customersById = new HashMap<>();
     private static List<CustomerCredentials> credentials = new ArrayList<>();
     private static boolean dataLoaded = false;
+    // Non-null in working-set mode (-Dbank.workingSet.maxCustomers=N): customers are faulted in on demand
+    private static final WorkingSet workingSet = WorkingSet.fromSystemProperties();
+    private static final int INTEREST_PAGE_SIZE = 1000;
+    // Whole-book indexes, not kept in working-set mode (see indexCustomer)
+    private static CustomerSearchIndex searchIndex = new CustomerSearchIndex();
+    private static DuplicateDetector duplicateDetector = new DuplicateDetector();
+    private static EmployerAccountIndex employerIndex = new EmployerAccountIndex();
 
     // Load data from database when class is first accessed
     static {
         loadDataFromDatabase();
+        BankEventBus.subscribe(event -> {
+            if (event.getType() == BankEvent.Type.CUSTOMER_DELETED) {
+                PersistenceExecutor.ownerExecutor().execute(() -> forgetCustomer(event.getCustomerId()));
+            }
+        });
     }
 
-    public static void addCustomer(Customer c) {
-        customers.add(c);
-        // Auto-save when adding customer
-        DatabaseStorage.saveAllData(customers, credentials);
-        AuditLogger.log("customer", "system", c.getCustomerId(), "create", c.getFirstName() + " " + c.getLastName(), true);
+    // Times an asynchronous mutation in Metrics.OPERATIONS until its future completes
+    private static CompletableFuture<Boolean> timed(String operation, Supplier<CompletableFuture<Boolean>> mutation) {
+        Metrics.Sample sample = Metrics.OPERATIONS.start("BankData." + operation);
+        CompletableFuture<Boolean> result;
+        try {
+            result = mutation.get();
+        } catch (RuntimeException e) {
+            sample.stop();
+            throw e;
+        }
+        sample.detach();
+        return result.whenComplete((ok, error) -> sample.stop());
     }
 
-    public static void addCustomerCredentials(CustomerCredentials cred) {
-        credentials.add(cred);
-        // Auto-save when adding credentials
-        DatabaseStorage.saveAllData(customers, credentials);
-        AuditLogger.log("credential", cred.getUsername(), cred.getCustomerId(), "create", "email=" + cred.getEmail(), true);
+    /**
+     * Add a customer and write it in the background.
+     * The customer is visible immediately; if the write fails it is removed again.
+     * @param c New customer
+     * @return future completed with true once committed, false if the customer was removed again
+     */
+    public static CompletableFuture<Boolean> addCustomer(Customer c) {
+        return timed("addCustomer", () -> {
+            indexCustomer(c);
+            if (workingSet != null) {
+                workingSet.add(c);
+            } else {
+                customers.add(c);
+                customersById.put(c.getCustomerId(), c);
+            }
+            return saveCustomerData(c).thenApplyAsync(ok -> {
+                if (!ok) {
+                    if (workingSet != null) {
+                        workingSet.remove(c.getCustomerId());
+                    } else {
+                        customers.remove(c);
+                        customersById.remove(c.getCustomerId());
+                    }
+                    unindexCustomer(c);
+                }
+                AuditLogger.log("customer", "system", c.getCustomerId(), "create",
+                        c.getFirstName() + " " + c.getLastName() + (ok ? "" : ", database commit failed, removed"), ok);
+                return ok;
+            }, PersistenceExecutor.ownerExecutor());
+        });
     }
 
+    /**
+     * Add login credentials and write them in the background.
+     * In full-book mode they work immediately; if the write fails they are removed again.
+     * @param cred New credentials
+     * @return future completed with true once committed, false if the credentials were removed again
+     */
+    public static CompletableFuture<Boolean> addCustomerCredentials(CustomerCredentials cred) {
+        return timed("addCustomerCredentials", () -> {
+            CredentialFilters.record(cred.getUsername(), cred.getEmail());
+            if (workingSet == null) {
+                credentials.add(cred);
+            }
+            CustomerCredentials row = Snapshots.credential(cred);
+            CompletableFuture<Boolean> write = PersistenceExecutor.submit("save credentials " + cred.getUsername(),
+                    () -> Repositories.credentials().save(row));
+            return write.thenApplyAsync(ok -> {
+                if (!ok) {
+                    credentials.remove(cred);
+                }
+                AuditLogger.log("credential", cred.getUsername(), cred.getCustomerId(), "create",
+                        "email=" + cred.getEmail() + (ok ? "" : ", database commit failed, removed"), ok);
+                return ok;
+            }, PersistenceExecutor.ownerExecutor());
+        });
+    }
+
+    // In working-set mode this is a snapshot of the resident customers only
     public static List<Customer> getCustomers() {
-        return customers;
+        return workingSet != null ? workingSet.residents() : customers;
+    }
+
+    /**
+     * @return the working set when working-set mode is on, otherwise null
+     */
+    public static WorkingSet getWorkingSet() {
+        return workingSet;
     }
 
     public static void displayAllCustomers() {
@@ -43,22 +130,81 @@ public class BankData {
     }
 
     public static Customer findCustomerByName(String fullName) {
-        for (Customer customer : customers) {
-            String customerFullName = customer.getFirstName() + " " + customer.getLastName();
-            if (customerFullName.equalsIgnoreCase(fullName)) {
-                return customer;
+        // The names are compared on the index or on plain rows; only the match is looked up (and in
+        // working-set mode faulted in), not every candidate
+        if (workingSet == null) {
+            for (String customerId : searchIndex.searchExact(fullName, 50)) {
+                Customer customer = findCustomerById(customerId);
+                if (customer != null && hasFullName(customer, fullName)) {
+                    return customer;
+                }
+            }
+            return null;
+        }
+        for (String customerId : searchCustomerIds(fullName, 50)) {
+            Customer row = Repositories.customers().findById(customerId);
+            if (row != null && hasFullName(row, fullName)) {
+                return workingSet.get(customerId);
             }
         }
         return null;
     }
 
-    public static Customer findCustomerById(String customerId) {
-        for (Customer customer : customers) {
-            if (customer.getCustomerId().equals(customerId)) {
-                return customer;
+    private static boolean hasFullName(Customer customer, String fullName) {
+        return (customer.getFirstName() + " " + customer.getLastName()).equalsIgnoreCase(fullName);
+    }
+
+    /**
+     * Ranked type-ahead search over names, customer IDs, national IDs and company names (used by
+     * the customer browser's filter). Safe to call from any thread. In working-set mode the search runs
+     * on the database, by prefix only and in customer ID order.
+     * @param query Search text (prefixes and small typos match)
+     * @param limit Maximum number of results
+     * @return matching customer IDs, best match first
+     * @throws IllegalStateException if the database search failed
+     */
+    public static List<String> searchCustomerIds(String query, int limit) {
+        if (workingSet != null) {
+            return Repositories.customers().searchIds(CustomerSearchIndex.tokenize(query), limit);
+        }
+        return searchIndex.search(query, limit);
+    }
+
+    // Keep the whole-book indexes current; in working-set mode there are none to update
+    private static void indexCustomer(Customer customer) {
+        if (workingSet == null) {
+            searchIndex.put(customer);
+            duplicateDetector.put(customer);
+            employerIndex.putAll(customer);
+        }
+    }
+
+    private static void unindexCustomer(Customer customer) {
+        if (workingSet == null) {
+            searchIndex.remove(customer.getCustomerId());
+            duplicateDetector.remove(customer.getCustomerId());
+            employerIndex.removeAll(customer);
+        }
+    }
+
+    // A customer deleted from the database leaves the book and the indexes
+    private static void forgetCustomer(String customerId) {
+        if (workingSet != null) {
+            workingSet.remove(customerId);
+        } else {
+            Customer customer = customersById.remove(customerId);
+            if (customer != null) {
+                customers.remove(customer);
+                unindexCustomer(customer);
             }
         }
-        return null;
+    }
+
+    public static Customer findCustomerById(String customerId) {
+        if (workingSet != null) {
+            return workingSet.get(customerId);
+        }
+        return customersById.get(customerId);
     }
 
     public static boolean isEmployee(String user, String pass) {
@@ -67,6 +213,10 @@ public class BankData {
     }
 
     public static boolean isCustomer(String user, String pass) {
+        if (workingSet != null) {
+            CustomerCredentials cred = Repositories.credentials().findByUsername(user);
+            return cred != null && cred.validatePassword(pass) && cred.isActive();
+        }
         for (CustomerCredentials cred : credentials) {
             if (cred.getUsername().equals(user) && cred.validatePassword(pass) && cred.isActive()) {
                 return true;
@@ -76,6 +226,9 @@ public class BankData {
     }
 
     public static CustomerCredentials getCustomerCredentials(String username) {
+        if (workingSet != null) {
+            return Repositories.credentials().findByUsername(username);
+        }
         for (CustomerCredentials cred : credentials) {
             if (cred.getUsername().equals(username)) {
                 return cred;
@@ -92,121 +245,381 @@ public class BankData {
         return null;
     }
 
-    // Update customer profile fields with audit trail
-    public static boolean updateCustomerProfile(String customerId, String newFirstName, String newLastName, String newAddress) {
-        Customer customer = findCustomerById(customerId);
-        if (customer == null) {
-            AuditLogger.log("customer", "system", customerId, "update_profile", "not found", false);
-            return false;
-        }
-
-        StringBuilder changes = new StringBuilder();
-        if (newFirstName != null && !newFirstName.equals(customer.getFirstName())) {
-            changes.append("firstName:" + customer.getFirstName() + "->" + newFirstName + ";");
-            customer.setFirstName(newFirstName);
-        }
-        if (newLastName != null && !newLastName.equals(customer.getLastName())) {
-            changes.append("lastName:" + customer.getLastName() + "->" + newLastName + ";");
-            customer.setLastName(newLastName);
-        }
-        if (newAddress != null && !newAddress.equals(customer.getAddress())) {
-            changes.append("address:" + customer.getAddress() + "->" + newAddress + ";");
-            customer.setAddress(newAddress);
-        }
+    /**
+     * Update customer profile fields and write them in the background, with audit trail.
+     * The new values show immediately; if the write fails the old values are restored.
+     * @return future completed with true once committed, false if not found or reverted
+     */
+    public static CompletableFuture<Boolean> updateCustomerProfile(String customerId, String newFirstName, String newLastName, String newAddress) {
+        return timed("updateCustomerProfile", () -> {
+            Customer customer = findCustomerById(customerId);
+            if (customer == null) {
+                AuditLogger.log("customer", "system", customerId, "update_profile", "not found", false);
+                return CompletableFuture.completedFuture(false);
+            }
+            String oldFirstName = customer.getFirstName();
+            String oldLastName = customer.getLastName();
+            String oldAddress = customer.getAddress();
+
+            StringBuilder changes = new StringBuilder();
+            if (newFirstName != null && !newFirstName.equals(customer.getFirstName())) {
+                changes.append("firstName:" + customer.getFirstName() + "->" + newFirstName + ";");
+                customer.setFirstName(newFirstName);
+            }
+            if (newLastName != null && !newLastName.equals(customer.getLastName())) {
+                changes.append("lastName:" + customer.getLastName() + "->" + newLastName + ";");
+                customer.setLastName(newLastName);
+            }
+            if (newAddress != null && !newAddress.equals(customer.getAddress())) {
+                changes.append("address:" + customer.getAddress() + "->" + newAddress + ";");
+                customer.setAddress(newAddress);
+            }
 
-        DatabaseStorage.saveAllData(customers, credentials);
-        AuditLogger.log("customer", customerId, customerId, "update_profile", changes.toString(), true);
-        return true;
+            indexCustomer(customer);
+            BankEventBus.publish(BankEvent.customerUpdated(customerId));
+            return saveCustomerData(customer).thenApplyAsync(ok -> {
+                if (!ok) {
+                    // Only put back fields no later update has changed again
+                    if (newFirstName != null && newFirstName.equals(customer.getFirstName())) customer.setFirstName(oldFirstName);
+                    if (newLastName != null && newLastName.equals(customer.getLastName())) customer.setLastName(oldLastName);
+                    if (newAddress != null && newAddress.equals(customer.getAddress())) customer.setAddress(oldAddress);
+                    indexCustomer(customer);
+                    BankEventBus.publish(BankEvent.customerUpdated(customerId));
+                }
+                AuditLogger.log("customer", customerId, customerId, "update_profile",
+                        changes + (ok ? "" : " database commit failed, reverted"), ok);
+                return ok;
+            }, PersistenceExecutor.ownerExecutor());
+        });
     }
 
     // Link an account number to a customer's profile
-    public static boolean linkAccountToCustomer(String customerId, String accountNumber) {
-        Customer customer = findCustomerById(customerId);
-        if (customer == null) {
-            AuditLogger.log("link", customerId, accountNumber, "link_account", "customer not found", false);
-            return false;
-        }
-        customer.addLinkedAccountNumber(accountNumber);
-        DatabaseStorage.saveAllData(customers, credentials);
-        AuditLogger.log("link", customerId, accountNumber, "link_account", "linked", true);
-        return true;
+    public static CompletableFuture<Boolean> linkAccountToCustomer(String customerId, String accountNumber) {
+        return timed("linkAccountToCustomer", () -> {
+            Customer customer = findCustomerById(customerId);
+            if (customer == null) {
+                AuditLogger.log("link", customerId, accountNumber, "link_account", "customer not found", false);
+                return CompletableFuture.completedFuture(false);
+            }
+            customer.addLinkedAccountNumber(accountNumber);
+            return saveCustomerData(customer).thenApplyAsync(ok -> {
+                if (!ok) {
+                    customer.removeLinkedAccountNumber(accountNumber);
+                }
+                AuditLogger.log("link", customerId, accountNumber, "link_account",
+                        ok ? "linked" : "database commit failed, unlinked", ok);
+                return ok;
+            }, PersistenceExecutor.ownerExecutor());
+        });
     }
 
-    // Soft close an account
-    public static boolean closeAccount(String accountNumber, String actorCustomerId) {
-        for (Customer c : customers) {
-            for (Account a : c.getAccounts()) {
-                if (a.getAccountNumber().equals(accountNumber)) {
-                    a.setClosed(true);
-                    DatabaseStorage.saveAllData(customers, credentials);
-                    AuditLogger.log("account", actorCustomerId != null ? actorCustomerId : c.getCustomerId(), accountNumber, "close", "soft close", true);
-                    return true;
+    /**
+     * Soft close an account and write it in the background.
+     * The account is closed immediately; if the write fails it is reopened.
+     * @return future completed with true once committed, false if not found or reopened
+     */
+    public static CompletableFuture<Boolean> closeAccount(String accountNumber, String actorCustomerId) {
+        return timed("closeAccount", () -> {
+            for (Customer c : customersOwning(accountNumber)) {
+                for (Account a : c.getAccounts()) {
+                    if (a.getAccountNumber().equals(accountNumber)) {
+                        String actor = actorCustomerId != null ? actorCustomerId : c.getCustomerId();
+                        if (AccountMailboxes.isEnabled()) {
+                            // The account's lane applies, persists and audits the close
+                            return AccountMailboxes.close(a, actor);
+                        }
+                        a.setClosed(true);
+                        BankEventBus.publish(BankEvent.accountClosed(a));
+                        return saveCustomerData(c).thenApplyAsync(ok -> {
+                            if (!ok) {
+                                a.setClosed(false);
+                                BankEventBus.publish(BankEvent.customerUpdated(c.getCustomerId()));
+                            }
+                            AuditLogger.log("account", actor, accountNumber, "close",
+                                    ok ? "soft close" : "soft close, database commit failed, reopened", ok);
+                            return ok;
+                        }, PersistenceExecutor.ownerExecutor());
+                    }
                 }
             }
-        }
-        AuditLogger.log("account", actorCustomerId != null ? actorCustomerId : "system", accountNumber, "close", "account not found", false);
-        return false;
+            AuditLogger.log("account", actorCustomerId != null ? actorCustomerId : "system", accountNumber, "close", "account not found", false);
+            return CompletableFuture.completedFuture(false);
+        });
     }
 
     // Load data from database
     public static void loadDataFromDatabase() {
-        if (!dataLoaded) {
-            try {
-                customers = DatabaseStorage.loadAllData();
-                credentials = DatabaseStorage.loadCredentials();
-                dataLoaded = true;
-                System.out.println("💾 Bank data loaded from database. Found " + customers.size() + " customers and " + credentials.size() + " credentials.");
-            } catch (Exception e) {
-                System.err.println("❌ Failed to load data from database!");
-                System.err.println("Error: " + e.getMessage());
-                e.printStackTrace();
-                System.err.println("\n⚠️ IMPORTANT: Database connection failed!");
-                System.err.println("Please check:");
-                System.err.println("1. MySQL server is running");
-                System.err.println("2. Database 'bank_management' exists");
-                System.err.println("3. MySQL credentials in DatabaseConfig.java are correct");
-                System.err.println("4. Tables are created (run DatabaseSetupRunner)");
-                System.err.println("\n⚠️ Starting with empty data. Please fix database connection and restart.");
-                // Initialize with empty lists instead of falling back to files
-                customers = new ArrayList<>();
-                credentials = new ArrayList<>();
+        Metrics.Sample sample = Metrics.OPERATIONS.start("BankData.loadDataFromDatabase");
+        try {
+            if (!dataLoaded && workingSet != null) {
+                // Nothing is preloaded; only customers owning accounts with active holds are faulted in
+                FlightEvents.DataLoadPhase phase = FlightEvents.DataLoadPhase.start();
+                HoldManager.restore(BankData::findAccountByNumber);
+                phase.finish("holds", -1);
+                phase = FlightEvents.DataLoadPhase.start();
+                CredentialFilters.buildFromDatabase();
+                phase.finish("credential filters", -1);
                 dataLoaded = true;
-                System.out.println("📁 Started with empty data. Database connection required.");
+                System.out.println("💾 Working-set mode: up to " + workingSet.getMaxCustomers() + " resident customers, loaded on demand.");
             }
+            if (!dataLoaded) {
+                try {
+                    FlightEvents.DataLoadPhase phase = FlightEvents.DataLoadPhase.start();
+                    customers = DatabaseStorage.loadAllData();
+                    phase.finish("customers and accounts", customers.size());
+                    phase = FlightEvents.DataLoadPhase.start();
+                    credentials = DatabaseStorage.loadCredentials();
+                    phase.finish("credentials", credentials.size());
+                    phase = FlightEvents.DataLoadPhase.start();
+                    customersById = indexById(customers);
+                    HoldManager.restore(customers);
+                    phase.finish("holds", -1);
+                    phase = FlightEvents.DataLoadPhase.start();
+                    CredentialFilters.build(credentials);
+                    phase.finish("credential filters", credentials.size());
+                    phase = FlightEvents.DataLoadPhase.start();
+                    searchIndex = CustomerSearchIndex.build(customers);
+                    phase.finish("search index", customers.size());
+                    phase = FlightEvents.DataLoadPhase.start();
+                    duplicateDetector = DuplicateDetector.build(customers);
+                    phase.finish("duplicate detector", customers.size());
+                    phase = FlightEvents.DataLoadPhase.start();
+                    employerIndex = EmployerAccountIndex.build(customers);
+                    phase.finish("employer index", customers.size());
+                    dataLoaded = true;
+                    System.out.println("💾 Bank data loaded from database. Found " + customers.size() + " customers and " + credentials.size() + " credentials.");
+                } catch (Exception e) {
+                    System.err.println("❌ Failed to load data from database!");
+                    System.err.println("Error: " + e.getMessage());
+                    e.printStackTrace();
+                    System.err.println("\n⚠️ IMPORTANT: Database connection failed!");
+                    System.err.println("Please check:");
+                    System.err.println("1. MySQL server is running");
+                    System.err.println("2. Database 'bank_management' exists");
+                    System.err.println("3. MySQL credentials in DatabaseConfig.java are correct");
+                    System.err.println("4. Tables are created (run DatabaseSetupRunner)");
+                    System.err.println("\n⚠️ Starting with empty data. Please fix database connection and restart.");
+                    // Initialize with empty lists instead of falling back to files
+                    customers = new ArrayList<>();
+                    customersById = new HashMap<>();
+                    credentials = new ArrayList<>();
+                    CredentialFilters.build(credentials);
+                    dataLoaded = true;
+                    System.out.println("📁 Started with empty data. Database connection required.");
+                }
+            }
+        } finally {
+            sample.stop();
+        }
+    }
+
+    private static Map<String, Customer> indexById(List<Customer> list) {
+        Map<String, Customer> index = new HashMap<>(list.size() * 2);
+        for (Customer customer : list) {
+            index.put(customer.getCustomerId(), customer);
         }
+        return index;
     }
 
     // Save data to database
     public static void saveDataToFiles() {
-        DatabaseStorage.saveAllData(customers, credentials);
+        DatabaseStorage.saveAllData(getCustomers(), credentials);
     }
 
-    // Add account to customer and save
-    public static void addAccountToCustomer(String customerId, Account account) {
-        Customer customer = findCustomerById(customerId);
-        if (customer != null) {
-            customer.addAccount(account);
-            DatabaseStorage.saveAllData(customers, credentials);
-            AuditLogger.log("account", customerId, account.getAccountNumber(), "create", account.getClass().getSimpleName(), true);
+    /**
+     * Find an account by number; in working-set mode the owning customer is faulted in
+     * @param accountNumber Account number
+     * @return the account, or null if not found
+     */
+    public static Account findAccountByNumber(String accountNumber) {
+        for (Customer customer : customersOwning(accountNumber)) {
+            for (Account account : customer.getAccounts()) {
+                if (account.getAccountNumber().equals(accountNumber)) {
+                    return account;
+                }
+            }
         }
+        return null;
     }
 
-    // Update account balance and save
-    public static void updateAccountBalance(String accountNumber, double newBalance) {
-        for (Customer customer : customers) {
-            for (Account account : customer.getAccounts()) {
-                if (account.getAccountNumber().equals(accountNumber)) {
-                    // Update balance (this is a simplified approach)
-                    // In a real system, you'd have a setter method
-                    DatabaseStorage.saveAllData(customers, credentials);
-                    return;
+    // Customers to search for an account: all of them, or in working-set mode just the owner
+    private static List<Customer> customersOwning(String accountNumber) {
+        if (workingSet == null) {
+            return customers;
+        }
+        String customerId = Repositories.accounts().findOwnerId(accountNumber);
+        Customer owner = customerId != null ? workingSet.get(customerId) : null;
+        return owner != null ? List.of(owner) : List.of();
+    }
+
+    // Persist a change to one customer (its row, links and accounts) in the background. The rows are
+    // copied here, on the thread that owns the objects; only the one customer is copied.
+    private static CompletableFuture<Boolean> saveCustomerData(Customer customer) {
+        Customer snapshot = Snapshots.customer(customer);
+        if (workingSet != null) {
+            long changeCount = customer.changeCount();
+            return PersistenceExecutor.submit("write back " + customer.getCustomerId(),
+                    () -> workingSet.writeBack(customer, snapshot, changeCount));
+        }
+        return PersistenceExecutor.submit("save " + customer.getCustomerId(),
+                () -> DatabaseStorage.saveCustomers(List.of(snapshot)));
+    }
+
+    /**
+     * Deposit into an account and write the new balance in the background.
+     * The in-memory balance changes immediately; if the write fails the deposit is compensated.
+     * With mailboxes enabled the deposit is sent to the account's lane instead.
+     * @param account Target account
+     * @param amount Amount to deposit (positive)
+     * @param actor Customer or employee ID for the audit trail
+     * @return future completed with true once committed, false if rejected or reversed
+     */
+    public static CompletableFuture<Boolean> depositAsync(Account account, double amount, String actor) {
+        return timed("depositAsync", () -> {
+            if (AccountMailboxes.isEnabled()) {
+                return AccountMailboxes.deposit(account, amount, actor);
+            }
+            if (account.isClosed() || !(amount > 0)) {
+                return CompletableFuture.completedFuture(false);
+            }
+            account.deposit(amount);
+            BankEventBus.publish(BankEvent.accountCredited(account, amount));
+            return persistBalance(account, -amount, "deposit", actor, "amount=" + amount);
+        });
+    }
+
+    /**
+     * Withdraw from an account and write the new balance in the background.
+     * The in-memory balance changes immediately; if the write fails the withdrawal is compensated.
+     * With mailboxes enabled the withdrawal is sent to the account's lane instead.
+     * @param account Target account (must implement Withdraw)
+     * @param amount Amount to withdraw (positive)
+     * @param actor Customer or employee ID for the audit trail
+     * @return future completed with true once committed, false if rejected (insufficient available
+     *         balance, closed, wrong type) or reversed
+     */
+    public static CompletableFuture<Boolean> withdrawAsync(Account account, double amount, String actor) {
+        return timed("withdrawAsync", () -> {
+            if (AccountMailboxes.isEnabled()) {
+                return AccountMailboxes.withdraw(account, amount, actor);
+            }
+            if (!(account instanceof Withdraw) || account.isClosed() || !(amount > 0)) {
+                return CompletableFuture.completedFuture(false);
+            }
+            synchronized (account) {
+                if (!((Withdraw) account).withdraw(amount)) {
+                    return CompletableFuture.completedFuture(false);
                 }
             }
+            BankEventBus.publish(BankEvent.accountDebited(account, amount));
+            return persistBalance(account, amount, "withdraw", actor, "amount=" + amount);
+        });
+    }
+
+    // Write the account's balance as it is when the write runs (with a hot account's buffered slot
+    // credits, so concurrent deposits share the write); on failure apply the undo delta
+    private static CompletableFuture<Boolean> persistBalance(Account account, double undo, String action, String actor, String details) {
+        String accountNumber = account.getAccountNumber();
+        long start = System.nanoTime();
+        return PersistenceExecutor.submit(action + " " + accountNumber,
+                () -> Repositories.accounts().updateBalances(List.of(account), 1).isEmpty())
+            .thenApplyAsync(ok -> {
+                if (ok) {
+                    OperationsMetrics.recordPosting(account, -undo, System.nanoTime() - start);
+                    AuditLogger.log("transaction", actor, accountNumber, action, details, true);
+                } else {
+                    if (undo < 0) {
+                        account.reverseDeposit(-undo);
+                    } else {
+                        account.compensate(undo);
+                    }
+                    // Tell open screens the balance moved back
+                    BankEventBus.publish(undo > 0 ? BankEvent.accountCredited(account, undo) : BankEvent.accountDebited(account, -undo));
+                    AuditLogger.log("transaction", actor, accountNumber, action, details + ", database commit failed, reversed", false);
+                    // Balances are written whole, so a write of this account that committed before this
+                    // one failed may already hold the reversed change; write the reversed balance again
+                    PersistenceExecutor.submit("reconcile " + accountNumber,
+                            () -> Repositories.accounts().updateBalances(List.of(account), 1).isEmpty());
+                }
+                return ok;
+            }, PersistenceExecutor.ownerExecutor());
+    }
+
+    /**
+     * Add an account to a customer found by ID; see {@link #openAccountAsync}
+     * @return future completed with true once committed, false if the customer was not found or the account was removed again
+     */
+    public static CompletableFuture<Boolean> addAccountToCustomer(String customerId, Account account) {
+        Customer customer = findCustomerById(customerId);
+        if (customer == null) {
+            AuditLogger.log("account", customerId, account.getAccountNumber(), "create", "customer not found", false);
+            return CompletableFuture.completedFuture(false);
         }
+        return openAccountAsync(customer, account, customerId);
+    }
+
+    /**
+     * Add a new account to a customer and write it in the background.
+     * The account is visible immediately; if the write fails it is removed again.
+     * @param customer Owner of the account
+     * @param account New account
+     * @param actor Customer or employee ID for the audit trail
+     * @return future completed with true once committed, false if the account was removed again
+     */
+    public static CompletableFuture<Boolean> openAccountAsync(Customer customer, Account account, String actor) {
+        return timed("openAccountAsync", () -> {
+            customer.addAccount(account);
+            if (workingSet == null) {
+                employerIndex.put(account);
+            }
+            BankEventBus.publish(BankEvent.customerUpdated(customer.getCustomerId()));
+            Account row = Snapshots.account(account, customer);
+            CompletableFuture<Boolean> write = workingSet != null
+                    ? saveCustomerData(customer)
+                    : PersistenceExecutor.submit("open account " + account.getAccountNumber(), () -> Repositories.accounts().save(row));
+            return write.thenApplyAsync(ok -> {
+                if (!ok) {
+                    customer.getAccounts().remove(account);
+                    employerIndex.remove(account);
+                    BankEventBus.publish(BankEvent.customerUpdated(customer.getCustomerId()));
+                }
+                AuditLogger.log("account", actor, account.getAccountNumber(), "create",
+                        account.getClass().getSimpleName() + (ok ? "" : ", database commit failed, removed"), ok);
+                return ok;
+            }, PersistenceExecutor.ownerExecutor());
+        });
+    }
+
+    /**
+     * Set an account's balance (a manual adjustment) and write it in the background.
+     * The adjustment is posted as a deposit or withdrawal of the difference, so it is committed,
+     * reversed on failure and audited like one.
+     * @param accountNumber Account number
+     * @param newBalance Balance the account should have
+     * @param actor Employee ID for the audit trail
+     * @return future completed with true once committed, false if not found, refused or reversed
+     */
+    public static CompletableFuture<Boolean> updateAccountBalance(String accountNumber, double newBalance, String actor) {
+        Account account = findAccountByNumber(accountNumber);
+        if (account == null) {
+            AuditLogger.log("transaction", actor, accountNumber, "adjust_balance", "account not found", false);
+            return CompletableFuture.completedFuture(false);
+        }
+        double difference = newBalance - account.getBalance();
+        if (difference == 0) {
+            return CompletableFuture.completedFuture(true);
+        }
+        return difference > 0 ? depositAsync(account, difference, actor) : withdrawAsync(account, -difference, actor);
     }
 
     // Customer registration methods
     public static boolean isUsernameAvailable(String username) {
+        if (CredentialFilters.isUsernameDefinitelyAvailable(username)) {
+            return true;
+        }
+        if (workingSet != null) {
+            return Repositories.credentials().isUsernameAvailable(username);
+        }
         for (CustomerCredentials cred : credentials) {
             if (cred.getUsername().equals(username)) {
                 return false;
@@ -216,6 +629,12 @@ public class BankData {
     }
 
     public static boolean isEmailAvailable(String email) {
+        if (CredentialFilters.isEmailDefinitelyAvailable(email)) {
+            return true;
+        }
+        if (workingSet != null) {
+            return Repositories.credentials().isEmailAvailable(email);
+        }
         for (CustomerCredentials cred : credentials) {
             if (cred.getEmail().equals(email)) {
                 return false;
@@ -227,52 +646,133 @@ public class BankData {
     // Employee creates customer account (without credentials)
     public static String createCustomerAccount(String firstName, String lastName, String address, 
                                              String customerType, String additionalInfo) {
-        // Generate customer ID
-        String customerId = generateCustomerId();
-
-        // Create customer based on type
         Customer customer;
-        if ("PERSONAL".equals(customerType)) {
-            customer = new PersonalCustomer(customerId, firstName, lastName, address, additionalInfo);
-        } else if ("COMPANY".equals(customerType)) {
-            String[] companyInfo = additionalInfo.split("\\|");
-            String companyName = companyInfo.length > 0 ? companyInfo[0] : "";
-            String companyAddress = companyInfo.length > 1 ? companyInfo[1] : "";
-            customer = new CompanyCustomer(customerId, firstName, lastName, address, companyName, companyAddress);
-        } else {
+        try {
+            customer = prepareCustomer(firstName, lastName, address, customerType, additionalInfo);
+        } catch (IllegalStateException e) {
+            return "Customer could not be created: " + e.getMessage();
+        }
+        if (customer == null) {
             return "Invalid customer type.";
         }
 
         // Add customer to system (without credentials)
         addCustomer(customer);
 
-        return "Customer account created successfully! Customer ID: " + customerId + 
+        return "Customer account created successfully! Customer ID: " + customer.getCustomerId() + 
                "\nCustomer can now set up their login credentials.";
     }
     
-    // Employee creates customer account and returns the customer ID
+    // Employee creates customer account and returns the customer ID (null if it could not be created)
     public static String createCustomerAccountAndGetId(String firstName, String lastName, String address, 
                                                        String customerType, String additionalInfo) {
-        // Generate customer ID
-        String customerId = generateCustomerId();
-
-        // Create customer based on type
         Customer customer;
-        if ("PERSONAL".equals(customerType)) {
-            customer = new PersonalCustomer(customerId, firstName, lastName, address, additionalInfo);
-        } else if ("COMPANY".equals(customerType)) {
-            String[] companyInfo = additionalInfo.split("\\|");
-            String companyName = companyInfo.length > 0 ? companyInfo[0] : "";
-            String companyAddress = companyInfo.length > 1 ? companyInfo[1] : "";
-            customer = new CompanyCustomer(customerId, firstName, lastName, address, companyName, companyAddress);
-        } else {
+        try {
+            customer = prepareCustomer(firstName, lastName, address, customerType, additionalInfo);
+        } catch (IllegalStateException e) {
+            System.err.println("❌ Customer could not be created: " + e.getMessage());
+            return null;
+        }
+        if (customer == null) {
             return null; // Invalid customer type
         }
 
         // Add customer to system (without credentials)
         addCustomer(customer);
 
-        return customerId; // Return just the customer ID
+        return customer.getCustomerId(); // Return just the customer ID
+    }
+
+    /**
+     * Build a new customer with a fresh customer ID, ready for {@link #addCustomer}
+     * @return the customer, or null if the customer type is invalid
+     * @throws IllegalStateException if no customer ID could be reserved
+     */
+    public static Customer prepareCustomer(String firstName, String lastName, String address,
+                                           String customerType, String additionalInfo) {
+        if (!isValidCustomerType(customerType)) {
+            return null;
+        }
+        Customer customer = newCustomer(generateCustomerId(), firstName, lastName, address, customerType, additionalInfo);
+        auditPossibleDuplicates(customer, findDuplicates(customer));
+        return customer;
+    }
+
+    /**
+     * Like {@link #prepareCustomer(String, String, String, String, String)}, for a caller that has already
+     * checked the same inputs with {@link #findPossibleDuplicates}; the check is not run again
+     * @param duplicates What that check found; recorded in the audit log
+     * @throws IllegalStateException if no customer ID could be reserved
+     */
+    public static Customer prepareCustomer(String firstName, String lastName, String address, String customerType,
+                                           String additionalInfo, List<DuplicateDetector.Candidate> duplicates) {
+        if (!isValidCustomerType(customerType)) {
+            return null;
+        }
+        Customer customer = newCustomer(generateCustomerId(), firstName, lastName, address, customerType, additionalInfo);
+        auditPossibleDuplicates(customer, duplicates);
+        return customer;
+    }
+
+    /**
+     * Check a customer about to be created against existing customers sharing a blocking key
+     * (national ID, company name, phonetic name code or address prefix)
+     * @return likely duplicates, best match first; empty if none or the type is invalid
+     */
+    public static List<DuplicateDetector.Candidate> findPossibleDuplicates(String firstName, String lastName, String address,
+                                                                        String customerType, String additionalInfo) {
+        if (!isValidCustomerType(customerType)) {
+            return new ArrayList<>();
+        }
+        return findDuplicates(newCustomer(null, firstName, lastName, address, customerType, additionalInfo));
+    }
+
+    private static List<DuplicateDetector.Candidate> findDuplicates(Customer probe) {
+        return workingSet != null ? DuplicateDetector.findDuplicatesInDatabase(probe) : duplicateDetector.findDuplicates(probe);
+    }
+
+    /**
+     * @return the whole-book index of employees' cheque accounts; empty in working-set mode
+     */
+    public static EmployerAccountIndex getEmployerIndex() {
+        return employerIndex;
+    }
+
+    /**
+     * Batch scan of the whole book for likely duplicate customers
+     * @return likely duplicate pairs, best match first
+     */
+    public static List<DuplicateDetector.Pair> scanForDuplicates() {
+        long start = System.currentTimeMillis();
+        // Working-set mode builds a detector for this scan only
+        DuplicateDetector detector = workingSet != null ? DuplicateDetector.buildFromDatabase() : duplicateDetector;
+        List<DuplicateDetector.Pair> pairs = detector.scanAll();
+        AuditLogger.log("system", "duplicates", "*", "scan",
+                "customers=" + detector.size() + ", pairs=" + pairs.size() + ", ms=" + (System.currentTimeMillis() - start), true);
+        return pairs;
+    }
+
+    private static boolean isValidCustomerType(String customerType) {
+        return "PERSONAL".equals(customerType) || "COMPANY".equals(customerType);
+    }
+
+    // Create customer based on type; for COMPANY, additionalInfo is "companyName|companyAddress"
+    private static Customer newCustomer(String customerId, String firstName, String lastName, String address,
+                                        String customerType, String additionalInfo) {
+        if ("PERSONAL".equals(customerType)) {
+            return new PersonalCustomer(customerId, firstName, lastName, address, additionalInfo);
+        }
+        String[] companyInfo = additionalInfo != null ? additionalInfo.split("\\|") : new String[0];
+        String companyName = companyInfo.length > 0 ? companyInfo[0] : "";
+        String companyAddress = companyInfo.length > 1 ? companyInfo[1] : "";
+        return new CompanyCustomer(customerId, firstName, lastName, address, companyName, companyAddress);
+    }
+
+    // Creation is never blocked here; the employee screen asks for confirmation, this leaves a trail
+    private static void auditPossibleDuplicates(Customer customer, List<DuplicateDetector.Candidate> candidates) {
+        if (!candidates.isEmpty()) {
+            AuditLogger.log("customer", "system", customer.getCustomerId(), "possible_duplicate", candidates.toString(), true);
+        }
     }
 
     // Customer sets up their own credentials
@@ -315,36 +815,192 @@ public class BankData {
     }
 
     private static String generateCustomerId() {
-        // Simple ID generation - in real system, this would be more sophisticated
-        return "C" + String.format("%03d", customers.size() + 1);
+        return IdAllocator.nextCustomerId();
     }
 
     public static List<CustomerCredentials> getCredentials() {
         return credentials;
     }
 
-    // Automatic interest application system
-    public static void applyAutomaticInterest() {
-        int totalAccountsProcessed = 0;
-        int interestApplied = 0;
-        
-        for (Customer customer : customers) {
-            for (Account account : customer.getAccounts()) {
-                totalAccountsProcessed++;
-                if (account instanceof Interest) {
-                    ((Interest) account).calculateInterest();
-                    interestApplied++;
+    /**
+     * Automatic interest application system. The run never blocks the caller: accounts go to their
+     * lanes when mailboxes are enabled and to the persistence thread otherwise, and progress is
+     * published to OperationsMetrics from there.
+     * Accounts whose new balance cannot be written get their interest taken back.
+     * @return future completed with true once every credited balance is committed
+     */
+    public static CompletableFuture<Boolean> applyAutomaticInterest() {
+        return timed("applyAutomaticInterest", () -> {
+            if (workingSet != null) {
+                int[] counts = new int[3];
+                return PersistenceExecutor.submit("interest run", () -> {
+                    OperationsMetrics.interestRunStarted(Repositories.accounts().count());
+                    int[] result = applyInterestByPage();
+                    System.arraycopy(result, 0, counts, 0, counts.length);
+                    return true;
+                }).thenCompose(ran -> finishInterestRun(counts[0], counts[1], counts[2])
+                        .thenApply(committed -> ran && committed));
+            }
+            // The accounts are listed here, on the thread that owns the customer list
+            int totalAccountsProcessed = 0;
+            List<Account> accounts = new ArrayList<>();
+            for (Customer customer : customers) {
+                for (Account account : customer.getAccounts()) {
+                    totalAccountsProcessed++;
+                    if (account instanceof Interest && !account.isClosed()) {
+                        accounts.add(account);
+                    }
                 }
             }
+            OperationsMetrics.interestRunStarted(accounts.size());
+            if (AccountMailboxes.isEnabled()) {
+                return applyInterestInLanes(accounts, totalAccountsProcessed);
+            }
+            return applyInterestInBackground(accounts, totalAccountsProcessed);
+        });
+    }
+
+    // Each account's lane applies and persists its own interest, and takes it back if the write fails
+    private static CompletableFuture<Boolean> applyInterestInLanes(List<Account> accounts, int totalAccountsProcessed) {
+        FlightEvents.InterestChunk chunk = FlightEvents.InterestChunk.start();
+        List<CompletableFuture<Boolean>> results = new ArrayList<>(accounts.size());
+        for (Account account : accounts) {
+            results.add(AccountMailboxes.applyInterest(account)
+                    .whenComplete((ok, e) -> OperationsMetrics.interestProcessed(1)));
         }
-        
-        // Save data after applying interest
-        DatabaseStorage.saveAllData(customers, credentials);
-        AuditLogger.log("system", "interest", "*", "apply", "processed=" + totalAccountsProcessed + ", applied=" + interestApplied, true);
-        
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).thenCompose(v -> {
+            int interestApplied = 0;
+            for (CompletableFuture<Boolean> result : results) {
+                if (result.join()) interestApplied++;
+            }
+            chunk.finish("mailboxes", totalAccountsProcessed, interestApplied);
+            return finishInterestRun(totalAccountsProcessed, interestApplied, results.size() - interestApplied);
+        });
+    }
+
+    // Applies and writes the interest on the persistence thread; accounts whose chunk was rolled back lose it again
+    private static CompletableFuture<Boolean> applyInterestInBackground(List<Account> accounts, int totalAccountsProcessed) {
+        Map<Account, Double> credited = new LinkedHashMap<>();
+        Set<String> failed = ConcurrentHashMap.newKeySet();
+        return PersistenceExecutor.submit("interest run", () -> {
+            // Counted as failed until the batch reports otherwise, in case it throws
+            for (Account account : accounts) {
+                failed.add(account.getAccountNumber());
+            }
+            FlightEvents.InterestChunk chunk = FlightEvents.InterestChunk.start();
+            for (Account account : accounts) {
+                credited.put(account, ((Interest) account).calculateInterest());
+                OperationsMetrics.interestProcessed(1);
+            }
+            chunk.finish("in-memory", totalAccountsProcessed, credited.size());
+            Set<String> rolledBack = Repositories.accounts().updateBalances(accounts, INTEREST_PAGE_SIZE);
+            failed.retainAll(rolledBack);
+            return rolledBack.isEmpty();
+        }).thenApplyAsync(ok -> {
+            List<BankEvent> events = new ArrayList<>();
+            int reversed = 0;
+            for (Map.Entry<Account, Double> entry : credited.entrySet()) {
+                if (failed.contains(entry.getKey().getAccountNumber())) {
+                    entry.getKey().compensate(-entry.getValue());
+                    reversed++;
+                } else if (BankEventBus.hasSubscribers()) {
+                    events.add(BankEvent.accountCredited(entry.getKey(), entry.getValue()));
+                }
+            }
+            BankEventBus.publishAll(events);
+            return reversed;
+        }, PersistenceExecutor.ownerExecutor())
+                .thenCompose(reversed -> finishInterestRun(totalAccountsProcessed, credited.size() - reversed, reversed));
+    }
+
+    private static CompletableFuture<Boolean> finishInterestRun(int totalAccountsProcessed, int interestApplied, int interestReversed) {
+        OperationsMetrics.interestRunFinished();
+        AuditLogger.log("system", "interest", "*", "apply",
+                "processed=" + totalAccountsProcessed + ", applied=" + interestApplied, true);
+        if (interestReversed > 0) {
+            AuditLogger.log("system", "interest", "*", "apply",
+                    "database commit failed for " + interestReversed + " accounts, interest reversed", false);
+        }
+
         System.out.println("🔄 Automatic Interest Applied:");
         System.out.println("   - Total accounts processed: " + totalAccountsProcessed);
         System.out.println("   - Interest applied to: " + interestApplied + " accounts");
+        return CompletableFuture.completedFuture(interestReversed == 0);
+    }
+
+    /**
+     * Working-set interest run: walk the book in customer ID pages, apply interest and write each
+     * page's balances with one batch, without making the scanned customers resident.
+     * Accounts whose batch fails get their interest taken back.
+     * @return {accounts processed, interest applied, interest reversed}
+     */
+    private static int[] applyInterestByPage() {
+        int processed = 0;
+        int applied = 0;
+        int reversed = 0;
+        String after = null;
+        List<Customer> page;
+        FlightEvents.InterestChunk chunk = FlightEvents.InterestChunk.start();
+        while (!(page = workingSet.loadPage(after, INTEREST_PAGE_SIZE)).isEmpty()) {
+            int pageProcessed = processed;
+            int pageApplied = applied;
+            List<Account> touched = new ArrayList<>();
+            List<Double> credited = new ArrayList<>();
+            List<Account> sent = new ArrayList<>();
+            List<CompletableFuture<Boolean>> results = new ArrayList<>();
+            // Change counts of each customer before and after its credits, to mark residents clean again
+            Map<Customer, long[]> changeCounts = new IdentityHashMap<>();
+            for (Customer customer : page) {
+                long before = customer.changeCount();
+                int credits = 0;
+                for (Account account : customer.getAccounts()) {
+                    processed++;
+                    if (account instanceof Interest && !account.isClosed()) {
+                        credits++;
+                        if (AccountMailboxes.isEnabled()) {
+                            sent.add(account);
+                            results.add(AccountMailboxes.applyInterest(account));
+                        } else {
+                            touched.add(account);
+                            credited.add(((Interest) account).calculateInterest());
+                        }
+                    }
+                }
+                changeCounts.put(customer, new long[] { before, before + credits });
+            }
+            for (int i = 0; i < results.size(); i++) {
+                if (results.get(i).join()) {
+                    applied++;
+                } else {
+                    reversed++;
+                    changeCounts.remove(sent.get(i).getCustomer());
+                }
+            }
+            if (!touched.isEmpty()) {
+                Set<String> failed = Repositories.accounts().updateBalances(touched, touched.size());
+                applied += touched.size() - failed.size();
+                reversed += failed.size();
+                for (int i = 0; i < touched.size(); i++) {
+                    if (failed.contains(touched.get(i).getAccountNumber())) {
+                        touched.get(i).compensate(-credited.get(i));
+                        changeCounts.remove(touched.get(i).getCustomer());
+                    } else if (BankEventBus.hasSubscribers()) {
+                        BankEventBus.publish(BankEvent.accountCredited(touched.get(i), credited.get(i)));
+                    }
+                }
+            }
+            // Only customers whose credits were all committed; the others stay dirty for their write-back
+            for (Map.Entry<Customer, long[]> entry : changeCounts.entrySet()) {
+                workingSet.markClean(entry.getKey(), entry.getValue()[0], entry.getValue()[1]);
+            }
+            // The run's total counts every account in the book
+            OperationsMetrics.interestProcessed(processed - pageProcessed);
+            // The chunk includes loading the page
+            chunk.finish("page", processed - pageProcessed, applied - pageApplied);
+            chunk = FlightEvents.InterestChunk.start();
+            after = page.get(page.size() - 1).getCustomerId();
+        }
+        return new int[] { processed, applied, reversed };
     }
 
     // Method to simulate daily interest application (can be called by system)
@@ -0,0 +1,65 @@
+package bankmanagementsystem.model;
+
+/**
+ * Something that changed in the bank and that open screens may want to show.
+ * Events name the subject (an account or a customer) rather than carrying its new state; a screen
+ * re-reads the account or customer when it handles the event, so a burst of events for the same
+ * subject can be collapsed into one (see {@link BankEventBus.Coalescer}).
+ */
+public class BankEvent {
+    public enum Type { ACCOUNT_CREDITED, ACCOUNT_DEBITED, ACCOUNT_CLOSED, CUSTOMER_UPDATED, CUSTOMER_DELETED }
+
+    private final Type type;
+    private final String customerId;
+    private final String accountNumber;
+    private final double amount;
+
+    private BankEvent(Type type, String customerId, String accountNumber, double amount) {
+        this.type = type;
+        this.customerId = customerId;
+        this.accountNumber = accountNumber;
+        this.amount = amount;
+    }
+
+    public static BankEvent accountCredited(Account account, double amount) {
+        return new BankEvent(Type.ACCOUNT_CREDITED, ownerId(account), account.getAccountNumber(), amount);
+    }
+
+    public static BankEvent accountDebited(Account account, double amount) {
+        return new BankEvent(Type.ACCOUNT_DEBITED, ownerId(account), account.getAccountNumber(), amount);
+    }
+
+    public static BankEvent accountClosed(Account account) {
+        return new BankEvent(Type.ACCOUNT_CLOSED, ownerId(account), account.getAccountNumber(), 0);
+    }
+
+    public static BankEvent customerUpdated(String customerId) {
+        return new BankEvent(Type.CUSTOMER_UPDATED, customerId, null, 0);
+    }
+
+    public static BankEvent customerDeleted(String customerId) {
+        return new BankEvent(Type.CUSTOMER_DELETED, customerId, null, 0);
+    }
+
+    private static String ownerId(Account account) {
+        return account.getCustomer() != null ? account.getCustomer().getCustomerId() : null;
+    }
+
+    public Type getType() { return type; }
+    public String getCustomerId() { return customerId; }
+    /** Null for customer events */
+    public String getAccountNumber() { return accountNumber; }
+    public double getAmount() { return amount; }
+
+    /**
+     * @return key of the thing that changed; events with the same key can replace each other
+     */
+    public String getSubjectKey() {
+        return accountNumber != null ? "A:" + accountNumber : "C:" + customerId;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + getSubjectKey() + (amount != 0 ? " " + amount : "");
+    }
+}
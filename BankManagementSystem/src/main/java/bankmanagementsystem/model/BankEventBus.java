@@ -0,0 +1,95 @@
+package bankmanagementsystem.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * In-process publish/subscribe for {@link BankEvent}s.
+ * Listeners are called synchronously on the publishing thread (a lane thread, the persistence
+ * thread, the FX thread), so they must only record the event and return. Screens subscribe through
+ * a {@link Coalescer}: it keeps only the latest event per account or customer and wakes the screen
+ * once, however many events arrive before the screen gets to them.
+ */
+public class BankEventBus {
+    private static final List<Consumer<BankEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param listener Called with every published event, on the publishing thread
+     * @return call to unsubscribe
+     */
+    public static Runnable subscribe(Consumer<BankEvent> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    public static void publish(BankEvent event) {
+        for (Consumer<BankEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                System.err.println("❌ Error in event listener for " + event + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public static void publishAll(List<BankEvent> events) {
+        for (BankEvent event : events) {
+            publish(event);
+        }
+    }
+
+    /**
+     * @return true if anyone is listening (lets bulk operations skip building events)
+     */
+    public static boolean hasSubscribers() {
+        return !listeners.isEmpty();
+    }
+
+    /**
+     * Collapses events per subject until the consumer drains them.
+     * The wake-up callback runs only on the transition from "nothing pending" to "something pending",
+     * so thousands of events between two drains cost one wake-up and one entry per subject.
+     */
+    public static class Coalescer implements Consumer<BankEvent> {
+        private final Map<String, BankEvent> pending = new ConcurrentHashMap<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final Runnable wakeUp;
+
+        /**
+         * @param wakeUp Called (on the publishing thread) when events become pending; it should
+         *               arrange for {@link #drain()} to be called soon on the consumer's thread
+         */
+        public Coalescer(Runnable wakeUp) {
+            this.wakeUp = wakeUp;
+        }
+
+        @Override
+        public void accept(BankEvent event) {
+            pending.put(event.getSubjectKey(), event);
+            if (scheduled.compareAndSet(false, true)) {
+                wakeUp.run();
+            }
+        }
+
+        /**
+         * @return the latest event per subject since the previous drain
+         */
+        public List<BankEvent> drain() {
+            // Cleared first, so an event arriving while we drain schedules another wake-up
+            scheduled.set(false);
+            List<BankEvent> events = new ArrayList<>(pending.size());
+            for (String key : pending.keySet()) {
+                BankEvent event = pending.remove(key);
+                if (event != null) {
+                    events.add(event);
+                }
+            }
+            return events;
+        }
+    }
+}
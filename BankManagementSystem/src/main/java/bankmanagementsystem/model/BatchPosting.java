@@ -0,0 +1,260 @@
+package bankmanagementsystem.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies many credits and debits in one pass instead of one deposit plus a full save per item.
+ * Postings are validated against the in-memory state, grouped by account, applied in memory and
+ * then written with chunked JDBC batches (one transaction per chunk). Only the balances of the
+ * touched accounts are written, and the audit trail gets one aggregated record per account.
+ * With mailboxes enabled the batch runs in an {@link AccountMailboxes#exclusive} section over the
+ * posted accounts, so their lanes do not change them between validation and commit.
+ */
+public class BatchPosting {
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+
+    /**
+     * Parse a posting file with one "accountNumber,CREDIT|DEBIT,amount[,reference]" entry per line.
+     * Blank lines, lines starting with '#' and a header line starting with "account" are skipped;
+     * unknown types are kept without a type and unparseable amounts with a NaN amount, so the batch
+     * rejects them and they show up in the results.
+     * @param file Posting file
+     * @return parsed postings, in file order
+     * @throws IOException if the file cannot be read
+     */
+    public static List<Posting> parsePostingFile(Path file) throws IOException {
+        List<Posting> postings = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String raw;
+            while ((raw = reader.readLine()) != null) {
+                String text = raw.trim();
+                if (text.isEmpty() || text.startsWith("#") || text.toLowerCase().startsWith("account")) {
+                    continue;
+                }
+                String[] parts = text.split(",", 4);
+                String accountNumber = parts[0].trim();
+                Posting.Type type = null;
+                if (parts.length > 1) {
+                    String name = parts[1].trim().toUpperCase();
+                    type = name.equals("CREDIT") || name.equals("C") ? Posting.Type.CREDIT
+                            : name.equals("DEBIT") || name.equals("D") ? Posting.Type.DEBIT : null;
+                }
+                double amount;
+                try {
+                    amount = parts.length > 2 ? Double.parseDouble(parts[2].trim()) : Double.NaN;
+                } catch (NumberFormatException e) {
+                    amount = Double.NaN;
+                }
+                String reference = parts.length > 3 ? parts[3].trim() : "";
+                postings.add(new Posting(accountNumber, type, amount, reference));
+            }
+        }
+        return postings;
+    }
+
+    /**
+     * Post a batch using the default chunk size
+     * @param postings Postings to apply, in file order
+     * @param actor Who submitted the batch (for the audit trail)
+     * @return one result per posting, in the same order as the input
+     */
+    public static List<PostingResult> post(List<Posting> postings, String actor) {
+        return post(postings, actor, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Post a batch
+     * @param postings Postings to apply, in file order
+     * @param actor Who submitted the batch (for the audit trail)
+     * @param chunkSize Number of accounts written per JDBC batch/transaction
+     * @return one result per posting, in the same order as the input
+     */
+    public static List<PostingResult> post(List<Posting> postings, String actor, int chunkSize) {
+        long start = System.nanoTime();
+        Map<String, Account> accountsByNumber = indexAccounts(postings);
+        if (AccountMailboxes.isEnabled()) {
+            List<Account> posted = new ArrayList<>();
+            for (Posting posting : postings) {
+                Account account = posting.getAccountNumber() != null ? accountsByNumber.get(posting.getAccountNumber()) : null;
+                if (account != null) {
+                    posted.add(account);
+                }
+            }
+            return AccountMailboxes.exclusive(posted, () -> post(postings, actor, chunkSize, accountsByNumber, start));
+        }
+        return post(postings, actor, chunkSize, accountsByNumber, start);
+    }
+
+    private static List<PostingResult> post(List<Posting> postings, String actor, int chunkSize,
+                                            Map<String, Account> accountsByNumber, long start) {
+        PostingResult[] results = new PostingResult[postings.size()];
+
+        // Validate every posting against the projected balance, so a debit that follows a credit
+        // on the same account in the file sees that credit
+        Map<Account, Double> projected = new HashMap<>();
+        Map<Account, List<Integer>> accepted = new LinkedHashMap<>();
+        for (int i = 0; i < postings.size(); i++) {
+            Posting posting = postings.get(i);
+            Account account = posting.getAccountNumber() != null ? accountsByNumber.get(posting.getAccountNumber()) : null;
+            String error = validate(posting, account, projected);
+            if (error != null) {
+                results[i] = new PostingResult(posting, PostingResult.Status.REJECTED, error);
+                continue;
+            }
+            double delta = posting.getType() == Posting.Type.CREDIT ? posting.getAmount() : -posting.getAmount();
+            projected.merge(account, delta, Double::sum);
+            accepted.computeIfAbsent(account, a -> new ArrayList<>()).add(i);
+        }
+
+        // Apply in memory
+        for (Map.Entry<Account, List<Integer>> entry : accepted.entrySet()) {
+            Account account = entry.getKey();
+            for (Iterator<Integer> it = entry.getValue().iterator(); it.hasNext(); ) {
+                int i = it.next();
+                Posting posting = postings.get(i);
+                if (posting.getType() == Posting.Type.CREDIT) {
+                    account.deposit(posting.getAmount());
+                } else if (!((Withdraw) account).withdraw(posting.getAmount())) {
+                    // Funds used by a concurrent withdrawal since validation
+                    results[i] = new PostingResult(posting, PostingResult.Status.REJECTED, "insufficient funds");
+                    projected.merge(account, posting.getAmount(), Double::sum);
+                    it.remove();
+                }
+            }
+        }
+
+        // Persist only the touched accounts; roll back in memory whatever did not commit
+        Set<String> failed = Repositories.accounts().updateBalances(accepted.keySet(), chunkSize);
+        List<AuditLogger.Entry> audit = new ArrayList<>();
+        int applied = 0;
+        for (Map.Entry<Account, List<Integer>> entry : accepted.entrySet()) {
+            Account account = entry.getKey();
+            boolean committed = !failed.contains(account.getAccountNumber());
+
+            int credits = 0;
+            int debits = 0;
+            double creditTotal = 0;
+            double debitTotal = 0;
+            for (int i : entry.getValue()) {
+                Posting posting = postings.get(i);
+                if (posting.getType() == Posting.Type.CREDIT) {
+                    credits++;
+                    creditTotal += posting.getAmount();
+                } else {
+                    debits++;
+                    debitTotal += posting.getAmount();
+                }
+                results[i] = committed
+                        ? new PostingResult(posting, PostingResult.Status.APPLIED, "")
+                        : new PostingResult(posting, PostingResult.Status.FAILED, "database commit failed");
+                if (committed) {
+                    OperationsMetrics.recordPosting(account,
+                            posting.getType() == Posting.Type.CREDIT ? posting.getAmount() : -posting.getAmount(),
+                            System.nanoTime() - start);
+                }
+            }
+            if (committed) {
+                applied += entry.getValue().size();
+            } else {
+                // Undo by amount: a hot account's credits sit in its slots, not in the main balance
+                account.reverseDeposit(creditTotal);
+                account.compensate(debitTotal);
+            }
+            audit.add(new AuditLogger.Entry("transaction", actor, account.getAccountNumber(), "batch_post",
+                    String.format("credits=%d (%.2f), debits=%d (%.2f)", credits, creditTotal, debits, debitTotal), committed));
+        }
+
+        int rejected = postings.size() - applied - countFailed(accepted, failed);
+        audit.add(new AuditLogger.Entry("system", actor, "*", "batch_post",
+                "postings=" + postings.size() + ", applied=" + applied + ", rejected=" + rejected
+                        + ", accounts=" + accepted.size() + ", failedAccounts=" + failed.size(), failed.isEmpty()));
+        AuditLogger.logAll(audit);
+        if (BankEventBus.hasSubscribers()) {
+            List<BankEvent> events = new ArrayList<>();
+            for (Account account : accepted.keySet()) {
+                if (!failed.contains(account.getAccountNumber())) {
+                    // Net of the accepted postings; the posted balance does not move for hot accounts
+                    double delta = projected.get(account);
+                    events.add(delta < 0 ? BankEvent.accountDebited(account, -delta) : BankEvent.accountCredited(account, delta));
+                }
+            }
+            BankEventBus.publishAll(events);
+        }
+
+        System.out.println("📦 Batch posting: " + applied + "/" + postings.size() + " postings applied across " + accepted.size() + " accounts");
+
+        List<PostingResult> out = new ArrayList<>(results.length);
+        for (PostingResult result : results) {
+            out.add(result);
+        }
+        return out;
+    }
+
+    private static String validate(Posting posting, Account account, Map<Account, Double> projected) {
+        if (posting.getType() == null) {
+            return "missing posting type";
+        }
+        if (!(posting.getAmount() > 0) || Double.isInfinite(posting.getAmount())) {
+            return "amount must be greater than 0";
+        }
+        if (account == null) {
+            return "account not found";
+        }
+        if (account.isClosed()) {
+            return "account closed";
+        }
+        if (posting.getType() == Posting.Type.DEBIT) {
+            if (!(account instanceof Withdraw)) {
+                return "withdrawals not allowed on " + account.getClass().getSimpleName();
+            }
+            double available = account.getAvailableBalance() + projected.getOrDefault(account, 0.0);
+            if (posting.getAmount() > available) {
+                return "insufficient funds: balance=" + available + ", amount=" + posting.getAmount();
+            }
+        }
+        return null;
+    }
+
+    private static int countFailed(Map<Account, List<Integer>> accepted, Set<String> failed) {
+        int count = 0;
+        for (Map.Entry<Account, List<Integer>> entry : accepted.entrySet()) {
+            if (failed.contains(entry.getKey().getAccountNumber())) {
+                count += entry.getValue().size();
+            }
+        }
+        return count;
+    }
+
+    private static Map<String, Account> indexAccounts(List<Posting> postings) {
+        Map<String, Account> index = new HashMap<>();
+        if (BankData.getWorkingSet() != null) {
+            // Only the customers owning the posted accounts are faulted in
+            for (Posting posting : postings) {
+                if (!index.containsKey(posting.getAccountNumber())) {
+                    Account account = BankData.findAccountByNumber(posting.getAccountNumber());
+                    if (account != null) {
+                        index.put(account.getAccountNumber(), account);
+                    }
+                }
+            }
+            return index;
+        }
+        for (Customer customer : BankData.getCustomers()) {
+            for (Account account : customer.getAccounts()) {
+                index.put(account.getAccountNumber(), account);
+            }
+        }
+        return index;
+    }
+}
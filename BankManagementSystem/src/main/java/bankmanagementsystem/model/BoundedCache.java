@@ -0,0 +1,238 @@
+package bankmanagementsystem.model;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Size-bounded concurrent cache with segmented-LRU eviction and a per-entry time to live.
+ * Keys are spread over independently locked segments. Inside a segment, new entries start in a
+ * probation area and move to a protected area on their second hit, so a burst of one-off lookups
+ * (e.g. a scan) only evicts other one-off entries and cannot flush the frequently used ones.
+ * Loads run outside the segment lock; a load that races with an invalidation of the same segment
+ * is returned to the caller but not cached, so invalidated data is never re-inserted.
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class BoundedCache<K, V> {
+    private static final int SEGMENTS = 16;
+
+    private final String name;
+    private final long ttlMillis;
+    private final Segment<K, V>[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param name Cache name (used in statistics output)
+     * @param maxEntries Maximum number of entries held across all segments
+     * @param ttlMillis Time to live of an entry after it was loaded
+     */
+    @SuppressWarnings("unchecked")
+    public BoundedCache(String name, int maxEntries, long ttlMillis) {
+        this.name = name;
+        this.ttlMillis = ttlMillis;
+        this.segments = (Segment<K, V>[]) new Segment<?, ?>[SEGMENTS];
+        int perSegment = Math.max(1, (maxEntries + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<>(perSegment);
+        }
+    }
+
+    /**
+     * Return the cached value, or load, cache and return it on a miss. Null results are not cached.
+     * @param key Key to look up
+     * @param loader Called with the key on a miss
+     * @return cached or loaded value, or null
+     */
+    public V get(K key, Function<K, V> loader) {
+        Segment<K, V> segment = segmentFor(key);
+        long version;
+        synchronized (segment) {
+            V value = segment.lookup(key, System.currentTimeMillis());
+            if (value != null) {
+                hits.increment();
+                return value;
+            }
+            version = segment.version;
+        }
+        misses.increment();
+        V loaded = loader.apply(key);
+        if (loaded != null) {
+            synchronized (segment) {
+                if (segment.version == version) {
+                    evictions.add(segment.insert(key, loaded, System.currentTimeMillis() + ttlMillis));
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * @param key Key to look up
+     * @return cached value, or null if absent or expired (the cache is not loaded)
+     */
+    public V getIfPresent(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            V value = segment.lookup(key, System.currentTimeMillis());
+            if (value != null) {
+                hits.increment();
+            } else {
+                misses.increment();
+            }
+            return value;
+        }
+    }
+
+    // Like getIfPresent, but not counted in the statistics (used by invalidation bookkeeping)
+    V peek(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.lookup(key, System.currentTimeMillis());
+        }
+    }
+
+    public void invalidate(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.remove(key);
+        }
+    }
+
+    /**
+     * Remove every entry whose value matches (used when the key of the affected entries is unknown)
+     * @param predicate Condition on the cached value
+     */
+    public void invalidateIf(Predicate<V> predicate) {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.removeIf(predicate);
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        invalidateIf(v -> true);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.probation.size() + segment.protectedArea.size();
+            }
+        }
+        return size;
+    }
+
+    public long getHitCount() { return hits.sum(); }
+    public long getMissCount() { return misses.sum(); }
+    public long getEvictionCount() { return evictions.sum(); }
+
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s cache: size=%d, hits=%d, misses=%d, evictions=%d, hitRate=%.1f%%",
+                name, size(), getHitCount(), getMissCount(), getEvictionCount(), getHitRate() * 100);
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private static class Entry<V> {
+        final V value;
+        final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    // All methods are called with the segment's monitor held
+    private static class Segment<K, V> {
+        final int capacity;
+        final int protectedCapacity;
+        // Access-ordered, so iteration starts at the least recently used entry
+        final LinkedHashMap<K, Entry<V>> probation = new LinkedHashMap<>(16, 0.75f, true);
+        final LinkedHashMap<K, Entry<V>> protectedArea = new LinkedHashMap<>(16, 0.75f, true);
+        // Bumped on every invalidation so in-flight loads can tell their result may be stale
+        long version;
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+            this.protectedCapacity = Math.max(1, capacity * 4 / 5);
+        }
+
+        V lookup(K key, long now) {
+            Entry<V> entry = protectedArea.get(key);
+            if (entry == null) {
+                entry = probation.get(key);
+                if (entry == null) {
+                    return null;
+                }
+                if (entry.expiresAt <= now) {
+                    probation.remove(key);
+                    return null;
+                }
+                // Second hit: promote, demoting the protected area's LRU entry if it is full
+                probation.remove(key);
+                protectedArea.put(key, entry);
+                if (protectedArea.size() > protectedCapacity) {
+                    Map.Entry<K, Entry<V>> eldest = protectedArea.entrySet().iterator().next();
+                    protectedArea.remove(eldest.getKey());
+                    probation.put(eldest.getKey(), eldest.getValue());
+                }
+                return entry.value;
+            }
+            if (entry.expiresAt <= now) {
+                protectedArea.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+
+        // Returns the number of entries evicted to make room
+        int insert(K key, V value, long expiresAt) {
+            Entry<V> entry = new Entry<>(value, expiresAt);
+            if (protectedArea.containsKey(key)) {
+                protectedArea.put(key, entry);
+                return 0;
+            }
+            probation.put(key, entry);
+            int evicted = 0;
+            while (probation.size() + protectedArea.size() > capacity) {
+                LinkedHashMap<K, Entry<V>> victims = probation.isEmpty() ? protectedArea : probation;
+                Iterator<K> it = victims.keySet().iterator();
+                it.next();
+                it.remove();
+                evicted++;
+            }
+            return evicted;
+        }
+
+        void remove(K key) {
+            version++;
+            probation.remove(key);
+            protectedArea.remove(key);
+        }
+
+        void removeIf(Predicate<V> predicate) {
+            version++;
+            probation.values().removeIf(e -> predicate.test(e.value));
+            protectedArea.values().removeIf(e -> predicate.test(e.value));
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package bankmanagementsystem.model;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Writes many rows of one table in a single transaction, using the fastest mechanism the database
+ * offers (see {@link SqlDialect#bulkMethod()}): multi-row upserts on MySQL and one JDBC batch of MERGE
+ * statements on H2.
+ * Rows are arrays of column values in {@link SqlDialect.Table} column order; values may be String,
+ * Double, Boolean or null.
+ */
+public class BulkLoader {
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * Insert or update all rows in one transaction
+     * @param table Target table
+     * @param rows Column values per row
+     * @return true if every row was written, false if the transaction was rolled back
+     */
+    public static boolean upsert(SqlDialect.Table table, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return true;
+        }
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                load(conn, table, rows);
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                System.err.println("❌ Error bulk loading " + table.name + ", rolling back " + rows.size() + " rows: " + e.getMessage());
+                conn.rollback();
+                return false;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Error bulk loading " + table.name + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Write rows on a connection whose transaction is managed by the caller
+     */
+    static void load(Connection conn, SqlDialect.Table table, List<Object[]> rows) throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        SqlDialect dialect = SqlDialect.current();
+        switch (dialect.bulkMethod()) {
+            case MULTI_ROW_INSERT:
+                multiRow(conn, dialect, table, rows);
+                break;
+            default:
+                batch(conn, dialect, table, rows);
+                break;
+        }
+    }
+
+    /**
+     * Bind one row's values starting at a parameter index
+     * @return the next free parameter index
+     */
+    static int bind(PreparedStatement stmt, int index, Object[] row) throws SQLException {
+        for (Object value : row) {
+            if (value == null) {
+                stmt.setNull(index, Types.VARCHAR);
+            } else if (value instanceof Double) {
+                stmt.setDouble(index, (Double) value);
+            } else if (value instanceof Boolean) {
+                stmt.setBoolean(index, (Boolean) value);
+            } else {
+                stmt.setString(index, value.toString());
+            }
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Apply (or with {@code begin} false, undo) the dialect's bulk-load session settings
+     * @param tables Tables the session writes
+     */
+    static void bulkSession(Connection conn, boolean begin, SqlDialect.Table... tables) throws SQLException {
+        SqlDialect dialect = SqlDialect.current();
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : begin ? dialect.beginBulkLoad(tables) : dialect.endBulkLoad()) {
+                stmt.execute(sql);
+            }
+        }
+    }
+
+    /**
+     * Drop the non-unique indexes of a table so a large load does not maintain them row by row.
+     * Indexes the database refuses to drop (e.g. ones a foreign key needs) are kept.
+     * @return CREATE INDEX statements that rebuild the dropped indexes (see {@link #restoreIndexes})
+     */
+    static List<String> dropSecondaryIndexes(Connection conn, SqlDialect.Table table) throws SQLException {
+        Map<String, TreeMap<Short, String>> indexes = new LinkedHashMap<>();
+        DatabaseMetaData meta = conn.getMetaData();
+        // H2 stores unquoted names in upper case
+        String tableName = meta.storesUpperCaseIdentifiers() ? table.name.toUpperCase(Locale.ROOT) : table.name;
+        try (ResultSet rs = meta.getIndexInfo(conn.getCatalog(), conn.getSchema(), tableName, false, true)) {
+            while (rs.next()) {
+                String name = rs.getString("INDEX_NAME");
+                if (name == null || !rs.getBoolean("NON_UNIQUE") || rs.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic) {
+                    continue;
+                }
+                indexes.computeIfAbsent(name, n -> new TreeMap<>()).put(rs.getShort("ORDINAL_POSITION"), rs.getString("COLUMN_NAME"));
+            }
+        }
+
+        SqlDialect dialect = SqlDialect.current();
+        List<String> restore = new ArrayList<>();
+        try (Statement stmt = conn.createStatement()) {
+            for (Map.Entry<String, TreeMap<Short, String>> index : indexes.entrySet()) {
+                try {
+                    stmt.execute(dialect.dropIndex(table.name, index.getKey()));
+                    restore.add("CREATE INDEX " + index.getKey() + " ON " + table.name +
+                            " (" + String.join(", ", index.getValue().values()) + ")");
+                } catch (SQLException e) {
+                    System.err.println("⚠️ Keeping index " + index.getKey() + " on " + table.name + ": " + e.getMessage());
+                }
+            }
+        }
+        return restore;
+    }
+
+    static void restoreIndexes(Connection conn, List<String> statements) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : statements) {
+                stmt.execute(sql);
+            }
+        }
+    }
+
+    /**
+     * Write rows to a temporary file and have the database load it in one statement
+     * (MySQL LOAD DATA LOCAL INFILE, H2 CSVREAD; see {@link SqlDialect#loadFile}).
+     * Rows whose key already exists are replaced.
+     * @return number of rows the database reported
+     */
+    static long loadFile(Connection conn, SqlDialect.Table table, List<Object[]> rows) throws SQLException {
+        SqlDialect dialect = SqlDialect.current();
+        Path file = null;
+        try {
+            Path directory = Files.createDirectories(DatabaseConfig.getBulkLoadDirectory());
+            file = Files.createTempFile(directory, table.name + "-", ".csv");
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                StringBuilder line = new StringBuilder();
+                for (Object[] row : rows) {
+                    line.setLength(0);
+                    appendLoadFileLine(line, row);
+                    writer.append(line);
+                }
+            }
+            try (Statement stmt = conn.createStatement()) {
+                return stmt.executeLargeUpdate(dialect.loadFile(table, file.toAbsolutePath().toString()));
+            }
+        } catch (IOException e) {
+            throw new SQLException("Could not write load file for " + table.name + ": " + e.getMessage(), e);
+        } finally {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    System.err.println("⚠️ Could not delete load file " + file + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Load-file format both dialects read: \N is NULL, booleans are 1/0, strings are quoted with " and \ escaped by \
+    private static void appendLoadFileLine(StringBuilder line, Object[] row) {
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            Object value = row[i];
+            if (value == null) {
+                line.append("\\N");
+            } else if (value instanceof Double) {
+                line.append(BigDecimal.valueOf((Double) value).toPlainString());
+            } else if (value instanceof Boolean) {
+                line.append((Boolean) value ? '1' : '0');
+            } else {
+                line.append('"').append(value.toString().replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+            }
+        }
+        line.append('\n');
+    }
+
+    private static void multiRow(Connection conn, SqlDialect dialect, SqlDialect.Table table, List<Object[]> rows) throws SQLException {
+        int perStatement = Math.min(dialect.rowsPerStatement(table), rows.size());
+        int full = rows.size() - rows.size() % perStatement;
+        if (full > 0) {
+            writeChunks(conn, dialect.upsert(table, perStatement), rows, 0, full, perStatement);
+        }
+        if (full < rows.size()) {
+            writeChunks(conn, dialect.upsert(table, rows.size() - full), rows, full, rows.size(), rows.size() - full);
+        }
+    }
+
+    // One prepared statement reused for every chunk of the same size
+    private static void writeChunks(Connection conn, String sql, List<Object[]> rows, int from, int to, int perStatement) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int start = from; start < to; start += perStatement) {
+                int index = 1;
+                for (int i = start; i < start + perStatement; i++) {
+                    index = bind(stmt, index, rows.get(i));
+                }
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    private static void batch(Connection conn, SqlDialect dialect, SqlDialect.Table table, List<Object[]> rows) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(dialect.upsert(table))) {
+            int pending = 0;
+            for (Object[] row : rows) {
+                bind(stmt, 1, row);
+                stmt.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    stmt.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                stmt.executeBatch();
+            }
+        }
+    }
+}
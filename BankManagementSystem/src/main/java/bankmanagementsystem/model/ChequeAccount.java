@@ -11,9 +11,12 @@ public class ChequeAccount extends Account implements Withdraw {
     }
 
     @Override
-    public void withdraw(double amount) {
-        if (amount <= balance) balance -= amount;
-        else System.out.println("Insufficient funds.");
+    public synchronized boolean withdraw(double amount) {
+        if (withdrawUnlocked(amount)) {
+            return true;
+        }
+        System.out.println("Insufficient funds.");
+        return false;
     }
 
     @Override
@@ -0,0 +1,89 @@
+package bankmanagementsystem.model;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Bloom filters over all registered usernames and emails, used as a fast path for availability checks.
+ * A miss means "definitely available" and needs no list scan or database query; only possible hits
+ * fall through to the exact check. Values are compared case-insensitively here, so the filters never
+ * claim a name is free when the database's case-insensitive comparison would find it.
+ * The filters are built when BankData loads and updated whenever credentials are saved.
+ */
+public class CredentialFilters {
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MIN_CAPACITY = 10_000;
+
+    private static volatile BloomFilter usernames;
+    private static volatile BloomFilter emails;
+
+    /**
+     * Build the filters from the in-memory credentials
+     * @param credentials All credentials
+     */
+    public static void build(List<CustomerCredentials> credentials) {
+        BloomFilter u = new BloomFilter(capacityFor(credentials.size()), FALSE_POSITIVE_RATE);
+        BloomFilter e = new BloomFilter(capacityFor(credentials.size()), FALSE_POSITIVE_RATE);
+        for (CustomerCredentials cred : credentials) {
+            addTo(u, e, cred.getUsername(), cred.getEmail());
+        }
+        usernames = u;
+        emails = e;
+    }
+
+    /**
+     * Build the filters by streaming usernames and emails from the database (working-set mode)
+     */
+    public static void buildFromDatabase() {
+        int count = Repositories.credentials().count();
+        BloomFilter u = new BloomFilter(capacityFor(count), FALSE_POSITIVE_RATE);
+        BloomFilter e = new BloomFilter(capacityFor(count), FALSE_POSITIVE_RATE);
+        if (Repositories.credentials().forEachUsernameAndEmail((username, email) -> addTo(u, e, username, email))) {
+            usernames = u;
+            emails = e;
+        }
+    }
+
+    /**
+     * Record a username and email that are now taken
+     */
+    public static void record(String username, String email) {
+        BloomFilter u = usernames;
+        BloomFilter e = emails;
+        if (u != null && e != null) {
+            addTo(u, e, username, email);
+        }
+    }
+
+    /**
+     * @param username Username to check
+     * @return true if no credentials use this username; false means "maybe taken", check exactly
+     */
+    public static boolean isUsernameDefinitelyAvailable(String username) {
+        BloomFilter u = usernames;
+        return u != null && username != null && !u.mightContain(normalize(username));
+    }
+
+    /**
+     * @param email Email to check
+     * @return true if no credentials use this email; false means "maybe taken", check exactly
+     */
+    public static boolean isEmailDefinitelyAvailable(String email) {
+        BloomFilter e = emails;
+        return e != null && email != null && !e.mightContain(normalize(email));
+    }
+
+    private static void addTo(BloomFilter u, BloomFilter e, String username, String email) {
+        if (username != null) u.add(normalize(username));
+        if (email != null) e.add(normalize(email));
+    }
+
+    // Leave room for growth: the false-positive rate only degrades once the book doubles
+    private static long capacityFor(int count) {
+        return Math.max(MIN_CAPACITY, 2L * count);
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,49 @@
+package bankmanagementsystem.model;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Storage for customer login credentials
+ */
+public interface CredentialsRepository {
+    /**
+     * Insert or update the credentials of a customer
+     * @return true if successful
+     */
+    boolean save(CustomerCredentials credentials);
+
+    /**
+     * Insert or update many credentials at once
+     * @return true if all were saved
+     */
+    default boolean saveAll(Collection<CustomerCredentials> credentials) {
+        boolean ok = true;
+        for (CustomerCredentials cred : credentials) {
+            ok &= save(cred);
+        }
+        return ok;
+    }
+
+    List<CustomerCredentials> loadAll();
+
+    /**
+     * @return active credentials with this username, or null
+     */
+    CustomerCredentials findByUsername(String username);
+
+    boolean isUsernameAvailable(String username);
+
+    boolean isEmailAvailable(String email);
+
+    /**
+     * Visit every (username, email) pair without building credential objects
+     * @return true if all rows were visited
+     */
+    boolean forEachUsernameAndEmail(BiConsumer<String, String> consumer);
+
+    int count();
+
+    int countActive();
+}
@@ -2,6 +2,7 @@ package bankmanagementsystem.model;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class Customer {
     protected String customerId;
@@ -10,6 +11,8 @@ public class Customer {
     protected String address;
     protected List<Account> accounts = new ArrayList<>();
     protected List<String> linkedAccountNumbers = new ArrayList<>();
+    // Counts changes to the customer and its accounts; the working set compares it to tell dirty residents from clean ones
+    private final AtomicLong changes = new AtomicLong();
 
     public Customer(String customerId, String firstName, String lastName, String address) {
         this.customerId = customerId;
@@ -31,6 +34,7 @@ public class Customer {
             }
             if (!exists) {
                 accounts.add(account);
+                markChanged();
             }
         }
     }
@@ -62,14 +66,17 @@ public class Customer {
 
     public void setFirstName(String firstName) {
         this.firstName = firstName;
+        markChanged();
     }
 
     public void setLastName(String lastName) {
         this.lastName = lastName;
+        markChanged();
     }
 
     public void setAddress(String address) {
         this.address = address;
+        markChanged();
     }
 
     public List<String> getLinkedAccountNumbers() {
@@ -78,10 +85,17 @@ public class Customer {
 
     public void addLinkedAccountNumber(String accountNumber) {
         if (accountNumber == null || accountNumber.isBlank()) return;
-        if (!linkedAccountNumbers.contains(accountNumber)) linkedAccountNumbers.add(accountNumber);
+        if (!linkedAccountNumbers.contains(accountNumber)) {
+            linkedAccountNumbers.add(accountNumber);
+            markChanged();
+        }
     }
 
     public void removeLinkedAccountNumber(String accountNumber) {
-        linkedAccountNumbers.remove(accountNumber);
+        if (linkedAccountNumbers.remove(accountNumber)) markChanged();
     }
+
+    // Called by every change that a write-back persists
+    void markChanged() { changes.incrementAndGet(); }
+    long changeCount() { return changes.get(); }
 }
@@ -2,12 +2,20 @@ package bankmanagementsystem.model;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 /**
  * Data Access Object for CustomerCredentials operations
  */
 public class CustomerCredentialsDAO {
+    static final SqlDialect.Table TABLE = new SqlDialect.Table("customer_credentials",
+            new String[] {"customer_id", "username", "password", "email", "is_active"},
+            new String[] {"customer_id"},
+            new String[] {"password", "email", "is_active"},
+            new String[] {"username", "email"});
     
     /**
      * Save customer credentials to the database
@@ -15,29 +23,56 @@ public class CustomerCredentialsDAO {
      * @return true if successful, false otherwise
      */
     public static boolean saveCredentials(CustomerCredentials credentials) {
-        String sql = "INSERT INTO customer_credentials (customer_id, username, password, email, is_active) " +
-                    "VALUES (?, ?, ?, ?, ?) " +
-                    "ON DUPLICATE KEY UPDATE password = VALUES(password), email = VALUES(email), is_active = VALUES(is_active)";
+        String sql = SqlDialect.current().upsert(TABLE);
         
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, credentials.getCustomerId());
-            stmt.setString(2, credentials.getUsername());
-            stmt.setString(3, credentials.getPassword());
-            stmt.setString(4, credentials.getEmail());
-            stmt.setBoolean(5, credentials.isActive());
+            BulkLoader.bind(stmt, 1, toRow(credentials));
             
             int rowsAffected = stmt.executeUpdate();
+            CredentialFilters.record(credentials.getUsername(), credentials.getEmail());
             System.out.println("✅ Credentials saved for customer: " + credentials.getCustomerId());
             return rowsAffected > 0;
             
         } catch (SQLException e) {
             System.err.println("❌ Error saving credentials: " + e.getMessage());
             return false;
+        } finally {
+            DaoCaches.invalidateCredentials(credentials.getCustomerId());
         }
     }
     
+    /**
+     * Save many credentials in one transaction with the database's bulk-load path (see {@link BulkLoader})
+     * @param credentials Credentials to insert or update
+     * @return true if all were saved, false if the transaction was rolled back
+     */
+    public static boolean saveCredentials(Collection<CustomerCredentials> credentials) {
+        List<Object[]> rows = new ArrayList<>(credentials.size());
+        for (CustomerCredentials cred : credentials) {
+            rows.add(toRow(cred));
+        }
+        boolean saved = BulkLoader.upsert(TABLE, rows);
+        for (CustomerCredentials cred : credentials) {
+            DaoCaches.invalidateCredentials(cred.getCustomerId());
+        }
+        if (saved) {
+            for (CustomerCredentials cred : credentials) {
+                CredentialFilters.record(cred.getUsername(), cred.getEmail());
+            }
+            System.out.println("✅ Credentials saved: " + rows.size());
+        }
+        return saved;
+    }
+
+    private static Object[] toRow(CustomerCredentials credentials) {
+        return new Object[] {
+            credentials.getCustomerId(), credentials.getUsername(), credentials.getPassword(),
+            credentials.getEmail(), credentials.isActive()
+        };
+    }
+    
     /**
      * Load all customer credentials from the database
      * @return List of CustomerCredentials objects
@@ -93,11 +128,45 @@ public class CustomerCredentialsDAO {
     }
     
     /**
-     * Find credentials by username
+     * Find credentials by username (cached, see DaoCaches)
      * @param username Username to search for
      * @return CustomerCredentials object or null if not found
      */
     public static CustomerCredentials findCredentialsByUsername(String username) {
+        return findCached(username, DaoCaches.CUSTOMER_ID_BY_USERNAME, CustomerCredentials::getUsername,
+                CustomerCredentialsDAO::queryCredentialsByUsername);
+    }
+
+    // Resolve the key to a customer ID, then take that customer's cached credentials. A key whose
+    // customer no longer has it (e.g. a changed email) is dropped and looked up again.
+    private static CustomerCredentials findCached(String key, BoundedCache<String, String> customerIds,
+                                                  Function<CustomerCredentials, String> keyOf,
+                                                  Function<String, CustomerCredentials> query) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            String customerId = customerIds.get(key, k -> {
+                CustomerCredentials found = query.apply(k);
+                return found != null ? found.getCustomerId() : null;
+            });
+            if (customerId == null) {
+                return null;
+            }
+            CustomerCredentials cached = DaoCaches.CREDENTIALS_BY_CUSTOMER.get(customerId,
+                    CustomerCredentialsDAO::queryActiveCredentialsByCustomerId);
+            if (cached != null && key.equals(keyOf.apply(cached))) {
+                // Callers get their own copy; the cached credentials are never handed out
+                return Snapshots.credential(cached);
+            }
+            customerIds.invalidate(key);
+        }
+        return null;
+    }
+
+    private static CustomerCredentials queryActiveCredentialsByCustomerId(String customerId) {
+        CustomerCredentials credentials = findCredentialsByCustomerId(customerId);
+        return credentials != null && credentials.isActive() ? credentials : null;
+    }
+
+    private static CustomerCredentials queryCredentialsByUsername(String username) {
         String sql = "SELECT * FROM customer_credentials WHERE username = ? AND is_active = TRUE";
         
         try (Connection conn = DatabaseConfig.getConnection();
@@ -119,11 +188,16 @@ public class CustomerCredentialsDAO {
     }
     
     /**
-     * Find credentials by email
+     * Find credentials by email (cached, see DaoCaches)
      * @param email Email to search for
      * @return CustomerCredentials object or null if not found
      */
     public static CustomerCredentials findCredentialsByEmail(String email) {
+        return findCached(email, DaoCaches.CUSTOMER_ID_BY_EMAIL, CustomerCredentials::getEmail,
+                CustomerCredentialsDAO::queryCredentialsByEmail);
+    }
+
+    private static CustomerCredentials queryCredentialsByEmail(String email) {
         String sql = "SELECT * FROM customer_credentials WHERE email = ? AND is_active = TRUE";
         
         try (Connection conn = DatabaseConfig.getConnection();
@@ -162,12 +236,15 @@ public class CustomerCredentialsDAO {
             
             int rowsAffected = stmt.executeUpdate();
             if (rowsAffected > 0) {
+                CredentialFilters.record(credentials.getUsername(), credentials.getEmail());
                 System.out.println("✅ Credentials updated for customer: " + credentials.getCustomerId());
                 return true;
             }
             
         } catch (SQLException e) {
             System.err.println("❌ Error updating credentials: " + e.getMessage());
+        } finally {
+            DaoCaches.invalidateCredentials(credentials.getCustomerId());
         }
         
         return false;
@@ -194,6 +271,8 @@ public class CustomerCredentialsDAO {
             
         } catch (SQLException e) {
             System.err.println("❌ Error deactivating credentials: " + e.getMessage());
+        } finally {
+            DaoCaches.invalidateCredentials(customerId);
         }
         
         return false;
@@ -220,6 +299,8 @@ public class CustomerCredentialsDAO {
             
         } catch (SQLException e) {
             System.err.println("❌ Error deleting credentials: " + e.getMessage());
+        } finally {
+            DaoCaches.invalidateCredentials(customerId);
         }
         
         return false;
@@ -231,6 +312,9 @@ public class CustomerCredentialsDAO {
      * @return true if available, false if taken
      */
     public static boolean isUsernameAvailable(String username) {
+        if (CredentialFilters.isUsernameDefinitelyAvailable(username)) {
+            return true;
+        }
         String sql = "SELECT COUNT(*) FROM customer_credentials WHERE username = ?";
         
         try (Connection conn = DatabaseConfig.getConnection();
@@ -257,6 +341,9 @@ public class CustomerCredentialsDAO {
      * @return true if available, false if taken
      */
     public static boolean isEmailAvailable(String email) {
+        if (CredentialFilters.isEmailDefinitelyAvailable(email)) {
+            return true;
+        }
         String sql = "SELECT COUNT(*) FROM customer_credentials WHERE email = ?";
         
         try (Connection conn = DatabaseConfig.getConnection();
@@ -277,6 +364,32 @@ public class CustomerCredentialsDAO {
         return false;
     }
     
+    /**
+     * Stream every username and email without building credential objects (used to build the
+     * availability filters)
+     * @param consumer Called with (username, email) for each row
+     * @return true if all rows were read, false on error
+     */
+    public static boolean forEachUsernameAndEmail(BiConsumer<String, String> consumer) {
+        String sql = "SELECT username, email FROM customer_credentials";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setFetchSize(DatabaseConfig.streamingFetchSize()); // stream rows instead of buffering them all
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(rs.getString("username"), rs.getString("email"));
+                }
+            }
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error reading usernames and emails: " + e.getMessage());
+            return false;
+        }
+    }
+    
     /**
      * Validate login credentials
      * @param username Username to validate
@@ -2,12 +2,23 @@ package bankmanagementsystem.model;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Data Access Object for Customer operations
  */
 public class CustomerDAO {
+    static final SqlDialect.Table TABLE = new SqlDialect.Table("customers",
+            new String[] {"customer_id", "first_name", "last_name", "address", "customer_type", "national_id", "company_name", "company_address"},
+            new String[] {"customer_id"},
+            new String[] {"first_name", "last_name", "address", "national_id", "company_name", "company_address"});
+    static final SqlDialect.Table LINKS_TABLE = new SqlDialect.Table("linked_accounts",
+            new String[] {"customer_id", "linked_account_number"},
+            new String[] {"customer_id", "linked_account_number"},
+            new String[0]);
     
     /**
      * Save a customer to the database
@@ -15,36 +26,12 @@ public class CustomerDAO {
      * @return true if successful, false otherwise
      */
     public static boolean saveCustomer(Customer customer) {
-        String sql = "INSERT INTO customers (customer_id, first_name, last_name, address, customer_type, national_id, company_name, company_address) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
-                    "ON DUPLICATE KEY UPDATE first_name = VALUES(first_name), last_name = VALUES(last_name), address = VALUES(address), " +
-                    "national_id = VALUES(national_id), company_name = VALUES(company_name), company_address = VALUES(company_address)";
+        String sql = SqlDialect.current().upsert(TABLE);
         
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, customer.getCustomerId());
-            stmt.setString(2, customer.getFirstName());
-            stmt.setString(3, customer.getLastName());
-            stmt.setString(4, customer.getAddress());
-            
-            if (customer instanceof PersonalCustomer) {
-                PersonalCustomer pc = (PersonalCustomer) customer;
-                stmt.setString(5, "PERSONAL");
-                stmt.setString(6, pc.getNationalId());
-                stmt.setNull(7, Types.VARCHAR);
-                stmt.setNull(8, Types.VARCHAR);
-            } else if (customer instanceof CompanyCustomer) {
-                CompanyCustomer cc = (CompanyCustomer) customer;
-                stmt.setString(5, "COMPANY");
-                stmt.setNull(6, Types.VARCHAR);
-                stmt.setString(7, cc.getCompanyName());
-                stmt.setString(8, cc.getCompanyAddress());
-            } else {
-                stmt.setString(5, "PERSONAL");
-                stmt.setNull(6, Types.VARCHAR);
-                stmt.setNull(7, Types.VARCHAR);
-                stmt.setNull(8, Types.VARCHAR);
-            }
+            BulkLoader.bind(stmt, 1, toRow(customer));
             
             int rowsAffected = stmt.executeUpdate();
             System.out.println("✅ Customer saved: " + customer.getCustomerId());
@@ -53,9 +40,50 @@ public class CustomerDAO {
         } catch (SQLException e) {
             System.err.println("❌ Error saving customer: " + e.getMessage());
             return false;
+        } finally {
+            DaoCaches.CUSTOMERS_BY_ID.invalidate(customer.getCustomerId());
         }
     }
     
+    /**
+     * Save many customers in one transaction with the database's bulk-load path (see {@link BulkLoader})
+     * @param customers Customers to insert or update (accounts and links are saved separately)
+     * @return true if all were saved, false if the transaction was rolled back
+     */
+    public static boolean saveCustomers(Collection<Customer> customers) {
+        List<Object[]> rows = new ArrayList<>(customers.size());
+        for (Customer customer : customers) {
+            rows.add(toRow(customer));
+        }
+        boolean saved = BulkLoader.upsert(TABLE, rows);
+        for (Customer customer : customers) {
+            DaoCaches.CUSTOMERS_BY_ID.invalidate(customer.getCustomerId());
+        }
+        if (saved) {
+            System.out.println("✅ Customers saved: " + rows.size());
+        }
+        return saved;
+    }
+
+    private static Object[] toRow(Customer customer) {
+        String type = "PERSONAL";
+        String nationalId = null;
+        String companyName = null;
+        String companyAddress = null;
+        if (customer instanceof PersonalCustomer) {
+            nationalId = ((PersonalCustomer) customer).getNationalId();
+        } else if (customer instanceof CompanyCustomer) {
+            CompanyCustomer cc = (CompanyCustomer) customer;
+            type = "COMPANY";
+            companyName = cc.getCompanyName();
+            companyAddress = cc.getCompanyAddress();
+        }
+        return new Object[] {
+            customer.getCustomerId(), customer.getFirstName(), customer.getLastName(), customer.getAddress(),
+            type, nationalId, companyName, companyAddress
+        };
+    }
+    
     /**
      * Load all customers from the database
      * @return List of Customer objects
@@ -87,11 +115,17 @@ public class CustomerDAO {
     }
     
     /**
-     * Find a customer by ID
+     * Find a customer by ID (cached, see DaoCaches)
      * @param customerId Customer ID to search for
      * @return Customer object or null if not found
      */
     public static Customer findCustomerById(String customerId) {
+        Customer cached = DaoCaches.CUSTOMERS_BY_ID.get(customerId, CustomerDAO::queryCustomerById);
+        // Callers get their own copy; the cached customer is never handed out
+        return cached != null ? Snapshots.customer(cached) : null;
+    }
+
+    private static Customer queryCustomerById(String customerId) {
         String sql = "SELECT * FROM customers WHERE customer_id = ?";
         
         try (Connection conn = DatabaseConfig.getConnection();
@@ -116,13 +150,273 @@ public class CustomerDAO {
         return null;
     }
     
+    /**
+     * Load one page of customers in customer ID order (keyset paging, so every page costs the same
+     * regardless of its position). Linked account numbers are not loaded.
+     * @param afterCustomerId Last customer ID of the previous page, or null for the first page
+     * @param limit Maximum number of customers to return
+     * @return List of Customer objects
+     */
+    public static List<Customer> loadCustomersAfter(String afterCustomerId, int limit) {
+        List<Customer> customers = new ArrayList<>();
+        String sql = "SELECT * FROM customers WHERE customer_id > ? ORDER BY customer_id LIMIT ?";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, afterCustomerId != null ? afterCustomerId : "");
+            stmt.setInt(2, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Customer customer = createCustomerFromResultSet(rs);
+                    if (customer != null) {
+                        customers.add(customer);
+                    }
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error loading customer page: " + e.getMessage());
+        }
+
+        return customers;
+    }
+
+    /**
+     * Add the indexes the customer browser pages on (safe to call repeatedly)
+     */
+    public static void ensureBrowseIndexes() {
+        String[] sqls = {
+            "CREATE INDEX idx_customers_last_name ON customers (last_name, customer_id)",
+            "CREATE INDEX idx_customers_first_name ON customers (first_name, customer_id)",
+            "CREATE INDEX idx_customers_type ON customers (customer_type, customer_id)",
+            "CREATE INDEX idx_customers_national_id ON customers (national_id)",
+            "CREATE INDEX idx_customers_company_name ON customers (company_name)",
+            "CREATE INDEX idx_accounts_customer ON accounts (customer_id)"
+        };
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String sql : sqls) {
+                try {
+                    stmt.execute(sql);
+                } catch (SQLException e) {
+                    if (!SqlDialect.current().isDuplicateIndex(e)) {
+                        System.err.println("❌ Error creating customer browse index: " + e.getMessage());
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Error creating customer browse indexes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Load one page of the customer browser. Paging is by keyset on (sort column, customer ID), so a
+     * page deep into the book costs the same as the first one. A filtered browser passes the
+     * customer IDs its search matched, which are looked up by primary key.
+     * @param after Last row of the previous page, or null for the first page
+     * @param limit Maximum number of rows to return
+     * @param customerIds Customers to include, or null for all customers
+     * @param sort Sort column
+     * @param ascending Sort direction
+     * @return List of rows
+     * @throws IllegalStateException if the page could not be read
+     */
+    public static List<CustomerRow> loadCustomersPage(CustomerRow after, int limit, Collection<String> customerIds,
+                                                      CustomerRow.SortKey sort, boolean ascending) {
+        List<CustomerRow> rows = new ArrayList<>();
+        List<String> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(
+                "SELECT c.customer_id, c.first_name, c.last_name, c.customer_type, c.national_id, c.company_name, " +
+                "(SELECT COUNT(*) FROM accounts a WHERE a.customer_id = c.customer_id) AS account_count " +
+                "FROM customers c WHERE 1 = 1");
+
+        if (customerIds != null) {
+            if (customerIds.isEmpty()) {
+                return rows;
+            }
+            sql.append(" AND c.customer_id IN (")
+               .append(String.join(", ", Collections.nCopies(customerIds.size(), "?"))).append(")");
+            params.addAll(customerIds);
+        }
+
+        String column = "c." + sort.getColumn();
+        String cmp = ascending ? ">" : "<";
+        String direction = ascending ? "ASC" : "DESC";
+        if (after != null) {
+            if (sort == CustomerRow.SortKey.CUSTOMER_ID) {
+                sql.append(" AND c.customer_id ").append(cmp).append(" ?");
+            } else {
+                sql.append(" AND (").append(column).append(" ").append(cmp).append(" ? OR (")
+                   .append(column).append(" = ? AND c.customer_id ").append(cmp).append(" ?))");
+                params.add(sort.valueOf(after));
+                params.add(sort.valueOf(after));
+            }
+            params.add(after.getCustomerId());
+        }
+        if (sort == CustomerRow.SortKey.CUSTOMER_ID) {
+            sql.append(" ORDER BY c.customer_id ").append(direction);
+        } else {
+            sql.append(" ORDER BY ").append(column).append(" ").append(direction)
+               .append(", c.customer_id ").append(direction);
+        }
+        sql.append(" LIMIT ?");
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+            int index = 1;
+            for (String param : params) {
+                stmt.setString(index++, param);
+            }
+            stmt.setInt(index, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String type = rs.getString("customer_type");
+                    rows.add(new CustomerRow(
+                            rs.getString("customer_id"),
+                            rs.getString("first_name"),
+                            rs.getString("last_name"),
+                            type,
+                            "COMPANY".equals(type) ? rs.getString("company_name") : rs.getString("national_id"),
+                            rs.getInt("account_count")));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error loading customer browser page: " + e.getMessage());
+            // The browser shows the error instead of an empty list
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+
+        return rows;
+    }
+
+    /**
+     * Search without an in-memory index (working-set mode): every word must start the first name, last
+     * name, customer ID, national ID or company name. No typo tolerance and no ranking.
+     * @param words Lower-case search words (see {@link CustomerSearchIndex#tokenize})
+     * @param limit Maximum number of results
+     * @return matching customer IDs in customer ID order
+     * @throws IllegalStateException if the search could not be run
+     */
+    public static List<String> searchCustomerIds(String[] words, int limit) {
+        List<String> ids = new ArrayList<>();
+        if (words.length == 0) {
+            return ids;
+        }
+        SqlDialect dialect = SqlDialect.current();
+        String[] columns = {"first_name", "last_name", "customer_id", "national_id", "company_name"};
+        List<String> conditions = new ArrayList<>();
+        for (String column : columns) {
+            conditions.add(dialect.startsWith(column));
+        }
+        String wordCondition = "(" + String.join(" OR ", conditions) + ")";
+        String sql = "SELECT customer_id FROM customers WHERE " +
+                String.join(" AND ", Collections.nCopies(words.length, wordCondition)) +
+                " ORDER BY customer_id LIMIT ?";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            for (String word : words) {
+                // Words are letters and digits only, so they carry no LIKE wildcards
+                for (int i = 0; i < columns.length; i++) {
+                    stmt.setString(index++, word + "%");
+                }
+            }
+            stmt.setInt(index, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getString("customer_id"));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error searching customers: " + e.getMessage());
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+
+        return ids;
+    }
+
+    /**
+     * Customers that share the probe's national ID, company name or last name, for the duplicate check
+     * in working-set mode (linked accounts are not loaded)
+     * @param probe Customer to check
+     * @param limit Maximum number of customers
+     * @return candidate customers
+     */
+    public static List<Customer> findDuplicateCandidates(Customer probe, int limit) {
+        List<Customer> candidates = new ArrayList<>();
+        String nationalId = probe instanceof PersonalCustomer ? ((PersonalCustomer) probe).getNationalId() : null;
+        String companyName = probe instanceof CompanyCustomer ? ((CompanyCustomer) probe).getCompanyName() : null;
+        String sql = "SELECT * FROM customers WHERE national_id = ? OR company_name = ? OR last_name = ? LIMIT ?";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, nationalId);
+            stmt.setString(2, companyName);
+            stmt.setString(3, probe.getLastName());
+            stmt.setInt(4, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Customer customer = createCustomerFromResultSet(rs);
+                    if (customer != null) {
+                        candidates.add(customer);
+                    }
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error finding duplicate candidates: " + e.getMessage());
+        }
+
+        return candidates;
+    }
+
+    /**
+     * Stream every customer row without keeping them (linked accounts are not loaded)
+     * @param consumer Called with each customer
+     * @return true if all rows were read, false on error
+     */
+    public static boolean forEachCustomer(Consumer<Customer> consumer) {
+        String sql = "SELECT * FROM customers";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setFetchSize(DatabaseConfig.streamingFetchSize()); // stream rows instead of buffering them all
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Customer customer = createCustomerFromResultSet(rs);
+                    if (customer != null) {
+                        consumer.accept(customer);
+                    }
+                }
+            }
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error reading customers: " + e.getMessage());
+            return false;
+        }
+    }
+
     /**
      * Update a customer in the database
      * @param customer Customer object with updated information
      * @return true if successful, false otherwise
      */
     public static boolean updateCustomer(Customer customer) {
-        return saveCustomer(customer); // Uses ON DUPLICATE KEY UPDATE
+        return saveCustomer(customer); // Upsert
     }
     
     /**
@@ -132,6 +426,7 @@ public class CustomerDAO {
      */
     public static boolean deleteCustomer(String customerId) {
         String sql = "DELETE FROM customers WHERE customer_id = ?";
+        boolean deleted = false;
         
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -141,11 +436,19 @@ public class CustomerDAO {
             
             if (rowsAffected > 0) {
                 System.out.println("✅ Customer deleted: " + customerId);
+                deleted = true;
                 return true;
             }
             
         } catch (SQLException e) {
             System.err.println("❌ Error deleting customer: " + e.getMessage());
+        } finally {
+            DaoCaches.CUSTOMERS_BY_ID.invalidate(customerId);
+            DaoCaches.ACCOUNTS_BY_CUSTOMER.invalidate(customerId);
+            if (deleted) {
+                // Drops the customer from the search index and duplicate detector
+                BankEventBus.publish(BankEvent.customerDeleted(customerId));
+            }
         }
         
         return false;
@@ -177,8 +480,9 @@ public class CustomerDAO {
     /**
      * Save linked accounts for a customer
      * @param customer Customer object with linked accounts
+     * @return true if successful, false otherwise
      */
-    public static void saveLinkedAccounts(Customer customer) {
+    public static boolean saveLinkedAccounts(Customer customer) {
         // First delete existing linked accounts
         String deleteSql = "DELETE FROM linked_accounts WHERE customer_id = ?";
         
@@ -201,9 +505,58 @@ public class CustomerDAO {
                     insertStmt.executeBatch();
                 }
             }
+            return true;
             
         } catch (SQLException e) {
             System.err.println("❌ Error saving linked accounts: " + e.getMessage());
+            return false;
+        } finally {
+            DaoCaches.CUSTOMERS_BY_ID.invalidate(customer.getCustomerId());
+        }
+    }
+    
+    /**
+     * Replace the linked accounts of many customers in one transaction
+     * @param customers Customers whose links should match {@link Customer#getLinkedAccountNumbers()}
+     * @return true if successful, false if the transaction was rolled back
+     */
+    public static boolean saveLinkedAccounts(Collection<Customer> customers) {
+        if (customers.isEmpty()) {
+            return true;
+        }
+        List<Object[]> rows = new ArrayList<>();
+        for (Customer customer : customers) {
+            for (String accountNumber : customer.getLinkedAccountNumbers()) {
+                rows.add(new Object[] {customer.getCustomerId(), accountNumber});
+            }
+        }
+        
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement deleteStmt = conn.prepareStatement("DELETE FROM linked_accounts WHERE customer_id = ?")) {
+                for (Customer customer : customers) {
+                    deleteStmt.setString(1, customer.getCustomerId());
+                    deleteStmt.addBatch();
+                }
+                deleteStmt.executeBatch();
+                BulkLoader.load(conn, LINKS_TABLE, rows);
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                System.err.println("❌ Error saving linked accounts, rolling back: " + e.getMessage());
+                conn.rollback();
+                return false;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Error saving linked accounts: " + e.getMessage());
+            return false;
+        } finally {
+            for (Customer customer : customers) {
+                DaoCaches.CUSTOMERS_BY_ID.invalidate(customer.getCustomerId());
+            }
         }
     }
     
@@ -233,6 +586,25 @@ public class CustomerDAO {
         return customer;
     }
     
+    /**
+     * Largest number at the end of a stored customer ID, for seeding the customer ID sequence
+     * @return the number, 0 if there are no numbered customers, or -1 on error
+     */
+    public static long findMaxCustomerNumber() {
+        String sql = "SELECT MAX(" + SqlDialect.current().numericSuffix("customer_id") + ") FROM customers";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            return rs.next() ? rs.getLong(1) : 0;
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error reading the largest customer ID: " + e.getMessage());
+            return -1;
+        }
+    }
+
     /**
      * Get customer count
      * @return number of customers in database
@@ -0,0 +1,78 @@
+package bankmanagementsystem.model;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Storage for customer rows. Implementations: {@link JdbcRepositories} (MySQL or embedded H2) and
+ * {@link InMemoryRepositories}; the one in use is chosen by {@link Repositories}.
+ */
+public interface CustomerRepository {
+    /**
+     * Insert or update a customer (accounts and linked account numbers are stored separately)
+     * @return true if successful
+     */
+    boolean save(Customer customer);
+
+    /**
+     * Insert or update many customers at once
+     * @return true if all were saved
+     */
+    default boolean saveAll(Collection<Customer> customers) {
+        boolean ok = true;
+        for (Customer customer : customers) {
+            ok &= save(customer);
+        }
+        return ok;
+    }
+
+    /**
+     * @return every customer in customer ID order, with linked account numbers
+     */
+    List<Customer> loadAll();
+
+    /**
+     * @return the customer with linked account numbers, or null if not found
+     */
+    Customer findById(String customerId);
+
+    /**
+     * Keyset page in customer ID order; linked account numbers are not loaded
+     * @param afterCustomerId Last customer ID of the previous page, or null for the first page
+     * @param limit Maximum number of customers
+     */
+    List<Customer> loadAfter(String afterCustomerId, int limit);
+
+    /**
+     * One page of the customer browser (see {@link CustomerDAO#loadCustomersPage})
+     * @param customerIds Customers to include, or null for all customers
+     * @throws IllegalStateException if the page could not be read
+     */
+    List<CustomerRow> loadPage(CustomerRow after, int limit, Collection<String> customerIds, CustomerRow.SortKey sort, boolean ascending);
+
+    /**
+     * Prefix search on the database, for working-set mode (see {@link CustomerDAO#searchCustomerIds})
+     * @param words Lower-case search words
+     * @throws IllegalStateException if the search could not be run
+     */
+    List<String> searchIds(String[] words, int limit);
+
+    /**
+     * Customers sharing the probe's national ID, company name or last name (see {@link CustomerDAO#findDuplicateCandidates})
+     */
+    List<Customer> findDuplicateCandidates(Customer probe, int limit);
+
+    /**
+     * Visit every customer without keeping them (linked accounts are not loaded)
+     * @return true if all customers were visited
+     */
+    boolean forEach(Consumer<Customer> consumer);
+
+    /**
+     * @return largest number at the end of a stored customer ID, 0 if none, or -1 if it could not be read
+     */
+    long maxCustomerNumber();
+
+    int count();
+}
@@ -0,0 +1,81 @@
+package bankmanagementsystem.model;
+
+/**
+ * One row of the employee customer browser, read straight from the customers table with an account
+ * count, so browsing does not build Customer objects or load their accounts
+ */
+public class CustomerRow {
+    /**
+     * Columns the browser can sort by. Every sort is made unique by falling back to customer ID, which
+     * is what makes keyset paging on it possible.
+     */
+    public enum SortKey {
+        CUSTOMER_ID("customer_id"),
+        FIRST_NAME("first_name"),
+        LAST_NAME("last_name"),
+        TYPE("customer_type");
+
+        private final String column;
+
+        SortKey(String column) {
+            this.column = column;
+        }
+
+        String getColumn() {
+            return column;
+        }
+
+        String valueOf(CustomerRow row) {
+            switch (this) {
+                case FIRST_NAME: return row.firstName;
+                case LAST_NAME: return row.lastName;
+                case TYPE: return row.customerType;
+                default: return row.customerId;
+            }
+        }
+    }
+
+    private final String customerId;
+    private final String firstName;
+    private final String lastName;
+    private final String customerType;
+    private final String detail;
+    private final int accountCount;
+
+    public CustomerRow(String customerId, String firstName, String lastName, String customerType,
+                       String detail, int accountCount) {
+        this.customerId = customerId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.customerType = customerType;
+        this.detail = detail;
+        this.accountCount = accountCount;
+    }
+
+    /**
+     * Build a row from an in-memory customer, e.g. to refresh one row after the customer changed
+     * @param customer Loaded customer
+     * @return row equivalent to what the browser query returns for this customer
+     */
+    public static CustomerRow of(Customer customer) {
+        if (customer instanceof CompanyCustomer) {
+            return new CustomerRow(customer.getCustomerId(), customer.getFirstName(), customer.getLastName(),
+                    "COMPANY", ((CompanyCustomer) customer).getCompanyName(), customer.getAccounts().size());
+        }
+        String nationalId = customer instanceof PersonalCustomer ? ((PersonalCustomer) customer).getNationalId() : null;
+        return new CustomerRow(customer.getCustomerId(), customer.getFirstName(), customer.getLastName(),
+                "PERSONAL", nationalId, customer.getAccounts().size());
+    }
+
+    public String getCustomerId() { return customerId; }
+    public String getFirstName() { return firstName; }
+    public String getLastName() { return lastName; }
+    public String getCustomerType() { return customerType; }
+    /** National ID for personal customers, company name for company customers */
+    public String getDetail() { return detail; }
+    public int getAccountCount() { return accountCount; }
+
+    public String getFullName() {
+        return firstName + " " + lastName;
+    }
+}
@@ -0,0 +1,431 @@
+package bankmanagementsystem.model;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory search index over customer names, customer IDs, national IDs and company names.
+ * Fields are normalized (lower case, accents stripped) and split into words. Words live in a sorted
+ * map, so a prefix query is a range scan; each word has a posting list of customer slots. A trigram
+ * index over the distinct alphabetic words finds near-misses (typos) when a query word matches
+ * nothing by prefix.
+ * A query is driven by its most selective word: only that word's postings are walked, and each
+ * candidate is checked against the other query words using the few words stored for its slot. Every
+ * query word must match (exactly, by prefix or fuzzily) and results are ranked by match quality.
+ * Updates append postings and stale ones are skipped at query time, so adds and profile updates never
+ * rewrite large posting lists. Slots hold the index's own word instances, so a common name is stored
+ * once however many customers share it.
+ */
+public class CustomerSearchIndex {
+    // Bounds per query so short type-ahead prefixes stay fast on very large books
+    private static final int MAX_SCANNED = 200_000;
+    private static final int MAX_MATCHES = 5_000;
+    private static final double MIN_TRIGRAM_SIMILARITY = 0.4;
+    private static final double EXACT = 3, PREFIX = 2, FUZZY = 1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> words = new TreeMap<>();
+    private final Map<String, List<String>> trigrams = new HashMap<>();
+    private final Map<String, Integer> slotByCustomerId = new HashMap<>();
+    private final List<String> customerIds = new ArrayList<>();
+    private final List<String[]> slotWords = new ArrayList<>();
+
+    /**
+     * Build an index over the given customers
+     * @param customers Customers to index
+     * @return populated index
+     */
+    public static CustomerSearchIndex build(List<Customer> customers) {
+        CustomerSearchIndex index = new CustomerSearchIndex();
+        for (Customer customer : customers) {
+            index.put(customer);
+        }
+        return index;
+    }
+
+    /**
+     * Add a customer, or re-index it after a profile change
+     * @param customer Customer to index
+     */
+    public void put(Customer customer) {
+        String[] tokens = tokenize(fieldsOf(customer));
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByCustomerId.get(customer.getCustomerId());
+            Set<String> old = Set.of();
+            if (slot == null) {
+                slot = customerIds.size();
+                slotByCustomerId.put(customer.getCustomerId(), slot);
+                customerIds.add(customer.getCustomerId());
+                slotWords.add(tokens);
+            } else {
+                old = new HashSet<>(Arrays.asList(slotWords.get(slot)));
+                slotWords.set(slot, tokens);
+            }
+            for (int i = 0; i < tokens.length; i++) {
+                Postings postings = postingsFor(tokens[i]);
+                tokens[i] = postings.word;
+                if (!old.contains(postings.word)) {
+                    postings.add(slot);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a customer from the results (its postings are skipped from now on)
+     * @param customerId Customer ID
+     */
+    public void remove(String customerId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByCustomerId.remove(customerId);
+            if (slot != null) {
+                slotWords.set(slot, new String[0]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranked search
+     * @param query Free text: any mix of name parts, customer ID, national ID or company name
+     * @param limit Maximum number of results
+     * @return matching customer IDs, best match first
+     */
+    public List<String> search(String query, int limit) {
+        String[] queryWords = tokenize(query);
+        if (queryWords.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        List<Set<String>> queryGrams = new ArrayList<>(queryWords.length);
+        for (String word : queryWords) {
+            queryGrams.add(trigramsOf(word));
+        }
+
+        lock.readLock().lock();
+        try {
+            // Typo tolerance only for words that match nothing by prefix
+            boolean[] fuzzy = new boolean[queryWords.length];
+            for (int q = 0; q < queryWords.length; q++) {
+                fuzzy[q] = !hasPrefixMatch(queryWords[q]);
+            }
+            List<String> driver = driverWords(queryWords);
+            // Min-heap on score holding the best 'limit' matches seen so far
+            PriorityQueue<Match> best = new PriorityQueue<>();
+            // A slot can repeat (stale postings, several words sharing the prefix); only matches are deduplicated
+            Set<Integer> matchedSlots = new HashSet<>();
+            int scanned = 0;
+            int matched = 0;
+            scan:
+            for (String word : driver) {
+                Postings postings = words.get(word);
+                for (int i = 0; i < postings.size; i++) {
+                    int slot = postings.slots[i];
+                    if (++scanned > MAX_SCANNED) break scan;
+                    double score = score(queryWords, queryGrams, fuzzy, slotWords.get(slot));
+                    if (score <= 0 || !matchedSlots.add(slot)) continue;
+                    best.offer(new Match(slot, score, customerIds.get(slot)));
+                    if (best.size() > limit) best.poll();
+                    if (++matched >= MAX_MATCHES) break scan;
+                }
+            }
+            List<String> result = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                result.add(best.poll().customerId);
+            }
+            Collections.reverse(result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Customers whose indexed words include every query word exactly (no prefix or typo matches),
+     * e.g. the candidates for a full name, without ranking
+     * @param query Free text
+     * @param limit Maximum number of results
+     * @return matching customer IDs
+     */
+    public List<String> searchExact(String query, int limit) {
+        String[] queryWords = tokenize(query);
+        if (queryWords.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            // Walk the postings of the rarest word and check the others against each slot's words
+            Postings driver = null;
+            for (String word : queryWords) {
+                Postings postings = words.get(word);
+                if (postings == null) {
+                    return List.of();
+                }
+                if (driver == null || postings.size < driver.size) {
+                    driver = postings;
+                }
+            }
+            Set<Integer> matchedSlots = new HashSet<>();
+            List<String> result = new ArrayList<>();
+            for (int i = 0; i < driver.size && result.size() < limit; i++) {
+                int slot = driver.slots[i];
+                if (containsAll(slotWords.get(slot), queryWords) && matchedSlots.add(slot)) {
+                    result.add(customerIds.get(slot));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotByCustomerId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Pick the query word with the fewest postings and return the index words to walk for it:
+     * its exact and prefix matches (exact first), or its fuzzy matches if it has none.
+     * Caller holds the read lock.
+     */
+    private List<String> driverWords(String[] queryWords) {
+        List<String> bestWords = List.of();
+        long bestCount = Long.MAX_VALUE;
+        for (String word : queryWords) {
+            List<String> candidates = new ArrayList<>();
+            long count = 0;
+            SortedMap<String, Postings> range = words.subMap(word, word + Character.MAX_VALUE);
+            for (Map.Entry<String, Postings> entry : range.entrySet()) {
+                candidates.add(entry.getKey());
+                count += entry.getValue().size;
+                if (count >= bestCount) break; // already worse than the current driver
+            }
+            if (candidates.isEmpty() && word.length() >= 3) {
+                for (String match : fuzzyMatches(word)) {
+                    candidates.add(match);
+                    count += words.get(match).size;
+                }
+            }
+            if (candidates.isEmpty()) {
+                return List.of(); // a word that matches nothing means no results at all
+            }
+            if (count < bestCount) {
+                bestCount = count;
+                bestWords = candidates;
+            }
+        }
+        return bestWords;
+    }
+
+    // Sum of each query word's best match against the slot's words, or 0 if any query word misses
+    private static double score(String[] queryWords, List<Set<String>> queryGrams, boolean[] fuzzy, String[] slot) {
+        double total = 0;
+        for (int q = 0; q < queryWords.length; q++) {
+            String word = queryWords[q];
+            double best = 0;
+            for (String token : slot) {
+                if (token.equals(word)) {
+                    best = EXACT;
+                    break;
+                }
+                if (token.startsWith(word)) {
+                    best = Math.max(best, PREFIX);
+                }
+            }
+            if (best == 0 && fuzzy[q]) {
+                for (String token : slot) {
+                    double similarity = similarity(queryGrams.get(q), token);
+                    if (similarity >= MIN_TRIGRAM_SIMILARITY) {
+                        best = Math.max(best, FUZZY * similarity);
+                    }
+                }
+            }
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private static boolean containsAll(String[] slot, String[] queryWords) {
+        for (String word : queryWords) {
+            boolean found = false;
+            for (String token : slot) {
+                if (token.equals(word)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+
+    private boolean hasPrefixMatch(String word) {
+        String next = words.ceilingKey(word);
+        return next != null && next.startsWith(word);
+    }
+
+    // Index words sharing enough trigrams with the query word; caller holds the read lock
+    private List<String> fuzzyMatches(String word) {
+        Set<String> grams = trigramsOf(word);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            List<String> owners = trigrams.get(gram);
+            if (owners != null) {
+                for (String token : owners) {
+                    shared.merge(token, 1, Integer::sum);
+                }
+            }
+        }
+        List<String> matches = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : shared.entrySet()) {
+            double similarity = 2.0 * entry.getValue() / (grams.size() + trigramsOf(entry.getKey()).size());
+            if (similarity >= MIN_TRIGRAM_SIMILARITY) {
+                matches.add(entry.getKey());
+            }
+        }
+        return matches;
+    }
+
+    private static double similarity(Set<String> grams, String token) {
+        Set<String> other = trigramsOf(token);
+        int shared = 0;
+        for (String gram : other) {
+            if (grams.contains(gram)) shared++;
+        }
+        return 2.0 * shared / (grams.size() + other.size());
+    }
+
+    private Postings postingsFor(String token) {
+        Postings postings = words.get(token);
+        if (postings == null) {
+            postings = new Postings(token);
+            words.put(token, postings);
+            // IDs and other numbers are matched by prefix only; typo tolerance is for names
+            if (isAlphabetic(token)) {
+                for (String gram : trigramsOf(token)) {
+                    trigrams.computeIfAbsent(gram, k -> new ArrayList<>()).add(token);
+                }
+            }
+        }
+        return postings;
+    }
+
+    private static boolean isAlphabetic(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            if (!Character.isLetter(token.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private static String fieldsOf(Customer customer) {
+        List<String> fields = new ArrayList<>();
+        fields.add(customer.getFirstName());
+        fields.add(customer.getLastName());
+        fields.add(customer.getCustomerId());
+        if (customer instanceof PersonalCustomer) {
+            fields.add(((PersonalCustomer) customer).getNationalId());
+        } else if (customer instanceof CompanyCustomer) {
+            fields.add(((CompanyCustomer) customer).getCompanyName());
+        }
+        fields.removeIf(f -> f == null);
+        return String.join(" ", fields);
+    }
+
+    /**
+     * @param text Free text
+     * @return distinct lower-case, accent-free alphanumeric words
+     */
+    static String[] tokenize(String text) {
+        if (text == null) return new String[0];
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 127) {
+                // Slow path only for non-ASCII text: strip accents, then split on anything else
+                text = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+                break;
+            }
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (current.length() > 0) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    private static Set<String> trigramsOf(String token) {
+        String padded = "  " + token + " ";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    // Growable int array; far smaller than a List<Integer> for millions of postings
+    private static class Postings {
+        // The one instance of this word that slots refer to
+        final String word;
+        int[] slots = new int[1];
+        int size;
+
+        Postings(String word) {
+            this.word = word;
+        }
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+
+    private static class Match implements Comparable<Match> {
+        final int slot;
+        final double score;
+        final String customerId;
+
+        Match(int slot, double score, String customerId) {
+            this.slot = slot;
+            this.score = score;
+            this.customerId = customerId;
+        }
+
+        // Worst first, so the heap evicts the weakest match; ties prefer the smaller customer ID
+        @Override
+        public int compareTo(Match other) {
+            int byScore = Double.compare(score, other.score);
+            return byScore != 0 ? byScore : other.customerId.compareTo(customerId);
+        }
+    }
+}
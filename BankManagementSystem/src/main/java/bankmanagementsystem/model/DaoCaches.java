@@ -0,0 +1,81 @@
+package bankmanagementsystem.model;
+
+import java.util.List;
+
+/**
+ * Read-through caches shared by the DAO lookup methods.
+ * Sizes and time to live can be tuned with -Dbank.cache.maxEntries and -Dbank.cache.ttlSeconds.
+ * The DAOs invalidate the affected entries in their save/update/close/delete methods, in a finally
+ * block that runs after the write has committed (or failed). Invalidating only after the commit
+ * matters: a lookup that runs while the write is in flight could otherwise read the old row and
+ * cache it after the invalidation. {@link BoundedCache} drops loads that race an invalidation.
+ * Accounts are cached as rows ({@link AccountDAO.Row}) and customers and credentials as objects that
+ * are copied on the way out, so no caller ever holds a cached instance.
+ * Credentials are cached once per customer; the username and email caches only map to the customer
+ * ID, so a customer's credentials are invalidated with one key.
+ */
+public class DaoCaches {
+    private static final int MAX_ENTRIES = Integer.getInteger("bank.cache.maxEntries", 10_000);
+    private static final long TTL_MILLIS = Long.getLong("bank.cache.ttlSeconds", 300L) * 1000;
+
+    static final BoundedCache<String, AccountDAO.Row> ACCOUNTS_BY_NUMBER =
+            new BoundedCache<>("accountsByNumber", MAX_ENTRIES, TTL_MILLIS);
+    static final BoundedCache<String, List<AccountDAO.Row>> ACCOUNTS_BY_CUSTOMER =
+            new BoundedCache<>("accountsByCustomer", MAX_ENTRIES, TTL_MILLIS);
+    public static final BoundedCache<String, Customer> CUSTOMERS_BY_ID =
+            new BoundedCache<>("customersById", MAX_ENTRIES, TTL_MILLIS);
+    // Active credentials only
+    public static final BoundedCache<String, CustomerCredentials> CREDENTIALS_BY_CUSTOMER =
+            new BoundedCache<>("credentialsByCustomer", MAX_ENTRIES, TTL_MILLIS);
+    public static final BoundedCache<String, String> CUSTOMER_ID_BY_USERNAME =
+            new BoundedCache<>("customerIdByUsername", MAX_ENTRIES, TTL_MILLIS);
+    public static final BoundedCache<String, String> CUSTOMER_ID_BY_EMAIL =
+            new BoundedCache<>("customerIdByEmail", MAX_ENTRIES, TTL_MILLIS);
+
+    /**
+     * Drop cached lookups that include an account
+     * @param accountNumber Account number
+     * @param customerId Owning customer ID, or null if unknown (all per-customer lists are checked)
+     */
+    static void invalidateAccount(String accountNumber, String customerId) {
+        if (customerId == null) {
+            AccountDAO.Row cached = ACCOUNTS_BY_NUMBER.peek(accountNumber);
+            if (cached != null) {
+                customerId = cached.customerId;
+            }
+        }
+        ACCOUNTS_BY_NUMBER.invalidate(accountNumber);
+        if (customerId != null) {
+            ACCOUNTS_BY_CUSTOMER.invalidate(customerId);
+        } else {
+            ACCOUNTS_BY_CUSTOMER.invalidateIf(rows -> rows.stream()
+                    .anyMatch(row -> row.accountNumber.equals(accountNumber)));
+        }
+    }
+
+    /**
+     * Drop the cached credentials of a customer. Username and email entries that still point to
+     * the customer are checked against the credentials when used, so they can stay.
+     * @param customerId Customer ID
+     */
+    static void invalidateCredentials(String customerId) {
+        CREDENTIALS_BY_CUSTOMER.invalidate(customerId);
+    }
+
+    public static void invalidateAll() {
+        ACCOUNTS_BY_NUMBER.invalidateAll();
+        ACCOUNTS_BY_CUSTOMER.invalidateAll();
+        CUSTOMERS_BY_ID.invalidateAll();
+        CREDENTIALS_BY_CUSTOMER.invalidateAll();
+        CUSTOMER_ID_BY_USERNAME.invalidateAll();
+        CUSTOMER_ID_BY_EMAIL.invalidateAll();
+    }
+
+    /**
+     * @return one line of hit/miss/eviction statistics per cache
+     */
+    public static String statistics() {
+        return ACCOUNTS_BY_NUMBER + "\n" + ACCOUNTS_BY_CUSTOMER + "\n" + CUSTOMERS_BY_ID + "\n"
+                + CREDENTIALS_BY_CUSTOMER + "\n" + CUSTOMER_ID_BY_USERNAME + "\n" + CUSTOMER_ID_BY_EMAIL;
+    }
+}
@@ -0,0 +1,286 @@
+package bankmanagementsystem.model;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fills the database with synthetic customers, accounts, credentials and linked accounts for load
+ * and performance testing. Run with:
+ * <pre>
+ * java -cp "target/classes;target/dependency/*" bankmanagementsystem.model.DataSeeder
+ * </pre>
+ * Options (system properties):
+ * <ul>
+ *   <li>bank.seed.customers: number of customers (default 1000000)</li>
+ *   <li>bank.seed.random: random seed (default 42); the same seed and count always produce the same rows,
+ *       whatever the number of threads</li>
+ *   <li>bank.seed.threads: writer threads (default: processors, at most the connection pool size)</li>
+ *   <li>bank.seed.chunk: customers per transaction (default 10000)</li>
+ *   <li>bank.seed.method: auto|batch|file; file writes CSV files and has the database load each in one
+ *       statement (LOAD DATA LOCAL INFILE on MySQL, which needs local_infile enabled on the server, or
+ *       CSVREAD on H2); auto uses file when the MySQL server allows it</li>
+ * </ul>
+ * Customers are numbered C00000001 upwards and every customer logs in as user&lt;n&gt; with password
+ * {@value #PASSWORD}. Existing rows with the same keys are replaced. Non-unique indexes are dropped for
+ * the load and rebuilt afterwards. Run it while the application is stopped: the ID allocators read
+ * their starting point once per process.
+ */
+public class DataSeeder {
+    public static final String PASSWORD = "seeded123";
+    private static final SqlDialect.Table[] TABLES = {CustomerDAO.TABLE, AccountDAO.TABLE, CustomerCredentialsDAO.TABLE, CustomerDAO.LINKS_TABLE};
+
+    private static final String[] FIRST_NAMES = {
+        "Kagiso", "Neo", "Thabo", "Lesedi", "Boitumelo", "Mpho", "Tebogo", "Onalenna", "Kabelo", "Naledi",
+        "Tumelo", "Keabetswe", "Oratile", "Refilwe", "Goitseone", "Masego"
+    };
+    private static final String[] LAST_NAMES = {
+        "Molefe", "Kgosi", "Seretse", "Mogae", "Masire", "Khama", "Dube", "Ntshekisang", "Motsumi", "Sebina",
+        "Modise", "Tau", "Phiri", "Gaolathe"
+    };
+    private static final String[] BRANCHES = {"Gaborone", "Francistown", "Maun", "Serowe", "Lobatse", "Kasane"};
+    private static final String[] EMPLOYERS = {"Debswana", "BTC", "Botswana Railways", "Choppies", "BURS", "Sefalana"};
+
+    private final long seed;
+    private final int customers;
+    private final int chunk;
+    private final boolean useLoadFile;
+
+    private final AtomicInteger nextChunk = new AtomicInteger();
+    private final AtomicLong customersWritten = new AtomicLong();
+    private final AtomicLong accountsWritten = new AtomicLong();
+    private final AtomicLong linksWritten = new AtomicLong();
+
+    public DataSeeder(long seed, int customers, int chunk, boolean useLoadFile) {
+        this.seed = seed;
+        this.customers = customers;
+        this.chunk = chunk;
+        this.useLoadFile = useLoadFile;
+    }
+
+    public static void main(String[] args) {
+        if (!DatabaseConfig.hasDatabase()) {
+            System.err.println("❌ The seeder writes to a database; run it with -Dbank.repository=mysql or h2");
+            System.exit(1);
+        }
+        int customers = Integer.getInteger("bank.seed.customers", 1_000_000);
+        long seed = Long.getLong("bank.seed.random", 42L);
+        int chunk = Math.max(1, Integer.getInteger("bank.seed.chunk", 10_000));
+        int poolSize = Math.max(1, DatabaseConfig.getPoolStats()[4]);
+        int threads = Math.max(1, Math.min(poolSize, Integer.getInteger("bank.seed.threads",
+                Runtime.getRuntime().availableProcessors())));
+        String method = System.getProperty("bank.seed.method", "auto");
+
+        boolean useLoadFile;
+        switch (method) {
+            case "file":
+                useLoadFile = true;
+                break;
+            case "batch":
+                useLoadFile = false;
+                break;
+            default:
+                useLoadFile = serverAllowsLocalInfile();
+        }
+
+        System.out.println("🌱 Seeding " + customers + " customers into " + DatabaseConfig.getDatabaseUrl() +
+                " (seed " + seed + ", " + threads + " threads, " + (useLoadFile ? "load files" : "batched inserts") + ")");
+        try {
+            new DataSeeder(seed, customers, chunk, useLoadFile).run(threads);
+        } catch (SQLException | InterruptedException e) {
+            System.err.println("❌ Seeding failed: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            DatabaseConfig.closeDataSource();
+        }
+    }
+
+    /**
+     * Write all customers with the given number of threads; indexes are dropped first and always rebuilt
+     */
+    public void run(int threads) throws SQLException, InterruptedException {
+        List<String> restore = new ArrayList<>();
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            for (SqlDialect.Table table : TABLES) {
+                restore.addAll(BulkLoader.dropSecondaryIndexes(conn, table));
+            }
+        }
+
+        long started = System.nanoTime();
+        List<Throwable> failures = new ArrayList<>();
+        try {
+            List<Thread> workers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                Thread worker = new Thread(() -> {
+                    try {
+                        writeChunks();
+                    } catch (SQLException | RuntimeException e) {
+                        synchronized (failures) {
+                            failures.add(e);
+                        }
+                        nextChunk.set(Integer.MAX_VALUE); // stop the other workers
+                    }
+                }, "seeder-" + i);
+                worker.start();
+                workers.add(worker);
+            }
+            long lastReport = System.nanoTime();
+            for (Thread worker : workers) {
+                while (worker.isAlive()) {
+                    worker.join(500);
+                    if (System.nanoTime() - lastReport >= 2_000_000_000L) {
+                        lastReport = System.nanoTime();
+                        report(started);
+                    }
+                }
+            }
+        } finally {
+            if (!restore.isEmpty()) {
+                System.out.println("🔧 Rebuilding " + restore.size() + " indexes...");
+                try (Connection conn = DatabaseConfig.getConnection()) {
+                    BulkLoader.restoreIndexes(conn, restore);
+                }
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            throw new SQLException("seeding stopped: " + failures.get(0).getMessage(), failures.get(0));
+        }
+        report(started);
+        System.out.println("✅ Seeding complete in " + (System.nanoTime() - started) / 1_000_000 + " ms");
+    }
+
+    private void writeChunks() throws SQLException {
+        int chunks = (customers + chunk - 1) / chunk;
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            BulkLoader.bulkSession(conn, true, TABLES);
+            try {
+                int index;
+                while ((index = nextChunk.getAndIncrement()) < chunks) {
+                    int first = index * chunk + 1;
+                    writeChunk(conn, first, Math.min(customers, first + chunk - 1));
+                }
+            } finally {
+                BulkLoader.bulkSession(conn, false, TABLES);
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private void writeChunk(Connection conn, int first, int last) throws SQLException {
+        List<Object[]> customerRows = new ArrayList<>(last - first + 1);
+        List<Object[]> accountRows = new ArrayList<>((last - first + 1) * 2);
+        List<Object[]> credentialRows = new ArrayList<>(last - first + 1);
+        List<Object[]> linkRows = new ArrayList<>();
+        for (int n = first; n <= last; n++) {
+            generate(n, customerRows, accountRows, credentialRows, linkRows);
+        }
+        try {
+            write(conn, CustomerDAO.TABLE, customerRows);
+            write(conn, AccountDAO.TABLE, accountRows);
+            write(conn, CustomerCredentialsDAO.TABLE, credentialRows);
+            write(conn, CustomerDAO.LINKS_TABLE, linkRows);
+            conn.commit();
+        } catch (SQLException e) {
+            System.err.println("❌ Error seeding customers " + first + "-" + last + ": " + e.getMessage());
+            conn.rollback();
+            throw e;
+        }
+        customersWritten.addAndGet(customerRows.size());
+        accountsWritten.addAndGet(accountRows.size());
+        linksWritten.addAndGet(linkRows.size());
+    }
+
+    private void write(Connection conn, SqlDialect.Table table, List<Object[]> rows) throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        if (useLoadFile) {
+            BulkLoader.loadFile(conn, table, rows);
+        } else {
+            BulkLoader.load(conn, table, rows);
+        }
+    }
+
+    /**
+     * Rows for customer number n; depends only on the seed and n, so chunks can be generated in any order
+     */
+    void generate(int n, List<Object[]> customerRows, List<Object[]> accountRows,
+                  List<Object[]> credentialRows, List<Object[]> linkRows) {
+        SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + n);
+        String customerId = String.format("C%08d", n);
+        String firstName = pick(random, FIRST_NAMES);
+        String lastName = pick(random, LAST_NAMES);
+        String address = (1 + random.nextInt(999)) + " " + pick(random, BRANCHES) + " Road";
+        if (random.nextInt(10) == 0) {
+            customerRows.add(new Object[] {customerId, firstName, lastName, address, "COMPANY", null,
+                    lastName + " Holdings " + n, "Plot " + (1 + random.nextInt(9999)) + ", " + pick(random, BRANCHES)});
+        } else {
+            customerRows.add(new Object[] {customerId, firstName, lastName, address, "PERSONAL",
+                    String.format("%09d", random.nextInt(1_000_000_000)), null, null});
+        }
+
+        int roll = random.nextInt(100);
+        int accounts = roll < 60 ? 1 : roll < 88 ? 2 : 3;
+        for (int a = 0; a < accounts; a++) {
+            String accountNumber = String.format("ACC%08d%02d", n, a);
+            String branch = pick(random, BRANCHES);
+            int type = random.nextInt(100);
+            if (type < 55) {
+                accountRows.add(new Object[] {accountNumber, customerId, "SavingsAccount",
+                        cents(random, 0, 50_000), branch, false, null, null});
+            } else if (type < 85) {
+                accountRows.add(new Object[] {accountNumber, customerId, "ChequeAccount",
+                        cents(random, 0, 20_000), branch, false, pick(random, EMPLOYERS), pick(random, BRANCHES)});
+            } else {
+                // Investment accounts must be opened with at least BWP 500
+                accountRows.add(new Object[] {accountNumber, customerId, "InvestmentAccount",
+                        cents(random, 500, 200_000), branch, false, null, null});
+            }
+        }
+
+        credentialRows.add(new Object[] {customerId, "user" + n, PASSWORD,
+                "user" + n + "@example.com", true});
+
+        if (customers > 1 && random.nextInt(100) < 15) {
+            int other = 1 + random.nextInt(customers - 1);
+            if (other >= n) {
+                other++;
+            }
+            linkRows.add(new Object[] {customerId, String.format("ACC%08d00", other)});
+        }
+    }
+
+    private void report(long started) {
+        double seconds = Math.max(0.001, (System.nanoTime() - started) / 1e9);
+        long written = customersWritten.get();
+        System.out.printf("📈 %,d / %,d customers, %,d accounts, %,d links (%,.0f customers/s)%n",
+                written, customers, accountsWritten.get(), linksWritten.get(), written / seconds);
+    }
+
+    private static boolean serverAllowsLocalInfile() {
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT @@GLOBAL.local_infile")) {
+            return rs.next() && rs.getBoolean(1);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static Double cents(SplittableRandom random, int min, int max) {
+        return (min * 100L + random.nextLong((max - min) * 100L + 1)) / 100.0;
+    }
+}
@@ -2,37 +2,81 @@ package bankmanagementsystem.model;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
 
+import javax.sql.DataSource;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
 
 /**
- * Database configuration and connection management
+ * Database configuration and connection management.
+ * Connects to MySQL, or to an embedded H2 database when -Dbank.repository=h2; with
+ * -Dbank.repository=memory no pool is created at all (see {@link Repositories}).
  */
 public class DatabaseConfig {
     private static HikariDataSource dataSource;
+    // The pool itself, or the pool behind the SQL profiler (-Dbank.sql.profile=true)
+    private static DataSource connections;
     private static final String DB_URL = "jdbc:mysql://localhost:3306/bank_management?allowPublicKeyRetrieval=true&useSSL=false";
     private static final String DB_USERNAME = "root";
     private static final String DB_PASSWORD = ""; // No password set
     private static final String DB_DRIVER = "com.mysql.cj.jdbc.Driver";
+    // MySQL mode keeps the DAOs' MySQL syntax (LIMIT, INSERT IGNORE) working unchanged; upserts come from SqlDialect
+    private static final String H2_URL = System.getProperty("bank.h2.url",
+            "jdbc:h2:./data/bank;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH");
+    private static final String H2_DRIVER = "org.h2.Driver";
     
     static {
-        initializeDataSource();
+        if (hasDatabase()) {
+            registerPoolMetrics();
+            initializeDataSource();
+        }
     }
     
+    /**
+     * @return false when the in-memory repositories are in use and there is no database
+     */
+    public static boolean hasDatabase() {
+        return Repositories.getBackend() != Repositories.Backend.MEMORY;
+    }
+
+    /**
+     * @return true when connected to the embedded H2 database rather than MySQL
+     */
+    public static boolean isEmbedded() {
+        return Repositories.getBackend() == Repositories.Backend.H2;
+    }
+
+    /**
+     * Fetch size that makes the driver stream a large result set instead of buffering it
+     * (MySQL Connector/J only streams with Integer.MIN_VALUE, which other drivers reject)
+     */
+    public static int streamingFetchSize() {
+        return isEmbedded() ? 1000 : Integer.MIN_VALUE;
+    }
+
     /**
      * Initialize the HikariCP data source
      */
     private static void initializeDataSource() {
         try {
             HikariConfig config = new HikariConfig();
-            config.setJdbcUrl(DB_URL);
-            config.setUsername(DB_USERNAME);
-            // Only set password if it's not empty (for MySQL with no password)
-            if (DB_PASSWORD != null && !DB_PASSWORD.isEmpty()) {
-                config.setPassword(DB_PASSWORD);
+            if (isEmbedded()) {
+                config.setJdbcUrl(H2_URL);
+                config.setUsername("sa");
+                config.setDriverClassName(H2_DRIVER);
+            } else {
+                config.setJdbcUrl(DB_URL);
+                config.setUsername(DB_USERNAME);
+                // Only set password if it's not empty (for MySQL with no password)
+                if (DB_PASSWORD != null && !DB_PASSWORD.isEmpty()) {
+                    config.setPassword(DB_PASSWORD);
+                }
+                config.setDriverClassName(DB_DRIVER);
             }
-            config.setDriverClassName(DB_DRIVER);
             
             // Connection pool settings
             config.setMaximumPoolSize(10);
@@ -41,20 +85,37 @@ public class DatabaseConfig {
             config.setIdleTimeout(600000);
             config.setMaxLifetime(1800000);
             config.setLeakDetectionThreshold(60000);
+            config.setMetricsTrackerFactory((poolName, poolStats) -> new PoolMetricsTracker());
             
             // MySQL specific settings
-            config.addDataSourceProperty("cachePrepStmts", "true");
-            config.addDataSourceProperty("prepStmtCacheSize", "250");
-            config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
-            config.addDataSourceProperty("useServerPrepStmts", "true");
-            config.addDataSourceProperty("useLocalSessionState", "true");
-            config.addDataSourceProperty("rewriteBatchedStatements", "true");
-            config.addDataSourceProperty("cacheResultSetMetadata", "true");
-            config.addDataSourceProperty("cacheServerConfiguration", "true");
-            config.addDataSourceProperty("elideSetAutoCommits", "true");
-            config.addDataSourceProperty("maintainTimeStats", "false");
+            if (!isEmbedded()) {
+                config.addDataSourceProperty("cachePrepStmts", "true");
+                config.addDataSourceProperty("prepStmtCacheSize", "250");
+                config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+                config.addDataSourceProperty("useServerPrepStmts", "true");
+                config.addDataSourceProperty("useLocalSessionState", "true");
+                config.addDataSourceProperty("rewriteBatchedStatements", "true");
+                config.addDataSourceProperty("cacheResultSetMetadata", "true");
+                config.addDataSourceProperty("cacheServerConfiguration", "true");
+                config.addDataSourceProperty("elideSetAutoCommits", "true");
+                config.addDataSourceProperty("maintainTimeStats", "false");
+                // LOAD DATA LOCAL INFILE (bulk seeding) may only read files from the bulk-load directory
+                config.addDataSourceProperty("allowLoadLocalInfileInPath", getBulkLoadDirectory().toString());
+            }
             
             dataSource = new HikariDataSource(config);
+            connections = dataSource;
+            if (SqlProfiler.isEnabled() || Tracing.isEnabled()) {
+                // Tracing needs the statement proxies for its SQL spans
+                connections = SqlProfiler.wrap(dataSource);
+                if (SqlProfiler.isEnabled()) {
+                    System.out.println("🔎 SQL profiling enabled");
+                }
+            }
+            if (isEmbedded()) {
+                createEmbeddedSchema();
+            }
+            createSupportTables();
             System.out.println("✅ Database connection pool initialized successfully");
             
         } catch (Exception e) {
@@ -63,6 +124,45 @@ public class DatabaseConfig {
         }
     }
     
+    /**
+     * Export the pool counters as gauges and Hikari's connection timings as timers (see {@link Metrics})
+     */
+    private static void registerPoolMetrics() {
+        Metrics.gauge("bank_db_pool_active_connections", "Connections in use", () -> getPoolStats()[0]);
+        Metrics.gauge("bank_db_pool_idle_connections", "Idle connections in the pool", () -> getPoolStats()[1]);
+        Metrics.gauge("bank_db_pool_connections", "Open connections", () -> getPoolStats()[2]);
+        Metrics.gauge("bank_db_pool_pending_threads", "Threads waiting for a connection", () -> getPoolStats()[3]);
+        Metrics.gauge("bank_db_pool_max_connections", "Maximum pool size", () -> getPoolStats()[4]);
+    }
+
+    // Receives Hikari's per-connection timings
+    private static class PoolMetricsTracker implements IMetricsTracker {
+        private final Metrics.Timer acquire = Metrics.timer("bank_db_connection_acquire_seconds", "Time waiting for a pooled connection");
+        private final Metrics.Timer usage = Metrics.timer("bank_db_connection_usage_seconds", "Time a connection is held before it is returned");
+        private final Metrics.Timer creation = Metrics.timer("bank_db_connection_create_seconds", "Time to open a new physical connection");
+        private final Metrics.Counter timeouts = Metrics.counter("bank_db_connection_timeouts_total", "Requests that timed out waiting for a connection");
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquire.record(elapsedAcquiredNanos);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            usage.record(elapsedBorrowedMillis * 1_000_000);
+        }
+
+        @Override
+        public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+            creation.record(connectionCreatedMillis * 1_000_000);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+        }
+    }
+
     /**
      * Get a database connection from the pool
      * @return Connection object
@@ -70,11 +170,58 @@ public class DatabaseConfig {
      */
     public static Connection getConnection() throws SQLException {
         if (dataSource == null) {
-            throw new SQLException("Database connection pool not initialized");
+            throw new SQLException(hasDatabase()
+                    ? "Database connection pool not initialized"
+                    : "No database: in-memory repositories are in use");
         }
-        return dataSource.getConnection();
+        return TimedConnections.open(connections);
     }
     
+    /**
+     * Create the core tables in a fresh embedded database (the MySQL schema is set up by the DBA)
+     */
+    private static void createEmbeddedSchema() throws SQLException {
+        String[] ddl = {
+            "CREATE TABLE IF NOT EXISTS customers (" +
+                "customer_id VARCHAR(20) PRIMARY KEY, first_name VARCHAR(100), last_name VARCHAR(100), " +
+                "address VARCHAR(255), customer_type VARCHAR(20) NOT NULL, national_id VARCHAR(50), " +
+                "company_name VARCHAR(150), company_address VARCHAR(255))",
+            "CREATE TABLE IF NOT EXISTS accounts (" +
+                "account_number VARCHAR(30) PRIMARY KEY, customer_id VARCHAR(20) NOT NULL, " +
+                "account_type VARCHAR(30) NOT NULL, balance DECIMAL(15,2) NOT NULL DEFAULT 0, branch VARCHAR(100), " +
+                "is_closed BOOLEAN NOT NULL DEFAULT FALSE, employer_name VARCHAR(150), employer_address VARCHAR(255))",
+            "CREATE TABLE IF NOT EXISTS customer_credentials (" +
+                "customer_id VARCHAR(20) PRIMARY KEY, username VARCHAR(50) NOT NULL UNIQUE, password VARCHAR(255) NOT NULL, " +
+                "email VARCHAR(150), is_active BOOLEAN NOT NULL DEFAULT TRUE)",
+            "CREATE TABLE IF NOT EXISTS linked_accounts (" +
+                "customer_id VARCHAR(20) NOT NULL, linked_account_number VARCHAR(30) NOT NULL, " +
+                "PRIMARY KEY (customer_id, linked_account_number))",
+            "CREATE INDEX IF NOT EXISTS idx_customers_last_name ON customers (last_name, customer_id)",
+            "CREATE INDEX IF NOT EXISTS idx_customers_first_name ON customers (first_name, customer_id)",
+            "CREATE INDEX IF NOT EXISTS idx_customers_type ON customers (customer_type, customer_id)",
+            "CREATE INDEX IF NOT EXISTS idx_customers_national_id ON customers (national_id)",
+            "CREATE INDEX IF NOT EXISTS idx_customers_company_name ON customers (company_name)",
+            "CREATE INDEX IF NOT EXISTS idx_accounts_customer ON accounts (customer_id)",
+            "CREATE INDEX IF NOT EXISTS idx_credentials_email ON customer_credentials (email)"
+        };
+        try (Connection conn = dataSource.getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String sql : ddl) {
+                stmt.execute(sql);
+            }
+        }
+        System.out.println("✅ Embedded database ready at " + H2_URL);
+    }
+
+    /**
+     * Create the tables the application adds next to the core schema, on MySQL and H2 alike
+     */
+    private static void createSupportTables() {
+        AccountBalanceSlotDAO.ensureTable();
+        IdSequenceDAO.ensureTable();
+        HoldDAO.ensureTable();
+    }
+
     /**
      * Test database connection
      * @return true if connection successful, false otherwise
@@ -98,12 +245,37 @@ public class DatabaseConfig {
         }
     }
     
+    /**
+     * Snapshot of the connection pool, read from the pool's own counters (no connection is taken)
+     * @return {active, idle, total, threads waiting, maximum pool size}, or all zeros if the pool is not running
+     */
+    public static int[] getPoolStats() {
+        if (dataSource == null || dataSource.isClosed() || dataSource.getHikariPoolMXBean() == null) {
+            return new int[5];
+        }
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return new int[] {
+            pool.getActiveConnections(),
+            pool.getIdleConnections(),
+            pool.getTotalConnections(),
+            pool.getThreadsAwaitingConnection(),
+            dataSource.getMaximumPoolSize()
+        };
+    }
+
+    /**
+     * @return directory for temporary files loaded with LOAD DATA LOCAL INFILE
+     */
+    public static Path getBulkLoadDirectory() {
+        return Path.of(System.getProperty("java.io.tmpdir"), "bank-bulk-load");
+    }
+
     /**
      * Get database URL for display purposes
      * @return database URL
      */
     public static String getDatabaseUrl() {
-        return DB_URL;
+        return isEmbedded() ? H2_URL : DB_URL;
     }
     
     /**
@@ -12,40 +12,50 @@ public class DatabaseStorage {
     /**
      * Save all customers to database
      * @param customers List of customers to save
+     * @return true if every row was saved, false if any save failed
      */
-    public static void saveCustomers(List<Customer> customers) {
-        System.out.println("💾 Saving " + customers.size() + " customers to database...");
+    public static boolean saveCustomers(List<Customer> customers) {
+        Metrics.Sample sample = Metrics.STORAGE.start("DatabaseStorage.saveCustomers");
+        try {
+            System.out.println("💾 Saving " + customers.size() + " customers to database...");
         
-        for (Customer customer : customers) {
-            // Save customer
-            CustomerDAO.saveCustomer(customer);
-            
-            // Save linked accounts
-            CustomerDAO.saveLinkedAccounts(customer);
-            
-            // Save customer's accounts
-            for (Account account : customer.getAccounts()) {
-                AccountDAO.saveAccount(account);
-            }
-        }
+            // Each table is written in bulk (see BulkLoader); customers first so accounts have their owners
+            boolean ok = Repositories.customers().saveAll(customers);
+            ok &= Repositories.links().saveAll(customers);
+            ok &= Repositories.accounts().saveAll(accountsOf(customers));
         
-        System.out.println("✅ All customers saved to database successfully");
+            System.out.println(ok ? "✅ All customers saved to database successfully" : "⚠️ Some customers could not be saved");
+            return ok;
+        } finally {
+            sample.stop();
+        }
     }
     
     /**
      * Save all accounts to database
      * @param customers List of customers containing accounts to save
+     * @return true if every account was saved, false if any save failed
      */
-    public static void saveAccounts(List<Customer> customers) {
-        System.out.println("💾 Saving accounts to database...");
+    public static boolean saveAccounts(List<Customer> customers) {
+        Metrics.Sample sample = Metrics.STORAGE.start("DatabaseStorage.saveAccounts");
+        try {
+            System.out.println("💾 Saving accounts to database...");
+        
+            boolean ok = Repositories.accounts().saveAll(accountsOf(customers));
         
+            System.out.println(ok ? "✅ All accounts saved to database successfully" : "⚠️ Some accounts could not be saved");
+            return ok;
+        } finally {
+            sample.stop();
+        }
+    }
+    
+    private static List<Account> accountsOf(List<Customer> customers) {
+        List<Account> accounts = new ArrayList<>();
         for (Customer customer : customers) {
-            for (Account account : customer.getAccounts()) {
-                AccountDAO.saveAccount(account);
-            }
+            accounts.addAll(customer.getAccounts());
         }
-        
-        System.out.println("✅ All accounts saved to database successfully");
+        return accounts;
     }
     
     /**
@@ -53,15 +63,20 @@ public class DatabaseStorage {
      * @return List of Customer objects
      */
     public static List<Customer> loadCustomers() {
-        System.out.println("📂 Loading customers from database...");
+        Metrics.Sample sample = Metrics.STORAGE.start("DatabaseStorage.loadCustomers");
+        try {
+            System.out.println("📂 Loading customers from database...");
         
-        List<Customer> customers = CustomerDAO.loadCustomers();
+            List<Customer> customers = Repositories.customers().loadAll();
         
-        // Note: Accounts are loaded separately in loadAccounts() to avoid duplicates
-        // Accounts will be associated with customers in loadAllData() or loadAccounts()
+            // Note: Accounts are loaded separately in loadAccounts() to avoid duplicates
+            // Accounts will be associated with customers in loadAllData() or loadAccounts()
         
-        System.out.println("✅ Loaded " + customers.size() + " customers from database");
-        return customers;
+            System.out.println("✅ Loaded " + customers.size() + " customers from database");
+            return customers;
+        } finally {
+            sample.stop();
+        }
     }
     
     /**
@@ -70,34 +85,47 @@ public class DatabaseStorage {
      * @return List of Account objects
      */
     public static List<Account> loadAccounts(List<Customer> customers) {
-        System.out.println("📂 Loading accounts from database...");
+        Metrics.Sample sample = Metrics.STORAGE.start("DatabaseStorage.loadAccounts");
+        try {
+            System.out.println("📂 Loading accounts from database...");
         
-        List<Account> accounts = AccountDAO.loadAccounts(customers);
+            List<Account> accounts = Repositories.accounts().loadAll(customers);
         
-        // Associate accounts with customers
-        for (Account account : accounts) {
-            Customer customer = account.getCustomer();
-            if (customer != null) {
-                customer.addAccount(account);
+            // Re-enable hot-account mode for accounts with un-folded slot credits
+            HotAccounts.restore(accounts);
+        
+            // Associate accounts with customers
+            for (Account account : accounts) {
+                Customer customer = account.getCustomer();
+                if (customer != null) {
+                    customer.addAccount(account);
+                }
             }
-        }
         
-        System.out.println("✅ Loaded " + accounts.size() + " accounts from database");
-        return accounts;
+            System.out.println("✅ Loaded " + accounts.size() + " accounts from database");
+            return accounts;
+        } finally {
+            sample.stop();
+        }
     }
     
     /**
      * Save customer credentials to database
      * @param credentials List of credentials to save
+     * @return true if every credential was saved, false if any save failed
      */
-    public static void saveCredentials(List<CustomerCredentials> credentials) {
-        System.out.println("💾 Saving " + credentials.size() + " credentials to database...");
+    public static boolean saveCredentials(List<CustomerCredentials> credentials) {
+        Metrics.Sample sample = Metrics.STORAGE.start("DatabaseStorage.saveCredentials");
+        try {
+            System.out.println("💾 Saving " + credentials.size() + " credentials to database...");
         
-        for (CustomerCredentials cred : credentials) {
-            CustomerCredentialsDAO.saveCredentials(cred);
-        }
+            boolean ok = Repositories.credentials().saveAll(credentials);
         
-        System.out.println("✅ All credentials saved to database successfully");
+            System.out.println(ok ? "✅ All credentials saved to database successfully" : "⚠️ Some credentials could not be saved");
+            return ok;
+        } finally {
+            sample.stop();
+        }
     }
     
     /**
@@ -105,32 +133,43 @@ public class DatabaseStorage {
      * @return List of CustomerCredentials objects
      */
     public static List<CustomerCredentials> loadCredentials() {
-        System.out.println("📂 Loading credentials from database...");
+        Metrics.Sample sample = Metrics.STORAGE.start("DatabaseStorage.loadCredentials");
+        try {
+            System.out.println("📂 Loading credentials from database...");
         
-        List<CustomerCredentials> credentials = CustomerCredentialsDAO.loadCredentials();
+            List<CustomerCredentials> credentials = Repositories.credentials().loadAll();
         
-        System.out.println("✅ Loaded " + credentials.size() + " credentials from database");
-        return credentials;
+            System.out.println("✅ Loaded " + credentials.size() + " credentials from database");
+            return credentials;
+        } finally {
+            sample.stop();
+        }
     }
     
     /**
      * Save all data (customers, accounts, and credentials) to database
      * @param customers List of customers to save
+     * @return true if everything was saved
      */
-    public static void saveAllData(List<Customer> customers) {
-        saveCustomers(customers);
-        saveAccounts(customers);
+    public static boolean saveAllData(List<Customer> customers) {
+        // saveCustomers already writes every customer's accounts
+        return saveCustomers(customers);
     }
     
     /**
      * Save all data including credentials to database
      * @param customers List of customers to save
      * @param credentials List of credentials to save
+     * @return true if everything was saved
      */
-    public static void saveAllData(List<Customer> customers, List<CustomerCredentials> credentials) {
-        saveCustomers(customers);
-        saveAccounts(customers);
-        saveCredentials(credentials);
+    public static boolean saveAllData(List<Customer> customers, List<CustomerCredentials> credentials) {
+        Metrics.Sample sample = Metrics.STORAGE.start("DatabaseStorage.saveAllData");
+        try {
+            boolean ok = saveCustomers(customers);
+            return saveCredentials(credentials) && ok;
+        } finally {
+            sample.stop();
+        }
     }
     
     /**
@@ -138,17 +177,23 @@ public class DatabaseStorage {
      * @return List of Customer objects with associated accounts
      */
     public static List<Customer> loadAllData() {
-        List<Customer> customers = loadCustomers();
-        loadAccounts(customers);
-        return customers;
+        Metrics.Sample sample = Metrics.STORAGE.start("DatabaseStorage.loadAllData");
+        try {
+            List<Customer> customers = loadCustomers();
+            loadAccounts(customers);
+            return customers;
+        } finally {
+            sample.stop();
+        }
     }
     
     /**
      * Legacy method for backward compatibility
      * @param customers List of customers to save
+     * @return true if everything was saved
      */
-    public static void saveData(List<Customer> customers) {
-        saveAllData(customers);
+    public static boolean saveData(List<Customer> customers) {
+        return saveAllData(customers);
     }
     
     /**
@@ -180,13 +225,18 @@ public class DatabaseStorage {
      * @return DatabaseStats object with counts
      */
     public static DatabaseStats getDatabaseStats() {
-        return new DatabaseStats(
-            CustomerDAO.getCustomerCount(),
-            AccountDAO.getAccountCount(),
-            CustomerCredentialsDAO.getCredentialsCount(),
-            CustomerCredentialsDAO.getActiveCredentialsCount(),
-            AccountDAO.getTotalBalance()
-        );
+        Metrics.Sample sample = Metrics.STORAGE.start("DatabaseStorage.getDatabaseStats");
+        try {
+            return new DatabaseStats(
+                Repositories.customers().count(),
+                Repositories.accounts().count(),
+                Repositories.credentials().count(),
+                Repositories.credentials().countActive(),
+                Repositories.accounts().totalBalance()
+            );
+        } finally {
+            sample.stop();
+        }
     }
     
     /**
@@ -228,24 +278,29 @@ public class DatabaseStorage {
      * @param credentials List of credentials from file storage
      */
     public static void migrateFromFiles(List<Customer> customers, List<CustomerCredentials> credentials) {
-        System.out.println("🔄 Migrating data from files to database...");
-        
+        Metrics.Sample sample = Metrics.STORAGE.start("DatabaseStorage.migrateFromFiles");
         try {
-            // Test database connection first
-            if (!testConnection()) {
-                System.err.println("❌ Database connection failed. Migration aborted.");
-                return;
-            }
+            System.out.println("🔄 Migrating data from files to database...");
+        
+            try {
+                // Test database connection first
+                if (!testConnection()) {
+                    System.err.println("❌ Database connection failed. Migration aborted.");
+                    return;
+                }
             
-            // Save all data to database
-            saveAllData(customers, credentials);
+                // Save all data to database
+                saveAllData(customers, credentials);
             
-            System.out.println("✅ Migration completed successfully!");
-            System.out.println("📊 " + getDatabaseStats());
+                System.out.println("✅ Migration completed successfully!");
+                System.out.println("📊 " + getDatabaseStats());
             
-        } catch (Exception e) {
-            System.err.println("❌ Migration failed: " + e.getMessage());
-            e.printStackTrace();
+            } catch (Exception e) {
+                System.err.println("❌ Migration failed: " + e.getMessage());
+                e.printStackTrace();
+            }
+        } finally {
+            sample.stop();
         }
     }
 }
@@ -0,0 +1,395 @@
+package bankmanagementsystem.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Finds likely duplicate customers without comparing every pair.
+ * Each customer is filed under a few blocking keys: national ID (personal customers), normalized
+ * company name (company customers), a phonetic code of the name (Soundex of the last name plus the
+ * first initial) and a normalized address prefix. Only customers sharing at least one block are
+ * scored, on national ID, name similarity (Jaro-Winkler) and address overlap. Very large blocks (a
+ * common surname, a block of flats) are skipped by both checks: they would make an inline check cost
+ * time in proportion to the book, and a match that only shares such a block is weak evidence anyway.
+ * The batch scan works on a copy of the blocks, so customers can be added while it runs.
+ * Working-set mode keeps no detector over the whole book: see {@link #findDuplicatesInDatabase}.
+ */
+public class DuplicateDetector {
+    /** Scores at or above this are reported as likely duplicates */
+    public static final double THRESHOLD = 0.75;
+    private static final int ADDRESS_PREFIX_LENGTH = 12;
+    private static final int MAX_BLOCK_SIZE = 500;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Profile> profiles = new HashMap<>();
+    private final Map<String, Set<String>> blocks = new HashMap<>();
+
+    /**
+     * Build a detector over the given customers
+     * @param customers Customers to index
+     * @return populated detector
+     */
+    public static DuplicateDetector build(List<Customer> customers) {
+        DuplicateDetector detector = new DuplicateDetector();
+        for (Customer customer : customers) {
+            detector.put(customer);
+        }
+        return detector;
+    }
+
+    /**
+     * Build a detector by streaming every customer row from the database, for a batch scan in
+     * working-set mode; the detector is dropped after the scan
+     * @return populated detector
+     */
+    public static DuplicateDetector buildFromDatabase() {
+        DuplicateDetector detector = new DuplicateDetector();
+        Repositories.customers().forEach(detector::put);
+        return detector;
+    }
+
+    /**
+     * Add a customer, or re-file it after a profile change
+     * @param customer Customer to index
+     */
+    public void put(Customer customer) {
+        Profile profile = new Profile(customer);
+        lock.writeLock().lock();
+        try {
+            Profile old = profiles.put(profile.customerId, profile);
+            if (old != null) {
+                for (String key : old.blockingKeys) {
+                    Set<String> block = blocks.get(key);
+                    if (block != null) block.remove(old.customerId);
+                }
+            }
+            for (String key : profile.blockingKeys) {
+                blocks.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(profile.customerId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a customer, e.g. one whose creation was rolled back or that was deleted
+     * @param customerId Customer ID
+     */
+    public void remove(String customerId) {
+        lock.writeLock().lock();
+        try {
+            Profile old = profiles.remove(customerId);
+            if (old != null) {
+                for (String key : old.blockingKeys) {
+                    Set<String> block = blocks.get(key);
+                    if (block != null) block.remove(customerId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Inline check for a customer about to be created (or any other probe)
+     * @param probe Customer to check; its customer ID may be null
+     * @return likely duplicates, best match first
+     */
+    public List<Candidate> findDuplicates(Customer probe) {
+        Profile profile = new Profile(probe);
+        List<Candidate> candidates = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Set<String> seen = new LinkedHashSet<>();
+            for (String key : profile.blockingKeys) {
+                Set<String> block = blocks.get(key);
+                if (block == null || block.size() > MAX_BLOCK_SIZE) continue;
+                for (String customerId : block) {
+                    if (customerId.equals(profile.customerId) || !seen.add(customerId)) continue;
+                    Profile other = profiles.get(customerId);
+                    double score = score(profile, other);
+                    if (score >= THRESHOLD) {
+                        candidates.add(new Candidate(customerId, score, reason(profile, other)));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        candidates.sort(Comparator.comparingDouble(Candidate::getScore).reversed());
+        return candidates;
+    }
+
+    /**
+     * Inline check without a detector over the whole book (working-set mode): the customers sharing the
+     * probe's national ID, company name or last name are read from the database and scored as one block
+     * @param probe Customer to check; its customer ID may be null
+     * @return likely duplicates, best match first
+     */
+    public static List<Candidate> findDuplicatesInDatabase(Customer probe) {
+        return build(Repositories.customers().findDuplicateCandidates(probe, MAX_BLOCK_SIZE)).findDuplicates(probe);
+    }
+
+    /**
+     * Batch scan of the whole book. Blocks are scored in parallel; a pair sharing several blocks is
+     * reported once.
+     * @return likely duplicate pairs, best match first
+     */
+    public List<Pair> scanAll() {
+        // Profiles are immutable, so copying the references is enough for a consistent snapshot
+        List<Profile[]> snapshot = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Set<String> block : blocks.values()) {
+                if (block.size() < 2 || block.size() > MAX_BLOCK_SIZE) continue;
+                Profile[] members = new Profile[block.size()];
+                int i = 0;
+                for (String customerId : block) {
+                    members[i++] = profiles.get(customerId);
+                }
+                snapshot.add(members);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<String, Pair> found = new ConcurrentHashMap<>();
+        snapshot.parallelStream().forEach(members -> {
+            for (int i = 0; i < members.length; i++) {
+                Profile a = members[i];
+                for (int j = i + 1; j < members.length; j++) {
+                    Profile b = members[j];
+                    String pairKey = a.customerId.compareTo(b.customerId) < 0
+                            ? a.customerId + "|" + b.customerId : b.customerId + "|" + a.customerId;
+                    if (found.containsKey(pairKey)) continue;
+                    double score = score(a, b);
+                    if (score >= THRESHOLD) {
+                        found.putIfAbsent(pairKey, new Pair(a.customerId, b.customerId, score, reason(a, b)));
+                    }
+                }
+            }
+        });
+        List<Pair> pairs = new ArrayList<>(found.values());
+        pairs.sort(Comparator.comparingDouble(Pair::getScore).reversed());
+        return pairs;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return profiles.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 0..1; a matching national ID or company name alone is enough to cross the threshold
+    static double score(Profile a, Profile b) {
+        if (!a.nationalId.isEmpty() && a.nationalId.equals(b.nationalId)) {
+            return 1.0;
+        }
+        double name = (jaroWinkler(a.firstName, b.firstName) + 2 * jaroWinkler(a.lastName, b.lastName)) / 3;
+        double address = tokenOverlap(a.address, b.address);
+        double score = 0.7 * name + 0.3 * address;
+        if (!a.companyName.isEmpty() && a.companyName.equals(b.companyName)) {
+            score = Math.max(score, 0.9);
+        }
+        if (!a.nationalId.isEmpty() && !b.nationalId.isEmpty()) {
+            score -= 0.2; // both have national IDs and they differ: probably two people
+        }
+        return Math.max(0, score);
+    }
+
+    private static String reason(Profile a, Profile b) {
+        if (!a.nationalId.isEmpty() && a.nationalId.equals(b.nationalId)) return "same national ID";
+        if (!a.companyName.isEmpty() && a.companyName.equals(b.companyName)) return "same company name";
+        return "similar name and address";
+    }
+
+    static double jaroWinkler(String s, String t) {
+        if (s.equals(t)) return s.isEmpty() ? 0 : 1;
+        if (s.isEmpty() || t.isEmpty()) return 0;
+        int window = Math.max(0, Math.max(s.length(), t.length()) / 2 - 1);
+        boolean[] sMatched = new boolean[s.length()];
+        boolean[] tMatched = new boolean[t.length()];
+        int matches = 0;
+        for (int i = 0; i < s.length(); i++) {
+            int from = Math.max(0, i - window);
+            int to = Math.min(t.length() - 1, i + window);
+            for (int j = from; j <= to; j++) {
+                if (!tMatched[j] && s.charAt(i) == t.charAt(j)) {
+                    sMatched[i] = tMatched[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) return 0;
+        int transpositions = 0;
+        for (int i = 0, j = 0; i < s.length(); i++) {
+            if (!sMatched[i]) continue;
+            while (!tMatched[j]) j++;
+            if (s.charAt(i) != t.charAt(j)) transpositions++;
+            j++;
+        }
+        double m = matches;
+        double jaro = (m / s.length() + m / t.length() + (m - transpositions / 2.0) / m) / 3;
+        int prefix = 0;
+        while (prefix < Math.min(4, Math.min(s.length(), t.length())) && s.charAt(prefix) == t.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * 0.1 * (1 - jaro);
+    }
+
+    private static double tokenOverlap(String a, String b) {
+        if (a.isEmpty() || b.isEmpty()) return 0;
+        Set<String> left = new HashSet<>(Arrays.asList(a.split(" ")));
+        Set<String> right = new HashSet<>(Arrays.asList(b.split(" ")));
+        int shared = 0;
+        for (String token : left) {
+            if (right.contains(token)) shared++;
+        }
+        return (double) shared / Math.max(left.size(), right.size());
+    }
+
+    /**
+     * American Soundex code (letter plus three digits)
+     * @param name Name to encode
+     * @return code such as "R163", or "" for a name without letters
+     */
+    static String soundex(String name) {
+        String codes = "01230120022455012623010202";
+        StringBuilder sb = new StringBuilder(4);
+        char last = 0;
+        for (int i = 0; i < name.length() && sb.length() < 4; i++) {
+            char c = Character.toUpperCase(name.charAt(i));
+            if (c < 'A' || c > 'Z') continue;
+            char code = codes.charAt(c - 'A');
+            if (sb.length() == 0) {
+                sb.append(c);
+                last = code;
+                continue;
+            }
+            if (code != '0' && code != last) {
+                sb.append(code);
+            }
+            if (c != 'H' && c != 'W') {
+                last = code;
+            }
+        }
+        if (sb.length() == 0) return "";
+        while (sb.length() < 4) sb.append('0');
+        return sb.toString();
+    }
+
+    // Lower case, with every run of punctuation and whitespace collapsed to one space
+    static String normalize(String value) {
+        if (value == null) return "";
+        StringBuilder sb = new StringBuilder(value.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && sb.length() > 0) sb.append(' ');
+                pendingSpace = false;
+                sb.append(Character.toLowerCase(c));
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return sb.toString();
+    }
+
+    // Normalized fields and blocking keys of one customer
+    static class Profile {
+        final String customerId;
+        final String firstName;
+        final String lastName;
+        final String address;
+        final String nationalId;
+        final String companyName;
+        final List<String> blockingKeys = new ArrayList<>(4);
+
+        Profile(Customer customer) {
+            this.customerId = customer.getCustomerId() != null ? customer.getCustomerId() : "";
+            this.firstName = normalize(customer.getFirstName());
+            this.lastName = normalize(customer.getLastName());
+            this.address = normalize(customer.getAddress());
+            this.nationalId = customer instanceof PersonalCustomer
+                    ? normalize(((PersonalCustomer) customer).getNationalId()).replace(" ", "") : "";
+            this.companyName = customer instanceof CompanyCustomer
+                    ? normalize(((CompanyCustomer) customer).getCompanyName()) : "";
+
+            if (!nationalId.isEmpty()) blockingKeys.add("id:" + nationalId);
+            if (!companyName.isEmpty()) blockingKeys.add("co:" + companyName);
+            String phonetic = soundex(lastName);
+            if (!phonetic.isEmpty()) {
+                blockingKeys.add("ph:" + phonetic + (firstName.isEmpty() ? "" : firstName.charAt(0)));
+            }
+            String compactAddress = address.replace(" ", "");
+            if (!compactAddress.isEmpty()) {
+                blockingKeys.add("ad:" + compactAddress.substring(0, Math.min(ADDRESS_PREFIX_LENGTH, compactAddress.length())));
+            }
+        }
+    }
+
+    /**
+     * Existing customer that may duplicate a probe
+     */
+    public static class Candidate {
+        private final String customerId;
+        private final double score;
+        private final String reason;
+
+        Candidate(String customerId, double score, String reason) {
+            this.customerId = customerId;
+            this.score = score;
+            this.reason = reason;
+        }
+
+        public String getCustomerId() { return customerId; }
+        public double getScore() { return score; }
+        public String getReason() { return reason; }
+
+        @Override
+        public String toString() {
+            return String.format("%s (%s, score %.2f)", customerId, reason, score);
+        }
+    }
+
+    /**
+     * Two existing customers that are likely the same party
+     */
+    public static class Pair {
+        private final String firstCustomerId;
+        private final String secondCustomerId;
+        private final double score;
+        private final String reason;
+
+        Pair(String firstCustomerId, String secondCustomerId, double score, String reason) {
+            this.firstCustomerId = firstCustomerId;
+            this.secondCustomerId = secondCustomerId;
+            this.score = score;
+            this.reason = reason;
+        }
+
+        public String getFirstCustomerId() { return firstCustomerId; }
+        public String getSecondCustomerId() { return secondCustomerId; }
+        public double getScore() { return score; }
+        public String getReason() { return reason; }
+
+        @Override
+        public String toString() {
+            return String.format("%s ~ %s (%s, score %.2f)", firstCustomerId, secondCustomerId, reason, score);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package bankmanagementsystem.model;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of cheque accounts by employer name and account number, used to resolve payroll lines
+ * without scanning every customer's accounts for each employee.
+ * {@link BankData} keeps one for the whole book, updated as accounts are opened and customers
+ * come and go; payroll runs read it from a background thread.
+ */
+public class EmployerAccountIndex {
+    private final Map<String, Map<String, ChequeAccount>> byEmployer = new ConcurrentHashMap<>();
+    private final Map<String, Account> byNumber = new ConcurrentHashMap<>();
+
+    /**
+     * Build the index from the in-memory customers
+     * @param customers Customers whose accounts should be indexed
+     * @return populated index
+     */
+    public static EmployerAccountIndex build(List<Customer> customers) {
+        EmployerAccountIndex index = new EmployerAccountIndex();
+        for (Customer customer : customers) {
+            index.putAll(customer);
+        }
+        return index;
+    }
+
+    /**
+     * Add or replace one account
+     * @param account Account to index
+     */
+    public void put(Account account) {
+        byNumber.put(account.getAccountNumber(), account);
+        if (account instanceof ChequeAccount) {
+            ChequeAccount ca = (ChequeAccount) account;
+            byEmployer.computeIfAbsent(normalize(ca.getEmployerName()), k -> new ConcurrentHashMap<>())
+                    .put(ca.getAccountNumber(), ca);
+        }
+    }
+
+    /**
+     * Remove one account, if it is the one indexed under its number
+     * @param account Account to remove
+     */
+    public void remove(Account account) {
+        if (!byNumber.remove(account.getAccountNumber(), account)) {
+            return;
+        }
+        if (account instanceof ChequeAccount) {
+            Map<String, ChequeAccount> accounts = byEmployer.get(normalize(((ChequeAccount) account).getEmployerName()));
+            if (accounts != null) {
+                accounts.remove(account.getAccountNumber(), account);
+            }
+        }
+    }
+
+    /**
+     * @param customer Customer whose accounts should be indexed
+     */
+    public void putAll(Customer customer) {
+        for (Account account : customer.getAccounts()) {
+            put(account);
+        }
+    }
+
+    /**
+     * @param customer Customer whose accounts should be removed
+     */
+    public void removeAll(Customer customer) {
+        for (Account account : customer.getAccounts()) {
+            remove(account);
+        }
+    }
+
+    /**
+     * Find the cheque account of an employee of the given employer
+     * @param employerName Employer name as written on the payment file (case and spacing are ignored)
+     * @param accountNumber Employee's account number
+     * @return the account, or null if the employer has no such employee account
+     */
+    public ChequeAccount find(String employerName, String accountNumber) {
+        Map<String, ChequeAccount> accounts = byEmployer.get(normalize(employerName));
+        return accounts != null ? accounts.get(accountNumber) : null;
+    }
+
+    /**
+     * Find any account by number (used for the company's own account and for diagnostics)
+     * @param accountNumber Account number
+     * @return the account, or null if unknown
+     */
+    public Account findAccount(String accountNumber) {
+        return byNumber.get(accountNumber);
+    }
+
+    /**
+     * @param employerName Employer name
+     * @return number of cheque accounts registered under this employer
+     */
+    public int countEmployees(String employerName) {
+        Map<String, ChequeAccount> accounts = byEmployer.get(normalize(employerName));
+        return accounts != null ? accounts.size() : 0;
+    }
+
+    static String normalize(String name) {
+        if (name == null) return "";
+        return name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,212 @@
+package bankmanagementsystem.model;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import java.util.List;
+
+/**
+ * Java Flight Recorder events for business operations, so a recording shows which posting, write,
+ * audit batch, interest chunk or load phase a latency spike belongs to.
+ * All events are enabled by default and can be switched off or given a threshold in a JFR settings
+ * file, e.g. {@code bankmanagementsystem.Posting#enabled=false} or
+ * {@code bankmanagementsystem.PersistenceFlush#threshold=10 ms}. Fields are only filled in after
+ * {@code shouldCommit()}, so a disabled event costs a flag check (the event object does not escape
+ * and is removed by the JIT).
+ */
+public class FlightEvents {
+    /**
+     * Amount range label, so postings can be grouped without recording exact amounts
+     */
+    static String amountBucket(double amount) {
+        double magnitude = Math.abs(amount);
+        if (magnitude < 10) return "<10";
+        if (magnitude < 100) return "10-100";
+        if (magnitude < 1_000) return "100-1k";
+        if (magnitude < 10_000) return "1k-10k";
+        if (magnitude < 100_000) return "10k-100k";
+        return ">=100k";
+    }
+
+    /**
+     * A committed credit or debit. Postings start on one thread and commit on another, and a JFR
+     * event's start time cannot be set afterwards, so the event is emitted at commit and carries the
+     * time since the request as {@code latency}.
+     */
+    @Name("bankmanagementsystem.Posting")
+    @Label("Posting")
+    @Category({"Bank Management System", "Transactions"})
+    @Description("Credit or debit committed to an account")
+    @StackTrace(false)
+    public static class Posting extends Event {
+        @Label("Account")
+        String accountNumber;
+
+        @Label("Account Type")
+        String accountType;
+
+        @Label("Direction")
+        @Description("credit or debit")
+        String direction;
+
+        @Label("Amount Bucket")
+        String amountBucket;
+
+        @Label("Latency")
+        @Description("Time from the request to the commit")
+        @Timespan(Timespan.NANOSECONDS)
+        long latency;
+
+        static void emit(Account account, double amount, long latencyNanos) {
+            Posting event = new Posting();
+            if (event.shouldCommit()) {
+                event.accountNumber = account.getAccountNumber();
+                event.accountType = account.getClass().getSimpleName();
+                event.direction = amount >= 0 ? "credit" : "debit";
+                event.amountBucket = amountBucket(amount);
+                event.latency = latencyNanos;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * One write run by {@link PersistenceExecutor}
+     */
+    @Name("bankmanagementsystem.PersistenceFlush")
+    @Label("Persistence Flush")
+    @Category({"Bank Management System", "Persistence"})
+    @Description("Background database write")
+    @StackTrace(false)
+    public static class PersistenceFlush extends Event {
+        @Label("Description")
+        String description;
+
+        @Label("Success")
+        boolean success;
+
+        @Label("Pending Writes")
+        @Description("Writes still queued when this one finished")
+        int pending;
+
+        static PersistenceFlush start() {
+            PersistenceFlush event = new PersistenceFlush();
+            event.begin();
+            return event;
+        }
+
+        void finish(String description, boolean success, int pending) {
+            end();
+            if (shouldCommit()) {
+                this.description = description;
+                this.success = success;
+                this.pending = pending;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * One batch of audit records appended to the audit file
+     */
+    @Name("bankmanagementsystem.AuditBatchWrite")
+    @Label("Audit Batch Write")
+    @Category({"Bank Management System", "Audit"})
+    @StackTrace(false)
+    public static class AuditBatchWrite extends Event {
+        @Label("Records")
+        int records;
+
+        @Label("Characters")
+        @Description("Characters written, including line separators")
+        long characters;
+
+        static AuditBatchWrite start() {
+            AuditBatchWrite event = new AuditBatchWrite();
+            event.begin();
+            return event;
+        }
+
+        void finish(List<String> lines) {
+            end();
+            if (shouldCommit()) {
+                records = lines.size();
+                for (String line : lines) {
+                    characters += line.length() + System.lineSeparator().length();
+                }
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Interest applied to one chunk of the book (a customer page in working-set mode, otherwise the
+     * whole resident book)
+     */
+    @Name("bankmanagementsystem.InterestChunk")
+    @Label("Interest Chunk")
+    @Category({"Bank Management System", "Interest"})
+    @StackTrace(false)
+    public static class InterestChunk extends Event {
+        @Label("Accounts Processed")
+        int processed;
+
+        @Label("Interest Applied")
+        int applied;
+
+        @Label("Mode")
+        String mode;
+
+        static InterestChunk start() {
+            InterestChunk event = new InterestChunk();
+            event.begin();
+            return event;
+        }
+
+        void finish(String mode, int processed, int applied) {
+            end();
+            if (shouldCommit()) {
+                this.mode = mode;
+                this.processed = processed;
+                this.applied = applied;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * One step of loading the bank data at start-up
+     */
+    @Name("bankmanagementsystem.DataLoadPhase")
+    @Label("Data Load Phase")
+    @Category({"Bank Management System", "Startup"})
+    @StackTrace(false)
+    public static class DataLoadPhase extends Event {
+        @Label("Phase")
+        String phase;
+
+        @Label("Rows")
+        @Description("Rows or entries loaded, -1 if not counted")
+        long rows;
+
+        static DataLoadPhase start() {
+            DataLoadPhase event = new DataLoadPhase();
+            event.begin();
+            return event;
+        }
+
+        void finish(String phase, long rows) {
+            end();
+            if (shouldCommit()) {
+                this.phase = phase;
+                this.rows = rows;
+                commit();
+            }
+        }
+    }
+}
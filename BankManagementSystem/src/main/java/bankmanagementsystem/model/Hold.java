@@ -0,0 +1,47 @@
+package bankmanagementsystem.model;
+
+/**
+ * A reservation of funds on an account (card authorization or cheque hold).
+ * An active hold reduces the account's available balance without changing its ledger balance.
+ */
+public class Hold {
+    public enum Type { AUTHORIZATION, CHEQUE }
+    public enum Status { ACTIVE, RELEASED, CAPTURED, EXPIRED }
+
+    private final String holdId;
+    private final String accountNumber;
+    private final Type type;
+    private final double amount;
+    private final long createdAt;
+    private final long expiresAt;
+    private final String reference;
+    private volatile Status status;
+
+    public Hold(String holdId, String accountNumber, Type type, double amount, long createdAt, long expiresAt, String reference, Status status) {
+        this.holdId = holdId;
+        this.accountNumber = accountNumber;
+        this.type = type;
+        this.amount = amount;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+        this.reference = reference;
+        this.status = status;
+    }
+
+    public String getHoldId() { return holdId; }
+    public String getAccountNumber() { return accountNumber; }
+    public Type getType() { return type; }
+    public double getAmount() { return amount; }
+    public long getCreatedAt() { return createdAt; }
+    public long getExpiresAt() { return expiresAt; }
+    public String getReference() { return reference; }
+    public Status getStatus() { return status; }
+    public boolean isActive() { return status == Status.ACTIVE; }
+
+    void setStatus(Status status) { this.status = status; }
+
+    @Override
+    public String toString() {
+        return "Hold{" + holdId + ", " + type + ", " + accountNumber + ", " + String.format("%.2f", amount) + ", " + status + "}";
+    }
+}
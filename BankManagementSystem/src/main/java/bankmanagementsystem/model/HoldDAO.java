@@ -0,0 +1,148 @@
+package bankmanagementsystem.model;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Data Access Object for fund holds (holds table)
+ */
+public class HoldDAO {
+
+    /**
+     * Create the holds table and its status index if they do not exist yet
+     */
+    public static void ensureTable() {
+        String sql = "CREATE TABLE IF NOT EXISTS holds (" +
+                    "hold_id VARCHAR(50) PRIMARY KEY, " +
+                    "account_number VARCHAR(50) NOT NULL, " +
+                    "hold_type VARCHAR(20) NOT NULL, " +
+                    "amount DOUBLE NOT NULL, " +
+                    "created_at TIMESTAMP(3) NOT NULL, " +
+                    "expires_at TIMESTAMP(3) NOT NULL, " +
+                    "reference VARCHAR(255), " +
+                    "status VARCHAR(20) NOT NULL)";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+            try {
+                // A separate statement: inline INDEX is MySQL-only, and MySQL has no CREATE INDEX IF NOT EXISTS
+                stmt.execute("CREATE INDEX idx_holds_status ON holds (status)");
+            } catch (SQLException e) {
+                if (!SqlDialect.current().isDuplicateIndex(e)) {
+                    System.err.println("❌ Error creating holds status index: " + e.getMessage());
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Error creating holds table: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Save a new hold
+     * @param hold Hold to insert
+     * @return true if successful, false otherwise
+     */
+    public static boolean saveHold(Hold hold) {
+        String sql = "INSERT INTO holds (hold_id, account_number, hold_type, amount, created_at, expires_at, reference, status) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, hold.getHoldId());
+            stmt.setString(2, hold.getAccountNumber());
+            stmt.setString(3, hold.getType().name());
+            stmt.setDouble(4, hold.getAmount());
+            stmt.setTimestamp(5, new Timestamp(hold.getCreatedAt()));
+            stmt.setTimestamp(6, new Timestamp(hold.getExpiresAt()));
+            stmt.setString(7, hold.getReference());
+            stmt.setString(8, hold.getStatus().name());
+            return stmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error saving hold: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Update the status of one or more holds in a single batch
+     * @param holds Holds whose current status should be written
+     * @return true if successful, false otherwise
+     */
+    public static boolean updateStatuses(Collection<Hold> holds) {
+        if (holds.isEmpty()) {
+            return true;
+        }
+        String sql = "UPDATE holds SET status = ? WHERE hold_id = ?";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            for (Hold hold : holds) {
+                stmt.setString(1, hold.getStatus().name());
+                stmt.setString(2, hold.getHoldId());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error updating hold status: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Largest number at the end of a stored hold ID, for seeding the hold ID sequence
+     * @return the number, 0 if there are no numbered holds, or -1 on error
+     */
+    public static long findMaxHoldNumber() {
+        String sql = "SELECT MAX(" + SqlDialect.current().numericSuffix("hold_id") + ") FROM holds";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            return rs.next() ? rs.getLong(1) : 0;
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error reading the largest hold ID: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Load all active holds
+     * @return List of active Hold objects
+     */
+    public static List<Hold> loadActiveHolds() {
+        List<Hold> holds = new ArrayList<>();
+        String sql = "SELECT * FROM holds WHERE status = 'ACTIVE'";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                holds.add(new Hold(
+                        rs.getString("hold_id"),
+                        rs.getString("account_number"),
+                        Hold.Type.valueOf(rs.getString("hold_type")),
+                        rs.getDouble("amount"),
+                        rs.getTimestamp("created_at").getTime(),
+                        rs.getTimestamp("expires_at").getTime(),
+                        rs.getString("reference"),
+                        Hold.Status.ACTIVE));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error loading holds: " + e.getMessage());
+        }
+
+        return holds;
+    }
+}
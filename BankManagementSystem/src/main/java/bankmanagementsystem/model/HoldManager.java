@@ -0,0 +1,348 @@
+package bankmanagementsystem.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Places, releases, captures and expires fund holds.
+ * A hold reserves part of an account's available balance without debiting it. Every active hold is
+ * scheduled on a hashed {@link TimingWheel}, so expiry never sweeps the full set of holds: each tick
+ * only touches the holds that are due, and their status changes are written with one batch.
+ * A hold leaves the active map exactly once, so release, capture and expiry cannot race each other.
+ * Holds are stored through {@link Repositories#holds()}; a release or capture whose status could
+ * not be written puts the hold back as it was.
+ * With mailboxes enabled, reservations are made and given back on the account's lane, the only
+ * thread that changes the account (see {@link AccountMailboxes}).
+ */
+public class HoldManager {
+    public static final long DEFAULT_AUTHORIZATION_MILLIS = 7L * 24 * 60 * 60 * 1000;
+    public static final long DEFAULT_CHEQUE_MILLIS = 3L * 24 * 60 * 60 * 1000;
+    private static final long TICK_MILLIS = Long.getLong("bank.holds.tickMillis", 100L);
+    private static final int TICKS_PER_WHEEL = 4096;
+
+    private static final Map<String, ActiveHold> active = new ConcurrentHashMap<>();
+    // Active hold IDs per account number, so one account's holds are listed without a scan
+    private static final Map<String, Set<String>> activeByAccount = new ConcurrentHashMap<>();
+    private static final TimingWheel<Hold> wheel =
+            new TimingWheel<>("hold-expiry", TICK_MILLIS, TICKS_PER_WHEEL, HoldManager::expire);
+
+    static {
+        wheel.start();
+    }
+
+    /**
+     * Place a hold with the default lifetime for its type
+     * @param account Account to reserve funds on
+     * @param type Authorization or cheque hold
+     * @param amount Amount to reserve
+     * @param reference Free-text reference (card authorization code, cheque number, ...)
+     * @param actor Who placed the hold (for the audit trail)
+     * @return future completed with the hold, or with null if the available balance is insufficient or the hold could not be stored
+     */
+    public static CompletableFuture<Hold> placeHold(Account account, Hold.Type type, double amount, String reference, String actor) {
+        long lifetime = type == Hold.Type.CHEQUE ? DEFAULT_CHEQUE_MILLIS : DEFAULT_AUTHORIZATION_MILLIS;
+        return placeHold(account, type, amount, reference, actor, System.currentTimeMillis() + lifetime);
+    }
+
+    /**
+     * Place a hold that expires at the given time
+     * @param account Account to reserve funds on
+     * @param type Authorization or cheque hold
+     * @param amount Amount to reserve
+     * @param reference Free-text reference
+     * @param actor Who placed the hold (for the audit trail)
+     * @param expiresAt Epoch milliseconds at which the hold lapses and the funds become available again
+     * @return future completed with the hold, or with null if the available balance is insufficient or the hold could not be stored
+     * @throws IllegalStateException if no hold ID could be reserved
+     */
+    public static CompletableFuture<Hold> placeHold(Account account, Hold.Type type, double amount, String reference, String actor, long expiresAt) {
+        if (!(amount > 0)) {
+            AuditLogger.log("hold", actor, account.getAccountNumber(), "place", "invalid amount=" + amount, false);
+            return CompletableFuture.completedFuture(null);
+        }
+        if (!(account instanceof Withdraw)) {
+            AuditLogger.log("hold", actor, account.getAccountNumber(), "place", "not allowed on account type", false);
+            return CompletableFuture.completedFuture(null);
+        }
+        String holdId = IdAllocator.HOLDS.nextId("HOLD", 9);
+        if (!AccountMailboxes.isEnabled()) {
+            return CompletableFuture.completedFuture(
+                    store(account.reserve(amount), holdId, account, type, amount, reference, actor, expiresAt));
+        }
+        // The hold row is stored off the lane thread, which only does the reservation
+        return AccountMailboxes.reserve(account, amount)
+                .thenApplyAsync(reserved -> store(reserved, holdId, account, type, amount, reference, actor, expiresAt));
+    }
+
+    private static Hold store(boolean reserved, String holdId, Account account, Hold.Type type, double amount,
+                              String reference, String actor, long expiresAt) {
+        if (!reserved) {
+            AuditLogger.log("hold", actor, account.getAccountNumber(), "place",
+                    "insufficient available balance=" + account.getAvailableBalance() + ", amount=" + amount, false);
+            return null;
+        }
+        Hold hold = new Hold(holdId, account.getAccountNumber(), type, amount,
+                System.currentTimeMillis(), expiresAt, reference, Hold.Status.ACTIVE);
+        if (!Repositories.holds().save(hold)) {
+            unreserve(account, amount);
+            AuditLogger.log("hold", actor, account.getAccountNumber(), "place", "hold not stored", false);
+            return null;
+        }
+        track(hold, account);
+        AuditLogger.log("hold", actor, account.getAccountNumber(), "place",
+                hold.getHoldId() + " " + type + " amount=" + amount, true);
+        return hold;
+    }
+
+    // Give a reservation back; with mailboxes enabled the account's lane does it
+    private static CompletableFuture<Boolean> unreserve(Account account, double amount) {
+        if (AccountMailboxes.isEnabled()) {
+            return AccountMailboxes.release(account, amount);
+        }
+        account.unreserve(amount);
+        return CompletableFuture.completedFuture(true);
+    }
+
+    /**
+     * Release a hold without debiting the account
+     * @param holdId Hold ID
+     * @param actor Who released the hold
+     * @return future completed with true once the hold is released and its funds are available again,
+     *         false if it was not active or its status could not be stored
+     */
+    public static CompletableFuture<Boolean> releaseHold(String holdId, String actor) {
+        ActiveHold entry = untrack(holdId);
+        if (entry == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        entry.hold.setStatus(Hold.Status.RELEASED);
+        boolean ok = Repositories.holds().updateStatuses(List.of(entry.hold));
+        AuditLogger.log("hold", actor, entry.account.getAccountNumber(), "release",
+                ok ? holdId : holdId + " status not stored", ok);
+        if (!ok) {
+            reactivate(entry);
+            return CompletableFuture.completedFuture(false);
+        }
+        return unreserve(entry.account, entry.hold.getAmount());
+    }
+
+    /**
+     * Capture a hold: debit the held amount from the account and close the hold.
+     * The hold is closed in storage before the debit, so a committed debit never leaves an active
+     * hold behind; if the debit then fails, the hold is reopened.
+     * With mailboxes enabled the debit runs on the account's lane and the future completes there.
+     * @param holdId Hold ID
+     * @param actor Who captured the hold
+     * @return future completed with true once the account was debited and the new balance committed
+     */
+    public static CompletableFuture<Boolean> captureHold(String holdId, String actor) {
+        long start = System.nanoTime();
+        ActiveHold entry = untrack(holdId);
+        if (entry == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        Account account = entry.account;
+        Hold hold = entry.hold;
+        hold.setStatus(Hold.Status.CAPTURED);
+        if (!Repositories.holds().updateStatuses(List.of(hold))) {
+            reactivate(entry);
+            AuditLogger.log("hold", actor, account.getAccountNumber(), "capture", holdId + " status not stored", false);
+            return CompletableFuture.completedFuture(false);
+        }
+        // With mailboxes enabled the account's lane debits, writes, records and publishes the capture
+        boolean lanes = AccountMailboxes.isEnabled();
+        CompletableFuture<String> debited = lanes
+                ? AccountMailboxes.capture(account, hold.getAmount(), actor)
+                        .thenApply(ok -> ok ? null : " debit refused or not committed")
+                : CompletableFuture.completedFuture(debit(account, hold.getAmount()));
+        return debited.thenApply(error -> {
+            if (error != null) {
+                hold.setStatus(Hold.Status.ACTIVE);
+                if (!Repositories.holds().updateStatuses(List.of(hold))) {
+                    System.err.println("❌ Hold " + holdId + " stays captured in storage although its debit failed");
+                }
+                reactivate(entry);
+                AuditLogger.log("hold", actor, account.getAccountNumber(), "capture", holdId + error, false);
+                return false;
+            }
+            AuditLogger.log("hold", actor, account.getAccountNumber(), "capture", holdId + " amount=" + hold.getAmount(), true);
+            if (!lanes) {
+                OperationsMetrics.recordPosting(account, -hold.getAmount(), System.nanoTime() - start);
+                BankEventBus.publish(BankEvent.accountDebited(account, hold.getAmount()));
+            }
+            return true;
+        });
+    }
+
+    // Turn the reservation into a debit and commit it; on failure the reservation is kept
+    private static String debit(Account account, double amount) {
+        synchronized (account) {
+            account.unreserve(amount);
+            String error = null;
+            if (!((Withdraw) account).withdraw(amount)) {
+                error = " insufficient funds";
+            } else if (!Repositories.accounts().updateBalances(List.of(account), 1).isEmpty()) {
+                account.compensate(amount);
+                error = " balance not committed";
+            }
+            if (error != null) {
+                // The hold was accepted before, so its reservation comes back without a balance check
+                account.forceReserve(amount);
+            }
+            return error;
+        }
+    }
+
+    /**
+     * @param accountNumber Account number
+     * @return active holds on the account
+     */
+    public static List<Hold> getActiveHolds(String accountNumber) {
+        List<Hold> holds = new ArrayList<>();
+        for (String holdId : activeByAccount.getOrDefault(accountNumber, Set.of())) {
+            ActiveHold entry = active.get(holdId);
+            if (entry != null) {
+                holds.add(entry.hold);
+            }
+        }
+        return holds;
+    }
+
+    public static int activeHoldCount() {
+        return active.size();
+    }
+
+    /**
+     * Re-attach active holds from the database to the loaded accounts and reschedule their expiry.
+     * Holds that lapsed while the application was down expire on the first tick.
+     * Runs while loading, before any message reaches the accounts' lanes.
+     * @param customers Loaded customers
+     */
+    public static void restore(List<Customer> customers) {
+        Map<String, Account> accounts = new HashMap<>();
+        for (Customer customer : customers) {
+            for (Account account : customer.getAccounts()) {
+                accounts.put(account.getAccountNumber(), account);
+            }
+        }
+        restore(accounts::get);
+    }
+
+    /**
+     * Re-attach active holds, resolving each hold's account through the given lookup
+     * @param accountLookup Returns the in-memory account for an account number, or null
+     */
+    public static void restore(Function<String, Account> accountLookup) {
+        int restored = 0;
+        for (Hold hold : Repositories.holds().loadActive()) {
+            Account account = accountLookup.apply(hold.getAccountNumber());
+            if (account == null || active.containsKey(hold.getHoldId())) {
+                continue;
+            }
+            account.forceReserve(hold.getAmount());
+            track(hold, account);
+            restored++;
+        }
+        if (restored > 0) {
+            System.out.println("💾 Restored " + restored + " active holds.");
+        }
+    }
+
+    /**
+     * Move the active holds of freshly loaded accounts onto them, reserving their funds again.
+     * A working set calls this when it faults a customer back in, since the evicted objects no
+     * longer see new activity.
+     * @param accounts Accounts just loaded
+     */
+    public static void reattach(List<Account> accounts) {
+        for (Account account : accounts) {
+            for (String holdId : activeByAccount.getOrDefault(account.getAccountNumber(), Set.of())) {
+                ActiveHold entry = active.get(holdId);
+                if (entry != null && entry.account != account) {
+                    entry.account = account;
+                    account.forceReserve(entry.hold.getAmount());
+                }
+            }
+        }
+    }
+
+    private static void track(Hold hold, Account account) {
+        schedule(new ActiveHold(hold, account));
+    }
+
+    private static void schedule(ActiveHold entry) {
+        active.put(entry.hold.getHoldId(), entry);
+        activeByAccount.computeIfAbsent(entry.hold.getAccountNumber(), number -> ConcurrentHashMap.newKeySet())
+                .add(entry.hold.getHoldId());
+        entry.timeout = wheel.schedule(entry.hold, entry.hold.getExpiresAt());
+    }
+
+    // Put back a hold whose release or capture did not go through; its reservation was never given back
+    private static void reactivate(ActiveHold entry) {
+        entry.hold.setStatus(Hold.Status.ACTIVE);
+        schedule(entry);
+    }
+
+    // Take a hold out of the active set; only the caller that gets the entry may settle the hold
+    private static ActiveHold untrack(String holdId) {
+        ActiveHold entry = active.remove(holdId);
+        if (entry == null) {
+            return null;
+        }
+        entry.timeout.cancel();
+        activeByAccount.computeIfPresent(entry.hold.getAccountNumber(), (number, ids) -> {
+            ids.remove(holdId);
+            return ids.isEmpty() ? null : ids;
+        });
+        return entry;
+    }
+
+    // Runs on the timing-wheel thread with every hold that came due in one tick
+    private static void expire(List<Hold> due) {
+        List<Hold> expired = new ArrayList<>(due.size());
+        for (Hold hold : due) {
+            ActiveHold entry = untrack(hold.getHoldId());
+            if (entry == null) {
+                continue;
+            }
+            unreserve(entry.account, hold.getAmount());
+            hold.setStatus(Hold.Status.EXPIRED);
+            expired.add(hold);
+        }
+        if (expired.isEmpty()) {
+            return;
+        }
+        // A status that is not written stays ACTIVE in storage; the hold is past its expiry, so a
+        // restore expires it again on the first tick
+        boolean ok = Repositories.holds().updateStatuses(expired);
+        AuditLogger.logAll(auditEntries(expired, ok));
+    }
+
+    private static List<AuditLogger.Entry> auditEntries(Collection<Hold> holds, boolean ok) {
+        List<AuditLogger.Entry> entries = new ArrayList<>(holds.size());
+        for (Hold hold : holds) {
+            entries.add(new AuditLogger.Entry("hold", "system", hold.getAccountNumber(), "expire",
+                    hold.getHoldId() + " amount=" + hold.getAmount(), ok));
+        }
+        return entries;
+    }
+
+    private static class ActiveHold {
+        final Hold hold;
+        // Replaced by reattach when a working set faults the account in again
+        volatile Account account;
+        volatile TimingWheel.Timeout<Hold> timeout;
+
+        ActiveHold(Hold hold, Account account) {
+            this.hold = hold;
+            this.account = account;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package bankmanagementsystem.model;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Storage for fund holds (see {@link HoldManager})
+ */
+public interface HoldRepository {
+    /**
+     * Store a new hold
+     * @return true if successful
+     */
+    boolean save(Hold hold);
+
+    /**
+     * Write the current status of the given holds together
+     * @return true if all were written
+     */
+    boolean updateStatuses(Collection<Hold> holds);
+
+    /**
+     * @return holds whose stored status is ACTIVE
+     */
+    List<Hold> loadActive();
+
+    /**
+     * @return largest number at the end of a stored hold ID, 0 if there is none, or -1 on error
+     */
+    long maxHoldNumber();
+}
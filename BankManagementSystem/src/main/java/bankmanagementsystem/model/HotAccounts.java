@@ -0,0 +1,253 @@
+package bankmanagementsystem.model;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in "hot account" mode for accounts that receive many concurrent credits (e.g. merchant
+ * settlements into a company account).
+ * Credits to a hot account land in one of N striped sub-balance slots, so they no longer serialize
+ * on a single balance or accounts row. A credit only touches memory; the slot amounts are added to
+ * their account_balance_slots rows by the next balance write of the account (in the same transaction
+ * as the main balance, see {@link AccountDAO#updateAccountBalances}), so many credits share one write
+ * and a rolled-back write leaves nothing behind.
+ * Reads return the main balance plus the slots; debits check that consolidated total. A background
+ * task periodically folds the slots into the main balance.
+ * Hot-account mode survives restarts: accounts that still have slot rows are re-enabled on load.
+ */
+public class HotAccounts {
+    public static final int DEFAULT_STRIPES = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final long FOLD_INTERVAL_MILLIS = Long.getLong("bank.hotAccounts.foldIntervalMillis", 1000L);
+
+    private static final Map<String, Account> hotAccounts = new ConcurrentHashMap<>();
+    private static ScheduledExecutorService folder;
+
+    /**
+     * Enable hot-account mode with one slot per CPU core
+     * @param account Account to enable
+     * @return true if enabled, false otherwise
+     */
+    public static boolean enable(Account account) {
+        return enable(account, DEFAULT_STRIPES);
+    }
+
+    /**
+     * Enable hot-account mode
+     * @param account Account to enable
+     * @param stripes Number of sub-balance slots
+     * @return true if enabled (or already hot), false otherwise
+     */
+    public static synchronized boolean enable(Account account, int stripes) {
+        if (account.stripes != null) {
+            return true;
+        }
+        if (!AccountBalanceSlotDAO.createSlots(account.getAccountNumber(), stripes)) {
+            AuditLogger.log("account", "system", account.getAccountNumber(), "hot_enable", "slot rows not created", false);
+            return false;
+        }
+        account.stripes = new StripedBalance(stripes);
+        hotAccounts.put(account.getAccountNumber(), account);
+        startFolder();
+        AuditLogger.log("account", "system", account.getAccountNumber(), "hot_enable", "stripes=" + stripes, true);
+        return true;
+    }
+
+    /**
+     * Fold any outstanding credits and switch the account back to a single balance
+     * @param account Account to disable
+     * @return true if disabled, false if the final fold failed
+     */
+    public static boolean disable(Account account) {
+        if (AccountMailboxes.isEnabled()) {
+            // The account's lane changes its balance without the monitor, so it stays parked during the fold
+            return AccountMailboxes.exclusive(List.of(account), () -> disableNow(account));
+        }
+        return disableNow(account);
+    }
+
+    private static synchronized boolean disableNow(Account account) {
+        if (account.stripes == null) {
+            return true;
+        }
+        StripedBalance stripes = account.stripes;
+        // Credits wait for the slots until the account is back on its main balance
+        stripes.writes.lock();
+        stripes.lockAll();
+        try {
+            if (!fold(account)) {
+                return false;
+            }
+            account.stripes = null;
+        } finally {
+            stripes.unlockAll();
+            stripes.writes.unlock();
+        }
+        hotAccounts.remove(account.getAccountNumber());
+        AccountBalanceSlotDAO.deleteSlots(account.getAccountNumber());
+        AuditLogger.log("account", "system", account.getAccountNumber(), "hot_disable", "folded and disabled", true);
+        return true;
+    }
+
+    /**
+     * @param accountNumber Account number
+     * @return true if the account is currently in hot-account mode
+     */
+    public static boolean isHot(String accountNumber) {
+        return hotAccounts.containsKey(accountNumber);
+    }
+
+    /**
+     * Credit a hot account: add to one slot in memory. Called from {@link Account#deposit(double)};
+     * the amount reaches the slot row with the account's next balance write.
+     * @param account Hot account
+     * @param amount Amount to credit (negative to take back a credit whose write failed)
+     * @return true if credited, false if the account left hot-account mode meanwhile
+     */
+    static boolean credit(Account account, double amount) {
+        StripedBalance stripes = account.stripes;
+        if (stripes == null) {
+            return false;
+        }
+        int slot = stripes.lockSlot();
+        try {
+            if (account.stripes != stripes) {
+                return false; // disabled while this thread waited for the slot
+            }
+            stripes.add(slot, amount);
+            return true;
+        } finally {
+            stripes.unlock(slot);
+        }
+    }
+
+    /**
+     * Lock a hot account's slot rows for a balance write; pair with {@link #endWrite(Account)}.
+     * Lock several accounts in account number order.
+     * @return per-slot amounts credited since the last balance write, to be added to the slot rows in
+     *         the write's transaction, or null if the account is not hot or nothing is unsaved
+     */
+    static double[] beginWrite(Account account) {
+        StripedBalance stripes = account.stripes;
+        if (stripes == null) {
+            return null;
+        }
+        stripes.writes.lock();
+        if (account.stripes != stripes) {
+            stripes.writes.unlock();
+            return null;
+        }
+        return stripes.drain();
+    }
+
+    static void endWrite(Account account) {
+        StripedBalance stripes = account.stripes;
+        if (stripes != null && stripes.writes.isHeldByCurrentThread()) {
+            stripes.writes.unlock();
+        }
+    }
+
+    /**
+     * Give back slot amounts whose balance write was rolled back
+     */
+    static void restoreUnsaved(Account account, double[] drained) {
+        // The caller still holds the account's write lock, so the slots cannot have been folded meanwhile
+        account.stripes.undrain(drained);
+    }
+
+    /**
+     * Move the slot totals of a hot account into its main balance
+     * @param account Hot account
+     * @return true if folded (or nothing to fold), false if the database update failed
+     */
+    public static boolean fold(Account account) {
+        StripedBalance stripes = account.stripes;
+        if (stripes == null) {
+            return true;
+        }
+        stripes.writes.lock();
+        stripes.lockAll();
+        try {
+            double pending = stripes.sum();
+            if (pending == 0) {
+                return true;
+            }
+            synchronized (account) {
+                double newBalance = account.balance + pending;
+                if (!AccountBalanceSlotDAO.foldSlots(account.getAccountNumber(), newBalance)) {
+                    return false;
+                }
+                account.balance = newBalance;
+                for (int i = 0; i < stripes.stripes(); i++) {
+                    stripes.set(i, 0);
+                }
+            }
+            return true;
+        } finally {
+            stripes.unlockAll();
+            stripes.writes.unlock();
+        }
+    }
+
+    /**
+     * Fold every hot account (run periodically by the background folder)
+     */
+    public static void foldAll() {
+        for (Account account : hotAccounts.values()) {
+            if (AccountMailboxes.isEnabled()) {
+                // On the account's lane, the only thread that changes its balance
+                AccountMailboxes.fold(account);
+            } else {
+                fold(account);
+            }
+        }
+    }
+
+    /**
+     * Re-enable hot-account mode for loaded accounts that still have slot rows, restoring the
+     * un-folded slot values so the consolidated balance matches the database
+     * @param accounts Accounts just loaded from the database
+     */
+    public static synchronized void restore(List<Account> accounts) {
+        if (!DatabaseConfig.hasDatabase()) {
+            return;
+        }
+        Map<String, double[]> slots = AccountBalanceSlotDAO.loadAllSlots();
+        if (slots.isEmpty()) {
+            return;
+        }
+        for (Account account : accounts) {
+            double[] values = slots.get(account.getAccountNumber());
+            if (values == null || values.length == 0) {
+                continue;
+            }
+            StripedBalance stripes = new StripedBalance(values.length);
+            stripes.lockAll();
+            for (int i = 0; i < values.length; i++) {
+                stripes.set(i, values[i]);
+            }
+            stripes.unlockAll();
+            account.stripes = stripes;
+            hotAccounts.put(account.getAccountNumber(), account);
+        }
+        if (!hotAccounts.isEmpty()) {
+            System.out.println("🔥 Restored hot-account mode for " + hotAccounts.size() + " accounts");
+            startFolder();
+        }
+    }
+
+    private static void startFolder() {
+        if (folder != null) {
+            return;
+        }
+        folder = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "hot-account-folder");
+            t.setDaemon(true);
+            return t;
+        });
+        folder.scheduleWithFixedDelay(HotAccounts::foldAll, FOLD_INTERVAL_MILLIS, FOLD_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,152 @@
+package bankmanagementsystem.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Hi/lo ID allocator backed by the id_sequences table.
+ * Each allocator reserves a block of sequence numbers in one short database transaction and then
+ * hands them out from memory with a single atomic increment, so an allocation normally costs a few
+ * nanoseconds and only one in {@code blockSize} calls touches the database. Because blocks are
+ * reserved under a row lock, IDs stay unique across application instances sharing the database.
+ * A new sequence starts above the largest ID already stored, read with one MAX query when its row is
+ * created.
+ * If no block can be reserved, allocation fails rather than risk handing out an ID another instance
+ * also gets. Unused values of a block are skipped after a restart; IDs are unique, not gapless.
+ */
+public class IdAllocator {
+    public static final IdAllocator CUSTOMERS = new IdAllocator("customer", 100, IdAllocator::customerIdFloor);
+    // One sequence for all account numbers, whatever prefix the caller formats them with
+    public static final IdAllocator ACCOUNTS = new IdAllocator("account", 1000, IdAllocator::accountNumberFloor);
+    public static final IdAllocator HOLDS = new IdAllocator("hold", 1000, IdAllocator::holdIdFloor);
+    /** Digits in an account number, whatever its prefix */
+    public static final int ACCOUNT_NUMBER_WIDTH = 6;
+
+    private final String name;
+    private final int blockSize;
+    private final LongSupplier floor;
+    private volatile Block block = new Block(0, 0);
+    private boolean seeded;
+
+    /**
+     * @param name Sequence name (row in id_sequences)
+     * @param blockSize Number of values reserved per database round trip
+     * @param floor First value of a new sequence; evaluated when the sequence row is created, or once per
+     *              process with the in-memory repositories
+     */
+    public IdAllocator(String name, int blockSize, LongSupplier floor) {
+        this.name = name;
+        this.blockSize = blockSize;
+        this.floor = floor;
+    }
+
+    /**
+     * @return next value of the sequence
+     * @throws IllegalStateException if a new block was needed and could not be reserved
+     */
+    public long next() {
+        while (true) {
+            Block current = block;
+            long value = current.next.getAndIncrement();
+            if (value < current.end) {
+                return value;
+            }
+            refill(current);
+        }
+    }
+
+    /**
+     * @param prefix ID prefix, e.g. "C" or "ACC"
+     * @param width Minimum number of digits (zero padded)
+     * @return formatted ID such as C001 or ACC000123
+     * @throws IllegalStateException if a new block was needed and could not be reserved
+     */
+    public String nextId(String prefix, int width) {
+        return prefix + String.format("%0" + width + "d", next());
+    }
+
+    /**
+     * @return next customer ID, such as C001
+     * @throws IllegalStateException if a new block was needed and could not be reserved
+     */
+    public static String nextCustomerId() {
+        return CUSTOMERS.nextId("C", 3);
+    }
+
+    /**
+     * @param prefix Account number prefix, e.g. "ACC" or "SA"
+     * @return next account number, such as ACC000123
+     * @throws IllegalStateException if a new block was needed and could not be reserved
+     */
+    public static String nextAccountNumber(String prefix) {
+        return ACCOUNTS.nextId(prefix, ACCOUNT_NUMBER_WIDTH);
+    }
+
+    private synchronized void refill(Block exhausted) {
+        if (block != exhausted) {
+            return; // another thread already installed a fresh block
+        }
+        long start;
+        if (!DatabaseConfig.hasDatabase()) {
+            // In-memory repositories: this process is the only writer, so local blocks are unique
+            start = seeded ? exhausted.end : Math.max(1, floor.getAsLong());
+        } else {
+            start = IdSequenceDAO.reserveBlock(name, blockSize, () -> Math.max(1, floor.getAsLong()));
+            if (start < 0) {
+                throw new IllegalStateException("No block of IDs could be reserved for sequence " + name);
+            }
+        }
+        seeded = true;
+        block = new Block(start, start + blockSize);
+    }
+
+    // Floors come from the stored rows, not the in-memory book, which in working-set mode only
+    // holds the resident customers
+    static long customerIdFloor() {
+        long max = Repositories.customers().maxCustomerNumber();
+        if (max < 0) {
+            throw new IllegalStateException("Stored customer IDs could not be read");
+        }
+        return max + 1;
+    }
+
+    static long accountNumberFloor() {
+        long max = Repositories.accounts().maxAccountNumber();
+        if (max < 0) {
+            throw new IllegalStateException("Stored account numbers could not be read");
+        }
+        return max + 1;
+    }
+
+    static long holdIdFloor() {
+        long max = Repositories.holds().maxHoldNumber();
+        if (max < 0) {
+            throw new IllegalStateException("Stored hold IDs could not be read");
+        }
+        return max + 1;
+    }
+
+    /**
+     * @param id ID such as C012, ACC004512 or SA0003
+     * @return its trailing number, or 0 if it has none
+     */
+    static long numericSuffix(String id) {
+        if (id == null) return 0;
+        int i = id.length();
+        while (i > 0 && Character.isDigit(id.charAt(i - 1))) {
+            i--;
+        }
+        return i < id.length() && id.length() - i < 19 ? Long.parseLong(id.substring(i)) : 0;
+    }
+
+    // Immutable range [next, end); only the cursor moves
+    private static class Block {
+        final AtomicLong next;
+        final long end;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package bankmanagementsystem.model;
+
+import java.sql.*;
+import java.util.function.LongSupplier;
+
+/**
+ * Data Access Object for named ID sequences (id_sequences table)
+ */
+public class IdSequenceDAO {
+    private static final SqlDialect.Table SEQUENCES = new SqlDialect.Table("id_sequences",
+            new String[] {"name", "next_value"}, new String[] {"name"}, new String[0]);
+
+    /**
+     * Create the id_sequences table if it does not exist yet (see {@link DatabaseConfig})
+     */
+    public static void ensureTable() {
+        String sql = "CREATE TABLE IF NOT EXISTS id_sequences (" +
+                    "name VARCHAR(50) PRIMARY KEY, " +
+                    "next_value BIGINT NOT NULL)";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        } catch (SQLException e) {
+            System.err.println("❌ Error creating id_sequences table: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reserve a block of values from a sequence. The sequence row is locked for the duration of the
+     * transaction, so concurrent callers (in this or any other process) always get disjoint blocks.
+     * @param name Sequence name
+     * @param blockSize Number of values to reserve
+     * @param floor First value of a sequence that has no row yet (seeds it above existing IDs); only
+     *              evaluated when the row is missing
+     * @return first value of the reserved block, or -1 if the reservation failed
+     */
+    public static long reserveBlock(String name, int blockSize, LongSupplier floor) {
+        String existsSql = "SELECT 1 FROM id_sequences WHERE name = ?";
+        String insertSql = SqlDialect.current().insertIfAbsent(SEQUENCES);
+        String selectSql = "SELECT next_value FROM id_sequences WHERE name = ? FOR UPDATE";
+        String updateSql = "UPDATE id_sequences SET next_value = ? WHERE name = ?";
+
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            boolean exists;
+            try (PreparedStatement stmt = conn.prepareStatement(existsSql)) {
+                stmt.setString(1, name);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    exists = rs.next();
+                }
+            }
+
+            conn.setAutoCommit(false);
+            try (PreparedStatement insert = conn.prepareStatement(insertSql);
+                 PreparedStatement select = conn.prepareStatement(selectSql);
+                 PreparedStatement update = conn.prepareStatement(updateSql)) {
+
+                if (!exists) {
+                    // Another process may create the row first; then its value wins
+                    insert.setString(1, name);
+                    insert.setLong(2, floor.getAsLong());
+                    insert.executeUpdate();
+                }
+
+                select.setString(1, name);
+                long start;
+                try (ResultSet rs = select.executeQuery()) {
+                    if (!rs.next()) {
+                        conn.rollback();
+                        return -1;
+                    }
+                    start = rs.getLong("next_value");
+                }
+
+                update.setLong(1, start + blockSize);
+                update.setString(2, name);
+                update.executeUpdate();
+                conn.commit();
+                return start;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Error reserving ID block for " + name + ": " + e.getMessage());
+            return -1;
+        }
+    }
+}
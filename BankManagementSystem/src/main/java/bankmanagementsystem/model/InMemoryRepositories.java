@@ -0,0 +1,560 @@
+package bankmanagementsystem.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Repositories held in concurrent in-process maps (-Dbank.repository=memory).
+ * Like a database, the store keeps copies of the rows rather than the objects it was given: every
+ * load builds new Customer/Account/CustomerCredentials objects, and changing an object has no effect
+ * until it is saved. Rows are keyed in sorted maps so ID-ordered loads and keyset pages behave like
+ * the SQL versions; customers also have one sorted index per browser sort key, like the indexes the
+ * SQL version pages through. Nothing survives a restart.
+ */
+class InMemoryRepositories {
+    private final NavigableMap<String, CustomerRecord> customers = new ConcurrentSkipListMap<>();
+    private final Map<CustomerRow.SortKey, NavigableSet<SortEntry>> customersBySort = new EnumMap<>(CustomerRow.SortKey.class);
+    private final Map<String, List<String>> links = new ConcurrentHashMap<>();
+    private final NavigableMap<String, AccountRecord> accounts = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<String>> accountsByCustomer = new ConcurrentHashMap<>();
+    private final NavigableMap<String, CustomerCredentials> credentials = new ConcurrentSkipListMap<>();
+    private final Map<String, String> customerIdByUsername = new ConcurrentHashMap<>();
+    private final Map<String, String> customerIdByEmail = new ConcurrentHashMap<>();
+    private final NavigableMap<String, Hold> holds = new ConcurrentSkipListMap<>();
+
+    InMemoryRepositories() {
+        for (CustomerRow.SortKey sort : CustomerRow.SortKey.values()) {
+            customersBySort.put(sort, new ConcurrentSkipListSet<>(SortEntry.ORDER));
+        }
+    }
+
+    CustomerRepository customers() {
+        return new Customers();
+    }
+
+    AccountRepository accounts() {
+        return new Accounts();
+    }
+
+    CredentialsRepository credentials() {
+        return new Credentials();
+    }
+
+    LinkRepository links() {
+        return customer -> {
+            links.put(customer.getCustomerId(), List.copyOf(customer.getLinkedAccountNumbers()));
+            return true;
+        };
+    }
+
+    HoldRepository holds() {
+        return new Holds();
+    }
+
+    private static final class CustomerRecord {
+        final String customerId;
+        final String firstName;
+        final String lastName;
+        final String address;
+        final String customerType;
+        final String nationalId;
+        final String companyName;
+        final String companyAddress;
+
+        CustomerRecord(Customer customer) {
+            this.customerId = customer.getCustomerId();
+            this.firstName = customer.getFirstName();
+            this.lastName = customer.getLastName();
+            this.address = customer.getAddress();
+            if (customer instanceof CompanyCustomer) {
+                CompanyCustomer cc = (CompanyCustomer) customer;
+                this.customerType = "COMPANY";
+                this.nationalId = null;
+                this.companyName = cc.getCompanyName();
+                this.companyAddress = cc.getCompanyAddress();
+            } else {
+                this.customerType = "PERSONAL";
+                this.nationalId = customer instanceof PersonalCustomer ? ((PersonalCustomer) customer).getNationalId() : null;
+                this.companyName = null;
+                this.companyAddress = null;
+            }
+        }
+
+        Customer toCustomer() {
+            if ("COMPANY".equals(customerType)) {
+                return new CompanyCustomer(customerId, firstName, lastName, address, companyName, companyAddress);
+            }
+            return new PersonalCustomer(customerId, firstName, lastName, address, nationalId);
+        }
+
+        // True if the value starts with the lower-case prefix, ignoring case like the SQL version
+        static boolean startsWith(String value, String prefix) {
+            return value != null && value.toLowerCase(Locale.ROOT).startsWith(prefix);
+        }
+
+        String sortValue(CustomerRow.SortKey sort) {
+            switch (sort) {
+                case FIRST_NAME: return firstName;
+                case LAST_NAME: return lastName;
+                case TYPE: return customerType;
+                default: return customerId;
+            }
+        }
+    }
+
+    // Position of a customer in one sort order: the sort column, then the customer ID as tie-breaker
+    private static final class SortEntry {
+        static final Comparator<SortEntry> ORDER = Comparator
+                .comparing((SortEntry e) -> e.value, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+                .thenComparing(e -> e.customerId);
+
+        final String value;
+        final String customerId;
+
+        SortEntry(String value, String customerId) {
+            this.value = value;
+            this.customerId = customerId;
+        }
+    }
+
+    private static final class AccountRecord {
+        final String accountNumber;
+        final String customerId;
+        final String accountType;
+        final double balance;
+        final String branch;
+        final boolean closed;
+        final String employerName;
+        final String employerAddress;
+
+        AccountRecord(Account account) {
+            this(account.getAccountNumber(), account.getCustomer().getCustomerId(), account.getClass().getSimpleName(),
+                    account.getPostedBalance(), account.getBranch(), account.isClosed(),
+                    account instanceof ChequeAccount ? ((ChequeAccount) account).getEmployerName() : null,
+                    account instanceof ChequeAccount ? ((ChequeAccount) account).getEmployerAddress() : null);
+        }
+
+        AccountRecord(String accountNumber, String customerId, String accountType, double balance, String branch,
+                      boolean closed, String employerName, String employerAddress) {
+            this.accountNumber = accountNumber;
+            this.customerId = customerId;
+            this.accountType = accountType;
+            this.balance = balance;
+            this.branch = branch;
+            this.closed = closed;
+            this.employerName = employerName;
+            this.employerAddress = employerAddress;
+        }
+
+        AccountRecord withBalance(double newBalance) {
+            return new AccountRecord(accountNumber, customerId, accountType, newBalance, branch, closed, employerName, employerAddress);
+        }
+
+        AccountRecord closed() {
+            return new AccountRecord(accountNumber, customerId, accountType, balance, branch, true, employerName, employerAddress);
+        }
+
+        Account toAccount(Customer owner) {
+            Account account;
+            switch (accountType) {
+                case "SavingsAccount":
+                    account = new SavingsAccount(accountNumber, owner, branch, balance);
+                    break;
+                case "ChequeAccount":
+                    account = new ChequeAccount(accountNumber, owner, branch, balance, employerName, employerAddress);
+                    break;
+                case "InvestmentAccount":
+                    account = new InvestmentAccount(accountNumber, owner, branch, balance);
+                    break;
+                default:
+                    System.err.println("❌ Unknown account type: " + accountType);
+                    return null;
+            }
+            account.setClosed(closed);
+            return account;
+        }
+    }
+
+    private class Customers implements CustomerRepository {
+        // Synchronized so the sort indexes always follow the latest record of each customer
+        @Override
+        public synchronized boolean save(Customer customer) {
+            CustomerRecord record = new CustomerRecord(customer);
+            CustomerRecord previous = customers.put(record.customerId, record);
+            for (Map.Entry<CustomerRow.SortKey, NavigableSet<SortEntry>> index : customersBySort.entrySet()) {
+                if (previous != null) {
+                    index.getValue().remove(new SortEntry(previous.sortValue(index.getKey()), previous.customerId));
+                }
+                index.getValue().add(new SortEntry(record.sortValue(index.getKey()), record.customerId));
+            }
+            return true;
+        }
+
+        @Override
+        public List<Customer> loadAll() {
+            List<Customer> result = new ArrayList<>(customers.size());
+            for (CustomerRecord record : customers.values()) {
+                result.add(withLinks(record.toCustomer()));
+            }
+            return result;
+        }
+
+        @Override
+        public Customer findById(String customerId) {
+            CustomerRecord record = customers.get(customerId);
+            return record != null ? withLinks(record.toCustomer()) : null;
+        }
+
+        @Override
+        public List<Customer> loadAfter(String afterCustomerId, int limit) {
+            List<Customer> result = new ArrayList<>();
+            Collection<CustomerRecord> tail = afterCustomerId != null
+                    ? customers.tailMap(afterCustomerId, false).values()
+                    : customers.values();
+            for (CustomerRecord record : tail) {
+                if (result.size() >= limit) break;
+                result.add(record.toCustomer());
+            }
+            return result;
+        }
+
+        @Override
+        public List<CustomerRow> loadPage(CustomerRow after, int limit, Collection<String> customerIds, CustomerRow.SortKey sort, boolean ascending) {
+            NavigableSet<SortEntry> order;
+            if (customerIds == null) {
+                // Walk the sort index from the keyset position, like the SQL version's indexed scan
+                order = customersBySort.get(sort);
+            } else {
+                // A search result is small, so its rows are sorted here
+                order = new TreeSet<>(SortEntry.ORDER);
+                for (String customerId : customerIds) {
+                    CustomerRecord record = customers.get(customerId);
+                    if (record != null) order.add(new SortEntry(record.sortValue(sort), record.customerId));
+                }
+            }
+            if (!ascending) {
+                order = order.descendingSet();
+            }
+            if (after != null) {
+                order = order.tailSet(new SortEntry(sort.valueOf(after), after.getCustomerId()), false);
+            }
+
+            List<CustomerRow> rows = new ArrayList<>();
+            for (SortEntry entry : order) {
+                if (rows.size() >= limit) break;
+                CustomerRecord record = customers.get(entry.customerId);
+                if (record == null) continue;
+                Set<String> owned = accountsByCustomer.get(record.customerId);
+                rows.add(new CustomerRow(record.customerId, record.firstName, record.lastName, record.customerType,
+                        "COMPANY".equals(record.customerType) ? record.companyName : record.nationalId,
+                        owned != null ? owned.size() : 0));
+            }
+            return rows;
+        }
+
+        @Override
+        public List<String> searchIds(String[] words, int limit) {
+            List<String> ids = new ArrayList<>();
+            if (words.length == 0) {
+                return ids;
+            }
+            for (CustomerRecord record : customers.values()) {
+                if (ids.size() >= limit) break;
+                boolean all = true;
+                for (String word : words) {
+                    all &= CustomerRecord.startsWith(record.firstName, word) || CustomerRecord.startsWith(record.lastName, word)
+                            || CustomerRecord.startsWith(record.customerId, word) || CustomerRecord.startsWith(record.nationalId, word)
+                            || CustomerRecord.startsWith(record.companyName, word);
+                }
+                if (all) ids.add(record.customerId);
+            }
+            return ids;
+        }
+
+        @Override
+        public List<Customer> findDuplicateCandidates(Customer probe, int limit) {
+            String nationalId = probe instanceof PersonalCustomer ? ((PersonalCustomer) probe).getNationalId() : null;
+            String companyName = probe instanceof CompanyCustomer ? ((CompanyCustomer) probe).getCompanyName() : null;
+            List<Customer> candidates = new ArrayList<>();
+            for (CustomerRecord record : customers.values()) {
+                if (candidates.size() >= limit) break;
+                if ((nationalId != null && nationalId.equals(record.nationalId))
+                        || (companyName != null && companyName.equals(record.companyName))
+                        || Objects.equals(probe.getLastName(), record.lastName)) {
+                    candidates.add(record.toCustomer());
+                }
+            }
+            return candidates;
+        }
+
+        @Override
+        public boolean forEach(Consumer<Customer> consumer) {
+            for (CustomerRecord record : customers.values()) {
+                consumer.accept(record.toCustomer());
+            }
+            return true;
+        }
+
+        @Override
+        public long maxCustomerNumber() {
+            long max = 0;
+            for (String customerId : customers.keySet()) {
+                max = Math.max(max, IdAllocator.numericSuffix(customerId));
+            }
+            return max;
+        }
+
+        @Override
+        public int count() {
+            return customers.size();
+        }
+
+        private Customer withLinks(Customer customer) {
+            for (String accountNumber : links.getOrDefault(customer.getCustomerId(), List.of())) {
+                customer.addLinkedAccountNumber(accountNumber);
+            }
+            return customer;
+        }
+    }
+
+    private class Accounts implements AccountRepository {
+        @Override
+        public boolean save(Account account) {
+            AccountRecord record = new AccountRecord(account);
+            AccountRecord previous = accounts.put(record.accountNumber, record);
+            if (previous != null && !previous.customerId.equals(record.customerId)) {
+                Set<String> owned = accountsByCustomer.get(previous.customerId);
+                if (owned != null) owned.remove(record.accountNumber);
+            }
+            accountsByCustomer.computeIfAbsent(record.customerId, id -> new ConcurrentSkipListSet<>()).add(record.accountNumber);
+            return true;
+        }
+
+        @Override
+        public List<Account> loadAll(List<Customer> owners) {
+            return materialize(accounts.values(), owners);
+        }
+
+        @Override
+        public List<Account> findByCustomerId(String customerId, List<Customer> owners) {
+            return materialize(recordsOf(List.of(customerId)), owners);
+        }
+
+        @Override
+        public List<Account> findByCustomers(List<Customer> owners) {
+            List<String> ids = new ArrayList<>(owners.size());
+            for (Customer owner : owners) {
+                ids.add(owner.getCustomerId());
+            }
+            return materialize(recordsOf(ids), owners);
+        }
+
+        @Override
+        public String findOwnerId(String accountNumber) {
+            AccountRecord record = accounts.get(accountNumber);
+            return record != null ? record.customerId : null;
+        }
+
+        @Override
+        public boolean updateBalance(String accountNumber, double newBalance) {
+            return accounts.computeIfPresent(accountNumber, (number, record) -> record.withBalance(newBalance)) != null;
+        }
+
+        @Override
+        public Set<String> updateBalances(Collection<Account> toUpdate, int chunkSize) {
+            Set<String> failed = new HashSet<>();
+            for (Account account : toUpdate) {
+                AccountRecord updated = accounts.computeIfPresent(account.getAccountNumber(), (number, record) -> {
+                    AccountRecord withBalance = record.withBalance(account.getPostedBalance());
+                    return account.isClosed() ? withBalance.closed() : withBalance;
+                });
+                if (updated == null) {
+                    failed.add(account.getAccountNumber());
+                }
+            }
+            return failed;
+        }
+
+        @Override
+        public boolean close(String accountNumber) {
+            return accounts.computeIfPresent(accountNumber, (number, record) -> record.closed()) != null;
+        }
+
+        @Override
+        public int count() {
+            return accounts.size();
+        }
+
+        @Override
+        public long maxAccountNumber() {
+            long max = 0;
+            for (String accountNumber : accounts.keySet()) {
+                max = Math.max(max, IdAllocator.numericSuffix(accountNumber));
+            }
+            return max;
+        }
+
+        @Override
+        public double totalBalance() {
+            double total = 0;
+            for (AccountRecord record : accounts.values()) {
+                if (!record.closed) total += record.balance;
+            }
+            return total;
+        }
+
+        private List<AccountRecord> recordsOf(List<String> customerIds) {
+            List<AccountRecord> records = new ArrayList<>();
+            for (String customerId : customerIds) {
+                for (String accountNumber : accountsByCustomer.getOrDefault(customerId, Set.of())) {
+                    AccountRecord record = accounts.get(accountNumber);
+                    if (record != null) records.add(record);
+                }
+            }
+            records.sort(Comparator.comparing(r -> r.accountNumber));
+            return records;
+        }
+
+        private List<Account> materialize(Collection<AccountRecord> records, List<Customer> owners) {
+            Map<String, Customer> ownersById = new HashMap<>();
+            for (Customer owner : owners) {
+                ownersById.put(owner.getCustomerId(), owner);
+            }
+            List<Account> result = new ArrayList<>();
+            for (AccountRecord record : records) {
+                Customer owner = ownersById.get(record.customerId);
+                if (owner == null) {
+                    continue;
+                }
+                Account account = record.toAccount(owner);
+                if (account != null) result.add(account);
+            }
+            return result;
+        }
+    }
+
+    // Holds are kept as copies too, so a status change only counts once it is written
+    private class Holds implements HoldRepository {
+        @Override
+        public boolean save(Hold hold) {
+            return holds.putIfAbsent(hold.getHoldId(), copy(hold, hold.getStatus())) == null;
+        }
+
+        @Override
+        public boolean updateStatuses(Collection<Hold> toUpdate) {
+            boolean ok = true;
+            for (Hold hold : toUpdate) {
+                ok &= holds.computeIfPresent(hold.getHoldId(), (id, stored) -> copy(stored, hold.getStatus())) != null;
+            }
+            return ok;
+        }
+
+        @Override
+        public List<Hold> loadActive() {
+            List<Hold> active = new ArrayList<>();
+            for (Hold stored : holds.values()) {
+                if (stored.isActive()) active.add(copy(stored, Hold.Status.ACTIVE));
+            }
+            return active;
+        }
+
+        @Override
+        public long maxHoldNumber() {
+            long max = 0;
+            for (String holdId : holds.keySet()) {
+                max = Math.max(max, IdAllocator.numericSuffix(holdId));
+            }
+            return max;
+        }
+
+        private Hold copy(Hold hold, Hold.Status status) {
+            return new Hold(hold.getHoldId(), hold.getAccountNumber(), hold.getType(), hold.getAmount(),
+                    hold.getCreatedAt(), hold.getExpiresAt(), hold.getReference(), status);
+        }
+    }
+
+    private class Credentials implements CredentialsRepository {
+        @Override
+        public synchronized boolean save(CustomerCredentials cred) {
+            CustomerCredentials previous = credentials.put(cred.getCustomerId(), copy(cred));
+            if (previous != null) {
+                customerIdByUsername.remove(previous.getUsername());
+                if (previous.getEmail() != null) customerIdByEmail.remove(previous.getEmail());
+            }
+            customerIdByUsername.put(cred.getUsername(), cred.getCustomerId());
+            if (cred.getEmail() != null) customerIdByEmail.put(cred.getEmail(), cred.getCustomerId());
+            return true;
+        }
+
+        @Override
+        public List<CustomerCredentials> loadAll() {
+            List<CustomerCredentials> result = new ArrayList<>(credentials.size());
+            for (CustomerCredentials cred : credentials.values()) {
+                result.add(copy(cred));
+            }
+            return result;
+        }
+
+        @Override
+        public CustomerCredentials findByUsername(String username) {
+            String customerId = customerIdByUsername.get(username);
+            CustomerCredentials cred = customerId != null ? credentials.get(customerId) : null;
+            return cred != null && cred.isActive() ? copy(cred) : null;
+        }
+
+        @Override
+        public boolean isUsernameAvailable(String username) {
+            return !customerIdByUsername.containsKey(username);
+        }
+
+        @Override
+        public boolean isEmailAvailable(String email) {
+            return !customerIdByEmail.containsKey(email);
+        }
+
+        @Override
+        public boolean forEachUsernameAndEmail(BiConsumer<String, String> consumer) {
+            for (CustomerCredentials cred : credentials.values()) {
+                consumer.accept(cred.getUsername(), cred.getEmail());
+            }
+            return true;
+        }
+
+        @Override
+        public int count() {
+            return credentials.size();
+        }
+
+        @Override
+        public int countActive() {
+            int active = 0;
+            for (CustomerCredentials cred : credentials.values()) {
+                if (cred.isActive()) active++;
+            }
+            return active;
+        }
+
+        private CustomerCredentials copy(CustomerCredentials cred) {
+            CustomerCredentials copy = new CustomerCredentials(cred.getCustomerId(), cred.getUsername(), cred.getPassword(), cred.getEmail());
+            copy.setActive(cred.isActive());
+            return copy;
+        }
+    }
+}
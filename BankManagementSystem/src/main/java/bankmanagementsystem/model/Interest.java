@@ -1,5 +1,14 @@
 package bankmanagementsystem.model;
 
 public interface Interest {
-    void calculateInterest();
+    /**
+     * Credit the interest due
+     * @return the amount credited
+     */
+    double calculateInterest();
+
+    /**
+     * @return the rate {@link #calculateInterest()} applies to the balance
+     */
+    double getInterestRate();
 }
@@ -7,15 +7,22 @@ public class InvestmentAccount extends Account implements Interest, Withdraw {
     }
 
     @Override
-    public void calculateInterest() {
-        double interest = balance * 0.05;
-        balance += interest;
+    public synchronized double calculateInterest() {
+        return creditInterestUnlocked(getInterestRate());
     }
 
     @Override
-    public void withdraw(double amount) {
-        if (amount <= balance) balance -= amount;
-        else System.out.println("Insufficient funds.");
+    public double getInterestRate() {
+        return 0.05;
+    }
+
+    @Override
+    public synchronized boolean withdraw(double amount) {
+        if (withdrawUnlocked(amount)) {
+            return true;
+        }
+        System.out.println("Insufficient funds.");
+        return false;
     }
 
     @Override
@@ -0,0 +1,227 @@
+package bankmanagementsystem.model;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Repositories backed by the JDBC DAOs, for both MySQL and embedded H2 (the connection comes from
+ * {@link DatabaseConfig}, which points at whichever database {@link Repositories} selected)
+ */
+class JdbcRepositories {
+
+    static class Customers implements CustomerRepository {
+        // The embedded schema is created with these indexes already
+        private volatile boolean browseIndexesChecked = DatabaseConfig.isEmbedded();
+
+        @Override
+        public boolean save(Customer customer) {
+            return CustomerDAO.saveCustomer(customer);
+        }
+
+        @Override
+        public boolean saveAll(Collection<Customer> customers) {
+            return CustomerDAO.saveCustomers(customers);
+        }
+
+        @Override
+        public List<Customer> loadAll() {
+            return CustomerDAO.loadCustomers();
+        }
+
+        @Override
+        public Customer findById(String customerId) {
+            return CustomerDAO.findCustomerById(customerId);
+        }
+
+        @Override
+        public List<Customer> loadAfter(String afterCustomerId, int limit) {
+            return CustomerDAO.loadCustomersAfter(afterCustomerId, limit);
+        }
+
+        @Override
+        public List<CustomerRow> loadPage(CustomerRow after, int limit, Collection<String> customerIds, CustomerRow.SortKey sort, boolean ascending) {
+            ensureBrowseIndexes();
+            return CustomerDAO.loadCustomersPage(after, limit, customerIds, sort, ascending);
+        }
+
+        @Override
+        public List<String> searchIds(String[] words, int limit) {
+            ensureBrowseIndexes();
+            return CustomerDAO.searchCustomerIds(words, limit);
+        }
+
+        @Override
+        public List<Customer> findDuplicateCandidates(Customer probe, int limit) {
+            ensureBrowseIndexes();
+            return CustomerDAO.findDuplicateCandidates(probe, limit);
+        }
+
+        @Override
+        public boolean forEach(Consumer<Customer> consumer) {
+            return CustomerDAO.forEachCustomer(consumer);
+        }
+
+        @Override
+        public long maxCustomerNumber() {
+            return CustomerDAO.findMaxCustomerNumber();
+        }
+
+        @Override
+        public int count() {
+            return CustomerDAO.getCustomerCount();
+        }
+
+        private void ensureBrowseIndexes() {
+            if (!browseIndexesChecked) {
+                CustomerDAO.ensureBrowseIndexes();
+                browseIndexesChecked = true;
+            }
+        }
+    }
+
+    static class Accounts implements AccountRepository {
+        @Override
+        public boolean save(Account account) {
+            return AccountDAO.saveAccount(account);
+        }
+
+        @Override
+        public boolean saveAll(Collection<Account> accounts) {
+            return AccountDAO.saveAccounts(accounts);
+        }
+
+        @Override
+        public List<Account> loadAll(List<Customer> customers) {
+            return AccountDAO.loadAccounts(customers);
+        }
+
+        @Override
+        public List<Account> findByCustomerId(String customerId, List<Customer> customers) {
+            return AccountDAO.findAccountsByCustomerId(customerId, customers);
+        }
+
+        @Override
+        public List<Account> findByCustomers(List<Customer> customers) {
+            return AccountDAO.findAccountsByCustomers(customers);
+        }
+
+        @Override
+        public String findOwnerId(String accountNumber) {
+            return AccountDAO.findCustomerIdByAccountNumber(accountNumber);
+        }
+
+        @Override
+        public boolean updateBalance(String accountNumber, double newBalance) {
+            return AccountDAO.updateAccountBalance(accountNumber, newBalance);
+        }
+
+        @Override
+        public Set<String> updateBalances(Collection<Account> accounts, int chunkSize) {
+            return AccountDAO.updateAccountBalances(accounts, chunkSize);
+        }
+
+        @Override
+        public boolean close(String accountNumber) {
+            return AccountDAO.closeAccount(accountNumber);
+        }
+
+        @Override
+        public int count() {
+            return AccountDAO.getAccountCount();
+        }
+
+        @Override
+        public long maxAccountNumber() {
+            return AccountDAO.findMaxAccountNumber();
+        }
+
+        @Override
+        public double totalBalance() {
+            return AccountDAO.getTotalBalance();
+        }
+    }
+
+    static class Credentials implements CredentialsRepository {
+        @Override
+        public boolean save(CustomerCredentials credentials) {
+            return CustomerCredentialsDAO.saveCredentials(credentials);
+        }
+
+        @Override
+        public boolean saveAll(Collection<CustomerCredentials> credentials) {
+            return CustomerCredentialsDAO.saveCredentials(credentials);
+        }
+
+        @Override
+        public List<CustomerCredentials> loadAll() {
+            return CustomerCredentialsDAO.loadCredentials();
+        }
+
+        @Override
+        public CustomerCredentials findByUsername(String username) {
+            return CustomerCredentialsDAO.findCredentialsByUsername(username);
+        }
+
+        @Override
+        public boolean isUsernameAvailable(String username) {
+            return CustomerCredentialsDAO.isUsernameAvailable(username);
+        }
+
+        @Override
+        public boolean isEmailAvailable(String email) {
+            return CustomerCredentialsDAO.isEmailAvailable(email);
+        }
+
+        @Override
+        public boolean forEachUsernameAndEmail(BiConsumer<String, String> consumer) {
+            return CustomerCredentialsDAO.forEachUsernameAndEmail(consumer);
+        }
+
+        @Override
+        public int count() {
+            return CustomerCredentialsDAO.getCredentialsCount();
+        }
+
+        @Override
+        public int countActive() {
+            return CustomerCredentialsDAO.getActiveCredentialsCount();
+        }
+    }
+
+    static class Links implements LinkRepository {
+        @Override
+        public boolean save(Customer customer) {
+            return CustomerDAO.saveLinkedAccounts(customer);
+        }
+
+        @Override
+        public boolean saveAll(Collection<Customer> customers) {
+            return CustomerDAO.saveLinkedAccounts(customers);
+        }
+    }
+
+    static class Holds implements HoldRepository {
+        @Override
+        public boolean save(Hold hold) {
+            return HoldDAO.saveHold(hold);
+        }
+
+        @Override
+        public boolean updateStatuses(Collection<Hold> holds) {
+            return HoldDAO.updateStatuses(holds);
+        }
+
+        @Override
+        public List<Hold> loadActive() {
+            return HoldDAO.loadActiveHolds();
+        }
+
+        @Override
+        public long maxHoldNumber() {
+            return HoldDAO.findMaxHoldNumber();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package bankmanagementsystem.model;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear histogram of durations in microseconds.
+ * Values below 2^SUB_BITS microseconds are counted exactly; above that each power of two is split
+ * into 2^SUB_BITS sub-buckets (about 6% resolution). Recording is one atomic increment, so any
+ * number of threads can record while another reads.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    public void record(long micros) {
+        counts.incrementAndGet(bucketOf(Math.max(0, micros)));
+    }
+
+    /**
+     * @return copy of the bucket counts (not an atomic snapshot; concurrent records may be partly included)
+     */
+    public long[] counts() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+        }
+        return copy;
+    }
+
+    static int bucketOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) (micros >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    // Midpoint of the bucket, in microseconds
+    static double bucketValue(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        long low = (1L << exponent) | (sub << (exponent - SUB_BITS));
+        return low + (1L << (exponent - SUB_BITS)) / 2.0;
+    }
+
+    /**
+     * @param counts Bucket counts from {@link #counts()} (or the difference of two copies)
+     * @param quantile 0..1
+     * @return value at the quantile in microseconds, or 0 when the counts are empty
+     */
+    public static double percentile(long[] counts, double quantile) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return bucketValue(i);
+            }
+        }
+        return bucketValue(counts.length - 1);
+    }
+}
@@ -0,0 +1,26 @@
+package bankmanagementsystem.model;
+
+import java.util.Collection;
+
+/**
+ * Storage for the account numbers linked to a customer's profile
+ */
+public interface LinkRepository {
+    /**
+     * Replace the stored links of a customer with {@link Customer#getLinkedAccountNumbers()}
+     * @return true if successful
+     */
+    boolean save(Customer customer);
+
+    /**
+     * Replace the stored links of many customers at once
+     * @return true if all were saved
+     */
+    default boolean saveAll(Collection<Customer> customers) {
+        boolean ok = true;
+        for (Customer customer : customers) {
+            ok &= save(customer);
+        }
+        return ok;
+    }
+}
@@ -0,0 +1,280 @@
+package bankmanagementsystem.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * In-process metrics registry: counters, gauges and timers, read by the reporters in
+ * {@link MetricsReporters} (log line, Prometheus endpoint, JMX).
+ * Recording never locks: counters and timer totals are {@link LongAdder}s and timer distributions
+ * are {@link LatencyHistogram}s, so instrumented code pays a few atomic increments per call.
+ * Metric names follow the Prometheus conventions (snake case, base unit suffix, _total for counters).
+ * Timers are grouped in families with one timer per operation, exported with an {@code op} label.
+ * Storage is timed at the two places it passes through: the repositories handed out by {@link Repositories}
+ * (see {@link TimedRepositories}) and the connections handed out by {@link DatabaseConfig} (see
+ * {@link TimedConnections}), so the DAOs themselves carry no instrumentation.
+ * A sample also opens a {@link Tracing} span named after the operation when the call is part of a trace:
+ * <pre>
+ * Metrics.Sample sample = Metrics.AUDIT.start("AuditLogger.write");
+ * try {
+ *     ...
+ * } finally {
+ *     sample.stop();
+ * }
+ * </pre>
+ */
+public class Metrics {
+    // Sorted by name, then label, so the members of a family are listed together
+    private static final Map<String, Metric> registry = new ConcurrentSkipListMap<>();
+
+    // Length of a percentile window in milliseconds (see Timer#getHistogram)
+    private static final long WINDOW_MILLIS = Math.max(1, Long.getLong("bank.metrics.window", 60)) * 1000;
+
+    public static final TimerFamily REPOSITORY = timers("bank_repository_seconds", "Time spent in repository (storage) calls");
+    public static final TimerFamily DAO = timers("bank_dao_seconds", "Time DAO methods hold a database connection");
+    public static final TimerFamily STORAGE = timers("bank_storage_seconds", "Time spent in DatabaseStorage operations");
+    public static final TimerFamily OPERATIONS = timers("bank_operation_seconds", "Time spent in BankData operations");
+    public static final TimerFamily AUDIT = timers("bank_audit_seconds", "Time spent writing the audit log");
+
+    /**
+     * @return the counter with this name, created on first use
+     */
+    public static Counter counter(String name, String help) {
+        return (Counter) registry.computeIfAbsent(key(name, null), k -> new Counter(name, help));
+    }
+
+    /**
+     * Register a gauge; the supplier is called whenever a reporter reads it, so it must be cheap and
+     * must not block. A second registration under the same name replaces the first.
+     */
+    public static void gauge(String name, String help, DoubleSupplier value) {
+        registry.put(key(name, null), new Gauge(name, help, value));
+    }
+
+    /**
+     * @return the timer with this name (and no operation label), created on first use
+     */
+    public static Timer timer(String name, String help) {
+        return (Timer) registry.computeIfAbsent(key(name, null), k -> new Timer(name, help, null));
+    }
+
+    public static TimerFamily timers(String name, String help) {
+        return new TimerFamily(name, help);
+    }
+
+    /**
+     * @return all registered metrics, sorted by name and label
+     */
+    public static List<Metric> all() {
+        return new ArrayList<>(registry.values());
+    }
+
+    private static String key(String name, String op) {
+        return op == null ? name : name + " " + op;
+    }
+
+    /**
+     * Base class of all metrics
+     */
+    public abstract static class Metric {
+        private final String name;
+        private final String help;
+        private final String op;
+
+        Metric(String name, String help, String op) {
+            this.name = name;
+            this.help = help;
+            this.op = op;
+        }
+
+        public String getName() { return name; }
+        public String getHelp() { return help; }
+        /** Operation label, or null */
+        public String getOp() { return op; }
+    }
+
+    /**
+     * Monotonic count of events
+     */
+    public static class Counter extends Metric {
+        private final LongAdder count = new LongAdder();
+
+        Counter(String name, String help) {
+            super(name, help, null);
+        }
+
+        public void increment() {
+            count.increment();
+        }
+
+        public void add(long amount) {
+            count.add(amount);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+    }
+
+    /**
+     * Current value read on demand
+     */
+    public static class Gauge extends Metric {
+        private final DoubleSupplier value;
+
+        Gauge(String name, String help, DoubleSupplier value) {
+            super(name, help, null);
+            this.value = value;
+        }
+
+        public double getValue() {
+            try {
+                return value.getAsDouble();
+            } catch (RuntimeException e) {
+                return Double.NaN;
+            }
+        }
+    }
+
+    /**
+     * Count and total of durations since startup, plus their distribution since startup and over the
+     * last one to two windows of -Dbank.metrics.window seconds (default 60)
+     */
+    public static class Timer extends Metric {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LatencyHistogram total = new LatencyHistogram();
+        // Two rotating windows, so a reading always covers at least one full window
+        private volatile LatencyHistogram current = new LatencyHistogram();
+        private volatile LatencyHistogram previous = new LatencyHistogram();
+        private volatile long windowEnd = System.currentTimeMillis() + WINDOW_MILLIS;
+
+        Timer(String name, String help, String op) {
+            super(name, help, op);
+        }
+
+        public void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            total.record(nanos / 1000);
+            rotate().record(nanos / 1000);
+        }
+
+        private LatencyHistogram rotate() {
+            long now = System.currentTimeMillis();
+            if (now >= windowEnd) {
+                synchronized (this) {
+                    if (now >= windowEnd) {
+                        // An idle gap longer than a window leaves nothing worth keeping
+                        previous = now >= windowEnd + WINDOW_MILLIS ? new LatencyHistogram() : current;
+                        current = new LatencyHistogram();
+                        windowEnd = now + WINDOW_MILLIS;
+                    }
+                }
+            }
+            return current;
+        }
+
+        /**
+         * Record the time since {@code started} (a {@link System#nanoTime()} reading)
+         */
+        public void stop(long started) {
+            record(System.nanoTime() - started);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public double getTotalSeconds() {
+            return totalNanos.sum() / 1e9;
+        }
+
+        /**
+         * @return bucket counts of the recent latency histogram (see {@link LatencyHistogram#percentile}),
+         * so percentiles follow the current load instead of averaging over the whole uptime
+         */
+        public long[] getHistogram() {
+            rotate();
+            long[] counts = current.counts();
+            long[] older = previous.counts();
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += older[i];
+            }
+            return counts;
+        }
+
+        /**
+         * @return bucket counts of every duration recorded since startup; the difference of two readings
+         * is the distribution of the interval between them
+         */
+        public long[] getTotalHistogram() {
+            return total.counts();
+        }
+    }
+
+    /**
+     * Timers sharing a name and help text, one per operation
+     */
+    public static class TimerFamily {
+        private final String name;
+        private final String help;
+        // Trace category of the family's spans, e.g. "repository" for bank_repository_seconds
+        private final String category;
+        private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+        TimerFamily(String name, String help) {
+            this.name = name;
+            this.help = help;
+            this.category = name.replaceFirst("^bank_", "").replaceFirst("_seconds$", "");
+        }
+
+        public Timer get(String op) {
+            Timer timer = timers.get(op);
+            if (timer == null) {
+                timer = timers.computeIfAbsent(op, o ->
+                        (Timer) registry.computeIfAbsent(key(name, o), k -> new Timer(name, help, o)));
+            }
+            return timer;
+        }
+
+        /**
+         * Start timing an operation; also starts a child span if this thread is in a trace
+         */
+        public Sample start(String op) {
+            return new Sample(get(op), Tracing.child(op, category));
+        }
+    }
+
+    /**
+     * One running measurement of an operation. Stop it exactly once.
+     */
+    public static final class Sample {
+        private final Timer timer;
+        private final Tracing.Span span;
+        private final long started = System.nanoTime();
+
+        Sample(Timer timer, Tracing.Span span) {
+            this.timer = timer;
+            this.span = span;
+        }
+
+        /**
+         * For an operation that completes on another thread: give this thread its previous span back
+         * now, and call {@link #stop()} on completion
+         */
+        public void detach() {
+            span.detach();
+        }
+
+        public void stop() {
+            timer.stop(started);
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package bankmanagementsystem.model;
+
+/**
+ * Publishes the contents of {@link Metrics} somewhere outside the process.
+ * Implementations are in {@link MetricsReporters}.
+ */
+public interface MetricsReporter extends AutoCloseable {
+    void start();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,404 @@
+package bankmanagementsystem.model;
+
+import com.sun.net.httpserver.HttpServer;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The reporters for {@link Metrics}, chosen with -Dbank.metrics.reporters (comma separated, default jmx):
+ * <ul>
+ *   <li>log: every -Dbank.metrics.interval seconds (default 60) prints the busiest operations of the
+ *       interval and the current gauges (nothing when the interval was idle)</li>
+ *   <li>prometheus: serves the Prometheus text format at http://127.0.0.1:9404/metrics
+ *       (-Dbank.metrics.host, -Dbank.metrics.port); timers are exported as summaries</li>
+ *   <li>jmx: one MBean, bankmanagementsystem:type=Metrics, with an attribute per value (jconsole, VisualVM)</li>
+ * </ul>
+ */
+public class MetricsReporters {
+    private static final List<MetricsReporter> running = new ArrayList<>();
+
+    /**
+     * Start the reporters selected by the system properties
+     */
+    public static synchronized void startConfigured() {
+        // The log reporter is opt-in: it writes to the console every interval
+        String selected = System.getProperty("bank.metrics.reporters", "jmx");
+        for (String name : selected.split(",")) {
+            MetricsReporter reporter;
+            switch (name.trim().toLowerCase(Locale.ROOT)) {
+                case "":
+                case "none":
+                    continue;
+                case "log":
+                    reporter = new LogReporter(Integer.getInteger("bank.metrics.interval", 60));
+                    break;
+                case "prometheus":
+                    reporter = new PrometheusReporter(System.getProperty("bank.metrics.host", "127.0.0.1"),
+                            Integer.getInteger("bank.metrics.port", 9404));
+                    break;
+                case "jmx":
+                    reporter = new JmxReporter();
+                    break;
+                default:
+                    System.err.println("❌ Unknown metrics reporter: " + name);
+                    continue;
+            }
+            try {
+                reporter.start();
+                running.add(reporter);
+            } catch (RuntimeException e) {
+                System.err.println("❌ Could not start " + name.trim() + " metrics reporter: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stop every reporter started by {@link #startConfigured()}
+     */
+    public static synchronized void stopAll() {
+        for (MetricsReporter reporter : running) {
+            reporter.close();
+        }
+        running.clear();
+    }
+
+    private static String formatMillis(double micros) {
+        return String.format("%.2f ms", micros / 1000.0);
+    }
+
+    /**
+     * Periodic summary on standard output
+     */
+    public static class LogReporter implements MetricsReporter {
+        private static final int TOP = 5;
+
+        private final int intervalSeconds;
+        private final Map<Metrics.Timer, Interval> previous = new HashMap<>();
+        private ScheduledExecutorService scheduler;
+
+        public LogReporter(int intervalSeconds) {
+            this.intervalSeconds = Math.max(1, intervalSeconds);
+        }
+
+        @Override
+        public void start() {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "metrics-log");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleAtFixedRate(this::report, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        }
+
+        void report() {
+            List<Interval> active = new ArrayList<>();
+            List<String> gauges = new ArrayList<>();
+            long calls = 0;
+            for (Metrics.Metric metric : Metrics.all()) {
+                if (metric instanceof Metrics.Timer) {
+                    Metrics.Timer timer = (Metrics.Timer) metric;
+                    Interval now = new Interval(timer);
+                    Interval window = now.since(previous.put(timer, now));
+                    if (window.count > 0) {
+                        calls += window.count;
+                        active.add(window);
+                    }
+                } else if (metric instanceof Metrics.Gauge) {
+                    gauges.add(metric.getName() + "=" + format(((Metrics.Gauge) metric).getValue()));
+                }
+            }
+
+            if (calls == 0) {
+                return; // nothing happened; keep the console quiet while the application is idle
+            }
+            System.out.println("📊 Metrics (last " + intervalSeconds + " s): " + calls + " timed calls");
+            active.sort(Comparator.comparingDouble((Interval interval) -> interval.seconds).reversed());
+            for (Interval window : active.subList(0, Math.min(TOP, active.size()))) {
+                String op = window.timer.getOp() != null ? " " + window.timer.getOp() : "";
+                System.out.println("   ⏱️ " + window.timer.getName() + op + ": " + window.count + " calls, " +
+                        String.format("%.2f s", window.seconds) + " total, p50 " +
+                        formatMillis(LatencyHistogram.percentile(window.histogram, 0.50)) + ", p99 " +
+                        formatMillis(LatencyHistogram.percentile(window.histogram, 0.99)));
+            }
+            if (!gauges.isEmpty()) {
+                System.out.println("   🔧 " + String.join(", ", gauges));
+            }
+        }
+
+        @Override
+        public void close() {
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+            }
+        }
+
+        // Readings of one timer, or the difference between two readings
+        private static class Interval {
+            final Metrics.Timer timer;
+            final long count;
+            final double seconds;
+            final long[] histogram;
+
+            Interval(Metrics.Timer timer) {
+                this(timer, timer.getCount(), timer.getTotalSeconds(), timer.getTotalHistogram());
+            }
+
+            private Interval(Metrics.Timer timer, long count, double seconds, long[] histogram) {
+                this.timer = timer;
+                this.count = count;
+                this.seconds = seconds;
+                this.histogram = histogram;
+            }
+
+            Interval since(Interval earlier) {
+                if (earlier == null) {
+                    return this;
+                }
+                long[] difference = histogram.clone();
+                for (int i = 0; i < difference.length; i++) {
+                    difference[i] -= earlier.histogram[i];
+                }
+                return new Interval(timer, count - earlier.count, seconds - earlier.seconds, difference);
+            }
+        }
+    }
+
+    /**
+     * Prometheus text exposition format (version 0.0.4) over HTTP
+     */
+    public static class PrometheusReporter implements MetricsReporter {
+        private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+        private final String host;
+        private final int port;
+        private HttpServer server;
+        private ExecutorService executor;
+
+        public PrometheusReporter(String host, int port) {
+            this.host = host;
+            this.port = port;
+        }
+
+        @Override
+        public void start() {
+            try {
+                server = HttpServer.create(new InetSocketAddress(host, port), 0);
+            } catch (IOException e) {
+                throw new IllegalStateException("cannot listen on " + host + ":" + port + ": " + e.getMessage(), e);
+            }
+            executor = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "metrics-http");
+                thread.setDaemon(true);
+                return thread;
+            });
+            server.setExecutor(executor);
+            server.createContext("/metrics", exchange -> {
+                byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            System.out.println("📡 Prometheus metrics at http://" + host + ":" + port + "/metrics");
+        }
+
+        /**
+         * @return all metrics in the Prometheus text format
+         */
+        public static String scrape() {
+            StringBuilder out = new StringBuilder(16 * 1024);
+            String family = null;
+            for (Metrics.Metric metric : Metrics.all()) {
+                String name = metric.getName();
+                if (!name.equals(family)) {
+                    family = name;
+                    String type = metric instanceof Metrics.Counter ? "counter"
+                            : metric instanceof Metrics.Gauge ? "gauge" : "summary";
+                    out.append("# HELP ").append(name).append(' ').append(metric.getHelp().replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+                    out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+                }
+                String op = metric.getOp() == null ? null : "op=\"" + escape(metric.getOp()) + "\"";
+                if (metric instanceof Metrics.Counter) {
+                    sample(out, name, op, ((Metrics.Counter) metric).getCount());
+                } else if (metric instanceof Metrics.Gauge) {
+                    sample(out, name, op, ((Metrics.Gauge) metric).getValue());
+                } else {
+                    Metrics.Timer timer = (Metrics.Timer) metric;
+                    long[] histogram = timer.getHistogram();
+                    for (double quantile : QUANTILES) {
+                        String labels = (op == null ? "" : op + ",") + "quantile=\"" + quantile + "\"";
+                        sample(out, name, labels, LatencyHistogram.percentile(histogram, quantile) / 1e6);
+                    }
+                    sample(out, name + "_sum", op, timer.getTotalSeconds());
+                    sample(out, name + "_count", op, timer.getCount());
+                }
+            }
+            return out.toString();
+        }
+
+        private static void sample(StringBuilder out, String name, String labels, double value) {
+            out.append(name);
+            if (labels != null) {
+                out.append('{').append(labels).append('}');
+            }
+            out.append(' ').append(format(value)).append('\n');
+        }
+
+        private static String escape(String label) {
+            return label.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        }
+
+        @Override
+        public void close() {
+            if (server != null) {
+                server.stop(0);
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * One dynamic MBean whose attributes are the current metric values; timers appear as
+     * &lt;name&gt;.&lt;op&gt;.count, .totalSeconds, .p50Millis, .p99Millis and .p999Millis
+     */
+    public static class JmxReporter implements MetricsReporter, DynamicMBean {
+        private ObjectName objectName;
+
+        @Override
+        public void start() {
+            try {
+                objectName = new ObjectName("bankmanagementsystem:type=Metrics");
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                if (!server.isRegistered(objectName)) {
+                    server.registerMBean(this, objectName);
+                }
+            } catch (JMException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+
+        private static Map<String, Supplier<Object>> attributes() {
+            Map<String, Supplier<Object>> attributes = new LinkedHashMap<>();
+            for (Metrics.Metric metric : Metrics.all()) {
+                if (metric instanceof Metrics.Counter) {
+                    Metrics.Counter counter = (Metrics.Counter) metric;
+                    attributes.put(metric.getName(), counter::getCount);
+                } else if (metric instanceof Metrics.Gauge) {
+                    Metrics.Gauge gauge = (Metrics.Gauge) metric;
+                    attributes.put(metric.getName(), gauge::getValue);
+                } else {
+                    Metrics.Timer timer = (Metrics.Timer) metric;
+                    String prefix = metric.getOp() == null ? metric.getName() : metric.getName() + "." + metric.getOp();
+                    attributes.put(prefix + ".count", timer::getCount);
+                    attributes.put(prefix + ".totalSeconds", timer::getTotalSeconds);
+                    attributes.put(prefix + ".p50Millis", () -> LatencyHistogram.percentile(timer.getHistogram(), 0.50) / 1000.0);
+                    attributes.put(prefix + ".p99Millis", () -> LatencyHistogram.percentile(timer.getHistogram(), 0.99) / 1000.0);
+                    attributes.put(prefix + ".p999Millis", () -> LatencyHistogram.percentile(timer.getHistogram(), 0.999) / 1000.0);
+                }
+            }
+            return attributes;
+        }
+
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            Supplier<Object> value = attributes().get(attribute);
+            if (value == null) {
+                throw new AttributeNotFoundException(attribute);
+            }
+            return value.get();
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] names) {
+            Map<String, Supplier<Object>> attributes = attributes();
+            AttributeList list = new AttributeList();
+            for (String name : names) {
+                Supplier<Object> value = attributes.get(name);
+                if (value != null) {
+                    list.add(new Attribute(name, value.get()));
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) {
+            throw new UnsupportedOperationException(actionName);
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            List<MBeanAttributeInfo> infos = new ArrayList<>();
+            for (Map.Entry<String, Supplier<Object>> entry : attributes().entrySet()) {
+                // Counts are longs (counters end in _total by convention), everything else is a double
+                String type = entry.getKey().endsWith(".count") || entry.getKey().endsWith("_total")
+                        ? Long.class.getName() : Double.class.getName();
+                infos.add(new MBeanAttributeInfo(entry.getKey(), type, entry.getKey(), true, false, false));
+            }
+            return new MBeanInfo(getClass().getName(), "Bank management system metrics",
+                    infos.toArray(new MBeanAttributeInfo[0]), null, null, null);
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (objectName != null && ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)) {
+                    ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+                }
+            } catch (JMException e) {
+                System.err.println("❌ Error unregistering metrics MBean: " + e.getMessage());
+            }
+        }
+    }
+
+    // Prometheus number format: integers without a fraction, +Inf/-Inf/NaN spelled out
+    private static String format(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+}
@@ -0,0 +1,129 @@
+package bankmanagementsystem.model;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live operational counters for the operations dashboard.
+ * Posting paths record into lock-free adders and a log-linear latency histogram; {@link #sample()}
+ * turns them into a {@link Snapshot} for the window since the previous sample. Nothing here touches
+ * the database: pool figures come from HikariCP's own counters and the audit backlog from the audit
+ * queue, so the dashboard can sample as often as it likes.
+ */
+public class OperationsMetrics {
+    private static final LongAdder transactions = new LongAdder();
+    private static final AtomicReference<LatencyHistogram> latencies = new AtomicReference<>(new LatencyHistogram());
+    private static final Map<String, DoubleAdder> depositsByBranch = new ConcurrentHashMap<>();
+    private static final AtomicInteger interestTotal = new AtomicInteger();
+    private static final AtomicInteger interestDone = new AtomicInteger();
+    private static volatile boolean interestRunning;
+    private static long lastSampleNanos = System.nanoTime();
+    private static long lastTransactionCount;
+
+    /**
+     * Record one committed posting
+     * @param account Posted account
+     * @param amount Signed amount (credits positive, debits negative)
+     * @param latencyNanos Time from request to commit
+     */
+    public static void recordPosting(Account account, double amount, long latencyNanos) {
+        transactions.increment();
+        FlightEvents.Posting.emit(account, amount, latencyNanos);
+        latencies.get().record(latencyNanos / 1000);
+        if (amount > 0) {
+            String branch = account.getBranch() != null ? account.getBranch() : "";
+            depositsByBranch.computeIfAbsent(branch, b -> new DoubleAdder()).add(amount);
+        }
+    }
+
+    public static void interestRunStarted(int accounts) {
+        interestTotal.set(accounts);
+        interestDone.set(0);
+        interestRunning = true;
+    }
+
+    public static void interestProcessed(int accounts) {
+        interestDone.addAndGet(accounts);
+    }
+
+    public static void interestRunFinished() {
+        interestDone.set(interestTotal.get());
+        interestRunning = false;
+    }
+
+    /**
+     * Close the current window and return its figures along with the current gauges
+     * @return snapshot for the interval since the previous call
+     */
+    public static synchronized Snapshot sample() {
+        long now = System.nanoTime();
+        double seconds = Math.max(1e-3, (now - lastSampleNanos) / 1e9);
+        long count = transactions.sum();
+        double perSecond = (count - lastTransactionCount) / seconds;
+        lastSampleNanos = now;
+        lastTransactionCount = count;
+
+        long[] counts = latencies.getAndSet(new LatencyHistogram()).counts();
+
+        Map<String, Double> deposits = new TreeMap<>();
+        for (Map.Entry<String, DoubleAdder> entry : depositsByBranch.entrySet()) {
+            deposits.put(entry.getKey(), entry.getValue().sum());
+        }
+
+        int interestTotalNow = interestTotal.get();
+        double interestProgress = interestTotalNow > 0
+                ? Math.min(1.0, interestDone.get() / (double) interestTotalNow)
+                : 0;
+
+        double p50Millis = LatencyHistogram.percentile(counts, 0.50) / 1000.0;
+        double p99Millis = LatencyHistogram.percentile(counts, 0.99) / 1000.0;
+        return new Snapshot(perSecond, p50Millis, p99Millis,
+                DatabaseConfig.getPoolStats(), AuditLogger.queueDepth(), deposits, interestProgress, interestRunning);
+    }
+
+    /**
+     * Figures for one sampling window
+     */
+    public static class Snapshot {
+        private final double transactionsPerSecond;
+        private final double p50Millis;
+        private final double p99Millis;
+        private final int[] pool;
+        private final int auditQueueDepth;
+        private final Map<String, Double> depositsByBranch;
+        private final double interestProgress;
+        private final boolean interestRunning;
+
+        Snapshot(double transactionsPerSecond, double p50Millis, double p99Millis, int[] pool, int auditQueueDepth,
+                 Map<String, Double> depositsByBranch, double interestProgress, boolean interestRunning) {
+            this.transactionsPerSecond = transactionsPerSecond;
+            this.p50Millis = p50Millis;
+            this.p99Millis = p99Millis;
+            this.pool = pool;
+            this.auditQueueDepth = auditQueueDepth;
+            this.depositsByBranch = depositsByBranch;
+            this.interestProgress = interestProgress;
+            this.interestRunning = interestRunning;
+        }
+
+        public double getTransactionsPerSecond() { return transactionsPerSecond; }
+        public double getP50Millis() { return p50Millis; }
+        public double getP99Millis() { return p99Millis; }
+        public int getPoolActive() { return pool[0]; }
+        public int getPoolIdle() { return pool[1]; }
+        public int getPoolTotal() { return pool[2]; }
+        public int getPoolWaiting() { return pool[3]; }
+        public int getPoolMax() { return pool[4]; }
+        public int getAuditQueueDepth() { return auditQueueDepth; }
+        /** Amount credited per branch since startup, sorted by branch */
+        public Map<String, Double> getDepositsByBranch() { return depositsByBranch; }
+        /** 0..1 for the current (or last) interest run */
+        public double getInterestProgress() { return interestProgress; }
+        public boolean isInterestRunning() { return interestRunning; }
+    }
+}
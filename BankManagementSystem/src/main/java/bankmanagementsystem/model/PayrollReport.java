@@ -0,0 +1,95 @@
+package bankmanagementsystem.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reconciliation report for one payroll run
+ */
+public class PayrollReport {
+    public enum Status {
+        /** All matched credits and the company debit were committed */
+        POSTED,
+        /** Nothing was posted (company account invalid or insufficient funds) */
+        ABORTED,
+        /** The database commit failed and all in-memory changes were rolled back */
+        FAILED
+    }
+
+    private final String employerName;
+    private final String companyAccountNumber;
+    private Status status;
+    private String message = "";
+    private int lineCount;
+    private double fileTotal;
+    private int creditedCount;
+    private double creditedTotal;
+    private double debitedTotal;
+    private long elapsedMillis;
+    private final List<String> exceptions = new ArrayList<>();
+
+    public PayrollReport(String employerName, String companyAccountNumber) {
+        this.employerName = employerName;
+        this.companyAccountNumber = companyAccountNumber;
+    }
+
+    void setStatus(Status status, String message) {
+        this.status = status;
+        this.message = message;
+    }
+
+    void setFileTotals(int lineCount, double fileTotal) {
+        this.lineCount = lineCount;
+        this.fileTotal = fileTotal;
+    }
+
+    void setPostedTotals(int creditedCount, double creditedTotal, double debitedTotal) {
+        this.creditedCount = creditedCount;
+        this.creditedTotal = creditedTotal;
+        this.debitedTotal = debitedTotal;
+    }
+
+    void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    void addException(int lineNumber, String accountNumber, double amount, String reason) {
+        exceptions.add(String.format("line %d: %s %.2f - %s", lineNumber, accountNumber, amount, reason));
+    }
+
+    public String getEmployerName() { return employerName; }
+    public String getCompanyAccountNumber() { return companyAccountNumber; }
+    public Status getStatus() { return status; }
+    public String getMessage() { return message; }
+    public int getLineCount() { return lineCount; }
+    public double getFileTotal() { return fileTotal; }
+    public int getCreditedCount() { return creditedCount; }
+    public double getCreditedTotal() { return creditedTotal; }
+    public double getDebitedTotal() { return debitedTotal; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public List<String> getExceptions() { return exceptions; }
+
+    /**
+     * @return true when the company debit equals the sum of the employee credits
+     */
+    public boolean isBalanced() {
+        return Math.abs(creditedTotal - debitedTotal) < 0.005;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== Payroll Reconciliation: ").append(employerName).append(" ===\n");
+        sb.append("Status: ").append(status);
+        if (message != null && !message.isEmpty()) sb.append(" (").append(message).append(")");
+        sb.append("\n");
+        sb.append(String.format("File lines: %d, file total: BWP %.2f%n", lineCount, fileTotal));
+        sb.append(String.format("Credited: %d accounts, BWP %.2f%n", creditedCount, creditedTotal));
+        sb.append(String.format("Debited from %s: BWP %.2f%n", companyAccountNumber, debitedTotal));
+        sb.append(String.format("Exceptions: %d, balanced: %s, elapsed: %d ms%n", exceptions.size(), isBalanced(), elapsedMillis));
+        for (String exception : exceptions) {
+            sb.append("  ").append(exception).append("\n");
+        }
+        return sb.toString();
+    }
+}
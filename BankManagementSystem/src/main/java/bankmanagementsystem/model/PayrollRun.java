@@ -0,0 +1,261 @@
+package bankmanagementsystem.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Employer payroll bulk-credit run.
+ * Each line of the employer's payment file is resolved through an {@link EmployerAccountIndex} to
+ * a cheque account held by one of the employer's employees. Matched credits are applied in parallel
+ * chunks (each account belongs to exactly one chunk), the company's own account is debited once for
+ * the total, and all touched balances are written in a single batched transaction so the run either
+ * posts completely or not at all. With mailboxes enabled the run holds the accounts it names in an
+ * {@link AccountMailboxes#exclusive} section, so their lanes cannot change them mid-run.
+ */
+public class PayrollRun {
+    private static final int CHUNK_SIZE = 1000;
+
+    /**
+     * One line of an employer payment file
+     */
+    public static class Line {
+        private final int lineNumber;
+        private final String accountNumber;
+        private final double amount;
+        private final String reference;
+
+        public Line(int lineNumber, String accountNumber, double amount, String reference) {
+            this.lineNumber = lineNumber;
+            this.accountNumber = accountNumber;
+            this.amount = amount;
+            this.reference = reference;
+        }
+
+        public int getLineNumber() { return lineNumber; }
+        public String getAccountNumber() { return accountNumber; }
+        public double getAmount() { return amount; }
+        public String getReference() { return reference; }
+    }
+
+    /**
+     * Parse a payment file with one "accountNumber,amount[,reference]" entry per line.
+     * Blank lines, lines starting with '#' and a header line starting with "account" are skipped;
+     * unparseable amounts are kept with a NaN amount so they show up as exceptions in the report.
+     * @param file Payment file
+     * @return parsed lines
+     * @throws IOException if the file cannot be read
+     */
+    public static List<Line> parsePaymentFile(Path file) throws IOException {
+        List<Line> lines = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String raw;
+            int lineNumber = 0;
+            while ((raw = reader.readLine()) != null) {
+                lineNumber++;
+                String text = raw.trim();
+                if (text.isEmpty() || text.startsWith("#") || text.toLowerCase().startsWith("account")) {
+                    continue;
+                }
+                String[] parts = text.split(",", 3);
+                String accountNumber = parts[0].trim();
+                double amount;
+                try {
+                    amount = parts.length > 1 ? Double.parseDouble(parts[1].trim()) : Double.NaN;
+                } catch (NumberFormatException e) {
+                    amount = Double.NaN;
+                }
+                String reference = parts.length > 2 ? parts[2].trim() : "";
+                lines.add(new Line(lineNumber, accountNumber, amount, reference));
+            }
+        }
+        return lines;
+    }
+
+    // The whole-book index normally; in working-set mode one over the owners of the file's accounts, faulted in
+    private static EmployerAccountIndex payrollIndex(String companyAccountNumber, List<Line> lines) {
+        if (BankData.getWorkingSet() == null) {
+            return BankData.getEmployerIndex();
+        }
+        Map<String, Customer> owners = new LinkedHashMap<>();
+        List<String> accountNumbers = new ArrayList<>();
+        accountNumbers.add(companyAccountNumber);
+        for (Line line : lines) {
+            accountNumbers.add(line.getAccountNumber());
+        }
+        for (String accountNumber : accountNumbers) {
+            Account account = BankData.findAccountByNumber(accountNumber);
+            if (account != null) {
+                owners.putIfAbsent(account.getCustomer().getCustomerId(), account.getCustomer());
+            }
+        }
+        return EmployerAccountIndex.build(new ArrayList<>(owners.values()));
+    }
+
+    /**
+     * Run a payroll against the in-memory bank data
+     * @param employerName Employer name, as stored on the employees' cheque accounts
+     * @param companyAccountNumber The employer's own account to debit
+     * @param lines Payment file lines
+     * @param actor Who started the run (for the audit trail)
+     * @return reconciliation report
+     */
+    public static PayrollReport run(String employerName, String companyAccountNumber, List<Line> lines, String actor) {
+        long start = System.nanoTime();
+        EmployerAccountIndex index = payrollIndex(companyAccountNumber, lines);
+        if (AccountMailboxes.isEnabled()) {
+            List<Account> named = new ArrayList<>();
+            Account company = index.findAccount(companyAccountNumber);
+            if (company != null) {
+                named.add(company);
+            }
+            for (Line line : lines) {
+                Account account = index.findAccount(line.getAccountNumber());
+                if (account != null) {
+                    named.add(account);
+                }
+            }
+            return AccountMailboxes.exclusive(named, () -> run(employerName, companyAccountNumber, lines, actor, index, start));
+        }
+        return run(employerName, companyAccountNumber, lines, actor, index, start);
+    }
+
+    private static PayrollReport run(String employerName, String companyAccountNumber, List<Line> lines, String actor,
+                                     EmployerAccountIndex index, long start) {
+        PayrollReport report = new PayrollReport(employerName, companyAccountNumber);
+
+        double fileTotal = 0;
+        Map<ChequeAccount, Double> credits = new LinkedHashMap<>();
+        for (Line line : lines) {
+            double amount = line.getAmount();
+            if (!(amount > 0) || Double.isInfinite(amount)) {
+                report.addException(line.getLineNumber(), line.getAccountNumber(), amount, "invalid amount");
+                continue;
+            }
+            fileTotal += amount;
+            ChequeAccount target = index.find(employerName, line.getAccountNumber());
+            if (target == null) {
+                Account other = index.findAccount(line.getAccountNumber());
+                report.addException(line.getLineNumber(), line.getAccountNumber(), amount,
+                        other == null ? "account not found" : "not a cheque account of " + employerName);
+                continue;
+            }
+            if (target.isClosed()) {
+                report.addException(line.getLineNumber(), line.getAccountNumber(), amount, "account closed");
+                continue;
+            }
+            credits.merge(target, amount, Double::sum);
+        }
+        report.setFileTotals(lines.size(), fileTotal);
+
+        double total = 0;
+        for (double amount : credits.values()) {
+            total += amount;
+        }
+
+        Account company = index.findAccount(companyAccountNumber);
+        String companyError = validateCompanyAccount(company, employerName, total);
+        if (companyError != null) {
+            report.setStatus(PayrollReport.Status.ABORTED, companyError);
+            report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+            AuditLogger.log("payroll", actor, companyAccountNumber, "payroll_run", employerName + ": " + companyError, false);
+            return report;
+        }
+
+        // Apply the credits in parallel; every account appears in exactly one chunk
+        List<Map.Entry<ChequeAccount, Double>> entries = new ArrayList<>(credits.entrySet());
+        List<List<Map.Entry<ChequeAccount, Double>>> chunks = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i += CHUNK_SIZE) {
+            chunks.add(entries.subList(i, Math.min(i + CHUNK_SIZE, entries.size())));
+        }
+        // Debit the company first: a concurrent withdrawal may have used the funds since validation
+        if (!((Withdraw) company).withdraw(total)) {
+            report.setStatus(PayrollReport.Status.ABORTED, "insufficient funds in company account");
+            report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+            AuditLogger.log("payroll", actor, companyAccountNumber, "payroll_run", employerName + ": insufficient funds", false);
+            return report;
+        }
+        chunks.parallelStream().forEach(chunk -> {
+            for (Map.Entry<ChequeAccount, Double> entry : chunk) {
+                entry.getKey().deposit(entry.getValue());
+            }
+        });
+
+        // One transaction for everything, so credits and the company debit commit together
+        List<Account> touched = new ArrayList<>(credits.keySet());
+        touched.add(company);
+        if (!Repositories.accounts().updateBalances(touched, Integer.MAX_VALUE).isEmpty()) {
+            for (Map.Entry<ChequeAccount, Double> entry : entries) {
+                entry.getKey().reverseDeposit(entry.getValue());
+            }
+            company.compensate(total);
+            report.setStatus(PayrollReport.Status.FAILED, "database commit failed, all changes rolled back");
+            report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+            AuditLogger.log("payroll", actor, companyAccountNumber, "payroll_run", employerName + ": commit failed", false);
+            return report;
+        }
+
+        report.setPostedTotals(credits.size(), total, total);
+        report.setStatus(PayrollReport.Status.POSTED, "");
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+
+        long latency = System.nanoTime() - start;
+        for (Map.Entry<ChequeAccount, Double> entry : entries) {
+            OperationsMetrics.recordPosting(entry.getKey(), entry.getValue(), latency);
+        }
+        OperationsMetrics.recordPosting(company, -total, latency);
+
+        List<AuditLogger.Entry> audit = new ArrayList<>();
+        for (Map.Entry<ChequeAccount, Double> entry : entries) {
+            audit.add(new AuditLogger.Entry("transaction", actor, entry.getKey().getAccountNumber(), "payroll_credit",
+                    "employer=" + employerName + ", amount=" + entry.getValue(), true));
+        }
+        audit.add(new AuditLogger.Entry("transaction", actor, companyAccountNumber, "payroll_debit",
+                "employer=" + employerName + ", amount=" + total, true));
+        audit.add(new AuditLogger.Entry("payroll", actor, companyAccountNumber, "payroll_run",
+                employerName + ": lines=" + lines.size() + ", credited=" + credits.size()
+                        + ", exceptions=" + report.getExceptions().size() + ", total=" + total, true));
+        AuditLogger.logAll(audit);
+        if (BankEventBus.hasSubscribers()) {
+            List<BankEvent> events = new ArrayList<>();
+            for (Map.Entry<ChequeAccount, Double> entry : entries) {
+                events.add(BankEvent.accountCredited(entry.getKey(), entry.getValue()));
+            }
+            events.add(BankEvent.accountDebited(company, total));
+            BankEventBus.publishAll(events);
+        }
+
+        System.out.println("💸 Payroll for " + employerName + " posted: " + credits.size() + " credits, BWP "
+                + String.format("%.2f", total) + " in " + report.getElapsedMillis() + " ms");
+        return report;
+    }
+
+    private static String validateCompanyAccount(Account company, String employerName, double total) {
+        if (company == null) {
+            return "company account not found";
+        }
+        if (!(company.getCustomer() instanceof CompanyCustomer)) {
+            return "debit account does not belong to a company customer";
+        }
+        String companyName = ((CompanyCustomer) company.getCustomer()).getCompanyName();
+        if (!EmployerAccountIndex.normalize(companyName).equals(EmployerAccountIndex.normalize(employerName))) {
+            return "debit account belongs to " + companyName + ", not " + employerName;
+        }
+        if (company.isClosed()) {
+            return "company account closed";
+        }
+        if (!(company instanceof Withdraw)) {
+            return "withdrawals not allowed on " + company.getClass().getSimpleName();
+        }
+        if (total > company.getAvailableBalance()) {
+            return "insufficient funds: available=" + company.getAvailableBalance() + ", payroll=" + total;
+        }
+        return null;
+    }
+}
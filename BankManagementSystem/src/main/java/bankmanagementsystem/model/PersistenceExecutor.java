@@ -0,0 +1,142 @@
+package bankmanagementsystem.model;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs database writes on one background thread so the JavaFX application thread never waits for
+ * the database. Writes run strictly in submission order, so a later write of the same row always
+ * lands after an earlier one. Callers apply their change in memory first, show it, and use the
+ * returned future to confirm it or undo it if the write failed; confirmations and undos run on the
+ * {@link #ownerExecutor() owner thread}, which owns the in-memory objects.
+ * Full-book saves are coalesced: while one is still queued, further requests share it instead of
+ * queueing another copy of the same work.
+ */
+public class PersistenceExecutor {
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "persistence");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final AtomicInteger pending = new AtomicInteger();
+    private static volatile Executor owner = Runnable::run;
+    private static CompletableFuture<Boolean> queuedFullSave;
+    private static List<Customer> queuedCustomers;
+    private static List<CustomerCredentials> queuedCredentials;
+
+    static {
+        // Let queued writes finish when the application exits
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(10_000), "persistence-flush"));
+    }
+
+    /**
+     * Set the thread that owns the in-memory objects (the application passes Platform::runLater).
+     * Without one, confirmations and undos run directly on the persistence thread.
+     * @param executor Runs a task on the owner thread
+     */
+    public static void setOwnerExecutor(Executor executor) {
+        owner = executor;
+    }
+
+    /**
+     * @return executor for follow-up work on a write's outcome that touches in-memory objects
+     */
+    public static Executor ownerExecutor() {
+        return owner;
+    }
+
+    /**
+     * Queue a write
+     * @param description What is being written (for error messages)
+     * @param write The write; returns true on success
+     * @return future completed with true once the write committed, false if it failed
+     */
+    public static CompletableFuture<Boolean> submit(String description, BooleanSupplier write) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        pending.incrementAndGet();
+        // The write joins the caller's trace, if any
+        EXECUTOR.execute(Tracing.wrap(() -> {
+            FlightEvents.PersistenceFlush event = FlightEvents.PersistenceFlush.start();
+            boolean ok;
+            SqlProfiler.Operation operation = SqlProfiler.operation(description);
+            Tracing.Span span = Tracing.child("persistence: " + description, "persistence");
+            try {
+                ok = write.getAsBoolean();
+            } catch (RuntimeException e) {
+                System.err.println("❌ Error during " + description + ": " + e.getMessage());
+                ok = false;
+            } finally {
+                span.end();
+                operation.close();
+            }
+            int stillPending = pending.decrementAndGet();
+            event.finish(description, ok, stillPending);
+            if (!ok) {
+                System.err.println("❌ Background write failed: " + description);
+            }
+            result.complete(ok);
+        }));
+        return result;
+    }
+
+    /**
+     * Queue a save of every customer, account and credential. Call it on the owner thread: the
+     * objects are copied right away, and a save that is still queued picks up the newest copy.
+     * @param customers Customers to save
+     * @param credentials Credentials to save
+     * @return future completed with true once everything was saved
+     */
+    public static CompletableFuture<Boolean> saveAllData(List<Customer> customers, List<CustomerCredentials> credentials) {
+        List<Customer> customerSnapshot = Snapshots.customers(customers);
+        List<CustomerCredentials> credentialSnapshot = Snapshots.credentials(credentials);
+        synchronized (PersistenceExecutor.class) {
+            queuedCustomers = customerSnapshot;
+            queuedCredentials = credentialSnapshot;
+            if (queuedFullSave != null) {
+                return queuedFullSave;
+            }
+            CompletableFuture<Boolean> save = submit("full save", () -> {
+                List<Customer> savedCustomers;
+                List<CustomerCredentials> savedCredentials;
+                synchronized (PersistenceExecutor.class) {
+                    queuedFullSave = null; // changes made from now on need another save
+                    savedCustomers = queuedCustomers;
+                    savedCredentials = queuedCredentials;
+                    queuedCustomers = null;
+                    queuedCredentials = null;
+                }
+                return DatabaseStorage.saveAllData(savedCustomers, savedCredentials);
+            });
+            queuedFullSave = save;
+            return save;
+        }
+    }
+
+    /**
+     * @return number of writes queued or running
+     */
+    public static int pendingWrites() {
+        return pending.get();
+    }
+
+    /**
+     * Wait until everything queued so far has been written
+     * @param timeoutMillis Maximum time to wait
+     * @return true if the queue drained in time
+     */
+    public static boolean flush(long timeoutMillis) {
+        try {
+            submit("flush", () -> true).get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (Exception e) {
+            System.err.println("❌ Pending database writes did not finish: " + e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package bankmanagementsystem.model;
+
+/**
+ * A single credit or debit instruction against an account, as received in a back-office posting file
+ */
+public class Posting {
+    public enum Type { CREDIT, DEBIT }
+
+    private final String accountNumber;
+    private final Type type;
+    private final double amount;
+    private final String reference;
+
+    public Posting(String accountNumber, Type type, double amount, String reference) {
+        this.accountNumber = accountNumber;
+        this.type = type;
+        this.amount = amount;
+        this.reference = reference;
+    }
+
+    public static Posting credit(String accountNumber, double amount, String reference) {
+        return new Posting(accountNumber, Type.CREDIT, amount, reference);
+    }
+
+    public static Posting debit(String accountNumber, double amount, String reference) {
+        return new Posting(accountNumber, Type.DEBIT, amount, reference);
+    }
+
+    public String getAccountNumber() { return accountNumber; }
+    public Type getType() { return type; }
+    public double getAmount() { return amount; }
+    public String getReference() { return reference; }
+
+    @Override
+    public String toString() {
+        return type + " " + accountNumber + " " + String.format("%.2f", amount) + (reference != null ? " (" + reference + ")" : "");
+    }
+}
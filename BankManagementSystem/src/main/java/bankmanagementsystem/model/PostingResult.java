@@ -0,0 +1,35 @@
+package bankmanagementsystem.model;
+
+/**
+ * Outcome of one posting within a batch
+ */
+public class PostingResult {
+    public enum Status {
+        /** Applied in memory and committed to the database */
+        APPLIED,
+        /** Failed validation and was never applied */
+        REJECTED,
+        /** Passed validation but the database commit for its account failed, so it was rolled back */
+        FAILED
+    }
+
+    private final Posting posting;
+    private final Status status;
+    private final String message;
+
+    public PostingResult(Posting posting, Status status, String message) {
+        this.posting = posting;
+        this.status = status;
+        this.message = message;
+    }
+
+    public Posting getPosting() { return posting; }
+    public Status getStatus() { return status; }
+    public String getMessage() { return message; }
+    public boolean isApplied() { return status == Status.APPLIED; }
+
+    @Override
+    public String toString() {
+        return status + ": " + posting + (message != null && !message.isEmpty() ? " - " + message : "");
+    }
+}
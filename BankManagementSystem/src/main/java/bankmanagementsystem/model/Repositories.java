@@ -0,0 +1,77 @@
+package bankmanagementsystem.model;
+
+import java.util.Locale;
+
+/**
+ * Chooses the storage backend for customers, accounts, credentials, links and holds.
+ * Set with -Dbank.repository=mysql|h2|memory (default mysql):
+ * <ul>
+ *   <li>mysql: the MySQL server configured in {@link DatabaseConfig}</li>
+ *   <li>h2: an embedded H2 database (./data/bank by default, or -Dbank.h2.url), created on first use;
+ *       needs no server, so the model layer can be benchmarked and load tested on any machine</li>
+ *   <li>memory: concurrent in-process maps, nothing is written to disk; measures the business logic
+ *       without any JDBC cost</li>
+ * </ul>
+ */
+public class Repositories {
+    public enum Backend { MYSQL, H2, MEMORY }
+
+    private static final Backend BACKEND = parse(System.getProperty("bank.repository", "mysql"));
+
+    private static final CustomerRepository customers;
+    private static final AccountRepository accounts;
+    private static final CredentialsRepository credentials;
+    private static final LinkRepository links;
+    private static final HoldRepository holds;
+
+    static {
+        if (BACKEND == Backend.MEMORY) {
+            InMemoryRepositories store = new InMemoryRepositories();
+            customers = TimedRepositories.wrap(CustomerRepository.class, store.customers());
+            accounts = TimedRepositories.wrap(AccountRepository.class, store.accounts());
+            credentials = TimedRepositories.wrap(CredentialsRepository.class, store.credentials());
+            links = TimedRepositories.wrap(LinkRepository.class, store.links());
+            holds = TimedRepositories.wrap(HoldRepository.class, store.holds());
+        } else {
+            customers = TimedRepositories.wrap(CustomerRepository.class, new JdbcRepositories.Customers());
+            accounts = TimedRepositories.wrap(AccountRepository.class, new JdbcRepositories.Accounts());
+            credentials = TimedRepositories.wrap(CredentialsRepository.class, new JdbcRepositories.Credentials());
+            links = TimedRepositories.wrap(LinkRepository.class, new JdbcRepositories.Links());
+            holds = TimedRepositories.wrap(HoldRepository.class, new JdbcRepositories.Holds());
+        }
+        System.out.println("💾 Storage backend: " + BACKEND.name().toLowerCase(Locale.ROOT));
+    }
+
+    public static Backend getBackend() {
+        return BACKEND;
+    }
+
+    public static CustomerRepository customers() {
+        return customers;
+    }
+
+    public static AccountRepository accounts() {
+        return accounts;
+    }
+
+    public static CredentialsRepository credentials() {
+        return credentials;
+    }
+
+    public static LinkRepository links() {
+        return links;
+    }
+
+    public static HoldRepository holds() {
+        return holds;
+    }
+
+    private static Backend parse(String value) {
+        try {
+            return Backend.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("❌ Unknown bank.repository '" + value + "', using mysql");
+            return Backend.MYSQL;
+        }
+    }
+}
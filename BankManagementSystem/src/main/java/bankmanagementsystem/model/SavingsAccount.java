@@ -7,9 +7,13 @@ public class SavingsAccount extends Account implements Interest {
     }
 
     @Override
-    public void calculateInterest() {
-        double interest = balance * 0.0005;
-        balance += interest;
+    public synchronized double calculateInterest() {
+        return creditInterestUnlocked(getInterestRate());
+    }
+
+    @Override
+    public double getInterestRate() {
+        return 0.0005;
     }
 
     @Override
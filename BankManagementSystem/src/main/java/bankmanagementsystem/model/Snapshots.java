@@ -0,0 +1,80 @@
+package bankmanagementsystem.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Detached copies of customers, accounts and credentials for background writes.
+ * The copies are taken on the thread that owns the objects (the JavaFX application thread), so the
+ * persistence thread writes a consistent state instead of reading objects while they change.
+ */
+final class Snapshots {
+
+    private Snapshots() {
+    }
+
+    static List<Customer> customers(List<Customer> customers) {
+        List<Customer> copies = new ArrayList<>(customers.size());
+        for (Customer customer : customers) {
+            copies.add(customer(customer));
+        }
+        return copies;
+    }
+
+    /**
+     * @return copy of the customer with copies of its accounts and links
+     */
+    static Customer customer(Customer customer) {
+        Customer copy;
+        if (customer instanceof CompanyCustomer) {
+            CompanyCustomer company = (CompanyCustomer) customer;
+            copy = new CompanyCustomer(customer.getCustomerId(), customer.getFirstName(), customer.getLastName(),
+                    customer.getAddress(), company.getCompanyName(), company.getCompanyAddress());
+        } else if (customer instanceof PersonalCustomer) {
+            copy = new PersonalCustomer(customer.getCustomerId(), customer.getFirstName(), customer.getLastName(),
+                    customer.getAddress(), ((PersonalCustomer) customer).getNationalId());
+        } else {
+            copy = new Customer(customer.getCustomerId(), customer.getFirstName(), customer.getLastName(), customer.getAddress());
+        }
+        copy.linkedAccountNumbers.addAll(customer.getLinkedAccountNumbers());
+        for (Account account : customer.getAccounts()) {
+            copy.accounts.add(account(account, copy));
+        }
+        return copy;
+    }
+
+    /**
+     * @return copy of the account with its posted balance, owned by the given customer
+     */
+    static Account account(Account account, Customer owner) {
+        Account copy;
+        if (account instanceof ChequeAccount) {
+            ChequeAccount cheque = (ChequeAccount) account;
+            copy = new ChequeAccount(account.getAccountNumber(), owner, account.getBranch(), account.getPostedBalance(),
+                    cheque.getEmployerName(), cheque.getEmployerAddress());
+        } else if (account instanceof InvestmentAccount) {
+            copy = new InvestmentAccount(account.getAccountNumber(), owner, account.getBranch(), account.getPostedBalance());
+        } else {
+            copy = new SavingsAccount(account.getAccountNumber(), owner, account.getBranch(), account.getPostedBalance());
+        }
+        // Set directly: the investment constructor raises balances below its minimum
+        copy.balance = account.getPostedBalance();
+        copy.setClosed(account.isClosed());
+        return copy;
+    }
+
+    static List<CustomerCredentials> credentials(List<CustomerCredentials> credentials) {
+        List<CustomerCredentials> copies = new ArrayList<>(credentials.size());
+        for (CustomerCredentials credential : credentials) {
+            copies.add(credential(credential));
+        }
+        return copies;
+    }
+
+    static CustomerCredentials credential(CustomerCredentials credential) {
+        CustomerCredentials copy = new CustomerCredentials(credential.getCustomerId(), credential.getUsername(),
+                credential.getPassword(), credential.getEmail());
+        copy.setActive(credential.isActive());
+        return copy;
+    }
+}
@@ -0,0 +1,300 @@
+package bankmanagementsystem.model;
+
+import java.sql.SQLException;
+
+/**
+ * Per-database SQL for writes that standard SQL does not cover: upserts and bulk loads.
+ * The DAOs describe a table once as a {@link Table} and ask the dialect of the database in use for
+ * the statement text, so no DAO carries engine-specific syntax. {@link BulkLoader} uses
+ * {@link #bulkMethod()} to pick the fastest loading mechanism each engine offers. The application runs
+ * on MySQL or embedded H2 (see {@link DatabaseConfig}), so those are the dialects.
+ */
+public abstract class SqlDialect {
+
+    /**
+     * How a dialect loads many rows at once
+     */
+    public enum BulkMethod {
+        /** Multi-row INSERT statements, a few hundred rows per round trip */
+        MULTI_ROW_INSERT,
+        /** One statement per row, sent as a single JDBC batch in one transaction */
+        BATCH
+    }
+
+    public static final SqlDialect MYSQL = new MySql();
+    public static final SqlDialect H2 = new H2();
+
+    /**
+     * @param jdbcUrl JDBC URL of the target database
+     * @return dialect for the URL (MySQL for anything unrecognised)
+     */
+    public static SqlDialect forUrl(String jdbcUrl) {
+        if (jdbcUrl.startsWith("jdbc:h2:")) {
+            return H2;
+        }
+        return MYSQL;
+    }
+
+    /**
+     * @return dialect of the database {@link DatabaseConfig} connects to
+     */
+    public static SqlDialect current() {
+        return forUrl(DatabaseConfig.getDatabaseUrl());
+    }
+
+    public abstract String getName();
+
+    public abstract BulkMethod bulkMethod();
+
+    /**
+     * Statement that writes {@code rows} rows, inserting new keys and updating
+     * {@link Table#updates} of existing ones (a plain insert when the table has no update columns)
+     * @param table Target table
+     * @param rows Number of rows in the VALUES list (parameters are bound row by row, column by column)
+     */
+    public abstract String upsert(Table table, int rows);
+
+    public String upsert(Table table) {
+        return upsert(table, 1);
+    }
+
+    /**
+     * Statement that inserts one row unless its key already exists, leaving an existing row untouched
+     * @param table Target table
+     */
+    public abstract String insertIfAbsent(Table table);
+
+    /**
+     * Session settings for a connection that is about to load large volumes of fresh rows
+     * @param tables Tables the session will write
+     */
+    String[] beginBulkLoad(Table... tables) {
+        return new String[0];
+    }
+
+    /**
+     * Undo {@link #beginBulkLoad()}
+     */
+    String[] endBulkLoad() {
+        return new String[0];
+    }
+
+    String dropIndex(String table, String index) {
+        return "DROP INDEX " + index;
+    }
+
+    /**
+     * Case-insensitive prefix condition on a column, with one LIKE parameter (lower-case prefix plus %)
+     */
+    String startsWith(String column) {
+        return "LOWER(" + column + ") LIKE ?";
+    }
+
+    /**
+     * Expression for the number at the end of an ID column (the digits after the last non-digit),
+     * or NULL if the ID does not end in digits; the SQL counterpart of {@link IdAllocator#numericSuffix}
+     */
+    String numericSuffix(String column) {
+        return "CAST(NULLIF(REGEXP_REPLACE(" + column + ", '^.*[^0-9]', ''), '') AS BIGINT)";
+    }
+
+    /**
+     * @return true if a CREATE INDEX failed only because the index already exists
+     */
+    boolean isDuplicateIndex(SQLException e) {
+        return e.getErrorCode() == 42111; // H2 INDEX_ALREADY_EXISTS_1
+    }
+
+    /**
+     * Statement that loads a file written by {@link BulkLoader#loadFile}, replacing rows whose key exists.
+     * On MySQL the server must allow LOAD DATA LOCAL INFILE.
+     */
+    abstract String loadFile(Table table, String path);
+
+    /**
+     * Largest number of rows worth putting in one multi-row statement for a table
+     */
+    int rowsPerStatement(Table table) {
+        // Stay well under the 65535 bind-parameter limit of the MySQL protocol
+        return Math.max(1, Math.min(500, 60000 / table.columns.length));
+    }
+
+    static String placeholders(int columns, int rows) {
+        StringBuilder row = new StringBuilder("(");
+        for (int i = 0; i < columns; i++) {
+            row.append(i == 0 ? "?" : ", ?");
+        }
+        row.append(')');
+        StringBuilder sql = new StringBuilder(row.length() * rows + rows * 2);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(row);
+        }
+        return sql.toString();
+    }
+
+    static String insertPrefix(Table table) {
+        return "INSERT INTO " + table.name + " (" + String.join(", ", table.columns) + ") VALUES ";
+    }
+
+    /**
+     * Shape of a table for generated writes
+     */
+    public static class Table {
+        final String name;
+        final String[] columns;
+        final String[] keys;
+        final String[] updates;
+        final String[] uniqueColumns;
+
+        /**
+         * @param name Table name
+         * @param columns Columns written, in bind order
+         * @param keys Primary key columns (the conflict target)
+         * @param updates Columns overwritten when the key already exists (empty for insert-only tables)
+         */
+        public Table(String name, String[] columns, String[] keys, String[] updates) {
+            this(name, columns, keys, updates, new String[0]);
+        }
+
+        /**
+         * @param uniqueColumns Columns with a unique key of their own, besides the primary key
+         */
+        public Table(String name, String[] columns, String[] keys, String[] updates, String[] uniqueColumns) {
+            this.name = name;
+            this.columns = columns;
+            this.keys = keys;
+            this.updates = updates;
+            this.uniqueColumns = uniqueColumns;
+        }
+
+        public String getName() { return name; }
+        public int getColumnCount() { return columns.length; }
+    }
+
+    // INSERT ... AS new ON DUPLICATE KEY UPDATE (MySQL 8.0.19+; replaces the deprecated VALUES(col))
+    private static class MySql extends SqlDialect {
+        @Override
+        public String getName() { return "MySQL"; }
+
+        @Override
+        public BulkMethod bulkMethod() { return BulkMethod.MULTI_ROW_INSERT; }
+
+        @Override
+        public String upsert(Table table, int rows) {
+            String sql = insertPrefix(table) + placeholders(table.columns.length, rows);
+            if (table.updates.length == 0) {
+                return sql;
+            }
+            StringBuilder update = new StringBuilder(" AS new ON DUPLICATE KEY UPDATE ");
+            for (int i = 0; i < table.updates.length; i++) {
+                if (i > 0) {
+                    update.append(", ");
+                }
+                update.append(table.updates[i]).append(" = new.").append(table.updates[i]);
+            }
+            return sql + update;
+        }
+
+        // A no-op update instead of INSERT IGNORE, which would also hide other errors
+        @Override
+        public String insertIfAbsent(Table table) {
+            return insertPrefix(table) + placeholders(table.columns.length, 1) +
+                    " ON DUPLICATE KEY UPDATE " + table.keys[0] + " = " + table.keys[0];
+        }
+
+        // InnoDB skips the foreign key lookups for the session, and the secondary uniqueness lookups unless a
+        // table has a unique key besides its primary key: without the check, a duplicate would go in unnoticed
+        @Override
+        String[] beginBulkLoad(Table... tables) {
+            for (Table table : tables) {
+                if (table.uniqueColumns.length > 0) {
+                    return new String[] {"SET foreign_key_checks = 0"};
+                }
+            }
+            return new String[] {"SET unique_checks = 0", "SET foreign_key_checks = 0"};
+        }
+
+        @Override
+        String[] endBulkLoad() {
+            return new String[] {"SET unique_checks = 1", "SET foreign_key_checks = 1"};
+        }
+
+        @Override
+        String dropIndex(String table, String index) {
+            return "DROP INDEX " + index + " ON " + table;
+        }
+
+        // The default collation already ignores case, so the column's index stays usable
+        @Override
+        String startsWith(String column) {
+            return column + " LIKE ?";
+        }
+
+        // MySQL casts to UNSIGNED, not BIGINT
+        @Override
+        String numericSuffix(String column) {
+            return "CAST(NULLIF(REGEXP_REPLACE(" + column + ", '^.*[^0-9]', ''), '') AS UNSIGNED)";
+        }
+
+        @Override
+        boolean isDuplicateIndex(SQLException e) {
+            return e.getErrorCode() == 1061; // ER_DUP_KEYNAME
+        }
+
+        @Override
+        String loadFile(Table table, String path) {
+            return "LOAD DATA LOCAL INFILE '" + path.replace('\\', '/').replace("'", "''") + "' REPLACE INTO TABLE " + table.name +
+                    " CHARACTER SET utf8mb4 FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"' LINES TERMINATED BY '\\n' (" +
+                    String.join(", ", table.columns) + ")";
+        }
+    }
+
+    // MERGE INTO ... KEY (...) VALUES; H2 runs a batch of these in one transaction faster than
+    // it parses one very long multi-row statement. MERGE rewrites every non-key column, which for
+    // the DAO tables only adds columns that never change after insert
+    private static class H2 extends SqlDialect {
+        @Override
+        public String getName() { return "H2"; }
+
+        @Override
+        public BulkMethod bulkMethod() { return BulkMethod.BATCH; }
+
+        @Override
+        public String upsert(Table table, int rows) {
+            if (table.updates.length == 0) {
+                return insertPrefix(table) + placeholders(table.columns.length, rows);
+            }
+            return "MERGE INTO " + table.name + " (" + String.join(", ", table.columns) + ") KEY (" +
+                    String.join(", ", table.keys) + ") VALUES " + placeholders(table.columns.length, rows);
+        }
+
+        // CSVREAD reads the same file as MySQL's LOAD DATA: \N is NULL and \ escapes inside quotes.
+        // The columns are matched by position, so their names in the file do not matter
+        @Override
+        String loadFile(Table table, String path) {
+            return "MERGE INTO " + table.name + " (" + String.join(", ", table.columns) + ") KEY (" +
+                    String.join(", ", table.keys) + ") SELECT * FROM CSVREAD('" + path.replace("'", "''") + "', '" +
+                    String.join(",", table.columns) + "', 'charset=UTF-8 escape=\\ null=\\N')";
+        }
+
+        // Standard MERGE with only a WHEN NOT MATCHED branch
+        @Override
+        public String insertIfAbsent(Table table) {
+            StringBuilder on = new StringBuilder();
+            for (String key : table.keys) {
+                on.append(on.length() == 0 ? "" : " AND ").append("t.").append(key).append(" = s.").append(key);
+            }
+            StringBuilder source = new StringBuilder();
+            StringBuilder values = new StringBuilder();
+            for (String column : table.columns) {
+                source.append(source.length() == 0 ? "? " : ", ? ").append(column);
+                values.append(values.length() == 0 ? "s." : ", s.").append(column);
+            }
+            return "MERGE INTO " + table.name + " t USING (SELECT " + source + ") s ON " + on +
+                    " WHEN NOT MATCHED THEN INSERT (" + String.join(", ", table.columns) + ") VALUES (" + values + ")";
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package bankmanagementsystem.model;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Optional JDBC profiler, enabled with -Dbank.sql.profile=true.
+ * {@link DatabaseConfig} then hands out connections through {@link #wrap(DataSource)}, whose
+ * Connection, Statement and ResultSet proxies time every execution and every ResultSet.next().
+ * Statements are aggregated by normalized SQL (literals replaced by ?, IN lists and multi-row VALUES
+ * collapsed), so the same query with different values counts as one statement.
+ * <ul>
+ *   <li>Executions slower than -Dbank.sql.slowMillis (default 100) are logged with the normalized SQL
+ *       and the types of the bind values; the values themselves are never logged</li>
+ *   <li>A statement executed -Dbank.sql.nPlusOne times (default 10) within one logical operation is
+ *       flagged as a possible N+1 query. An operation is a {@link #operation(String)} scope (each
+ *       {@link PersistenceExecutor} task is one); outside a scope, a burst of statements on one thread
+ *       without a pause of 50 ms counts as one operation</li>
+ *   <li>{@link #report()} prints the statements by total time; it runs at shutdown when profiling is on</li>
+ * </ul>
+ * At most -Dbank.sql.maxStatements (default 1000) distinct statements are kept; executions of
+ * further statements are aggregated under one "(other statements)" entry.
+ * The proxies are also used when only {@link Tracing} is on, to record each execution as a span
+ * named by its SQL text; normalization and statistics are then skipped.
+ */
+public class SqlProfiler {
+    private static final boolean ENABLED = Boolean.getBoolean("bank.sql.profile");
+    private static final long SLOW_NANOS = Long.getLong("bank.sql.slowMillis", 100L) * 1_000_000;
+    private static final int N_PLUS_ONE = Integer.getInteger("bank.sql.nPlusOne", 10);
+    private static final long OPERATION_GAP_NANOS = 50_000_000;
+    private static final int REPORT_TOP = 20;
+    private static final int NORMALIZED_CACHE_SIZE = 10_000;
+    private static final int MAX_STATEMENTS = Integer.getInteger("bank.sql.maxStatements", 1000);
+    private static final int SPAN_NAME_LENGTH = 200;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?:[eE][-+]?\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern VALUES_ROWS = Pattern.compile("(\\((?:\\s*\\?\\s*,)*\\s*\\?\\s*\\))(?:\\s*,\\s*\\((?:\\s*\\?\\s*,)*\\s*\\?\\s*\\))+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Map<String, StatementStats> statements = new ConcurrentHashMap<>();
+    private static volatile StatementStats other = new StatementStats("(other statements)");
+    private static final Map<String, String> normalized = new ConcurrentHashMap<>();
+    private static final ThreadLocal<OperationState> operations = ThreadLocal.withInitial(OperationState::new);
+    private static final Metrics.Counter executions = Metrics.counter("bank_sql_executions_total", "Profiled SQL executions");
+    private static final Metrics.Counter slowExecutions = Metrics.counter("bank_sql_slow_executions_total", "SQL executions slower than the slow-query threshold");
+    private static final Metrics.Counter nPlusOneFlags = Metrics.counter("bank_sql_n_plus_one_total", "Statements flagged as possible N+1 queries");
+
+    static {
+        if (ENABLED) {
+            Runtime.getRuntime().addShutdownHook(new Thread(SqlProfiler::report, "sql-profile-report"));
+        }
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * @return a DataSource whose connections are profiled
+     */
+    public static DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            return result instanceof Connection ? wrapConnection((Connection) result) : result;
+        });
+    }
+
+    /**
+     * Mark the statements run by the current thread until {@link Operation#close()} as one logical
+     * operation for N+1 detection. Nested scopes belong to the outermost one. Costs nothing when
+     * profiling is off.
+     */
+    public static Operation operation(String name) {
+        if (!ENABLED) {
+            return Operation.NONE;
+        }
+        OperationState state = operations.get();
+        if (state.depth++ == 0) {
+            state.start(name);
+        }
+        return Operation.SCOPE;
+    }
+
+    /**
+     * @return statistics per normalized statement, by total execution time (largest first)
+     */
+    public static List<StatementStats> statements() {
+        List<StatementStats> list = new ArrayList<>(statements.values());
+        if (other.getCount() > 0) {
+            list.add(other);
+        }
+        list.sort(Comparator.comparingLong(StatementStats::getTotalNanos).reversed());
+        return list;
+    }
+
+    /**
+     * Forget all statistics, e.g. between test runs
+     */
+    public static void reset() {
+        statements.clear();
+        other = new StatementStats("(other statements)");
+    }
+
+    public static void report() {
+        List<StatementStats> list = statements();
+        if (list.isEmpty()) {
+            return;
+        }
+        System.out.println("🔎 SQL profile: " + list.size() + " distinct statements");
+        for (StatementStats stats : list.subList(0, Math.min(REPORT_TOP, list.size()))) {
+            long[] histogram = stats.histogram.counts();
+            System.out.printf("   %,d × %.1f ms total, p50 %.2f ms, p99 %.2f ms, fetch %.1f ms, %,d rows%s: %s%n",
+                    stats.getCount(), stats.getTotalNanos() / 1e6,
+                    LatencyHistogram.percentile(histogram, 0.50) / 1000.0,
+                    LatencyHistogram.percentile(histogram, 0.99) / 1000.0,
+                    stats.fetchNanos.sum() / 1e6, stats.rows.sum(),
+                    stats.getNPlusOneFlags() > 0 ? " ⚠️ N+1 ×" + stats.getNPlusOneFlags() : "",
+                    stats.getSql());
+        }
+    }
+
+    /**
+     * Normalize SQL text so executions that differ only in literal values aggregate together
+     */
+    static String normalize(String sql) {
+        String result = normalized.get(sql);
+        if (result != null) {
+            return result;
+        }
+        result = STRING_LITERAL.matcher(sql).replaceAll("?");
+        result = NUMBER_LITERAL.matcher(result).replaceAll("?");
+        result = WHITESPACE.matcher(result).replaceAll(" ").trim();
+        result = IN_LIST.matcher(result).replaceAll("IN (?...)");
+        result = VALUES_ROWS.matcher(result).replaceAll("$1, ...");
+        // Prepared SQL repeats; SQL with inlined literals would fill the cache with one-offs
+        if (normalized.size() < NORMALIZED_CACHE_SIZE) {
+            normalized.put(sql, result);
+        }
+        return result;
+    }
+
+    private static Connection wrapConnection(Connection connection) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            String name = method.getName();
+            if (result instanceof CallableStatement) {
+                return wrapStatement(CallableStatement.class, (Statement) result, (String) args[0]);
+            }
+            if (result instanceof PreparedStatement && name.startsWith("prepare")) {
+                return wrapStatement(PreparedStatement.class, (Statement) result, (String) args[0]);
+            }
+            if (result instanceof Statement && name.equals("createStatement")) {
+                return wrapStatement(Statement.class, (Statement) result, null);
+            }
+            return result;
+        });
+    }
+
+    private static <S extends Statement> S wrapStatement(Class<S> type, Statement statement, String preparedSql) {
+        if (!ENABLED) {
+            return traceStatement(type, statement, preparedSql);
+        }
+        Map<Integer, String> binds = new HashMap<>();
+        List<String> batchSql = new ArrayList<>();
+        return proxy(type, statement, (target, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                // Bind values are redacted: only their types are kept for the slow-query log
+                binds.put((Integer) args[0], args[1] == null || name.equals("setNull") ? "NULL" : args[1].getClass().getSimpleName());
+            } else if (name.equals("clearParameters")) {
+                binds.clear();
+            } else if (name.equals("addBatch") && args != null && args.length == 1) {
+                batchSql.add((String) args[0]);
+            }
+            if (!name.startsWith("execute")) {
+                return invoke(target, method, args);
+            }
+
+            String sql = args != null && args.length > 0 && args[0] instanceof String
+                    ? (String) args[0]
+                    : preparedSql != null ? preparedSql : String.join("; ", batchSql);
+            StatementStats stats = statsFor(normalize(sql));
+            long started = System.nanoTime();
+            Tracing.Span span = Tracing.child(stats.getSql(), "sql");
+            try {
+                Object result = invoke(target, method, args);
+                return result instanceof ResultSet ? wrapResultSet((ResultSet) result, stats) : result;
+            } finally {
+                span.end();
+                record(stats, System.nanoTime() - started, name.endsWith("Batch"), binds);
+                if (name.endsWith("Batch")) {
+                    batchSql.clear();
+                }
+            }
+        });
+    }
+
+    // Tracing only: one span per execution, named by the SQL text as is
+    private static <S extends Statement> S traceStatement(Class<S> type, Statement statement, String preparedSql) {
+        return proxy(type, statement, (target, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(target, method, args);
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+            if (sql == null) {
+                sql = method.getName();
+            } else if (sql.length() > SPAN_NAME_LENGTH) {
+                sql = sql.substring(0, SPAN_NAME_LENGTH) + "...";
+            }
+            Tracing.Span span = Tracing.child(sql, "sql");
+            try {
+                return invoke(target, method, args);
+            } finally {
+                span.end();
+            }
+        });
+    }
+
+    // Statements beyond the limit share one entry, so one-off SQL cannot grow the map without bound
+    private static StatementStats statsFor(String sql) {
+        StatementStats stats = statements.get(sql);
+        if (stats != null) {
+            return stats;
+        }
+        if (statements.size() >= MAX_STATEMENTS) {
+            return other;
+        }
+        return statements.computeIfAbsent(sql, StatementStats::new);
+    }
+
+    private static ResultSet wrapResultSet(ResultSet resultSet, StatementStats stats) {
+        return proxy(ResultSet.class, resultSet, (target, method, args) -> {
+            if (!method.getName().equals("next")) {
+                return invoke(target, method, args);
+            }
+            long started = System.nanoTime();
+            Object more = invoke(target, method, args);
+            stats.fetchNanos.add(System.nanoTime() - started);
+            if (Boolean.TRUE.equals(more)) {
+                stats.rows.increment();
+            }
+            return more;
+        });
+    }
+
+    private static void record(StatementStats stats, long elapsed, boolean batch, Map<Integer, String> binds) {
+        stats.count.increment();
+        stats.totalNanos.add(elapsed);
+        stats.histogram.record(elapsed / 1000);
+        executions.increment();
+
+        if (elapsed >= SLOW_NANOS) {
+            slowExecutions.increment();
+            System.err.println("🐢 Slow SQL (" + elapsed / 1_000_000 + " ms" + (batch ? ", batch" : "") + "): " +
+                    stats.getSql() + (binds.isEmpty() ? "" : " binds " + new TreeMap<>(binds).values()));
+        }
+
+        // A batch is the fix for N+1, not an instance of it
+        if (!batch) {
+            OperationState operation = operations.get();
+            int executed = operation.executed(stats.getSql());
+            if (executed == N_PLUS_ONE) {
+                stats.nPlusOne.increment();
+                nPlusOneFlags.increment();
+                System.err.println("⚠️ Possible N+1: executed " + N_PLUS_ONE + "+ times in " + operation.name + ": " + stats.getSql());
+            }
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, Handler handler) {
+        return (T) Proxy.newProxyInstance(SqlProfiler.class.getClassLoader(), new Class<?>[] {type},
+                (InvocationHandler) (proxy, method, args) -> handler.handle(target, method, args));
+    }
+
+    private interface Handler {
+        Object handle(Object target, Method method, Object[] args) throws Throwable;
+    }
+
+    /**
+     * Aggregated executions of one normalized statement
+     */
+    public static class StatementStats {
+        private final String sql;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder fetchNanos = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder nPlusOne = new LongAdder();
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        StatementStats(String sql) {
+            this.sql = sql;
+        }
+
+        public String getSql() { return sql; }
+        public long getCount() { return count.sum(); }
+        public long getTotalNanos() { return totalNanos.sum(); }
+        /** Time spent in ResultSet.next() */
+        public long getFetchNanos() { return fetchNanos.sum(); }
+        public long getRows() { return rows.sum(); }
+        /** Number of operations in which this statement was flagged as a possible N+1 query */
+        public long getNPlusOneFlags() { return nPlusOne.sum(); }
+        public double getPercentileMillis(double quantile) {
+            return LatencyHistogram.percentile(histogram.counts(), quantile) / 1000.0;
+        }
+    }
+
+    /**
+     * Scope returned by {@link #operation(String)}
+     */
+    public static class Operation implements AutoCloseable {
+        static final Operation NONE = new Operation(false);
+        static final Operation SCOPE = new Operation(true);
+
+        private final boolean active;
+
+        private Operation(boolean active) {
+            this.active = active;
+        }
+
+        @Override
+        public void close() {
+            if (active) {
+                OperationState state = operations.get();
+                if (--state.depth == 0) {
+                    state.start(null);
+                }
+            }
+        }
+    }
+
+    // Statement counts of the current thread's logical operation
+    private static class OperationState {
+        private final Map<String, AtomicInteger> counts = new HashMap<>();
+        private String name;
+        private int depth;
+        private long lastNanos;
+
+        void start(String operationName) {
+            counts.clear();
+            name = operationName;
+            lastNanos = System.nanoTime();
+        }
+
+        int executed(String sql) {
+            long now = System.nanoTime();
+            if (depth == 0 && now - lastNanos > OPERATION_GAP_NANOS) {
+                start(null);
+            }
+            lastNanos = now;
+            if (name == null) {
+                name = "thread " + Thread.currentThread().getName();
+            }
+            return counts.computeIfAbsent(sql, s -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package bankmanagementsystem.model;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped sub-balance slots for a hot account.
+ * Each slot has its own lock, so concurrent credits on different threads land on different slots
+ * instead of queueing on one balance. Values are stored as double bits in padded positions of an
+ * {@link AtomicLongArray} so readers can sum the slots without taking any lock.
+ * Each slot also tracks the part of its value not yet written to its account_balance_slots row;
+ * the next balance write drains it into the same transaction.
+ */
+class StripedBalance {
+    // 8 longs = 64 bytes between slots, so two slots never share a cache line
+    private static final int PAD = 8;
+    // Offset of the unsaved amount within a slot's padding
+    private static final int UNSAVED = 1;
+
+    private final AtomicLongArray values;
+    private final ReentrantLock[] locks;
+    // Held while slot amounts are being written or folded, so a fold never races an uncommitted drain.
+    // Take it before any slot lock
+    final ReentrantLock writes = new ReentrantLock();
+
+    StripedBalance(int stripes) {
+        this.values = new AtomicLongArray(stripes * PAD);
+        this.locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    int stripes() {
+        return locks.length;
+    }
+
+    /**
+     * Lock a slot for a credit, preferring the calling thread's home slot and falling back to the
+     * first free one; blocks on the home slot only if every slot is busy
+     * @return index of the locked slot, to be released with {@link #unlock(int)}
+     */
+    int lockSlot() {
+        int n = locks.length;
+        int home = Math.floorMod(Long.hashCode(Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L), n);
+        for (int i = 0; i < n; i++) {
+            int slot = (home + i) % n;
+            if (locks[slot].tryLock()) {
+                return slot;
+            }
+        }
+        locks[home].lock();
+        return home;
+    }
+
+    void unlock(int slot) {
+        locks[slot].unlock();
+    }
+
+    // Caller must hold the slot's lock; the amount is unsaved until drained
+    void add(int slot, double amount) {
+        values.set(slot * PAD, Double.doubleToRawLongBits(get(slot) + amount));
+        values.set(slot * PAD + UNSAVED, Double.doubleToRawLongBits(unsaved(slot) + amount));
+    }
+
+    // Caller must hold the slot's lock; sets a value that matches the slot row
+    void set(int slot, double amount) {
+        values.set(slot * PAD, Double.doubleToRawLongBits(amount));
+        values.set(slot * PAD + UNSAVED, 0);
+    }
+
+    double get(int slot) {
+        return Double.longBitsToDouble(values.get(slot * PAD));
+    }
+
+    private double unsaved(int slot) {
+        return Double.longBitsToDouble(values.get(slot * PAD + UNSAVED));
+    }
+
+    /**
+     * Take the amounts credited since the last drain, to be added to the slot rows
+     * @return per-slot amounts, or null if nothing is unsaved
+     */
+    double[] drain() {
+        double[] drained = null;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i].lock();
+            try {
+                double amount = unsaved(i);
+                if (amount != 0) {
+                    if (drained == null) {
+                        drained = new double[locks.length];
+                    }
+                    drained[i] = amount;
+                    values.set(i * PAD + UNSAVED, 0);
+                }
+            } finally {
+                locks[i].unlock();
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * Give back amounts from {@link #drain()} whose write was rolled back, so the next write retries them
+     */
+    void undrain(double[] drained) {
+        for (int i = 0; i < drained.length; i++) {
+            if (drained[i] != 0) {
+                locks[i].lock();
+                try {
+                    values.set(i * PAD + UNSAVED, Double.doubleToRawLongBits(unsaved(i) + drained[i]));
+                } finally {
+                    locks[i].unlock();
+                }
+            }
+        }
+    }
+
+    double sum() {
+        double total = 0;
+        for (int i = 0; i < locks.length; i++) {
+            total += get(i);
+        }
+        return total;
+    }
+
+    void lockAll() {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+    }
+
+    void unlockAll() {
+        for (int i = locks.length - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
+}
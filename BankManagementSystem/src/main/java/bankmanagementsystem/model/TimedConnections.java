@@ -0,0 +1,74 @@
+package bankmanagementsystem.model;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Times how long each caller of {@link DatabaseConfig#getConnection()} holds its connection, into
+ * {@link Metrics#DAO} with one timer per calling method (e.g. "HoldDAO.updateStatuses").
+ * The DAOs that no repository fronts (holds, ID sequences, balance slots, bulk loads, seeding) are
+ * timed here as well as those behind {@link TimedRepositories}.
+ */
+class TimedConnections {
+    private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    static Connection open(DataSource dataSource) throws SQLException {
+        Metrics.Sample sample = Metrics.DAO.start(caller());
+        Connection connection;
+        try {
+            connection = dataSource.getConnection();
+        } catch (SQLException | RuntimeException e) {
+            sample.stop();
+            throw e;
+        }
+        InvocationHandler handler = new Handler(connection, sample);
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, handler);
+    }
+
+    private static String caller() {
+        return WALKER.walk(frames -> frames
+                .filter(f -> f.getDeclaringClass() != TimedConnections.class && f.getDeclaringClass() != DatabaseConfig.class)
+                .findFirst()
+                .map(f -> f.getDeclaringClass().getSimpleName() + "." + enclosingMethod(f.getMethodName()))
+                .orElse("unknown"));
+    }
+
+    // A lambda body is named lambda$method$N; count it under the method it was written in
+    private static String enclosingMethod(String name) {
+        if (!name.startsWith("lambda$")) {
+            return name;
+        }
+        int end = name.indexOf('$', "lambda$".length());
+        return end < 0 ? name : name.substring("lambda$".length(), end);
+    }
+
+    private static class Handler implements InvocationHandler {
+        private final Connection target;
+        private final Metrics.Sample sample;
+        private boolean closed;
+
+        Handler(Connection target, Metrics.Sample sample) {
+            this.target = target;
+            this.sample = sample;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                if (method.getName().equals("close") && !closed) {
+                    closed = true;
+                    sample.stop();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package bankmanagementsystem.model;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Times every repository call into {@link Metrics#REPOSITORY}, one timer per method
+ * (e.g. "AccountRepository.updateBalances"), and opens a {@link Tracing} span for it.
+ * This covers both backends; DAOs used outside the repositories are timed per connection by
+ * {@link TimedConnections}.
+ */
+class TimedRepositories {
+
+    static <T> T wrap(Class<T> type, T target) {
+        InvocationHandler handler = new Handler(type.getSimpleName(), target);
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler));
+    }
+
+    private static class Handler implements InvocationHandler {
+        private final String prefix;
+        private final Object target;
+
+        Handler(String name, Object target) {
+            this.prefix = name + ".";
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return method.invoke(target, args);
+            }
+            Metrics.Sample sample = Metrics.REPOSITORY.start(prefix + method.getName());
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                sample.stop();
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package bankmanagementsystem.model;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel for expiring large numbers of timeouts.
+ * Deadlines are hashed into a fixed ring of buckets by tick; each tick the worker only visits the
+ * bucket under the cursor, so the cost of a tick depends on the timeouts that hash to that bucket,
+ * not on the total number of outstanding timeouts. Timeouts further away than one revolution carry
+ * a remaining-rounds counter. Scheduling from any thread is a lock-free queue offer; the entries are
+ * moved into their buckets by the worker thread, which is the only thread touching the buckets.
+ * @param <T> item carried by each timeout
+ */
+public class TimingWheel<T> {
+    private final long tickMillis;
+    private final List<LinkedList<Timeout<T>>> wheel;
+    private final int mask;
+    private final Queue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+    private final Consumer<List<T>> onExpired;
+    private final long startMillis;
+    private final Thread worker;
+    private long tick;
+    private boolean started;
+
+    /**
+     * @param name Worker thread name
+     * @param tickMillis Length of one tick in milliseconds (expiry precision)
+     * @param ticksPerWheel Number of buckets (rounded up to a power of two)
+     * @param onExpired Called on the worker thread with all items that expired in a tick
+     */
+    public TimingWheel(String name, long tickMillis, int ticksPerWheel, Consumer<List<T>> onExpired) {
+        int size = Integer.highestOneBit(Math.max(1, ticksPerWheel - 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.wheel = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            wheel.add(new LinkedList<>());
+        }
+        this.onExpired = onExpired;
+        this.startMillis = System.currentTimeMillis();
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+    }
+
+    public synchronized void start() {
+        if (!started) {
+            started = true;
+            worker.start();
+        }
+    }
+
+    /**
+     * Schedule an item to expire at the given time
+     * @param item Item to hand to the expiry callback
+     * @param deadlineMillis Epoch milliseconds at which the item expires
+     * @return handle that can cancel the timeout
+     */
+    public Timeout<T> schedule(T item, long deadlineMillis) {
+        Timeout<T> timeout = new Timeout<>(item, deadlineMillis);
+        pending.offer(timeout);
+        return timeout;
+    }
+
+    private void run() {
+        while (true) {
+            long nextTickAt = startMillis + (tick + 1) * tickMillis;
+            long sleep = nextTickAt - System.currentTimeMillis();
+            if (sleep > 0) {
+                try {
+                    Thread.sleep(sleep);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            transferPending();
+            List<T> expired = expireBucket(wheel.get((int) (tick & mask)));
+            tick++;
+            if (!expired.isEmpty()) {
+                try {
+                    onExpired.accept(expired);
+                } catch (RuntimeException e) {
+                    System.err.println("❌ Error handling expired timeouts: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void transferPending() {
+        Timeout<T> timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.cancelled) {
+                continue;
+            }
+            long deadlineTick = Math.max(tick, (timeout.deadlineMillis - startMillis) / tickMillis);
+            timeout.remainingRounds = (deadlineTick - tick) / wheel.size();
+            wheel.get((int) (deadlineTick & mask)).add(timeout);
+        }
+    }
+
+    private List<T> expireBucket(LinkedList<Timeout<T>> bucket) {
+        List<T> expired = new ArrayList<>();
+        Iterator<Timeout<T>> it = bucket.iterator();
+        while (it.hasNext()) {
+            Timeout<T> timeout = it.next();
+            if (timeout.cancelled) {
+                it.remove();
+            } else if (timeout.remainingRounds <= 0) {
+                it.remove();
+                expired.add(timeout.item);
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Handle for a scheduled timeout
+     */
+    public static class Timeout<T> {
+        private final T item;
+        private final long deadlineMillis;
+        private volatile boolean cancelled;
+        private long remainingRounds;
+
+        Timeout(T item, long deadlineMillis) {
+            this.item = item;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        // Cancelled timeouts are dropped the next time the worker visits their bucket
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public T getItem() { return item; }
+        public long getDeadlineMillis() { return deadlineMillis; }
+    }
+}
@@ -0,0 +1,420 @@
+package bankmanagementsystem.model;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Operation tracing: one trace per user action, made of nested spans from the controller handler
+ * through the repositories and the audit log down to single SQL statements.
+ * Enabled with {@code -Dbank.trace=true}; when disabled every method returns a shared no-op span and
+ * costs one flag check.
+ * The current span is kept per thread. Work handed to another thread ({@link PersistenceExecutor},
+ * {@link AccountMailboxes}) carries the span it was submitted under, so its spans join the same trace.
+ * <p>
+ * Finished spans are written in the Chrome Trace Event format (JSON array) to
+ * {@code -Dbank.trace.file} (default data/traces/trace-&lt;timestamp&gt;.json), which chrome://tracing,
+ * Perfetto and speedscope open as a per-thread flame chart. Spans that end on the thread that started
+ * them are complete ("X") events; spans handed to a background write ({@link Span#detach()}) are async
+ * events on their own track, and hand-offs between threads are drawn as flow arrows.
+ * Events are formatted on the calling thread and appended by a background writer; the closing bracket
+ * is written at shutdown, but the format allows it to be missing if the process is killed.
+ */
+public class Tracing {
+    private static final boolean ENABLED = Boolean.getBoolean("bank.trace");
+    private static final String TRACE_DIR = "data/traces";
+    private static final DateTimeFormatter FILE_TS = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final int MAX_QUEUED = 100_000;
+    private static final int MAX_DRAIN = 4096;
+
+    private static final Span NOOP = new Span();
+    private static final ThreadLocal<Span> current = new ThreadLocal<>();
+
+    // Wall clock at class load, so timestamps line up with the audit log and other logs
+    private static final long BASE_NANOS = System.nanoTime();
+    private static final long BASE_EPOCH_NANOS = System.currentTimeMillis() * 1_000_000L;
+    private static final long PID = ProcessHandle.current().pid();
+
+    private static final LinkedBlockingQueue<String> queue = new LinkedBlockingQueue<>(MAX_QUEUED);
+    private static final Set<Long> namedThreads = ConcurrentHashMap.newKeySet();
+    private static final AtomicLong flowIds = new AtomicLong();
+    private static final Object writeLock = new Object();
+    private static BufferedWriter out;
+    private static boolean firstEvent = true;
+
+    private static final Metrics.Counter spansRecorded = Metrics.counter("bank_trace_spans_total", "Spans finished while tracing");
+    private static final Metrics.Counter spansDropped = Metrics.counter("bank_trace_spans_dropped_total", "Spans dropped because the trace writer fell behind");
+
+    static {
+        if (ENABLED) {
+            open();
+        }
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Start a new trace, e.g. for a button handler. The span becomes the current span of this thread
+     * until it ends.
+     */
+    public static Span root(String name) {
+        if (!ENABLED) {
+            return NOOP;
+        }
+        return new Span(newTraceId(), 0, name, "ui", current.get());
+    }
+
+    /**
+     * Run a user action as a new trace, e.g. a button handler:
+     * {@code Tracing.run("LoginController.handleLogin", () -> { ... });}
+     */
+    public static <E extends Exception> void run(String name, Action<E> action) throws E {
+        Span span = root(name);
+        try {
+            action.run();
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Body of a traced action; may throw the checked exception of the method it replaces
+     */
+    @FunctionalInterface
+    public interface Action<E extends Exception> {
+        void run() throws E;
+    }
+
+    /**
+     * Start a span under the current span of this thread.
+     * @return the new span, or a no-op span when tracing is off or this thread is not in a trace
+     */
+    public static Span child(String name, String category) {
+        return childOf(current.get(), name, category);
+    }
+
+    /**
+     * Start a span under the given parent (from {@link #capture()}) and make it this thread's current span
+     */
+    public static Span childOf(Span parent, String name, String category) {
+        if (!ENABLED || parent == null || parent == NOOP) {
+            return NOOP;
+        }
+        return new Span(parent.traceId, parent.spanId, name, category, current.get());
+    }
+
+    /**
+     * @return the current span of this thread, to hand to another thread, or null if there is none
+     */
+    public static Span capture() {
+        return ENABLED ? current.get() : null;
+    }
+
+    /**
+     * Run the task under the span that is current now, wherever it ends up running
+     */
+    public static Runnable wrap(Runnable task) {
+        Span parent = capture();
+        if (parent == null) {
+            return task;
+        }
+        long flow = flowOut();
+        return () -> {
+            Span saved = enter(parent, flow);
+            try {
+                task.run();
+            } finally {
+                current.set(saved);
+            }
+        };
+    }
+
+    /**
+     * Run the supplier under the span that is current now, wherever it ends up running
+     */
+    public static <T> Supplier<T> wrap(Supplier<T> task) {
+        Span parent = capture();
+        if (parent == null) {
+            return task;
+        }
+        long flow = flowOut();
+        return () -> {
+            Span saved = enter(parent, flow);
+            try {
+                return task.get();
+            } finally {
+                current.set(saved);
+            }
+        };
+    }
+
+    /**
+     * Run the write under the span that is current now, wherever it ends up running
+     */
+    public static BooleanSupplier wrap(BooleanSupplier task) {
+        Span parent = capture();
+        if (parent == null) {
+            return task;
+        }
+        long flow = flowOut();
+        return () -> {
+            Span saved = enter(parent, flow);
+            try {
+                return task.getAsBoolean();
+            } finally {
+                current.set(saved);
+            }
+        };
+    }
+
+    // Adopt a span from another thread as this thread's current span; returns what to restore
+    private static Span enter(Span parent, long flow) {
+        Span saved = current.get();
+        current.set(parent);
+        nameThread(Thread.currentThread());
+        emit(flowEvent("f", flow).append('}'));
+        return saved;
+    }
+
+    // Start of a flow arrow from the current slice to wherever the task runs; returns its id
+    private static long flowOut() {
+        long flow = flowIds.incrementAndGet();
+        emit(flowEvent("s", flow).append('}'));
+        return flow;
+    }
+
+    // The end ("f") binds to the next slice that starts on the receiving thread
+    private static StringBuilder flowEvent(String phase, long flow) {
+        StringBuilder json = new StringBuilder(128).append("{\"name\":\"handoff\",\"cat\":\"handoff\",\"ph\":\"")
+                .append(phase).append("\",\"ts\":");
+        appendMicros(json, BASE_EPOCH_NANOS + (System.nanoTime() - BASE_NANOS));
+        return json.append(",\"pid\":").append(PID).append(",\"tid\":").append(Thread.currentThread().threadId())
+                .append(",\"id\":").append(flow);
+    }
+
+    private static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return String.format("%016x%016x", random.nextLong(), random.nextLong());
+    }
+
+    /**
+     * A timed, named piece of work within a trace. End it exactly once, normally in a finally block
+     * on the thread that started it.
+     */
+    public static final class Span implements AutoCloseable {
+        final String traceId;
+        final long spanId;
+        final long parentId;
+        private final String name;
+        private final String category;
+        private final long startNanos;
+        private final long threadId;
+        private final Span previous;
+        private volatile boolean detached;
+        private volatile boolean ended;
+
+        private Span() {
+            this.traceId = null;
+            this.spanId = 0;
+            this.parentId = 0;
+            this.name = null;
+            this.category = null;
+            this.startNanos = 0;
+            this.threadId = 0;
+            this.previous = null;
+            this.ended = true;
+        }
+
+        private Span(String traceId, long parentId, String name, String category, Span previous) {
+            this.traceId = traceId;
+            this.spanId = ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE | 1;
+            this.parentId = parentId;
+            this.name = name;
+            this.category = category;
+            this.previous = previous;
+            Thread thread = Thread.currentThread();
+            this.threadId = thread.threadId();
+            nameThread(thread);
+            this.startNanos = System.nanoTime();
+            current.set(this);
+        }
+
+        /**
+         * Give this thread its previous span back without ending this one, for work that completes
+         * later on another thread (the span is then shown on its own track)
+         */
+        public void detach() {
+            if (this == NOOP) {
+                return;
+            }
+            detached = true;
+            if (current.get() == this) {
+                current.set(previous);
+            }
+        }
+
+        public void end() {
+            if (ended) {
+                return;
+            }
+            ended = true;
+            long endNanos = System.nanoTime();
+            if (current.get() == this) {
+                current.set(previous);
+            }
+            StringBuilder args = new StringBuilder(96)
+                    .append("{\"traceId\":\"").append(traceId)
+                    .append("\",\"spanId\":\"").append(Long.toHexString(spanId))
+                    .append("\",\"parentId\":\"").append(parentId == 0 ? "" : Long.toHexString(parentId))
+                    .append("\"}");
+            if (detached) {
+                // Async begin/end pair keyed by span id, so it does not have to nest on the thread's track
+                emit(event("b", startNanos, threadId).append(",\"id\":\"0x").append(Long.toHexString(spanId))
+                        .append("\",\"args\":").append(args).append('}'));
+                emit(event("e", endNanos, threadId).append(",\"id\":\"0x").append(Long.toHexString(spanId)).append("\"}"));
+            } else {
+                StringBuilder complete = event("X", startNanos, threadId).append(",\"dur\":");
+                appendMicros(complete, endNanos - startNanos);
+                emit(complete.append(",\"args\":").append(args).append('}'));
+            }
+            spansRecorded.increment();
+        }
+
+        @Override
+        public void close() {
+            end();
+        }
+
+        private StringBuilder event(String phase, long nanos, long tid) {
+            StringBuilder json = new StringBuilder(192).append("{\"name\":");
+            appendString(json, name);
+            json.append(",\"cat\":\"").append(category).append("\",\"ph\":\"").append(phase).append("\",\"ts\":");
+            appendMicros(json, BASE_EPOCH_NANOS + (nanos - BASE_NANOS));
+            return json.append(",\"pid\":").append(PID).append(",\"tid\":").append(tid);
+        }
+    }
+
+    // Metadata event naming the thread's track, written once per thread
+    private static void nameThread(Thread thread) {
+        if (namedThreads.add(thread.threadId())) {
+            StringBuilder json = new StringBuilder("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":").append(PID)
+                    .append(",\"tid\":").append(thread.threadId()).append(",\"args\":{\"name\":");
+            appendString(json, thread.getName());
+            emit(json.append("}}"));
+        }
+    }
+
+    // Microseconds with nanosecond decimals, as the format expects
+    private static void appendMicros(StringBuilder json, long nanos) {
+        long fraction = nanos % 1000;
+        json.append(nanos / 1000).append('.');
+        if (fraction < 100) json.append('0');
+        if (fraction < 10) json.append('0');
+        json.append(fraction);
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+
+    private static void emit(CharSequence event) {
+        if (!queue.offer(event.toString())) {
+            spansDropped.increment();
+        }
+    }
+
+    private static void open() {
+        String path = System.getProperty("bank.trace.file",
+                TRACE_DIR + "/trace-" + LocalDateTime.now().format(FILE_TS) + ".json");
+        File file = new File(path);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        try {
+            out = new BufferedWriter(new FileWriter(file));
+            out.write("[");
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("❌ Cannot open trace file " + path + ": " + e.getMessage());
+            return;
+        }
+        Thread writer = new Thread(Tracing::runWriter, "trace-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Tracing::close, "trace-flush"));
+        System.out.println("🔎 Tracing operations to " + file.getAbsolutePath());
+    }
+
+    private static void runWriter() {
+        while (true) {
+            try {
+                String first = queue.poll(1, TimeUnit.SECONDS);
+                if (first != null) {
+                    synchronized (writeLock) {
+                        List<String> events = new ArrayList<>();
+                        events.add(first);
+                        queue.drainTo(events, MAX_DRAIN - 1);
+                        write(events);
+                    }
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    // Shutdown hook: write what is still queued and close the array
+    private static void close() {
+        synchronized (writeLock) {
+            List<String> events = new ArrayList<>();
+            queue.drainTo(events);
+            write(events);
+            try {
+                out.write("\n]\n");
+                out.close();
+            } catch (IOException e) {
+                System.err.println("❌ Error closing trace file: " + e.getMessage());
+            }
+        }
+    }
+
+    // Caller holds writeLock
+    private static void write(List<String> events) {
+        try {
+            for (String event : events) {
+                out.write(firstEvent ? "\n" : ",\n");
+                out.write(event);
+                firstEvent = false;
+            }
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("❌ Error writing trace file: " + e.getMessage());
+        }
+    }
+}
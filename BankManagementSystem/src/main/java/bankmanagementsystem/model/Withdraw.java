@@ -1,6 +1,11 @@
 package bankmanagementsystem.model;
 
 public interface Withdraw {
-    void withdraw(double amount);
+    /**
+     * Debit the account if the available balance covers the amount
+     * @param amount Amount to withdraw
+     * @return true if the account was debited, false if the funds were insufficient
+     */
+    boolean withdraw(double amount);
 }
 
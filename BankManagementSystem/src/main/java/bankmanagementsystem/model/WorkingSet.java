@@ -0,0 +1,348 @@
+package bankmanagementsystem.model;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded set of resident customers for BankData's working-set mode (-Dbank.workingSet.maxCustomers=N).
+ * Customers and their accounts are faulted in from the database on first use and kept in LRU order.
+ * When the set is full, the least recently used customer is evicted. A customer that changed since it
+ * was loaded or last written (see {@link Customer#changeCount()}) is written back before it is dropped,
+ * so eviction never loses data; if that write fails, the customer stays resident.
+ * No database I/O runs under the set's lock: faults load before taking it, and write-backs go to the
+ * {@link PersistenceExecutor}, the evicted customer staying resident until its write commits.
+ * Active holds are re-attached when their customer is faulted back in (see {@link HoldManager#reattach}),
+ * so they do not keep a customer resident. A customer with a hot account is pinned while it is in use;
+ * once it has not been accessed for -Dbank.workingSet.pinMillis (default five minutes), eviction folds
+ * the account and takes it out of hot-account mode, so pins cannot grow the set without bound.
+ * Whole-book operations use {@link #loadPage(String, int)}, which does not disturb the LRU order, so a
+ * scan over millions of customers does not push the active ones out.
+ */
+public class WorkingSet {
+    private static final long PIN_MILLIS = Long.getLong("bank.workingSet.pinMillis", 5 * 60 * 1000L);
+
+    private final int maxCustomers;
+    // Access-ordered: iteration starts at the least recently used customer
+    private final LinkedHashMap<String, Resident> residents = new LinkedHashMap<>(1024, 0.75f, true);
+    private long faults;
+    private long evictions;
+    private long writeBacks;
+
+    /**
+     * @return a working set sized from -Dbank.workingSet.maxCustomers, or null when the mode is off
+     */
+    public static WorkingSet fromSystemProperties() {
+        int max = Integer.getInteger("bank.workingSet.maxCustomers", 0);
+        return max > 0 ? new WorkingSet(max) : null;
+    }
+
+    public WorkingSet(int maxCustomers) {
+        this.maxCustomers = maxCustomers;
+    }
+
+    /**
+     * Return a resident customer, faulting it and its accounts in from the database if needed
+     * @param customerId Customer ID
+     * @return the customer, or null if it does not exist
+     */
+    public Customer get(String customerId) {
+        synchronized (this) {
+            Resident resident = residents.get(customerId);
+            if (resident != null) {
+                resident.touch();
+                return resident.customer;
+            }
+        }
+        Customer loaded = load(customerId);
+        if (loaded == null) {
+            return null;
+        }
+        List<Eviction> evictions;
+        synchronized (this) {
+            Resident resident = residents.get(customerId);
+            if (resident != null) {
+                // Faulted in by another thread meanwhile; everybody must share one object
+                resident.touch();
+                return resident.customer;
+            }
+            faults++;
+            residents.put(customerId, new Resident(loaded));
+            // Before any other thread can reach the new objects
+            HoldManager.reattach(loaded.getAccounts());
+            evictions = evictIfFull();
+        }
+        writeBack(evictions);
+        return loaded;
+    }
+
+    /**
+     * @param customerId Customer ID
+     * @return the customer if it is resident, without loading it or changing the LRU order
+     */
+    public synchronized Customer getIfResident(String customerId) {
+        Resident resident = residents.get(customerId);
+        return resident != null ? resident.customer : null;
+    }
+
+    /**
+     * Make a newly created customer resident. It stays dirty, so it is not evicted unwritten,
+     * until the caller's {@link #writeBack} succeeds.
+     * @param customer New customer
+     */
+    public void add(Customer customer) {
+        List<Eviction> evictions;
+        synchronized (this) {
+            Resident resident = new Resident(customer);
+            resident.dirty = true;
+            residents.put(customer.getCustomerId(), resident);
+            evictions = evictIfFull();
+        }
+        writeBack(evictions);
+    }
+
+    /**
+     * Drop a customer whose creation was rolled back or that was deleted; nothing is written back
+     * @param customerId Customer ID
+     */
+    public synchronized void remove(String customerId) {
+        residents.remove(customerId);
+    }
+
+    /**
+     * Write a copy of a resident customer (and its accounts and links) and mark the resident clean
+     * as of that copy
+     * @param customer Resident customer
+     * @param snapshot Copy taken by the thread that owns the customer (see {@link Snapshots})
+     * @param changeCount {@link Customer#changeCount()} of the customer when the copy was taken
+     * @return true if written
+     */
+    public boolean writeBack(Customer customer, Customer snapshot, long changeCount) {
+        boolean ok = writeRows(snapshot);
+        synchronized (this) {
+            Resident resident = residents.get(customer.getCustomerId());
+            if (ok && resident != null && resident.customer == customer) {
+                resident.markWritten(changeCount);
+            }
+        }
+        return ok;
+    }
+
+    /**
+     * Mark a resident clean again after a bulk update wrote the only changes made to it since it was
+     * last clean. Nothing happens if the resident was dirty before, or changed again meanwhile.
+     * @param customer Customer
+     * @param before {@link Customer#changeCount()} before the update's changes
+     * @param after Expected change count with the update's changes and nothing else
+     */
+    public synchronized void markClean(Customer customer, long before, long after) {
+        Resident resident = residents.get(customer.getCustomerId());
+        if (resident != null && resident.customer == customer && !resident.dirty
+                && resident.writtenAt == before && customer.changeCount() == after) {
+            resident.markWritten(after);
+        }
+    }
+
+    /**
+     * Load one page of customers with their accounts in customer ID order, for whole-book scans.
+     * Resident customers are returned as their resident objects; the others are loaded with two
+     * queries for the whole page and are not made resident.
+     * @param afterCustomerId Last customer ID of the previous page, or null for the first page
+     * @param limit Page size
+     * @return customers of the page (empty when the scan is complete)
+     */
+    public List<Customer> loadPage(String afterCustomerId, int limit) {
+        List<Customer> page = Repositories.customers().loadAfter(afterCustomerId, limit);
+        List<Customer> result = new ArrayList<>(page.size());
+        List<Customer> transients = new ArrayList<>();
+        synchronized (this) {
+            for (Customer customer : page) {
+                Resident resident = residents.get(customer.getCustomerId());
+                if (resident != null) {
+                    result.add(resident.customer);
+                } else {
+                    result.add(customer);
+                    transients.add(customer);
+                }
+            }
+        }
+        for (Account account : Repositories.accounts().findByCustomers(transients)) {
+            account.getCustomer().addAccount(account);
+        }
+        return result;
+    }
+
+    /**
+     * @return snapshot of the resident customers
+     */
+    public synchronized List<Customer> residents() {
+        List<Customer> customers = new ArrayList<>(residents.size());
+        for (Resident resident : residents.values()) {
+            customers.add(resident.customer);
+        }
+        return customers;
+    }
+
+    public synchronized int size() { return residents.size(); }
+    public int getMaxCustomers() { return maxCustomers; }
+    public synchronized long getFaultCount() { return faults; }
+    public synchronized long getEvictionCount() { return evictions; }
+    public synchronized long getWriteBackCount() { return writeBacks; }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("Working set: %d/%d resident, faults=%d, evictions=%d, write-backs=%d",
+                residents.size(), maxCustomers, faults, evictions, writeBacks);
+    }
+
+    private Customer load(String customerId) {
+        Customer customer = Repositories.customers().findById(customerId);
+        if (customer == null) {
+            return null;
+        }
+        List<Account> accounts = Repositories.accounts().findByCustomerId(customerId, List.of(customer));
+        if (accounts == null) {
+            // Not made resident without its accounts; the next access tries again
+            return null;
+        }
+        for (Account account : accounts) {
+            customer.addAccount(account);
+        }
+        return customer;
+    }
+
+    // Drops clean residents now; dirty ones (and lapsed hot pins) stay until writeBack commits them
+    private List<Eviction> evictIfFull() {
+        List<Eviction> pending = new ArrayList<>();
+        int excess = residents.size() - maxCustomers;
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<String, Resident>> it = residents.entrySet().iterator();
+        while (excess > 0 && it.hasNext()) {
+            Resident resident = it.next().getValue();
+            if (resident.evicting) {
+                excess--;
+                continue;
+            }
+            boolean hot = hasHotAccount(resident.customer);
+            if (hot && now - resident.lastAccess < PIN_MILLIS) {
+                continue;
+            }
+            excess--;
+            if (!hot && !resident.isDirty()) {
+                it.remove();
+                evictions++;
+                continue;
+            }
+            // Copied here, on the thread that owns the objects (see Snapshots)
+            resident.evicting = true;
+            pending.add(new Eviction(resident, Snapshots.customer(resident.customer), resident.customer.changeCount(), hot));
+        }
+        return pending;
+    }
+
+    private static boolean hasHotAccount(Customer customer) {
+        for (Account account : customer.getAccounts()) {
+            if (account.isHot()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeBack(List<Eviction> pending) {
+        for (Eviction eviction : pending) {
+            Customer customer = eviction.resident.customer;
+            PersistenceExecutor.submit("evict " + customer.getCustomerId(), () -> {
+                if (eviction.hot) {
+                    // Folds the slots into the main balance, which the evicted rows then carry
+                    for (Account account : customer.getAccounts()) {
+                        if (account.isHot() && !HotAccounts.disable(account)) {
+                            return false;
+                        }
+                    }
+                    eviction.changeCount = customer.changeCount();
+                    return writeRows(Snapshots.customer(customer));
+                }
+                return writeRows(eviction.snapshot);
+            }).thenAccept(ok -> finishEviction(eviction, ok));
+        }
+    }
+
+    // A customer used or changed again while its write-back ran stays resident
+    private synchronized void finishEviction(Eviction eviction, boolean ok) {
+        Resident resident = eviction.resident;
+        resident.evicting = false;
+        String customerId = resident.customer.getCustomerId();
+        if (!ok || residents.get(customerId) != resident) {
+            return;
+        }
+        if (resident.lastAccess <= eviction.startedAt && resident.customer.changeCount() == eviction.changeCount
+                && !hasHotAccount(resident.customer)) {
+            residents.remove(customerId);
+            evictions++;
+            return;
+        }
+        resident.markWritten(eviction.changeCount);
+    }
+
+    private boolean writeRows(Customer customer) {
+        boolean ok = Repositories.customers().save(customer);
+        Repositories.links().save(customer);
+        for (Account account : customer.getAccounts()) {
+            ok &= Repositories.accounts().save(account);
+        }
+        if (ok) {
+            synchronized (this) {
+                writeBacks++;
+            }
+        }
+        return ok;
+    }
+
+    private static class Eviction {
+        final Resident resident;
+        final Customer snapshot;
+        final boolean hot;
+        final long startedAt = System.currentTimeMillis();
+        // Change count the written rows reflect; for a hot customer, taken after its accounts were folded
+        volatile long changeCount;
+
+        Eviction(Resident resident, Customer snapshot, long changeCount, boolean hot) {
+            this.resident = resident;
+            this.snapshot = snapshot;
+            this.changeCount = changeCount;
+            this.hot = hot;
+        }
+    }
+
+    private static class Resident {
+        final Customer customer;
+        // Set for customers created in memory, until their first write succeeds
+        boolean dirty;
+        // Change count of the customer as of its last write (or load)
+        long writtenAt;
+        long lastAccess = System.currentTimeMillis();
+        // Set while an eviction write-back is queued or running
+        boolean evicting;
+
+        Resident(Customer customer) {
+            this.customer = customer;
+            this.writtenAt = customer.changeCount();
+        }
+
+        void touch() {
+            lastAccess = System.currentTimeMillis();
+        }
+
+        boolean isDirty() {
+            return dirty || customer.changeCount() != writtenAt;
+        }
+
+        void markWritten(long changeCount) {
+            dirty = false;
+            writtenAt = changeCount;
+        }
+    }
+}
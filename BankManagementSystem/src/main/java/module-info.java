@@ -12,6 +12,13 @@ module bank.bankmanagementsystem {
     requires java.sql;
     requires com.zaxxer.hikari;
 
+    // Metrics reporters (Prometheus endpoint, JMX)
+    requires jdk.httpserver;
+    requires java.management;
+
+    // Flight Recorder events (FlightEvents)
+    requires jdk.jfr;
+
     opens bankmanagementsystem to javafx.fxml;
     opens bankmanagementsystem.controller to javafx.fxml;
     opens bankmanagementsystem.model to javafx.fxml;
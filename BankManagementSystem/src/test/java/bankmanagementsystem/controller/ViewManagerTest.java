@@ -0,0 +1,76 @@
+package bankmanagementsystem.controller;
+
+import javafx.fxml.FXML;
+import javafx.scene.control.TextInputControl;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Checks the cached views without starting the FX toolkit: the FXML the preloader reads, the
+ * controllers it names, and the reset hook each reused controller needs.
+ */
+class ViewManagerTest {
+    private static final Pattern CONTROLLER = Pattern.compile("fx:controller=\"([^\"]+)\"");
+    private static final Pattern HANDLER = Pattern.compile("on[A-Z]\\w*=\"#(\\w+)\"");
+
+    @Test
+    void everyViewNamesAControllerWithItsHandlers() throws Exception {
+        for (ViewManager.View view : ViewManager.View.values()) {
+            String fxml = read(view);
+            Matcher controller = CONTROLLER.matcher(fxml);
+            assertTrue(controller.find(), view + " names no controller");
+            Class<?> type = Class.forName(controller.group(1));
+            assertNotNull(type.getDeclaredConstructor(), view + " controller cannot be created by FXMLLoader");
+
+            Matcher handler = HANDLER.matcher(fxml);
+            while (handler.find()) {
+                assertTrue(hasHandler(type, handler.group(1)), view + " refers to missing handler " + handler.group(1));
+            }
+        }
+    }
+
+    @Test
+    void controllersWithInputFieldsClearThemBetweenVisits() throws Exception {
+        for (ViewManager.View view : ViewManager.View.values()) {
+            Matcher controller = CONTROLLER.matcher(read(view));
+            assertTrue(controller.find());
+            Class<?> type = Class.forName(controller.group(1));
+            for (Field field : type.getDeclaredFields()) {
+                if (field.isAnnotationPresent(FXML.class) && TextInputControl.class.isAssignableFrom(field.getType())) {
+                    assertTrue(ReusableView.class.isAssignableFrom(type),
+                            type.getSimpleName() + " keeps typed input in " + field.getName() + " across visits");
+                    break;
+                }
+            }
+        }
+    }
+
+    private static String read(ViewManager.View view) throws IOException {
+        try (InputStream in = ViewManager.class.getResourceAsStream("/view/" + view.getFxml())) {
+            if (in == null) {
+                fail(view.getFxml() + " is not on the classpath");
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static boolean hasHandler(Class<?> type, String name) {
+        for (Method method : type.getDeclaredMethods()) {
+            if (method.getName().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,123 @@
+package bankmanagementsystem.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mailbox messages must always complete, and a failed write must leave the account as it was
+ */
+class AccountMailboxesTest {
+
+    private static ChequeAccount account(String number, double balance) {
+        Customer owner = new PersonalCustomer("CMBX" + number, "Mail", "Box", "Gaborone", "ID" + number);
+        ChequeAccount account = new ChequeAccount(number, owner, "Main", balance, "Employer", "Plot 1");
+        owner.addAccount(account);
+        return account;
+    }
+
+    private static boolean await(CompletableFuture<Boolean> result) throws Exception {
+        return result.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void depositAndCloseCommitTogether() throws Exception {
+        ChequeAccount account = account("MBX-1", 100);
+        Repositories.accounts().save(account);
+
+        assertTrue(await(AccountMailboxes.deposit(account, 50, "test")));
+        assertTrue(await(AccountMailboxes.close(account, "test")));
+
+        Account stored = Repositories.accounts().findByCustomerId(account.getCustomer().getCustomerId(),
+                List.of(account.getCustomer())).get(0);
+        assertEquals(150, stored.getBalance(), 1e-9);
+        assertTrue(stored.isClosed());
+    }
+
+    @Test
+    void failedWriteRollsBackAndCompletesFalse() throws Exception {
+        // Never saved to the repository, so the balance write fails
+        ChequeAccount account = account("MBX-2", 100);
+
+        assertFalse(await(AccountMailboxes.deposit(account, 40, "test")));
+        assertFalse(await(AccountMailboxes.withdraw(account, 30, "test")));
+        assertFalse(await(AccountMailboxes.close(account, "test")));
+
+        assertEquals(100, account.getBalance(), 1e-9);
+        assertFalse(account.isClosed());
+    }
+
+    @Test
+    void throwingMessageDoesNotStopTheLane() throws Exception {
+        Customer owner = new PersonalCustomer("CMBX-3", "Mail", "Box", "Gaborone", "IDMBX-3");
+        Account broken = new Account("MBX-3", owner, "Main", 0) {
+            @Override
+            void depositUnlocked(double amount) {
+                throw new IllegalStateException("broken account");
+            }
+
+            @Override
+            public void displayAccountInfo() {
+            }
+        };
+
+        assertFalse(await(AccountMailboxes.deposit(broken, 10, "test")));
+        // The same lane still takes messages afterwards
+        assertFalse(await(AccountMailboxes.deposit(broken, 10, "test")));
+    }
+
+    @Test
+    void exclusiveSectionHoldsBackTheAccountsLane() throws Exception {
+        ChequeAccount account = account("MBX-4", 0);
+        Repositories.accounts().save(account);
+
+        CompletableFuture<Boolean> deposit = AccountMailboxes.exclusive(List.of(account), () -> {
+            CompletableFuture<Boolean> queued = AccountMailboxes.deposit(account, 5, "test");
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            assertFalse(queued.isDone(), "the lane waits until the section returns");
+            assertEquals(0, account.getBalance(), 1e-9);
+            return queued;
+        });
+
+        assertTrue(await(deposit));
+        assertEquals(5, account.getBalance(), 1e-9);
+    }
+
+    @Test
+    void laneNeverWaitsForTheAccountMonitor() throws Exception {
+        ChequeAccount account = account("MBX-5", 100);
+        Repositories.accounts().save(account);
+
+        synchronized (account) {
+            assertTrue(await(AccountMailboxes.deposit(account, 20, "test")));
+            assertTrue(await(AccountMailboxes.withdraw(account, 70, "test")));
+        }
+        assertEquals(50, account.getBalance(), 1e-9);
+    }
+
+    @Test
+    void reservationsOnTheLaneLimitWithdrawals() throws Exception {
+        ChequeAccount account = account("MBX-6", 100);
+        Repositories.accounts().save(account);
+
+        assertTrue(await(AccountMailboxes.reserve(account, 80)));
+        assertFalse(await(AccountMailboxes.reserve(account, 30)), "only 20 is still available");
+        assertFalse(await(AccountMailboxes.withdraw(account, 30, "test")));
+        assertTrue(await(AccountMailboxes.close(account, "test")));
+        // A closed account still gets its reservation back
+        assertTrue(await(AccountMailboxes.release(account, 80)));
+
+        assertEquals(0, account.getHeldAmount(), 1e-9);
+        assertEquals(100, account.getBalance(), 1e-9);
+    }
+}
@@ -0,0 +1,85 @@
+package bankmanagementsystem.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BankEventBusTest {
+
+    @Test
+    void burstCostsOneWakeUpAndOneEventPerAccount() {
+        Customer owner = new PersonalCustomer("CEVT-1", "Mpho", "Dube", "Gaborone", "IDEVT-1");
+        SavingsAccount first = new SavingsAccount("EVT-1", owner, "Main", 0);
+        SavingsAccount second = new SavingsAccount("EVT-2", owner, "Spare", 0);
+        AtomicInteger wakeUps = new AtomicInteger();
+        BankEventBus.Coalescer coalescer = new BankEventBus.Coalescer(wakeUps::incrementAndGet);
+
+        for (int i = 1; i <= 1000; i++) {
+            coalescer.accept(BankEvent.accountCredited(i % 2 == 0 ? first : second, i));
+        }
+        List<BankEvent> frame = coalescer.drain();
+
+        assertEquals(1, wakeUps.get());
+        assertEquals(2, frame.size());
+        for (BankEvent event : frame) {
+            // Only the latest change per account survives
+            assertEquals(event.getAccountNumber().equals("EVT-1") ? 1000 : 999, event.getAmount(), 1e-9);
+        }
+
+        coalescer.accept(BankEvent.accountClosed(first));
+        assertEquals(2, wakeUps.get(), "an event after a drain must wake the screen again");
+        assertEquals(BankEvent.Type.ACCOUNT_CLOSED, coalescer.drain().get(0).getType());
+    }
+
+    @Test
+    void failingListenerDoesNotStarveTheOthers() {
+        List<BankEvent> seen = new CopyOnWriteArrayList<>();
+        Runnable broken = BankEventBus.subscribe(event -> {
+            throw new IllegalStateException("screen gone");
+        });
+        Runnable working = BankEventBus.subscribe(seen::add);
+        try {
+            BankEventBus.publish(BankEvent.customerUpdated("CEVT-2"));
+        } finally {
+            broken.run();
+            working.run();
+        }
+        BankEventBus.publish(BankEvent.customerUpdated("CEVT-2"));
+
+        assertEquals(1, seen.size(), "unsubscribed listeners must not be called");
+    }
+
+    @Test
+    void committedDepositReachesSubscribers() throws Exception {
+        Customer owner = new PersonalCustomer("CEVT-3", "Naledi", "Kgosi", "Serowe", "IDEVT-3");
+        ChequeAccount account = new ChequeAccount("EVT-3", owner, "Main", 10, "Employer", "Plot 3");
+        owner.addAccount(account);
+        assertTrue(BankData.addCustomer(owner).get(10, TimeUnit.SECONDS));
+        List<BankEvent> seen = new CopyOnWriteArrayList<>();
+        Runnable unsubscribe = BankEventBus.subscribe(event -> {
+            if ("EVT-3".equals(event.getAccountNumber())) {
+                seen.add(event);
+            }
+        });
+        try {
+            assertTrue(BankData.depositAsync(account, 40, "test").get(10, TimeUnit.SECONDS));
+        } finally {
+            unsubscribe.run();
+            BankEventBus.publish(BankEvent.customerDeleted(owner.getCustomerId()));
+        }
+
+        assertEquals(1, seen.size());
+        BankEvent event = seen.get(0);
+        assertAll(
+                () -> assertEquals(BankEvent.Type.ACCOUNT_CREDITED, event.getType()),
+                () -> assertEquals(40, event.getAmount(), 1e-9),
+                () -> assertEquals("CEVT-3", event.getCustomerId()));
+    }
+}
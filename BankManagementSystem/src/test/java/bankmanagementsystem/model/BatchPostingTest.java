@@ -0,0 +1,93 @@
+package bankmanagementsystem.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchPostingTest {
+
+    @Test
+    void debitCanSpendACreditEarlierInTheSameFile() throws Exception {
+        Customer owner = new PersonalCustomer("CBAT-1", "Kago", "Moyo", "Gaborone", "IDBAT-1");
+        ChequeAccount account = new ChequeAccount("BAT-1", owner, "Main", 50, "Employer", "Plot 1");
+        owner.addAccount(account);
+        assertTrue(BankData.addCustomer(owner).get(10, TimeUnit.SECONDS));
+        try {
+            List<PostingResult> results = BatchPosting.post(List.of(
+                    Posting.credit("BAT-1", 100, "refund"),
+                    Posting.debit("BAT-1", 120, "rent"),
+                    Posting.debit("BAT-1", 500, "too much"),
+                    Posting.credit("BAT-NONE", 10, "nowhere")), "test");
+
+            assertEquals(PostingResult.Status.APPLIED, results.get(0).getStatus());
+            assertEquals(PostingResult.Status.APPLIED, results.get(1).getStatus());
+            assertEquals(PostingResult.Status.REJECTED, results.get(2).getStatus());
+            assertEquals("account not found", results.get(3).getMessage());
+            assertEquals(30, account.getBalance(), 1e-9);
+        } finally {
+            BankEventBus.publish(BankEvent.customerDeleted(owner.getCustomerId()));
+        }
+    }
+
+    @Test
+    void accountWhoseWriteFailsIsRolledBackAlone() throws Exception {
+        Customer saved = new PersonalCustomer("CBAT-2", "Saved", "Owner", "Maun", "IDBAT-2");
+        SavingsAccount kept = new SavingsAccount("BAT-2", saved, "Main", 0);
+        saved.addAccount(kept);
+        assertTrue(BankData.addCustomer(saved).get(10, TimeUnit.SECONDS));
+        // Only in memory, so the repository has no row to update
+        Customer unsaved = new PersonalCustomer("CBAT-3", "Lost", "Owner", "Maun", "IDBAT-3");
+        ChequeAccount lost = new ChequeAccount("BAT-3", unsaved, "Main", 200, "Employer", "Plot 2");
+        unsaved.addAccount(lost);
+        BankData.getCustomers().add(unsaved);
+        try {
+            List<PostingResult> results = BatchPosting.post(List.of(
+                    Posting.credit("BAT-2", 75, "salary"),
+                    Posting.debit("BAT-3", 40, "card")), "test");
+
+            assertEquals(PostingResult.Status.APPLIED, results.get(0).getStatus());
+            assertEquals(PostingResult.Status.FAILED, results.get(1).getStatus());
+            assertEquals(75, kept.getBalance(), 1e-9);
+            assertEquals(200, lost.getBalance(), 1e-9);
+        } finally {
+            BankData.getCustomers().remove(unsaved);
+            BankEventBus.publish(BankEvent.customerDeleted(saved.getCustomerId()));
+        }
+    }
+
+    @Test
+    void postingFileKeepsBadLinesForTheResults(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("postings.csv");
+        Files.write(file, List.of(
+                "account,type,amount,reference",
+                "# March corrections",
+                "ACC000001,credit,125.50,refund",
+                "ACC000002,D,20",
+                "",
+                "ACC000003,transfer,10,unknown type",
+                "ACC000004,CREDIT,ten"), StandardCharsets.UTF_8);
+
+        List<Posting> postings = BatchPosting.parsePostingFile(file);
+
+        assertEquals(4, postings.size());
+        assertEquals(Posting.Type.CREDIT, postings.get(0).getType());
+        assertEquals(125.50, postings.get(0).getAmount(), 1e-9);
+        assertEquals("refund", postings.get(0).getReference());
+        assertEquals(Posting.Type.DEBIT, postings.get(1).getType());
+        assertNull(postings.get(2).getType());
+        assertTrue(Double.isNaN(postings.get(3).getAmount()));
+
+        List<PostingResult> results = BatchPosting.post(postings.subList(2, 4), "test");
+        assertEquals("missing posting type", results.get(0).getMessage());
+        assertEquals("amount must be greater than 0", results.get(1).getMessage());
+    }
+}
@@ -0,0 +1,84 @@
+package bankmanagementsystem.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void everyAddedValueIsFound() {
+        BloomFilter filter = new BloomFilter(20_000, 0.01);
+        for (int i = 0; i < 20_000; i++) {
+            filter.add("user" + i + "@example.com");
+        }
+        for (int i = 0; i < 20_000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@example.com"), "lost user" + i);
+        }
+    }
+
+    @Test
+    void falsePositivesStayNearTheConfiguredRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("taken-" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("free-" + i)) {
+                falsePositives++;
+            }
+        }
+        // 1% target; allow for hash variance but catch a filter that says yes to everything
+        assertTrue(falsePositives < 2_000, falsePositives + " false positives in 100000 lookups");
+    }
+
+    @Test
+    void concurrentAddsDoNotLoseBits() throws Exception {
+        BloomFilter filter = new BloomFilter(40_000, 0.01);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] writers = new Future<?>[4];
+            for (int t = 0; t < writers.length; t++) {
+                int offset = t;
+                writers[t] = pool.submit(() -> {
+                    for (int i = offset; i < 40_000; i += 4) {
+                        filter.add("name" + i);
+                    }
+                });
+            }
+            for (Future<?> writer : writers) {
+                writer.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        for (int i = 0; i < 40_000; i++) {
+            assertTrue(filter.mightContain("name" + i), "lost name" + i);
+        }
+    }
+
+    @Test
+    void credentialFiltersIgnoreCaseAndSurroundingSpace() {
+        CredentialFilters.build(List.of(new CustomerCredentials("CBLM-1", "Thabo", "secret", "Thabo@Mail.co.bw")));
+        try {
+            assertFalse(CredentialFilters.isUsernameDefinitelyAvailable("thabo"));
+            assertFalse(CredentialFilters.isUsernameDefinitelyAvailable("  THABO "));
+            assertFalse(CredentialFilters.isEmailDefinitelyAvailable("thabo@mail.co.bw"));
+            assertTrue(CredentialFilters.isUsernameDefinitelyAvailable("lesedi"));
+
+            CredentialFilters.record("Lesedi", "lesedi@mail.co.bw");
+            assertFalse(CredentialFilters.isUsernameDefinitelyAvailable("lesedi"));
+            assertFalse(CredentialFilters.isEmailDefinitelyAvailable("LESEDI@mail.co.bw"));
+        } finally {
+            CredentialFilters.build(BankData.getCredentials());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package bankmanagementsystem.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The customer browser pages by keyset, and a page that cannot be read must fail instead of looking empty
+ */
+class CustomerPagingTest {
+
+    @Test
+    void unreadablePageThrows() {
+        // The tests run on the in-memory repositories, so there is no database to read from
+        assertThrows(IllegalStateException.class, () ->
+                CustomerDAO.loadCustomersPage(null, 10, null, CustomerRow.SortKey.CUSTOMER_ID, true));
+    }
+
+    @Test
+    void matchedCustomersArePagedInSortOrder() {
+        for (int i = 1; i <= 3; i++) {
+            Repositories.customers().save(new PersonalCustomer("CPG-" + i, "Page", "Zulu" + (4 - i), "Gaborone", "IDPG-" + i));
+        }
+        List<String> matches = List.of("CPG-1", "CPG-3", "CPG-2");
+
+        List<CustomerRow> first = Repositories.customers().loadPage(null, 2, matches, CustomerRow.SortKey.LAST_NAME, true);
+        List<CustomerRow> second = Repositories.customers().loadPage(first.get(1), 2, matches, CustomerRow.SortKey.LAST_NAME, true);
+
+        assertEquals(List.of("CPG-3", "CPG-2"), List.of(first.get(0).getCustomerId(), first.get(1).getCustomerId()));
+        assertEquals(1, second.size());
+        assertEquals("CPG-1", second.get(0).getCustomerId());
+        assertTrue(Repositories.customers().loadPage(null, 10, List.of(), CustomerRow.SortKey.LAST_NAME, true).isEmpty());
+    }
+
+    @Test
+    void wholeBookPagesFollowUpdatedSortValues() {
+        Customer moved = new PersonalCustomer("CPG-W1", "Page", "Aardvark", "Gaborone", "IDPG-W1");
+        Repositories.customers().save(moved);
+        Repositories.customers().save(new PersonalCustomer("CPG-W2", "Page", "Aardwolf", "Gaborone", "IDPG-W2"));
+        moved.setLastName("Aaron");
+        Repositories.customers().save(moved);
+
+        List<CustomerRow> first = Repositories.customers().loadPage(null, 1, null, CustomerRow.SortKey.LAST_NAME, true);
+        List<CustomerRow> second = Repositories.customers().loadPage(first.get(0), 1, null, CustomerRow.SortKey.LAST_NAME, true);
+        List<CustomerRow> last = Repositories.customers().loadPage(null, 1, null, CustomerRow.SortKey.LAST_NAME, false);
+
+        assertEquals("CPG-W2", first.get(0).getCustomerId());
+        assertEquals("CPG-W1", second.get(0).getCustomerId());
+        assertNotEquals("CPG-W2", last.get(0).getCustomerId(), "descending order starts at the other end");
+    }
+}
@@ -0,0 +1,58 @@
+package bankmanagementsystem.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Type-ahead search matches by prefix and small typos, ranks exact words first, and forgets removed customers
+ */
+class CustomerSearchIndexTest {
+
+    private static CustomerSearchIndex index() {
+        return CustomerSearchIndex.build(List.of(
+                new PersonalCustomer("CSI-1", "Thabo", "Mokoena", "Gaborone", "ID-77"),
+                new PersonalCustomer("CSI-2", "Thato", "Mokgosi", "Maun", "ID-78"),
+                new CompanyCustomer("CSI-3", "Neo", "Mokoena", "Kasane", "Mokoena Holdings", "Plot 3")));
+    }
+
+    @Test
+    void prefixAndTypoQueriesMatch() {
+        CustomerSearchIndex index = index();
+
+        assertEquals(List.of("CSI-1", "CSI-2"), index.search("tha mok", 10));
+        assertEquals(List.of("CSI-1", "CSI-3"), index.search("mokoena", 10));
+        assertEquals(List.of("CSI-1"), index.search("thabo mokeona", 10));
+        assertEquals(List.of("CSI-3"), index.search("holdings", 10));
+    }
+
+    @Test
+    void exactSearchSkipsPrefixMatches() {
+        CustomerSearchIndex index = index();
+
+        assertEquals(List.of("CSI-1"), index.searchExact("Thabo Mokoena", 10));
+        assertTrue(index.searchExact("Thab Mokoena", 10).isEmpty());
+    }
+
+    @Test
+    void removedAndUpdatedCustomersLeaveTheResults() {
+        CustomerSearchIndex index = index();
+        Customer renamed = new PersonalCustomer("CSI-2", "Thato", "Seretse", "Maun", "ID-78");
+
+        index.remove("CSI-1");
+        index.put(renamed);
+
+        assertEquals(List.of("CSI-3"), index.search("mokoena", 10));
+        assertEquals(List.of("CSI-2"), index.search("seretse", 10));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void tokenizeLowercasesAndStripsAccents() {
+        assertArrayEquals(new String[] {"jose", "nunez", "id", "9"}, CustomerSearchIndex.tokenize("José Núñez, ID-9"));
+    }
+}
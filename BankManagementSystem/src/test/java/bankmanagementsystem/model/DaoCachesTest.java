@@ -0,0 +1,83 @@
+package bankmanagementsystem.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Invalidation must win over loads that were already running, and must only drop the affected entries
+ */
+class DaoCachesTest {
+
+    @Test
+    void loadRacingAnInvalidationIsNotCached() {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 100, 60_000);
+
+        // The write commits and invalidates while the load is still reading the old row
+        String loaded = cache.get("k", key -> {
+            cache.invalidate(key);
+            return "old";
+        });
+
+        assertEquals("old", loaded);
+        assertNull(cache.getIfPresent("k"), "the old row must not be cached");
+        assertEquals("new", cache.get("k", key -> "new"));
+    }
+
+    @Test
+    void invalidatingCredentialsDropsOnlyThatCustomer() {
+        CustomerCredentials first = new CustomerCredentials("CDC-1", "first", "secret", "first@example.com");
+        CustomerCredentials second = new CustomerCredentials("CDC-2", "second", "secret", "second@example.com");
+        DaoCaches.CREDENTIALS_BY_CUSTOMER.get("CDC-1", id -> first);
+        DaoCaches.CREDENTIALS_BY_CUSTOMER.get("CDC-2", id -> second);
+
+        DaoCaches.invalidateCredentials("CDC-1");
+
+        assertNull(DaoCaches.CREDENTIALS_BY_CUSTOMER.getIfPresent("CDC-1"));
+        assertNotNull(DaoCaches.CREDENTIALS_BY_CUSTOMER.getIfPresent("CDC-2"));
+    }
+
+    @Test
+    void invalidatingAnAccountDropsItsOwnersList() {
+        AccountDAO.Row row = new AccountDAO.Row("DC-3", "CDC-3", "SavingsAccount", 100, "Main", false, null, null);
+        DaoCaches.ACCOUNTS_BY_NUMBER.get("DC-3", n -> row);
+        DaoCaches.ACCOUNTS_BY_CUSTOMER.get("CDC-3", id -> List.of(row));
+
+        // The owner is not passed, so it is taken from the cached row
+        DaoCaches.invalidateAccount("DC-3", null);
+
+        assertNull(DaoCaches.ACCOUNTS_BY_NUMBER.getIfPresent("DC-3"));
+        assertNull(DaoCaches.ACCOUNTS_BY_CUSTOMER.getIfPresent("CDC-3"));
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        // queryAccountsByCustomerId answers null on a SQLException
+        assertNull(DaoCaches.ACCOUNTS_BY_CUSTOMER.get("CDC-4", id -> null));
+        assertNull(DaoCaches.ACCOUNTS_BY_CUSTOMER.getIfPresent("CDC-4"));
+    }
+
+    @Test
+    void cachedRowIsOwnedByWhicheverCustomerAsks() {
+        AccountDAO.Row row = new AccountDAO.Row("DC-5", "CDC-5", "ChequeAccount", 250, "Main", true,
+                "Acme", "Plot 1");
+        Customer evicted = new PersonalCustomer("CDC-5", "Cache", "Owner", "Gaborone", "IDDC-5");
+        Customer reloaded = new PersonalCustomer("CDC-5", "Cache", "Owner", "Gaborone", "IDDC-5");
+
+        Account before = row.toAccount(List.of(evicted));
+        Account after = row.toAccount(List.of(reloaded));
+
+        assertSame(reloaded, after.getCustomer());
+        assertNotSame(before, after);
+        assertTrue(after.isClosed());
+        assertEquals("Acme", ((ChequeAccount) after).getEmployerName());
+        assertNull(row.toAccount(List.of()), "no owner among the customers");
+    }
+}
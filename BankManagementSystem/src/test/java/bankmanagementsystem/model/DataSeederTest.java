@@ -0,0 +1,85 @@
+package bankmanagementsystem.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DataSeederTest {
+
+    // Rows the seeder generates for a range of customer numbers
+    static class Rows {
+        final List<Object[]> customers = new ArrayList<>();
+        final List<Object[]> accounts = new ArrayList<>();
+        final List<Object[]> credentials = new ArrayList<>();
+        final List<Object[]> links = new ArrayList<>();
+
+        Rows(DataSeeder seeder, int first, int last, boolean reversed) {
+            for (int i = 0; i <= last - first; i++) {
+                seeder.generate(reversed ? last - i : first + i, customers, accounts, credentials, links);
+            }
+        }
+    }
+
+    @Test
+    void customerRowsDependOnlyOnSeedAndNumber() {
+        Rows forwards = new Rows(new DataSeeder(42, 1000, 100, false), 1, 200, false);
+        // Another thread count means chunks arrive in another order
+        Rows backwards = new Rows(new DataSeeder(42, 1000, 7, true), 1, 200, true);
+
+        for (int i = 0; i < 200; i++) {
+            assertArrayEquals(forwards.customers.get(i), backwards.customers.get(199 - i));
+            assertArrayEquals(forwards.credentials.get(i), backwards.credentials.get(199 - i));
+        }
+        assertEquals(forwards.accounts.size(), backwards.accounts.size());
+
+        Rows otherSeed = new Rows(new DataSeeder(43, 1000, 100, false), 1, 200, false);
+        int same = 0;
+        for (int i = 0; i < 200; i++) {
+            if (Arrays.equals(forwards.customers.get(i), otherSeed.customers.get(i))) {
+                same++;
+            }
+        }
+        assertEquals(0, same, "another seed must give another book");
+    }
+
+    @Test
+    void rowsFitTheirTables() {
+        Rows rows = new Rows(new DataSeeder(7, 5000, 1000, false), 1, 5000, false);
+
+        for (Object[] row : rows.customers) assertEquals(CustomerDAO.TABLE.columns.length, row.length);
+        for (Object[] row : rows.accounts) assertEquals(AccountDAO.TABLE.columns.length, row.length);
+        for (Object[] row : rows.credentials) assertEquals(CustomerCredentialsDAO.TABLE.columns.length, row.length);
+        for (Object[] row : rows.links) assertEquals(CustomerDAO.LINKS_TABLE.columns.length, row.length);
+        assertEquals("C00000042", rows.customers.get(41)[0]);
+        assertEquals("user42", rows.credentials.get(41)[1]);
+    }
+
+    @Test
+    void seededAccountsRespectTheProductRules() {
+        int customers = 5000;
+        Rows rows = new Rows(new DataSeeder(11, customers, 1000, false), 1, customers, false);
+
+        for (Object[] account : rows.accounts) {
+            double balance = (Double) account[3];
+            if ("InvestmentAccount".equals(account[2])) {
+                assertTrue(balance >= 500, account[0] + " opened with " + balance);
+            }
+            assertEquals(balance, Math.round(balance * 100) / 100.0, 1e-9, "balance in whole cents");
+        }
+        for (Object[] link : rows.links) {
+            String owner = (String) link[0];
+            String linked = (String) link[1];
+            int other = Integer.parseInt(linked.substring(3, 11));
+            assertNotEquals(Integer.parseInt(owner.substring(1)), other, owner + " linked to its own account");
+            // Every customer has account 00, so the link always resolves
+            assertTrue(other >= 1 && other <= customers, linked);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package bankmanagementsystem.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Blocks over the size limit are skipped by the inline check and the batch scan alike
+ */
+class DuplicateDetectorTest {
+
+    // More customers in one town than the batch scan will pair up, none of them alike
+    private static List<Customer> crowdedTown() {
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            customers.add(new PersonalCustomer("CDD-" + i, "Person" + i, "Surname" + i, "Plot 1 Main Mall Gaborone", "IDDD-" + i));
+        }
+        return customers;
+    }
+
+    @Test
+    void matchOutsideTheCrowdedBlockIsStillFound() {
+        List<Customer> customers = crowdedTown();
+        customers.add(new Customer("CDD-X", "Kagiso", "Molefe", "Plot 1 Main Mall Gaborone"));
+        DuplicateDetector detector = DuplicateDetector.build(customers);
+
+        // The address block is over the limit; the name block holds only CDD-X
+        List<DuplicateDetector.Candidate> candidates =
+                detector.findDuplicates(new Customer(null, "Kagiso", "Molefe", "Plot 1 Main Mall Gaborone"));
+
+        assertEquals(1, candidates.size());
+        assertEquals("CDD-X", candidates.get(0).getCustomerId());
+        assertTrue(DuplicateDetector.build(crowdedTown()).scanAll().isEmpty());
+    }
+
+    @Test
+    void addressWithRepeatedWordsIsScored() {
+        DuplicateDetector detector = DuplicateDetector.build(List.of(
+                new Customer("CDD-R1", "Lesego", "Kgosi", "Plot 1, Block 1, Gaborone"),
+                new Customer("CDD-R2", "Lesego", "Kgosi", "Plot 1, Block 1, Gaborone")));
+
+        assertEquals(2, detector.findDuplicates(new Customer(null, "Lesego", "Kgosi", "Plot 1, Block 1, Gaborone")).size());
+        assertEquals(1, detector.scanAll().size());
+    }
+
+    @Test
+    void removedCustomerIsNotReported() {
+        DuplicateDetector detector = DuplicateDetector.build(List.of(
+                new PersonalCustomer("CDD-A", "Neo", "Dube", "Francistown", "IDDD-A")));
+        PersonalCustomer probe = new PersonalCustomer(null, "Neo", "Dube", "Francistown", "IDDD-A");
+        assertEquals(1, detector.findDuplicates(probe).size());
+
+        detector.remove("CDD-A");
+
+        assertTrue(detector.findDuplicates(probe).isEmpty());
+    }
+
+    @Test
+    void deletedCustomerLeavesTheIndexes() {
+        Customer customer = new PersonalCustomer("CDD-D", "Tumelo", "Sithole", "Maun", "IDDD-D");
+        BankData.addCustomer(customer).join();
+        assertEquals(1, BankData.findPossibleDuplicates("Tumelo", "Sithole", "Maun", "PERSONAL", "IDDD-D").size());
+
+        // What CustomerDAO.deleteCustomer publishes once the row is gone
+        BankEventBus.publish(BankEvent.customerDeleted("CDD-D"));
+
+        assertTrue(BankData.findPossibleDuplicates("Tumelo", "Sithole", "Maun", "PERSONAL", "IDDD-D").isEmpty());
+        assertNull(BankData.findCustomerById("CDD-D"));
+    }
+}
@@ -0,0 +1,92 @@
+package bankmanagementsystem.model;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlightEventsTest {
+
+    @Test
+    void depositAndInterestRunShowUpInARecording() throws Exception {
+        Customer owner = new PersonalCustomer("CJFR-1", "Flight", "Recorder", "Gaborone", "IDJFR-1");
+        SavingsAccount account = new SavingsAccount("JFR-1", owner, "Main", 20_000);
+        owner.addAccount(account);
+        assertTrue(BankData.addCustomer(owner).get(10, TimeUnit.SECONDS));
+
+        List<RecordedEvent> events = new ArrayList<>();
+        Path dump = Files.createTempFile("bank-events", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : new String[] {"Posting", "PersistenceFlush", "InterestChunk", "AuditBatchWrite"}) {
+                recording.enable("bankmanagementsystem." + name).withoutThreshold();
+            }
+            recording.start();
+            assertTrue(BankData.depositAsync(account, 2_500, "test").get(10, TimeUnit.SECONDS));
+            BankData.applyAutomaticInterest().get(10, TimeUnit.SECONDS);
+            AuditLogger.flush();
+            recording.stop();
+            recording.dump(dump);
+            events.addAll(RecordingFile.readAllEvents(dump));
+        } finally {
+            Files.deleteIfExists(dump);
+            BankEventBus.publish(BankEvent.customerDeleted(owner.getCustomerId()));
+        }
+
+        RecordedEvent posting = firstPosting(events, "JFR-1");
+        assertEquals("credit", posting.getString("direction"));
+        assertEquals("1k-10k", posting.getString("amountBucket"));
+        assertEquals("SavingsAccount", posting.getString("accountType"));
+        assertTrue(posting.getDuration("latency").toNanos() > 0);
+
+        assertFalse(named(events, "bankmanagementsystem.PersistenceFlush").isEmpty(), "the deposit's write");
+        assertFalse(named(events, "bankmanagementsystem.AuditBatchWrite").isEmpty(), "the deposit's audit record");
+        int processed = 0;
+        for (RecordedEvent chunk : named(events, "bankmanagementsystem.InterestChunk")) {
+            processed += chunk.getInt("processed");
+        }
+        assertTrue(processed >= 1, "interest chunks processed " + processed + " accounts");
+    }
+
+    @Test
+    void amountsAreBucketedNotRecorded() {
+        assertEquals("<10", FlightEvents.amountBucket(9.99));
+        assertEquals("10-100", FlightEvents.amountBucket(-10));
+        assertEquals("100-1k", FlightEvents.amountBucket(999.5));
+        assertEquals("10k-100k", FlightEvents.amountBucket(10_000));
+        assertEquals(">=100k", FlightEvents.amountBucket(-250_000));
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = new ArrayList<>();
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals(name)) {
+                matching.add(event);
+            }
+        }
+        return matching;
+    }
+
+    // The interest run credits the account too, after the deposit
+    private static RecordedEvent firstPosting(List<RecordedEvent> events, String accountNumber) {
+        List<RecordedEvent> matching = new ArrayList<>();
+        for (RecordedEvent event : named(events, "bankmanagementsystem.Posting")) {
+            if (accountNumber.equals(event.getString("accountNumber"))) {
+                matching.add(event);
+            }
+        }
+        assertFalse(matching.isEmpty(), "no posting for " + accountNumber);
+        matching.sort(Comparator.comparing(RecordedEvent::getEndTime));
+        return matching.get(0);
+    }
+}
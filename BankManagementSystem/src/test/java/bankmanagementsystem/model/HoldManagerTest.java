@@ -0,0 +1,98 @@
+package bankmanagementsystem.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HoldManagerTest {
+    private static int next;
+
+    private Customer owner;
+    private ChequeAccount account;
+
+    @BeforeEach
+    void openAccount() {
+        String number = "HLD-" + (++next);
+        owner = new PersonalCustomer("C" + number, "Hold", "Owner", "Gaborone", "ID" + number);
+        account = new ChequeAccount(number, owner, "Main", 500, "Employer", "Plot 1");
+        owner.addAccount(account);
+        Repositories.accounts().save(account);
+    }
+
+    @Test
+    void holdReducesOnlyTheAvailableBalance() {
+        Hold hold = HoldManager.placeHold(account, Hold.Type.AUTHORIZATION, 200, "auth", "test").join();
+
+        assertNotNull(hold);
+        assertEquals(500, account.getLedgerBalance(), 1e-9);
+        assertEquals(300, account.getAvailableBalance(), 1e-9);
+        assertEquals(List.of(hold), HoldManager.getActiveHolds(account.getAccountNumber()));
+        assertNull(HoldManager.placeHold(account, Hold.Type.CHEQUE, 301, "cheque", "test").join(),
+                "more than the available balance");
+    }
+
+    @Test
+    void captureDebitsAndClosesTheHold() throws Exception {
+        Hold hold = HoldManager.placeHold(account, Hold.Type.AUTHORIZATION, 120, "auth", "test").join();
+
+        assertTrue(HoldManager.captureHold(hold.getHoldId(), "test").get(10, TimeUnit.SECONDS));
+
+        assertEquals(380, account.getBalance(), 1e-9);
+        assertEquals(0, account.getHeldAmount(), 1e-9);
+        assertEquals(Hold.Status.CAPTURED, hold.getStatus());
+        assertTrue(HoldManager.getActiveHolds(account.getAccountNumber()).isEmpty());
+        assertFalse(HoldManager.captureHold(hold.getHoldId(), "test").get(10, TimeUnit.SECONDS), "captured twice");
+    }
+
+    @Test
+    void failedCaptureReopensTheHold() throws Exception {
+        // An account the store has never seen: its balance write fails
+        Customer stranger = new PersonalCustomer("CHLD-X", "No", "Row", "Gaborone", "IDHLD-X");
+        ChequeAccount unsaved = new ChequeAccount("HLD-X", stranger, "Main", 100, "Employer", "Plot 1");
+        Hold hold = HoldManager.placeHold(unsaved, Hold.Type.AUTHORIZATION, 60, "auth", "test").join();
+
+        assertFalse(HoldManager.captureHold(hold.getHoldId(), "test").get(10, TimeUnit.SECONDS));
+
+        assertEquals(100, unsaved.getBalance(), 1e-9);
+        assertEquals(60, unsaved.getHeldAmount(), 1e-9);
+        assertTrue(hold.isActive());
+        assertTrue(HoldManager.releaseHold(hold.getHoldId(), "test").join());
+        assertEquals(0, unsaved.getHeldAmount(), 1e-9);
+    }
+
+    @Test
+    void lapsedHoldExpiresOnTheWheel() throws Exception {
+        Hold hold = HoldManager.placeHold(account, Hold.Type.CHEQUE, 75, "cheque 1001", "test",
+                System.currentTimeMillis() + 50).join();
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (hold.isActive() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertEquals(Hold.Status.EXPIRED, hold.getStatus());
+        assertEquals(500, account.getAvailableBalance(), 1e-9);
+        assertTrue(Repositories.holds().loadActive().stream().noneMatch(h -> h.getHoldId().equals(hold.getHoldId())));
+    }
+
+    @Test
+    void restoreReattachesStoredHolds() {
+        Hold stored = new Hold("HOLD-R" + account.getAccountNumber(), account.getAccountNumber(), Hold.Type.CHEQUE,
+                40, System.currentTimeMillis(), System.currentTimeMillis() + 60_000, "cheque 7", Hold.Status.ACTIVE);
+        assertTrue(Repositories.holds().save(stored));
+
+        HoldManager.restore(List.of(owner));
+        HoldManager.restore(List.of(owner)); // a second restore must not reserve twice
+
+        assertEquals(40, account.getHeldAmount(), 1e-9);
+        assertEquals(1, HoldManager.getActiveHolds(account.getAccountNumber()).size());
+    }
+}
@@ -0,0 +1,87 @@
+package bankmanagementsystem.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Credits to hot accounts are buffered in the slots and must be taken back when their write fails
+ */
+class HotAccountRollbackTest {
+
+    private static ChequeAccount hotAccount(String number, double balance) {
+        Customer owner = new PersonalCustomer("CHOT" + number, "Hot", "Account", "Gaborone", "ID" + number);
+        ChequeAccount account = new ChequeAccount(number, owner, "Main", balance, "Employer", "Plot 1");
+        owner.addAccount(account);
+        account.stripes = new StripedBalance(4);
+        return account;
+    }
+
+    @Test
+    void creditGoesToSlotsUntilDrained() {
+        ChequeAccount account = hotAccount("HOT-1", 100);
+
+        account.deposit(25);
+
+        assertEquals(100, account.getPostedBalance());
+        assertEquals(125, account.getBalance());
+        double[] drained = account.stripes.drain();
+        assertEquals(25, sum(drained));
+        assertNull(account.stripes.drain(), "a second drain finds nothing unsaved");
+    }
+
+    @Test
+    void undrainRetriesAmountsOfRolledBackWrite() {
+        ChequeAccount account = hotAccount("HOT-2", 0);
+        account.deposit(10);
+        double[] drained = account.stripes.drain();
+
+        account.stripes.undrain(drained);
+
+        assertArrayEquals(drained, account.stripes.drain());
+    }
+
+    @Test
+    void reverseDepositTakesCreditBackFromSlots() {
+        ChequeAccount account = hotAccount("HOT-3", 50);
+        account.deposit(30);
+
+        account.reverseDeposit(30);
+
+        assertEquals(50, account.getBalance());
+        assertEquals(50, account.getPostedBalance());
+        assertEquals(0, sum(account.stripes.drain()));
+    }
+
+    @Test
+    void failedBatchDoesNotKeepHotCredit() {
+        // Never saved to the repository, so the balance write fails
+        ChequeAccount account = hotAccount("HOT-4", 200);
+        BankData.getCustomers().add(account.getCustomer());
+        try {
+            List<PostingResult> results = BatchPosting.post(List.of(
+                    new Posting(account.getAccountNumber(), Posting.Type.CREDIT, 40, "ref"),
+                    new Posting(account.getAccountNumber(), Posting.Type.DEBIT, 15, "ref")), "test");
+
+            assertEquals(PostingResult.Status.FAILED, results.get(0).getStatus());
+            assertEquals(PostingResult.Status.FAILED, results.get(1).getStatus());
+            assertEquals(200, account.getBalance(), 1e-9);
+        } finally {
+            BankData.getCustomers().remove(account.getCustomer());
+        }
+    }
+
+    private static double sum(double[] values) {
+        double total = 0;
+        if (values != null) {
+            for (double value : values) {
+                total += value;
+            }
+        }
+        return total;
+    }
+}
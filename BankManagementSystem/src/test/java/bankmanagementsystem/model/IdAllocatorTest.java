@@ -0,0 +1,92 @@
+package bankmanagementsystem.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * IDs are unique across threads and block refills, and start above every stored ID
+ */
+class IdAllocatorTest {
+
+    @Test
+    void concurrentAllocationsAreUniqueAndStartAtTheFloor() throws Exception {
+        IdAllocator allocator = new IdAllocator("test", 7, () -> 500);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<List<Long>>> tasks = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                tasks.add(() -> {
+                    List<Long> values = new ArrayList<>();
+                    for (int i = 0; i < 250; i++) {
+                        values.add(allocator.next());
+                    }
+                    return values;
+                });
+            }
+            Set<Long> seen = new HashSet<>();
+            for (Future<List<Long>> result : pool.invokeAll(tasks)) {
+                for (long value : result.get()) {
+                    assertTrue(value >= 500, "below the floor: " + value);
+                    assertTrue(seen.add(value), "allocated twice: " + value);
+                }
+            }
+            assertEquals(1000, seen.size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void floorComesFromTheStoredRows() {
+        Repositories.customers().save(new PersonalCustomer("C9041", "Stored", "Only", "Gaborone", "IDIDA-1"));
+        Customer owner = new PersonalCustomer("CIDA-2", "Stored", "Account", "Gaborone", "IDIDA-2");
+        Repositories.accounts().save(new SavingsAccount("SA88017", owner, "Main", 0));
+
+        // Neither is in the in-memory book, which working-set mode keeps partial
+        assertTrue(IdAllocator.customerIdFloor() > 9041);
+        assertTrue(IdAllocator.accountNumberFloor() > 88017);
+    }
+
+    @Test
+    void floorIsReadOnlyForTheFirstBlock() {
+        AtomicInteger reads = new AtomicInteger();
+        IdAllocator allocator = new IdAllocator("test-floor", 2, () -> {
+            reads.incrementAndGet();
+            return 40;
+        });
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(40 + i, allocator.next());
+        }
+        assertEquals(1, reads.get());
+    }
+
+    @Test
+    void accountNumbersHaveOneWidthForEveryPrefix() {
+        String savings = IdAllocator.nextAccountNumber("SA");
+        String online = IdAllocator.nextAccountNumber("ACC");
+
+        assertEquals(IdAllocator.ACCOUNT_NUMBER_WIDTH, savings.length() - 2);
+        assertEquals(IdAllocator.ACCOUNT_NUMBER_WIDTH, online.length() - 3);
+    }
+
+    @Test
+    void numericSuffixReadsTrailingDigits() {
+        assertEquals(12, IdAllocator.numericSuffix("C012"));
+        assertEquals(4512, IdAllocator.numericSuffix("ACC004512"));
+        assertEquals(0, IdAllocator.numericSuffix("EMP"));
+        assertEquals(0, IdAllocator.numericSuffix(null));
+    }
+}
@@ -0,0 +1,78 @@
+package bankmanagementsystem.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsTest {
+
+    @Test
+    void asyncOperationIsTimedUntilItsWriteCommits() throws Exception {
+        Customer owner = new PersonalCustomer("CMET-1", "Timed", "Deposit", "Gaborone", "IDMET-1");
+        SavingsAccount account = new SavingsAccount("MET-1", owner, "Main", 0);
+        owner.addAccount(account);
+        assertTrue(BankData.addCustomer(owner).get(10, TimeUnit.SECONDS));
+        Metrics.Timer timer = Metrics.OPERATIONS.get("BankData.depositAsync");
+        long count = timer.getCount();
+        double seconds = timer.getTotalSeconds();
+
+        // Hold the persistence queue, so the deposit's write waits behind it
+        CountDownLatch release = new CountDownLatch(1);
+        PersistenceExecutor.submit("hold the queue", () -> {
+            try {
+                return release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        });
+        try {
+            CompletableFuture<Boolean> deposit = BankData.depositAsync(account, 5, "test");
+            Thread.sleep(200);
+            assertFalse(deposit.isDone());
+            assertEquals(count, timer.getCount(), "not recorded before the commit");
+            release.countDown();
+            assertTrue(deposit.get(10, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            BankEventBus.publish(BankEvent.customerDeleted(owner.getCustomerId()));
+        }
+
+        assertEquals(count + 1, timer.getCount());
+        assertTrue(timer.getTotalSeconds() - seconds >= 0.2, "the wait for the write belongs to the operation");
+    }
+
+    @Test
+    void repositoryCallsAreTimedPerMethod() {
+        Metrics.Timer timer = Metrics.REPOSITORY.get("CredentialsRepository.count");
+        long before = timer.getCount();
+
+        Repositories.credentials().count();
+        Repositories.credentials().count();
+
+        assertEquals(before + 2, timer.getCount());
+        assertTrue(Metrics.all().contains(timer));
+    }
+
+    @Test
+    void timerKeepsTheDistributionOfItsDurations() {
+        Metrics.Timer timer = Metrics.timer("bank_metrics_test_seconds", "Durations recorded by MetricsTest");
+        for (int i = 0; i < 90; i++) {
+            timer.record(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        for (int i = 0; i < 10; i++) {
+            timer.record(TimeUnit.MILLISECONDS.toNanos(250));
+        }
+
+        assertEquals(100, timer.getCount());
+        assertEquals(2.59, timer.getTotalSeconds(), 1e-9);
+        assertEquals(1_000, LatencyHistogram.percentile(timer.getHistogram(), 0.5), 70);
+        assertEquals(250_000, LatencyHistogram.percentile(timer.getTotalHistogram(), 0.95), 16_000);
+        assertEquals(0, LatencyHistogram.percentile(new long[LatencyHistogram.BUCKETS], 0.99));
+    }
+}
@@ -0,0 +1,70 @@
+package bankmanagementsystem.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The dashboard tiles read everything from {@link OperationsMetrics#sample()}, one window at a time
+ */
+class OperationsMetricsTest {
+
+    @Test
+    void latenciesBelongToTheWindowTheyWereRecordedIn() {
+        Customer owner = new PersonalCustomer("COPS-1", "Ops", "Tile", "Gaborone", "IDOPS-1");
+        SavingsAccount account = new SavingsAccount("OPS-1", owner, "Tlokweng", 0);
+        OperationsMetrics.sample();
+
+        for (int i = 0; i < 98; i++) {
+            OperationsMetrics.recordPosting(account, 10, 2_000_000);
+        }
+        OperationsMetrics.recordPosting(account, 10, 400_000_000);
+        OperationsMetrics.recordPosting(account, -5, 400_000_000);
+        OperationsMetrics.Snapshot busy = OperationsMetrics.sample();
+        OperationsMetrics.Snapshot idle = OperationsMetrics.sample();
+
+        // Log-linear buckets are about 6% wide
+        assertEquals(2.0, busy.getP50Millis(), 0.15);
+        assertEquals(400.0, busy.getP99Millis(), 25.0);
+        assertTrue(busy.getTransactionsPerSecond() > 0);
+        assertEquals(0, idle.getP99Millis(), 1e-9);
+    }
+
+    @Test
+    void onlyCreditsCountTowardsBranchDeposits() {
+        Customer owner = new PersonalCustomer("COPS-2", "Ops", "Branch", "Kasane", "IDOPS-2");
+        ChequeAccount account = new ChequeAccount("OPS-2", owner, "Kasane (ops test)", 0, "Employer", "Plot 2");
+
+        OperationsMetrics.recordPosting(account, 250, 1_000);
+        OperationsMetrics.recordPosting(account, -100, 1_000);
+        OperationsMetrics.recordPosting(account, 50, 1_000);
+
+        assertEquals(300, OperationsMetrics.sample().getDepositsByBranch().get("Kasane (ops test)"), 1e-9);
+    }
+
+    @Test
+    void interestTileFollowsARun() throws Exception {
+        OperationsMetrics.interestRunStarted(4);
+        OperationsMetrics.interestProcessed(1);
+        OperationsMetrics.Snapshot running = OperationsMetrics.sample();
+        assertTrue(running.isInterestRunning());
+        assertEquals(0.25, running.getInterestProgress(), 1e-9);
+
+        Customer owner = new PersonalCustomer("COPS-3", "Ops", "Interest", "Maun", "IDOPS-3");
+        SavingsAccount account = new SavingsAccount("OPS-3", owner, "Main", 1000);
+        owner.addAccount(account);
+        assertTrue(BankData.addCustomer(owner).get(10, TimeUnit.SECONDS));
+        try {
+            BankData.applyAutomaticInterest().get(10, TimeUnit.SECONDS);
+        } finally {
+            BankEventBus.publish(BankEvent.customerDeleted(owner.getCustomerId()));
+        }
+        OperationsMetrics.Snapshot finished = OperationsMetrics.sample();
+        assertFalse(finished.isInterestRunning());
+        assertEquals(1.0, finished.getInterestProgress(), 1e-9);
+    }
+}
@@ -0,0 +1,95 @@
+package bankmanagementsystem.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PayrollRunTest {
+    private CompanyCustomer acme;
+    private CompanyCustomer globex;
+    private PersonalCustomer employee;
+    private ChequeAccount acmeFunding;
+    private InvestmentAccount globexFunding;
+    private ChequeAccount salary;
+
+    @BeforeEach
+    void openBooks() throws Exception {
+        acme = new CompanyCustomer("CPAY-1", "Acme", "Ltd", "Gaborone", "Acme Mining", "Plot 5");
+        acmeFunding = new ChequeAccount("PAY-ACME", acme, "main", 10_000, "Acme Mining", "Plot 5");
+        acme.addAccount(acmeFunding);
+        globex = new CompanyCustomer("CPAY-2", "Globex", "Ltd", "Francistown", "Globex", "Plot 9");
+        globexFunding = new InvestmentAccount("PAY-GLOBEX", globex, "main", 50_000);
+        globex.addAccount(globexFunding);
+        employee = new PersonalCustomer("CPAY-3", "Neo", "Sello", "Maun", "IDPAY-3");
+        salary = new ChequeAccount("PAY-NEO", employee, "main", 0, "  ACME   mining ", "Plot 5");
+        employee.addAccount(salary);
+        for (Customer customer : List.of(acme, globex, employee)) {
+            assertTrue(BankData.addCustomer(customer).get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @AfterEach
+    void closeBooks() {
+        for (Customer customer : List.of(acme, globex, employee)) {
+            BankEventBus.publish(BankEvent.customerDeleted(customer.getCustomerId()));
+        }
+    }
+
+    @Test
+    void anotherCompanysAccountCannotFundThePayroll() {
+        PayrollReport report = PayrollRun.run("Acme Mining", "PAY-GLOBEX",
+                List.of(new PayrollRun.Line(1, "PAY-NEO", 1200, "March")), "test");
+
+        assertEquals(PayrollReport.Status.ABORTED, report.getStatus());
+        assertTrue(report.getMessage().contains("Globex"), report.getMessage());
+        assertEquals(50_000, globexFunding.getBalance(), 1e-9);
+        assertEquals(0, salary.getBalance(), 1e-9);
+    }
+
+    @Test
+    void payrollLargerThanTheFundingAccountPostsNothing() {
+        PayrollReport report = PayrollRun.run("Acme Mining", "PAY-ACME",
+                List.of(new PayrollRun.Line(1, "PAY-NEO", 25_000, "bonus")), "test");
+
+        assertEquals(PayrollReport.Status.ABORTED, report.getStatus());
+        assertEquals(10_000, acmeFunding.getBalance(), 1e-9);
+        assertEquals(0, salary.getBalance(), 1e-9);
+        assertEquals(0, report.getCreditedCount());
+    }
+
+    @Test
+    void badLinesAreReportedAndTheRestIsPosted() {
+        PayrollReport report = PayrollRun.run("acme mining", "PAY-ACME", List.of(
+                new PayrollRun.Line(1, "PAY-NEO", 1500, "March"),
+                new PayrollRun.Line(2, "PAY-GLOBEX", 300, "not an employee"),
+                new PayrollRun.Line(3, "PAY-NOBODY", 200, "unknown"),
+                new PayrollRun.Line(4, "PAY-NEO", Double.NaN, "garbled")), "test");
+
+        assertEquals(PayrollReport.Status.POSTED, report.getStatus());
+        assertEquals(3, report.getExceptions().size(), report.toString());
+        assertEquals(1, report.getCreditedCount());
+        assertTrue(report.isBalanced());
+        assertEquals(1500, salary.getBalance(), 1e-9);
+        assertEquals(8_500, acmeFunding.getBalance(), 1e-9);
+        assertEquals(1500, Repositories.accounts().findByCustomerId("CPAY-3", List.of(employee)).get(0).getBalance(), 1e-9);
+    }
+
+    @Test
+    void accountsOpenedLaterArePayableWithoutARebuild() throws Exception {
+        ChequeAccount second = new ChequeAccount("PAY-NEO-2", employee, "main", 0, "Acme Mining", "Plot 5");
+        assertTrue(BankData.openAccountAsync(employee, second, "test").get(10, TimeUnit.SECONDS));
+
+        assertSame(second, BankData.getEmployerIndex().find("Acme Mining", "PAY-NEO-2"));
+        PayrollReport report = PayrollRun.run("Acme Mining", "PAY-ACME",
+                List.of(new PayrollRun.Line(1, "PAY-NEO-2", 700, "March")), "test");
+        assertEquals(PayrollReport.Status.POSTED, report.getStatus());
+        assertEquals(700, second.getBalance(), 1e-9);
+    }
+}
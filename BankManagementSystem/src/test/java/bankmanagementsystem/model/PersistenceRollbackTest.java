@@ -0,0 +1,111 @@
+package bankmanagementsystem.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Background writes copy their rows on the caller's thread, and undo failed changes on the owner thread
+ */
+class PersistenceRollbackTest {
+
+    @Test
+    void failedDepositIsReversedOnTheOwnerThread() throws Exception {
+        Customer owner = new PersonalCustomer("CPRB-1", "Roll", "Back", "Gaborone", "IDPRB-1");
+        // Never saved to the repository, so the balance write fails
+        ChequeAccount account = new ChequeAccount("PRB-1", owner, "Main", 100, "Employer", "Plot 1");
+        owner.addAccount(account);
+        ExecutorService ownerThread = Executors.newSingleThreadExecutor(r -> new Thread(r, "owner"));
+        AtomicInteger ownerTasks = new AtomicInteger();
+        PersistenceExecutor.setOwnerExecutor(task -> ownerThread.execute(() -> {
+            ownerTasks.incrementAndGet();
+            task.run();
+        }));
+        try {
+            CompletableFuture<Boolean> deposit = BankData.depositAsync(account, 25, "test");
+
+            assertFalse(deposit.get(10, TimeUnit.SECONDS));
+            assertEquals(100, account.getBalance(), 1e-9);
+            assertEquals(1, ownerTasks.get());
+        } finally {
+            PersistenceExecutor.setOwnerExecutor(Runnable::run);
+            ownerThread.shutdown();
+        }
+    }
+
+    @Test
+    void uncommittedInterestIsTakenBack() throws Exception {
+        Customer owner = new PersonalCustomer("CPRB-3", "Interest", "Run", "Gaborone", "IDPRB-3");
+        // Never saved to the repository, so the interest write fails
+        SavingsAccount account = new SavingsAccount("PRB-3", owner, "Main", 1000);
+        owner.addAccount(account);
+        BankData.getCustomers().add(owner);
+        try {
+            assertFalse(BankData.applyAutomaticInterest().get(10, TimeUnit.SECONDS));
+            assertEquals(1000, account.getBalance(), 1e-9);
+        } finally {
+            BankData.getCustomers().remove(owner);
+        }
+    }
+
+    @Test
+    void fullSaveWritesTheStateAtSubmission() throws Exception {
+        Customer customer = new PersonalCustomer("CPRB-2", "Before", "Change", "Gaborone", "IDPRB-2");
+        CountDownLatch release = new CountDownLatch(1);
+        PersistenceExecutor.submit("hold the queue", () -> {
+            try {
+                return release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        });
+
+        CompletableFuture<Boolean> save = PersistenceExecutor.saveAllData(List.of(customer), List.of());
+        customer.setFirstName("After");
+        release.countDown();
+
+        assertTrue(save.get(10, TimeUnit.SECONDS));
+        assertEquals("Before", Repositories.customers().findById("CPRB-2").getFirstName());
+    }
+
+    @Test
+    void changingOneCustomerWritesOnlyThatCustomer() throws Exception {
+        Customer bystander = new PersonalCustomer("CPRB-4", "Not", "Saved", "Gaborone", "IDPRB-4");
+        Customer added = new PersonalCustomer("CPRB-5", "Just", "Added", "Gaborone", "IDPRB-5");
+        BankData.getCustomers().add(bystander);
+        try {
+            assertTrue(BankData.addCustomer(added).get(10, TimeUnit.SECONDS));
+
+            assertEquals("Just", Repositories.customers().findById("CPRB-5").getFirstName());
+            assertNull(Repositories.customers().findById("CPRB-4"), "the rest of the book is not rewritten");
+        } finally {
+            BankData.getCustomers().remove(bystander);
+        }
+    }
+
+    @Test
+    void balanceAdjustmentIsPostedAsTheDifference() throws Exception {
+        Customer owner = new PersonalCustomer("CPRB-6", "Adjusted", "Balance", "Gaborone", "IDPRB-6");
+        ChequeAccount account = new ChequeAccount("PRB-6", owner, "Main", 400, "Employer", "Plot 1");
+        assertTrue(BankData.addCustomer(owner).get(10, TimeUnit.SECONDS));
+        assertTrue(BankData.openAccountAsync(owner, account, "E-1").get(10, TimeUnit.SECONDS));
+
+        assertTrue(BankData.updateAccountBalance("PRB-6", 250, "E-1").get(10, TimeUnit.SECONDS));
+        assertFalse(BankData.updateAccountBalance("PRB-missing", 250, "E-1").get(10, TimeUnit.SECONDS));
+
+        assertEquals(250, account.getBalance(), 1e-9);
+        Account stored = Repositories.accounts().findByCustomerId("CPRB-6", List.of(owner)).get(0);
+        assertEquals(250, stored.getBalance(), 1e-9);
+    }
+}
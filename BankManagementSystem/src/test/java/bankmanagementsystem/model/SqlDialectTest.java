@@ -0,0 +1,49 @@
+package bankmanagementsystem.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bulk loads keep the uniqueness checks a table's secondary unique keys rely on
+ */
+class SqlDialectTest {
+
+    @Test
+    void uniqueChecksStayOnForTablesWithSecondaryUniqueKeys() {
+        List<String> accounts = List.of(SqlDialect.MYSQL.beginBulkLoad(AccountDAO.TABLE));
+        List<String> withCredentials = List.of(SqlDialect.MYSQL.beginBulkLoad(AccountDAO.TABLE, CustomerCredentialsDAO.TABLE));
+
+        assertTrue(accounts.contains("SET unique_checks = 0"));
+        assertFalse(withCredentials.contains("SET unique_checks = 0"));
+        assertTrue(withCredentials.contains("SET foreign_key_checks = 0"));
+    }
+
+    @Test
+    void bothDialectsLoadFiles() {
+        assertTrue(SqlDialect.MYSQL.loadFile(CustomerDAO.LINKS_TABLE, "/tmp/links.csv").startsWith("LOAD DATA LOCAL INFILE"));
+        assertTrue(SqlDialect.H2.loadFile(CustomerDAO.LINKS_TABLE, "/tmp/links.csv").contains("CSVREAD('/tmp/links.csv'"));
+    }
+
+    @Test
+    void numericSuffixUsesEachEnginesIntegerCast() {
+        // MySQL rejects CAST(... AS BIGINT); H2 has no UNSIGNED type
+        assertTrue(SqlDialect.MYSQL.numericSuffix("customer_id").endsWith("AS UNSIGNED)"));
+        assertTrue(SqlDialect.H2.numericSuffix("customer_id").endsWith("AS BIGINT)"));
+    }
+
+    @Test
+    void eachEngineReportsAnExistingIndexWithItsOwnCode() {
+        SQLException mysql = new SQLException("Duplicate key name 'idx_customers_type'", "42000", 1061);
+        SQLException h2 = new SQLException("Index \"IDX_CUSTOMERS_TYPE\" already exists", "42S11", 42111);
+
+        assertTrue(SqlDialect.MYSQL.isDuplicateIndex(mysql));
+        assertTrue(SqlDialect.H2.isDuplicateIndex(h2));
+        assertFalse(SqlDialect.H2.isDuplicateIndex(mysql));
+        assertFalse(SqlDialect.H2.isDuplicateIndex(new SQLException("Table \"CUSTOMERS\" not found", "42S02", 42102)));
+    }
+}
@@ -0,0 +1,154 @@
+package bankmanagementsystem.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs with -Dbank.sql.profile=true (see the surefire configuration) against a stub driver whose
+ * queries return {@link #ROWS} rows and take {@link #delayMillis} each
+ */
+class SqlProfilerTest {
+    private static final int ROWS = 3;
+
+    private long delayMillis;
+    private DataSource dataSource;
+
+    @BeforeEach
+    void stubDriver() {
+        Connection connection = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "prepareStatement":
+                            return statement(PreparedStatement.class);
+                        case "createStatement":
+                            return statement(Statement.class);
+                        default:
+                            return null;
+                    }
+                });
+        dataSource = SqlProfiler.wrap((DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(),
+                new Class<?>[] { DataSource.class }, (proxy, method, args) -> connection));
+    }
+
+    private Object statement(Class<?> type) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "executeQuery":
+                    Thread.sleep(delayMillis);
+                    return resultSet();
+                case "executeUpdate":
+                    Thread.sleep(delayMillis);
+                    return 1;
+                case "executeBatch":
+                    return new int[] { 1 };
+                default:
+                    return method.getReturnType() == boolean.class ? false : null;
+            }
+        });
+    }
+
+    private static ResultSet resultSet() {
+        int[] left = { ROWS };
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+                (proxy, method, args) -> method.getName().equals("next") ? left[0]-- > 0 : null);
+    }
+
+    private static SqlProfiler.StatementStats stats(String normalizedSql) {
+        for (SqlProfiler.StatementStats stats : SqlProfiler.statements()) {
+            if (stats.getSql().equals(normalizedSql)) {
+                return stats;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    void literalsInlinedIntoSqlAggregateAsOneStatement() throws SQLException {
+        try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
+            for (String id : new String[] { "'C1'", "'O''Brien'", "42" }) {
+                try (ResultSet rs = stmt.executeQuery("SELECT * FROM profiled_customers\n  WHERE customer_id = " + id)) {
+                    while (rs.next()) {
+                        // drain
+                    }
+                }
+            }
+        }
+
+        SqlProfiler.StatementStats stats = stats("SELECT * FROM profiled_customers WHERE customer_id = ?");
+        assertNotNull(stats, SqlProfiler.statements().toString());
+        assertEquals(3, stats.getCount());
+        assertEquals(3 * ROWS, stats.getRows());
+    }
+
+    @Test
+    void normalizationCollapsesListsAndRows() {
+        assertEquals("SELECT * FROM accounts WHERE account_number IN (?...) AND balance > ?",
+                SqlProfiler.normalize("SELECT * FROM accounts WHERE account_number IN (?, ?, ?) AND balance > 10.5"));
+        assertEquals("INSERT INTO holds VALUES (?, ?), ...",
+                SqlProfiler.normalize("INSERT INTO holds VALUES (?, ?), (?, ?), (?,?)"));
+        // Digits inside identifiers are not literals
+        assertEquals("SELECT col1 FROM t2 WHERE x = ?", SqlProfiler.normalize("SELECT col1 FROM t2 WHERE x = -3"));
+    }
+
+    @Test
+    void repeatedQueryInOneOperationIsFlaggedOnce() throws SQLException {
+        try (SqlProfiler.Operation operation = SqlProfiler.operation("load customer page");
+             Connection conn = dataSource.getConnection()) {
+            for (int i = 0; i < 25; i++) {
+                try (PreparedStatement stmt = conn.prepareStatement("SELECT * FROM profiled_accounts WHERE customer_id = ?")) {
+                    stmt.setString(1, "C" + i);
+                    stmt.executeQuery();
+                }
+            }
+        }
+
+        assertEquals(1, stats("SELECT * FROM profiled_accounts WHERE customer_id = ?").getNPlusOneFlags());
+    }
+
+    @Test
+    void batchedWritesAreNotAnNPlusOne() throws SQLException {
+        try (SqlProfiler.Operation operation = SqlProfiler.operation("post batch");
+             Connection conn = dataSource.getConnection()) {
+            for (int i = 0; i < 25; i++) {
+                try (PreparedStatement stmt = conn.prepareStatement("UPDATE profiled_balances SET balance = ? WHERE id = ?")) {
+                    stmt.setDouble(1, i);
+                    stmt.setString(2, "A" + i);
+                    stmt.addBatch();
+                    stmt.executeBatch();
+                }
+            }
+        }
+
+        SqlProfiler.StatementStats stats = stats("UPDATE profiled_balances SET balance = ? WHERE id = ?");
+        assertEquals(25, stats.getCount());
+        assertEquals(0, stats.getNPlusOneFlags());
+    }
+
+    @Test
+    void slowExecutionsAreCounted() throws SQLException {
+        Metrics.Counter slow = Metrics.counter("bank_sql_slow_executions_total", "SQL executions slower than the slow-query threshold");
+        long before = slow.getCount();
+        delayMillis = 120;
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("DELETE FROM profiled_holds WHERE expires_at < ?")) {
+            stmt.setNull(1, java.sql.Types.TIMESTAMP);
+            stmt.executeUpdate();
+        }
+
+        assertEquals(before + 1, slow.getCount());
+        assertTrue(stats("DELETE FROM profiled_holds WHERE expires_at < ?").getPercentileMillis(0.5) >= 100);
+    }
+}
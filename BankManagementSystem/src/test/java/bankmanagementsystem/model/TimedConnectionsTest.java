@@ -0,0 +1,59 @@
+package bankmanagementsystem.model;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimedConnectionsTest {
+
+    private int physicalCloses;
+
+    private DataSource pool() {
+        Connection connection = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        physicalCloses++;
+                    }
+                    return method.getName().equals("isClosed") ? physicalCloses > 0 : null;
+                });
+        return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(),
+                new Class<?>[] { DataSource.class }, (proxy, method, args) -> connection);
+    }
+
+    @Test
+    void connectionIsTimedUnderTheMethodThatOpenedIt() throws SQLException {
+        Metrics.Timer timer = Metrics.DAO.get("TimedConnectionsTest.connectionIsTimedUnderTheMethodThatOpenedIt");
+        long before = timer.getCount();
+
+        Connection connection = TimedConnections.open(pool());
+        assertEquals(before, timer.getCount(), "still open");
+        connection.close();
+        connection.close();
+
+        assertEquals(before + 1, timer.getCount());
+        assertEquals(2, physicalCloses, "every call still reaches the pooled connection");
+        assertTrue(connection.isClosed());
+    }
+
+    @Test
+    void failedCheckoutIsRecordedAndRethrown() {
+        Metrics.Timer timer = Metrics.DAO.get("TimedConnectionsTest.failedCheckoutIsRecordedAndRethrown");
+        long before = timer.getCount();
+        DataSource down = (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(),
+                new Class<?>[] { DataSource.class }, (proxy, method, args) -> {
+                    throw new SQLException("pool exhausted");
+                });
+
+        SQLException e = assertThrows(SQLException.class, () -> TimedConnections.open(down));
+
+        assertEquals("pool exhausted", e.getMessage());
+        assertEquals(before + 1, timer.getCount());
+    }
+}
@@ -0,0 +1,114 @@
+package bankmanagementsystem.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs with -Dbank.trace=true and the trace written to bank.trace.file (see the surefire configuration)
+ */
+class TracingTest {
+    private static final Pattern EVENT = Pattern.compile(
+            "\"name\":\"((?:[^\"\\\\]|\\\\.)*)\",\"cat\":\"(\\w+)\".*\"traceId\":\"(\\w+)\",\"spanId\":\"(\\w+)\",\"parentId\":\"(\\w*)\"");
+
+    @Test
+    void depositIsTracedFromTheActionToTheRepository() throws Exception {
+        Customer owner = new PersonalCustomer("CTRC-1", "Trace", "Me", "Gaborone", "IDTRC-1");
+        SavingsAccount account = new SavingsAccount("TRC-1", owner, "Main", 0);
+        owner.addAccount(account);
+        assertTrue(BankData.addCustomer(owner).get(10, TimeUnit.SECONDS));
+
+        String traceId;
+        CompletableFuture<Boolean> deposit;
+        Tracing.Span root = Tracing.root("TracingTest.handleDeposit");
+        try {
+            traceId = root.traceId;
+            deposit = BankData.depositAsync(account, 10, "test");
+        } finally {
+            root.end();
+        }
+        try {
+            assertTrue(deposit.get(10, TimeUnit.SECONDS));
+        } finally {
+            BankEventBus.publish(BankEvent.customerDeleted(owner.getCustomerId()));
+        }
+
+        Map<String, String[]> spans = awaitSpans(traceId, "repository");
+        String[] repository = null;
+        for (String[] span : spans.values()) {
+            if (span[1].equals("repository")) {
+                repository = span;
+            }
+        }
+        assertNotNull(repository, "no repository span in " + traceId);
+        // Walk up from the storage call to the button handler, across the persistence thread
+        List<String> path = new ArrayList<>();
+        for (String[] span = repository; span != null; span = spans.get(span[4])) {
+            path.add(span[1]);
+        }
+        assertEquals("ui", path.get(path.size() - 1), "path " + path);
+        assertTrue(path.contains("persistence"), "path " + path);
+        assertTrue(path.contains("operation"), "path " + path);
+    }
+
+    @Test
+    void untracedThreadsGetNoSpans() {
+        Metrics.Sample sample = Metrics.REPOSITORY.start("TracingTest.untraced");
+        try {
+            assertNull(Tracing.capture());
+        } finally {
+            sample.stop();
+        }
+
+        Tracing.Span root = Tracing.root("TracingTest.\"quoted\" action");
+        try {
+            Tracing.Span child = Tracing.child("TracingTest.child", "repository");
+            assertSame(child, Tracing.capture());
+            child.end();
+            assertSame(root, Tracing.capture());
+        } finally {
+            root.end();
+        }
+        assertNull(Tracing.capture());
+    }
+
+    // Spans of one trace by span id: {name, category, traceId, spanId, parentId}
+    private static Map<String, String[]> awaitSpans(String traceId, String category) throws IOException, InterruptedException {
+        Path file = Path.of(System.getProperty("bank.trace.file"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (true) {
+            Map<String, String[]> spans = new HashMap<>();
+            boolean found = false;
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                Matcher event = EVENT.matcher(line);
+                if (event.find() && event.group(3).equals(traceId)) {
+                    String[] span = { event.group(1), event.group(2), event.group(3), event.group(4), event.group(5) };
+                    spans.put(span[3], span);
+                    found |= span[1].equals(category);
+                }
+            }
+            if (found || System.nanoTime() > deadline) {
+                return spans;
+            }
+            // The writer appends in the background about once a second
+            Thread.sleep(100);
+        }
+    }
+}
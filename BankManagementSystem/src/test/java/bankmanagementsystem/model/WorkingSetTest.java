@@ -0,0 +1,76 @@
+package bankmanagementsystem.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Eviction writes back exactly the residents that changed since they were last written
+ */
+class WorkingSetTest {
+
+    private static Customer saved(String customerId) {
+        Customer customer = new PersonalCustomer(customerId, "Working", "Set", "Gaborone", "ID" + customerId);
+        Repositories.customers().save(customer);
+        return customer;
+    }
+
+    @Test
+    void changedResidentIsWrittenBeforeEviction() {
+        saved("CWS-1");
+        saved("CWS-2");
+        WorkingSet workingSet = new WorkingSet(1);
+
+        workingSet.get("CWS-1").setAddress("Francistown");
+        workingSet.get("CWS-2");
+        // The write-back runs on the persistence thread; the customer stays resident until it commits
+        assertTrue(PersistenceExecutor.flush(10_000));
+
+        assertNull(workingSet.getIfResident("CWS-1"));
+        assertEquals("Francistown", Repositories.customers().findById("CWS-1").getAddress());
+        assertEquals(1, workingSet.getWriteBackCount());
+    }
+
+    @Test
+    void bulkUpdateDoesNotCleanALaterChange() {
+        saved("CWS-3");
+        saved("CWS-4");
+        WorkingSet workingSet = new WorkingSet(1);
+        Customer customer = workingSet.get("CWS-3");
+
+        long before = customer.changeCount();
+        customer.markChanged(); // the bulk update's own change
+        customer.setAddress("Maun"); // a change the bulk update did not write
+        workingSet.markClean(customer, before, before + 1);
+        workingSet.get("CWS-4");
+        assertTrue(PersistenceExecutor.flush(10_000));
+
+        assertEquals("Maun", Repositories.customers().findById("CWS-3").getAddress());
+    }
+
+    @Test
+    void holdFollowsItsAccountBackIn() throws Exception {
+        Customer owner = saved("CWS-5");
+        Repositories.accounts().save(new ChequeAccount("WS-5", owner, "Main", 400, "Employer", "Plot 1"));
+        saved("CWS-6");
+        WorkingSet workingSet = new WorkingSet(1);
+        Account before = workingSet.get("CWS-5").getAccounts().get(0);
+        Hold hold = HoldManager.placeHold(before, Hold.Type.AUTHORIZATION, 150, "auth", "test").get(10, TimeUnit.SECONDS);
+        assertNotNull(hold);
+
+        workingSet.get("CWS-6"); // a hold no longer pins its customer
+        assertNull(workingSet.getIfResident("CWS-5"));
+        Account after = workingSet.get("CWS-5").getAccounts().get(0);
+
+        assertNotSame(before, after);
+        assertEquals(250, after.getAvailableBalance(), 1e-9);
+        assertTrue(HoldManager.releaseHold(hold.getHoldId(), "test").get(10, TimeUnit.SECONDS));
+        assertEquals(400, after.getAvailableBalance(), 1e-9);
+    }
+}